@@ -1,4 +1,4 @@
-DROP TABLE IF EXISTS Users, Exchanges, Stocks, Rates, Dividends, Statistics, Transactions;
+DROP TABLE IF EXISTS Users, Exchanges, Exchange_Holidays, Stocks, Rates, Dividends, Statistics, Transactions, Portfolio_Snapshots, Price_History, Portfolio_Returns, Portfolio_Risks, Idempotency_Keys, Schema_Migrations, Data_Versions;
 
 CREATE TABLE Users (
     user_id SERIAL PRIMARY KEY,
@@ -14,7 +14,16 @@ CREATE TABLE Exchanges (
     exchange_id SERIAL PRIMARY KEY,
     exchange CITEXT UNIQUE,
     country_code CHAR(2),
-    suffix CITEXT UNIQUE
+    suffix CITEXT UNIQUE,
+    time_zone VARCHAR(40),
+    open_time CHAR(5),
+    close_time CHAR(5)
+);
+
+CREATE TABLE Exchange_Holidays (
+    exchange_id INT,
+    holiday_date DATE,
+    PRIMARY KEY (exchange_id, holiday_date)
 );
 
 CREATE TABLE Stocks (
@@ -45,6 +54,14 @@ CREATE TABLE Dividends (
     payout DECIMAL(38,20)
 );
 
+-- One dividend per stock and ex date, which is what both manual entry and provider ingestion dedupe on
+CREATE UNIQUE INDEX uq_dividends_stock_ex_date ON Dividends (stock_id, ex_date);
+
+-- Ids are allocated in blocks of 50 by Hibernate's pooled optimizer so inserts can be batched
+ALTER SEQUENCE stocks_stock_id_seq INCREMENT BY 50;
+ALTER SEQUENCE rates_rate_id_seq INCREMENT BY 50;
+ALTER SEQUENCE dividends_dividend_id_seq INCREMENT BY 50;
+
 CREATE TABLE Statistics (
     statistic_id SERIAL PRIMARY KEY,
     user_id INT,
@@ -56,6 +73,8 @@ CREATE TABLE Statistics (
     unrealized_profits VARCHAR(255),
     dividends_earned VARCHAR(255),
     total_profits VARCHAR(255),
+    time_weighted_return VARCHAR(255),
+    money_weighted_return VARCHAR(255),
     CONSTRAINT unique_user_stock_id UNIQUE (user_id, stock_id)
 );
 
@@ -69,4 +88,108 @@ CREATE TABLE Transactions (
     unit_price DECIMAL(38, 20),
     fees DECIMAL(38, 20),
     currency CHAR(3)
-);
\ No newline at end of file
+);
+
+ALTER SEQUENCE transactions_transaction_id_seq INCREMENT BY 50;
+
+CREATE TABLE Portfolio_Snapshots (
+    snapshot_id SERIAL PRIMARY KEY,
+    user_id INT,
+    stock_id INT,
+    snapshot_date DATE,
+    total_units DECIMAL(38, 20),
+    units_bought DECIMAL(38, 20),
+    total_cost DECIMAL(38, 20),
+    total_value DECIMAL(38, 20),
+    realized_profits DECIMAL(38, 20),
+    unrealized_profits DECIMAL(38, 20),
+    dividends_earned DECIMAL(38, 20),
+    total_profits DECIMAL(38, 20),
+    CONSTRAINT unique_user_stock_snapshot_date UNIQUE (user_id, stock_id, snapshot_date)
+);
+
+CREATE INDEX idx_portfolio_snapshots_user_date ON Portfolio_Snapshots (user_id, snapshot_date);
+
+CREATE TABLE Price_History (
+    stock_id INT,
+    price_date DATE,
+    open_price DECIMAL(38, 20),
+    high_price DECIMAL(38, 20),
+    low_price DECIMAL(38, 20),
+    close_price DECIMAL(38, 20),
+    adjusted_close_price DECIMAL(38, 20),
+    volume BIGINT,
+    PRIMARY KEY (stock_id, price_date)
+) PARTITION BY RANGE (price_date);
+
+DO $$
+BEGIN
+    FOR year IN 2000..2035 LOOP
+        EXECUTE format('CREATE TABLE Price_History_%s PARTITION OF Price_History FOR VALUES FROM (%L) TO (%L)', year, make_date(year, 1, 1), make_date(year + 1, 1, 1));
+    END LOOP;
+END $$;
+
+CREATE TABLE Price_History_Default PARTITION OF Price_History DEFAULT;
+
+CREATE TABLE Portfolio_Returns (
+    user_id INT PRIMARY KEY,
+    display_currency CHAR(3),
+    time_weighted_return VARCHAR(255),
+    money_weighted_return VARCHAR(255),
+    xirr_iterations INT,
+    xirr_converged BOOLEAN,
+    computed_at TIMESTAMP
+);
+
+CREATE TABLE Portfolio_Risks (
+    user_id INT PRIMARY KEY,
+    benchmark_stock_id INT,
+    last_return_date DATE,
+    holdings_fingerprint VARCHAR(64),
+    observations BIGINT,
+    mean_return DOUBLE PRECISION,
+    return_m2 DOUBLE PRECISION,
+    paired_observations BIGINT,
+    paired_mean_return DOUBLE PRECISION,
+    benchmark_mean_return DOUBLE PRECISION,
+    benchmark_m2 DOUBLE PRECISION,
+    co_moment DOUBLE PRECISION,
+    wealth DOUBLE PRECISION,
+    peak_wealth DOUBLE PRECISION,
+    quantile_state VARCHAR(1000),
+    volatility VARCHAR(255),
+    max_drawdown DOUBLE PRECISION,
+    beta VARCHAR(255),
+    value_at_risk VARCHAR(255),
+    value_at_risk_amount VARCHAR(255),
+    computed_at TIMESTAMP
+);
+
+CREATE TABLE Idempotency_Keys (
+    endpoint VARCHAR(100),
+    idempotency_key VARCHAR(255),
+    request_hash CHAR(64),
+    lease_token CHAR(36),
+    status_code INT,
+    response_body TEXT,
+    created_at TIMESTAMP,
+    locked_until TIMESTAMP,
+    expires_at TIMESTAMP,
+    PRIMARY KEY (endpoint, idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON Idempotency_Keys (expires_at);
+
+CREATE TABLE Schema_Migrations (
+    name VARCHAR(100) PRIMARY KEY,
+    applied_at TIMESTAMP
+);
+
+-- A fresh schema has no statistics stored in display currency, so the startup recompute is marked as done
+INSERT INTO Schema_Migrations (name, applied_at) VALUES ('statistics-native-currency', now());
+
+CREATE TABLE Data_Versions (
+    scope VARCHAR(64) PRIMARY KEY,
+    version BIGINT NOT NULL,
+    modified_at TIMESTAMPTZ NOT NULL
+);
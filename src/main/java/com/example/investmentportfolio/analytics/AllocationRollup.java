@@ -0,0 +1,62 @@
+package com.example.investmentportfolio.analytics;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+// Sums of position figures per group, kept as primitive arrays indexed by the metric constants
+public final class AllocationRollup {
+    public static final int VALUE = 0;
+    public static final int COST = 1;
+    public static final int UNREALIZED_PROFITS = 2;
+    public static final int REALIZED_PROFITS = 3;
+    public static final int DIVIDENDS_EARNED = 4;
+    public static final int TOTAL_PROFITS = 5;
+    public static final int METRICS = 6;
+
+    public enum Dimension {
+        STOCK_TYPE,
+        EXCHANGE,
+        CURRENCY
+    }
+
+    private final Map<Dimension, Map<String, double[]>> groups = new EnumMap<>(Dimension.class);
+    private final double[] totals = new double[METRICS];
+
+    public AllocationRollup() {
+        for (Dimension dimension : Dimension.values()) {
+            groups.put(dimension, new HashMap<>());
+        }
+    }
+
+    public void add(String stockType, String exchange, String currency, double[] metrics) {
+        accumulate(groups.get(Dimension.STOCK_TYPE).computeIfAbsent(stockType, key -> new double[METRICS]), metrics, 1);
+        accumulate(groups.get(Dimension.EXCHANGE).computeIfAbsent(exchange, key -> new double[METRICS]), metrics, 1);
+        accumulate(groups.get(Dimension.CURRENCY).computeIfAbsent(currency, key -> new double[METRICS]), metrics, 1);
+        accumulate(totals, metrics, 1);
+    }
+
+    // Scaling lets rollups in different display currencies be merged into one reporting currency
+    public void merge(AllocationRollup other, double scale) {
+        for (Dimension dimension : Dimension.values()) {
+            Map<String, double[]> target = groups.get(dimension);
+            other.groups.get(dimension).forEach((group, metrics) -> accumulate(target.computeIfAbsent(group, key -> new double[METRICS]), metrics, scale));
+        }
+        accumulate(totals, other.totals, scale);
+    }
+
+    public Map<String, double[]> groups(Dimension dimension) {
+        return Collections.unmodifiableMap(groups.get(dimension));
+    }
+
+    public double total(int metric) {
+        return totals[metric];
+    }
+
+    private static void accumulate(double[] target, double[] metrics, double scale) {
+        for (int i = 0; i < METRICS; i++) {
+            target[i] += metrics[i] * scale;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.investmentportfolio.analytics;
+
+// Amounts are signed from the investor's side, so contributions are negative and withdrawals, income and the closing value positive
+public record CashFlows(double[] years, double[] amounts) {
+    public int size() {
+        return amounts.length;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.investmentportfolio.analytics;
+
+public final class Cholesky {
+    private static final double[] JITTERS = {0, 1e-10, 1e-8, 1e-6, 1e-4};
+
+    private Cholesky() {
+    }
+
+    // Sample correlation matrices can be slightly indefinite, so a growing ridge is added before giving up
+    public static double[][] decompose(double[][] matrix) {
+        for (double jitter : JITTERS) {
+            double[][] lower = tryDecompose(matrix, jitter);
+            if (lower != null) {
+                return lower;
+            }
+        }
+        throw new IllegalArgumentException("Matrix is not positive definite.");
+    }
+
+    private static double[][] tryDecompose(double[][] matrix, double jitter) {
+        int n = matrix.length;
+        double[][] lower = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= i; j++) {
+                double sum = matrix[i][j] + (i == j ? jitter : 0);
+                for (int k = 0; k < j; k++) {
+                    sum -= lower[i][k] * lower[j][k];
+                }
+                if (i == j) {
+                    if (sum <= 0) {
+                        return null;
+                    }
+                    lower[i][i] = Math.sqrt(sum);
+                } else {
+                    lower[i][j] = sum / lower[j][j];
+                }
+            }
+        }
+        return lower;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.investmentportfolio.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+// Infers a payout cadence from the median gap between ex dates and rolls it forward, taking each amount from the
+// payment one year earlier so interim and final dividends keep their own sizes
+public final class DividendProjector {
+    private static final int MAX_GAPS = 8;
+
+    public enum Cadence {
+        MONTHLY(1),
+        QUARTERLY(3),
+        SEMI_ANNUAL(6),
+        ANNUAL(12);
+
+        private final int months;
+
+        Cadence(int months) {
+            this.months = months;
+        }
+
+        public int months() {
+            return months;
+        }
+
+        public int paymentsPerYear() {
+            return 12 / months;
+        }
+
+        static Cadence fromGapDays(double gapDays) {
+            if (gapDays <= 45) {
+                return MONTHLY;
+            } else if (gapDays <= 135) {
+                return QUARTERLY;
+            } else if (gapDays <= 270) {
+                return SEMI_ANNUAL;
+            }
+            return ANNUAL;
+        }
+    }
+
+    public record PastDividend(LocalDate exDate, LocalDate payDate, BigDecimal payout) {
+    }
+
+    public record ProjectedDividend(LocalDate exDate, LocalDate payDate, BigDecimal payout) {
+    }
+
+    public record Projection(Cadence cadence, List<ProjectedDividend> dividends) {
+    }
+
+    private DividendProjector() {
+    }
+
+    // Stocks whose last ex date is more than two periods before the window are treated as having stopped paying
+    public static Projection project(List<PastDividend> history, LocalDate from, LocalDate to) {
+        if (history.isEmpty()) {
+            return new Projection(null, List.of());
+        }
+        List<PastDividend> ordered = history.stream()
+                .sorted(Comparator.comparing(PastDividend::exDate))
+                .toList();
+        int n = ordered.size();
+        Cadence cadence = Cadence.ANNUAL;
+        if (n > 1) {
+            int gaps = Math.min(MAX_GAPS, n - 1);
+            long[] gapDays = new long[gaps];
+            for (int i = 0; i < gaps; i++) {
+                gapDays[i] = ChronoUnit.DAYS.between(ordered.get(n - 2 - i).exDate(), ordered.get(n - 1 - i).exDate());
+            }
+            cadence = Cadence.fromGapDays(median(gapDays));
+        }
+        LocalDate lastExDate = ordered.get(n - 1).exDate();
+        if (lastExDate.plusMonths(2L * cadence.months()).isBefore(from)) {
+            return new Projection(cadence, List.of());
+        }
+        long payLagDays = Math.round(median(ordered.subList(Math.max(0, n - MAX_GAPS), n).stream()
+                .filter(dividend -> dividend.payDate() != null)
+                .mapToLong(dividend -> ChronoUnit.DAYS.between(dividend.exDate(), dividend.payDate()))
+                .toArray()));
+
+        List<BigDecimal> payouts = new ArrayList<>(ordered.stream().map(PastDividend::payout).toList());
+        List<ProjectedDividend> projected = new ArrayList<>();
+        for (int k = 1; ; k++) {
+            LocalDate exDate = lastExDate.plusMonths((long) k * cadence.months());
+            if (exDate.isAfter(to)) {
+                break;
+            }
+            int sameSlotLastYear = n - 1 + k - cadence.paymentsPerYear();
+            BigDecimal payout = sameSlotLastYear >= 0 ? payouts.get(sameSlotLastYear) : payouts.get(n - 1);
+            payouts.add(payout);
+            if (!exDate.isBefore(from)) {
+                projected.add(new ProjectedDividend(exDate, exDate.plusDays(payLagDays), payout));
+            }
+        }
+        return new Projection(cadence, List.copyOf(projected));
+    }
+
+    private static double median(long[] values) {
+        if (values.length == 0) {
+            return 0;
+        }
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2.0;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.investmentportfolio.analytics;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Geometric Brownian motion per position, optionally with shocks correlated through a Cholesky factor
+public final class MonteCarloSimulator {
+    private static final int PATHS_PER_TASK = 512;
+    private static final double TRADING_DAYS_PER_YEAR = 252;
+    private final double[] initialValues;
+    private final double[] stepDrifts;
+    private final double[] stepVolatilities;
+    private final double[][] choleskyLower;
+    private final int steps;
+
+    // Drifts and volatilities are annualised; a null correlation factor simulates positions independently
+    public MonteCarloSimulator(double[] initialValues, double[] drifts, double[] volatilities, double[][] choleskyLower, int steps) {
+        this.initialValues = initialValues.clone();
+        this.steps = steps;
+        this.choleskyLower = choleskyLower;
+        double dt = 1 / TRADING_DAYS_PER_YEAR;
+        stepDrifts = new double[initialValues.length];
+        stepVolatilities = new double[initialValues.length];
+        for (int i = 0; i < initialValues.length; i++) {
+            stepDrifts[i] = (drifts[i] - 0.5 * volatilities[i] * volatilities[i]) * dt;
+            stepVolatilities[i] = volatilities[i] * Math.sqrt(dt);
+        }
+    }
+
+    // Every task splits its generator before forking, so results depend on the seed and not on the pool size
+    public double[] simulateFinalValues(int paths, long seed, ForkJoinPool pool) {
+        double[] finalValues = new double[paths];
+        pool.invoke(new PathTask(finalValues, 0, paths, new SplittableRandom(seed)));
+        return finalValues;
+    }
+
+    public static double[] percentiles(double[] values, double[] percentiles) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        double[] result = new double[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            double rank = percentiles[i] / 100 * (sorted.length - 1);
+            int lower = (int) Math.floor(rank);
+            int upper = Math.min(lower + 1, sorted.length - 1);
+            result[i] = sorted[lower] + (rank - lower) * (sorted[upper] - sorted[lower]);
+        }
+        return result;
+    }
+
+    private void simulate(double[] finalValues, int from, int to, SplittableRandom random) {
+        int n = initialValues.length;
+        double[] logValues = new double[n];
+        double[] shocks = new double[n];
+        double[] correlated = new double[n];
+        for (int path = from; path < to; path++) {
+            Arrays.fill(logValues, 0);
+            for (int step = 0; step < steps; step++) {
+                for (int i = 0; i < n; i++) {
+                    shocks[i] = gaussian(random);
+                }
+                double[] z = shocks;
+                if (choleskyLower != null) {
+                    for (int i = 0; i < n; i++) {
+                        double sum = 0;
+                        double[] row = choleskyLower[i];
+                        for (int k = 0; k <= i; k++) {
+                            sum += row[k] * shocks[k];
+                        }
+                        correlated[i] = sum;
+                    }
+                    z = correlated;
+                }
+                for (int i = 0; i < n; i++) {
+                    logValues[i] += stepDrifts[i] + stepVolatilities[i] * z[i];
+                }
+            }
+            double total = 0;
+            for (int i = 0; i < n; i++) {
+                total += initialValues[i] * Math.exp(logValues[i]);
+            }
+            finalValues[path] = total;
+        }
+    }
+
+    // Marsaglia's polar method, discarding the second deviate to keep the generator state per call simple
+    private static double gaussian(SplittableRandom random) {
+        double u;
+        double v;
+        double s;
+        do {
+            u = 2 * random.nextDouble() - 1;
+            v = 2 * random.nextDouble() - 1;
+            s = u * u + v * v;
+        } while (s >= 1 || s == 0);
+        return u * Math.sqrt(-2 * Math.log(s) / s);
+    }
+
+    private final class PathTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final double[] finalValues;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        private PathTask(double[] finalValues, int from, int to, SplittableRandom random) {
+            this.finalValues = finalValues;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PATHS_PER_TASK) {
+                simulate(finalValues, from, to, random);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            PathTask left = new PathTask(finalValues, from, middle, random.split());
+            PathTask right = new PathTask(finalValues, middle, to, random.split());
+            invokeAll(left, right);
+        }
+    }
+}
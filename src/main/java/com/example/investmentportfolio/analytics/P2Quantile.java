@@ -0,0 +1,124 @@
+package com.example.investmentportfolio.analytics;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+// Jain and Chlamtac's P-square estimator: five markers track the quantile without keeping the observations
+public final class P2Quantile {
+    private final double p;
+    private final double[] heights = new double[5];
+    private final double[] positions = new double[5];
+    private final double[] desiredPositions = new double[5];
+    private final double[] increments;
+    private long count;
+
+    public P2Quantile(double p) {
+        this.p = p;
+        this.increments = new double[]{0, p / 2, p, (1 + p) / 2, 1};
+        for (int i = 0; i < 5; i++) {
+            positions[i] = i + 1;
+        }
+        desiredPositions[0] = 1;
+        desiredPositions[1] = 1 + 2 * p;
+        desiredPositions[2] = 1 + 4 * p;
+        desiredPositions[3] = 3 + 2 * p;
+        desiredPositions[4] = 5;
+    }
+
+    public void add(double x) {
+        if (count < 5) {
+            heights[(int) count++] = x;
+            if (count == 5) {
+                Arrays.sort(heights);
+            }
+            return;
+        }
+        count++;
+        int k;
+        if (x < heights[0]) {
+            heights[0] = x;
+            k = 0;
+        } else if (x >= heights[4]) {
+            heights[4] = Math.max(heights[4], x);
+            k = 3;
+        } else {
+            k = 0;
+            while (k < 3 && x >= heights[k + 1]) {
+                k++;
+            }
+        }
+        for (int i = k + 1; i < 5; i++) {
+            positions[i]++;
+        }
+        for (int i = 0; i < 5; i++) {
+            desiredPositions[i] += increments[i];
+        }
+        for (int i = 1; i < 4; i++) {
+            double d = desiredPositions[i] - positions[i];
+            if ((d >= 1 && positions[i + 1] - positions[i] > 1) || (d <= -1 && positions[i - 1] - positions[i] < -1)) {
+                int sign = d > 0 ? 1 : -1;
+                double candidate = parabolic(i, sign);
+                heights[i] = heights[i - 1] < candidate && candidate < heights[i + 1] ? candidate : linear(i, sign);
+                positions[i] += sign;
+            }
+        }
+    }
+
+    public double getQuantile() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (count < 5) {
+            double[] sorted = Arrays.copyOf(heights, (int) count);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.min(count - 1, Math.round(p * (count - 1)))];
+        }
+        return heights[2];
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    // Persisted as "count;heights;positions;desired positions" so the estimate can be continued on the next run
+    public String toState() {
+        return count + ";" + join(heights) + ";" + join(positions) + ";" + join(desiredPositions);
+    }
+
+    public static P2Quantile fromState(double p, String state) {
+        P2Quantile quantile = new P2Quantile(p);
+        if (state == null || state.isBlank()) {
+            return quantile;
+        }
+        String[] parts = state.split(";");
+        quantile.count = Long.parseLong(parts[0]);
+        split(parts[1], quantile.heights);
+        split(parts[2], quantile.positions);
+        split(parts[3], quantile.desiredPositions);
+        return quantile;
+    }
+
+    private double parabolic(int i, int sign) {
+        return heights[i] + sign / (positions[i + 1] - positions[i - 1])
+                * ((positions[i] - positions[i - 1] + sign) * (heights[i + 1] - heights[i]) / (positions[i + 1] - positions[i])
+                + (positions[i + 1] - positions[i] - sign) * (heights[i] - heights[i - 1]) / (positions[i] - positions[i - 1]));
+    }
+
+    private double linear(int i, int sign) {
+        return heights[i] + sign * (heights[i + sign] - heights[i]) / (positions[i + sign] - positions[i]);
+    }
+
+    private static String join(double[] values) {
+        return Arrays.stream(values)
+                .mapToObj(value -> String.format(Locale.ROOT, "%.17g", value))
+                .collect(Collectors.joining(","));
+    }
+
+    private static void split(String joined, double[] target) {
+        String[] values = joined.split(",");
+        for (int i = 0; i < target.length; i++) {
+            target[i] = Double.parseDouble(values[i]);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.investmentportfolio.analytics;
+
+// One pass over daily returns: Welford moments for volatility, paired co-moments for beta,
+// a running wealth index for drawdown and a P-square marker set for historical VaR
+public final class RiskAccumulator {
+    public static final int TRADING_DAYS_PER_YEAR = 252;
+    private long count;
+    private double mean;
+    private double m2;
+    private long pairedCount;
+    private double pairedMean;
+    private double benchmarkMean;
+    private double benchmarkM2;
+    private double coMoment;
+    private double wealth = 1;
+    private double peakWealth = 1;
+    private double maxDrawdown;
+    private final P2Quantile lossQuantile;
+
+    public RiskAccumulator(double varConfidence) {
+        this.lossQuantile = new P2Quantile(1 - varConfidence);
+    }
+
+    public RiskAccumulator(double varConfidence, long count, double mean, double m2, long pairedCount, double pairedMean, double benchmarkMean,
+                           double benchmarkM2, double coMoment, double wealth, double peakWealth, double maxDrawdown, String quantileState) {
+        this.count = count;
+        this.mean = mean;
+        this.m2 = m2;
+        this.pairedCount = pairedCount;
+        this.pairedMean = pairedMean;
+        this.benchmarkMean = benchmarkMean;
+        this.benchmarkM2 = benchmarkM2;
+        this.coMoment = coMoment;
+        this.wealth = wealth;
+        this.peakWealth = peakWealth;
+        this.maxDrawdown = maxDrawdown;
+        this.lossQuantile = P2Quantile.fromState(1 - varConfidence, quantileState);
+    }
+
+    // A missing benchmark return leaves beta untouched but still counts towards the other metrics
+    public void add(double portfolioReturn, double benchmarkReturn) {
+        count++;
+        double delta = portfolioReturn - mean;
+        mean += delta / count;
+        m2 += delta * (portfolioReturn - mean);
+
+        if (Double.isFinite(benchmarkReturn)) {
+            pairedCount++;
+            double pairedDelta = portfolioReturn - pairedMean;
+            double benchmarkDelta = benchmarkReturn - benchmarkMean;
+            pairedMean += pairedDelta / pairedCount;
+            benchmarkMean += benchmarkDelta / pairedCount;
+            benchmarkM2 += benchmarkDelta * (benchmarkReturn - benchmarkMean);
+            coMoment += pairedDelta * (benchmarkReturn - benchmarkMean);
+        }
+
+        wealth *= 1 + portfolioReturn;
+        peakWealth = Math.max(peakWealth, wealth);
+        maxDrawdown = Math.max(maxDrawdown, 1 - wealth / peakWealth);
+        lossQuantile.add(portfolioReturn);
+    }
+
+    public double getAnnualizedVolatility() {
+        return count < 2 ? Double.NaN : Math.sqrt(m2 / (count - 1)) * Math.sqrt(TRADING_DAYS_PER_YEAR);
+    }
+
+    public double getBeta() {
+        return pairedCount < 2 || benchmarkM2 == 0 ? Double.NaN : coMoment / benchmarkM2;
+    }
+
+    public double getMaxDrawdown() {
+        return maxDrawdown;
+    }
+
+    // Reported as a positive fraction of the portfolio value lost on a bad day at the configured confidence
+    public double getValueAtRisk() {
+        double quantile = lossQuantile.getQuantile();
+        return Double.isNaN(quantile) ? Double.NaN : Math.max(-quantile, 0);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getM2() {
+        return m2;
+    }
+
+    public long getPairedCount() {
+        return pairedCount;
+    }
+
+    public double getPairedMean() {
+        return pairedMean;
+    }
+
+    public double getBenchmarkMean() {
+        return benchmarkMean;
+    }
+
+    public double getBenchmarkM2() {
+        return benchmarkM2;
+    }
+
+    public double getCoMoment() {
+        return coMoment;
+    }
+
+    public double getWealth() {
+        return wealth;
+    }
+
+    public double getPeakWealth() {
+        return peakWealth;
+    }
+
+    public String getQuantileState() {
+        return lossQuantile.toState();
+    }
+}
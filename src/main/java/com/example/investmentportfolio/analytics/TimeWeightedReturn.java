@@ -0,0 +1,22 @@
+package com.example.investmentportfolio.analytics;
+
+public final class TimeWeightedReturn {
+    private TimeWeightedReturn() {
+    }
+
+    // Period i runs from the value after the flows of date i - 1 to the value before the flows of date i,
+    // and periods that start from nothing (before the first buy or after a full exit) are skipped
+    public static double chainLink(double[] valuesBeforeFlows, double[] valuesAfterFlows, double endValue) {
+        double growth = 1;
+        boolean linked = false;
+        for (int i = 1; i <= valuesAfterFlows.length; i++) {
+            double start = valuesAfterFlows[i - 1];
+            double end = i < valuesBeforeFlows.length ? valuesBeforeFlows[i] : endValue;
+            if (start > 0) {
+                growth *= end / start;
+                linked = true;
+            }
+        }
+        return linked ? growth - 1 : Double.NaN;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.investmentportfolio.analytics;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+public final class XirrSolver {
+    private static final double INITIAL_GUESS = 0.1;
+    private static final double LOWER_BOUND = -0.999999999;
+    private static final double UPPER_BOUND_LIMIT = 1e6;
+
+    public record Result(double rate, int iterations, boolean converged) {
+    }
+
+    private XirrSolver() {
+    }
+
+    public static List<Result> solveAll(List<CashFlows> cashFlows, int maxIterations, double tolerance) {
+        return IntStream.range(0, cashFlows.size())
+                .parallel()
+                .mapToObj(i -> solve(cashFlows.get(i), maxIterations, tolerance))
+                .toList();
+    }
+
+    // Newton from a fixed guess, falling back to Brent on a bracketed root when Newton leaves (-1, inf) or stalls
+    public static Result solve(CashFlows cashFlows, int maxIterations, double tolerance) {
+        double[] years = cashFlows.years();
+        double[] amounts = cashFlows.amounts();
+        if (!hasSignChange(amounts)) {
+            return new Result(Double.NaN, 0, false);
+        }
+        double rate = INITIAL_GUESS;
+        double[] valueAndDerivative = new double[2];
+        int iterations = 0;
+        while (iterations < maxIterations) {
+            iterations++;
+            presentValue(years, amounts, rate, valueAndDerivative);
+            double value = valueAndDerivative[0];
+            double derivative = valueAndDerivative[1];
+            if (derivative == 0 || !Double.isFinite(value) || !Double.isFinite(derivative)) {
+                break;
+            }
+            double next = rate - value / derivative;
+            if (!Double.isFinite(next) || next <= -1) {
+                break;
+            }
+            if (Math.abs(next - rate) < tolerance) {
+                return new Result(next, iterations, true);
+            }
+            rate = next;
+        }
+        return brent(years, amounts, iterations, maxIterations, tolerance);
+    }
+
+    private static Result brent(double[] years, double[] amounts, int iterations, int maxIterations, double tolerance) {
+        double a = LOWER_BOUND;
+        double b = 1.0;
+        double fa = presentValue(years, amounts, a);
+        double fb = presentValue(years, amounts, b);
+        while (fa * fb > 0 && b < UPPER_BOUND_LIMIT && iterations < maxIterations) {
+            b *= 2;
+            fb = presentValue(years, amounts, b);
+            iterations++;
+        }
+        if (fa * fb > 0 || !Double.isFinite(fa) || !Double.isFinite(fb)) {
+            return new Result(Double.NaN, iterations, false);
+        }
+        double c = a;
+        double fc = fa;
+        double d = b - a;
+        double e = d;
+        while (iterations < maxIterations) {
+            iterations++;
+            if (fb * fc > 0) {
+                c = a;
+                fc = fa;
+                d = b - a;
+                e = d;
+            }
+            if (Math.abs(fc) < Math.abs(fb)) {
+                a = b;
+                b = c;
+                c = a;
+                fa = fb;
+                fb = fc;
+                fc = fa;
+            }
+            double tol = 2 * Math.ulp(b) + 0.5 * tolerance;
+            double m = 0.5 * (c - b);
+            if (Math.abs(m) <= tol || fb == 0) {
+                return new Result(b, iterations, true);
+            }
+            if (Math.abs(e) < tol || Math.abs(fa) <= Math.abs(fb)) {
+                d = m;
+                e = m;
+            } else {
+                double s = fb / fa;
+                double p;
+                double q;
+                if (a == c) {
+                    p = 2 * m * s;
+                    q = 1 - s;
+                } else {
+                    double r = fb / fc;
+                    q = fa / fc;
+                    p = s * (2 * m * q * (q - r) - (b - a) * (r - 1));
+                    q = (q - 1) * (r - 1) * (s - 1);
+                }
+                if (p > 0) {
+                    q = -q;
+                } else {
+                    p = -p;
+                }
+                if (2 * p < Math.min(3 * m * q - Math.abs(tol * q), Math.abs(e * q))) {
+                    e = d;
+                    d = p / q;
+                } else {
+                    d = m;
+                    e = m;
+                }
+            }
+            a = b;
+            fa = fb;
+            b += Math.abs(d) > tol ? d : (m > 0 ? tol : -tol);
+            fb = presentValue(years, amounts, b);
+        }
+        return new Result(b, iterations, false);
+    }
+
+    // One pass over the flat arrays per evaluation, with log(1 + rate) hoisted out of the loop
+    private static void presentValue(double[] years, double[] amounts, double rate, double[] valueAndDerivative) {
+        double logBase = Math.log1p(rate);
+        double value = 0;
+        double derivative = 0;
+        for (int i = 0; i < amounts.length; i++) {
+            double discounted = amounts[i] * Math.exp(-years[i] * logBase);
+            value += discounted;
+            derivative -= years[i] * discounted;
+        }
+        valueAndDerivative[0] = value;
+        valueAndDerivative[1] = derivative / (1 + rate);
+    }
+
+    private static double presentValue(double[] years, double[] amounts, double rate) {
+        double logBase = Math.log1p(rate);
+        double value = 0;
+        for (int i = 0; i < amounts.length; i++) {
+            value += amounts[i] * Math.exp(-years[i] * logBase);
+        }
+        return value;
+    }
+
+    private static boolean hasSignChange(double[] amounts) {
+        boolean positive = false;
+        boolean negative = false;
+        for (double amount : amounts) {
+            positive |= amount > 0;
+            negative |= amount < 0;
+        }
+        return positive && negative;
+    }
+}
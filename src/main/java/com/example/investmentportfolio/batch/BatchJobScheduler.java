@@ -22,13 +22,17 @@ public class BatchJobScheduler {
     private static final Logger LOGGER = LogManager.getLogger(BatchJobScheduler.class);
     private final JobLauncher jobLauncher;
     private final Job updateJob;
+    private final Job batchRetentionJob;
+    private final Job dividendIngestionJob;
 
-    public BatchJobScheduler(JobLauncher jobLauncher, Job updateJob) {
+    public BatchJobScheduler(JobLauncher jobLauncher, Job updateJob, Job batchRetentionJob, Job dividendIngestionJob) {
         this.jobLauncher = jobLauncher;
         this.updateJob = updateJob;
+        this.batchRetentionJob = batchRetentionJob;
+        this.dividendIngestionJob = dividendIngestionJob;
     }
 
-    @Scheduled(cron = "30 14 4 * * *") // Executes at 12:00 AM every day
+    @Scheduled(cron = "${batch.update.cron}", zone = "${batch.update.zone}") // Nightly statistics once the exchange close refreshes have run
     public void runBatchJob() {
         try {
             jobLauncher.run(updateJob, new JobParameters());
@@ -38,4 +42,26 @@ public class BatchJobScheduler {
             throw new GeneralException(new CustomError(ErrorConstants.INTERNAL_SERVER_ERROR_ERROR_CODE, errorMessages));
         }
     }
-}
\ No newline at end of file
+
+    @Scheduled(cron = "${batch.retention.cron}") // Prunes old Spring Batch metadata
+    public void runBatchRetentionJob() {
+        try {
+            jobLauncher.run(batchRetentionJob, new JobParameters());
+        } catch (JobExecutionException e) {
+            List<String> errorMessages = Collections.singletonList(e.getMessage());
+            LOGGER.error(errorMessages);
+            throw new GeneralException(new CustomError(ErrorConstants.INTERNAL_SERVER_ERROR_ERROR_CODE, errorMessages));
+        }
+    }
+
+    @Scheduled(cron = "${batch.dividend-ingestion.cron}") // Pulls newly declared dividends before the nightly update
+    public void runDividendIngestionJob() {
+        try {
+            jobLauncher.run(dividendIngestionJob, new JobParameters());
+        } catch (JobExecutionException e) {
+            List<String> errorMessages = Collections.singletonList(e.getMessage());
+            LOGGER.error(errorMessages);
+            throw new GeneralException(new CustomError(ErrorConstants.INTERNAL_SERVER_ERROR_ERROR_CODE, errorMessages));
+        }
+    }
+}
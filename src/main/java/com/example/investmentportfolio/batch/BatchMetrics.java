@@ -0,0 +1,107 @@
+package com.example.investmentportfolio.batch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+@Component
+public class BatchMetrics implements StepExecutionListener {
+    private static final Logger LOGGER = LogManager.getLogger(BatchMetrics.class);
+    public static final String USERS = "users";
+    public static final String POSITIONS = "positions";
+    public static final String SYMBOLS = "symbols";
+    private static final List<String> PROCESSED_KINDS = List.of(USERS, POSITIONS, SYMBOLS);
+    private final MeterRegistry meterRegistry;
+    private final Duration slowUserThreshold;
+
+    public BatchMetrics(MeterRegistry meterRegistry, @Value("${batch.metrics.slow-user-threshold:PT2S}") Duration slowUserThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowUserThreshold = slowUserThreshold;
+    }
+
+    public static void addProcessed(StepContribution contribution, String kind, long count) {
+        ExecutionContext executionContext = contribution.getStepExecution().getExecutionContext();
+        executionContext.putLong(kind, executionContext.getLong(kind, 0L) + count);
+    }
+
+    public int recordUserRecompute(StepContribution contribution, Long userId, IntSupplier recompute) {
+        String stepName = contribution.getStepExecution().getStepName();
+        long start = System.nanoTime();
+        try {
+            return recompute.getAsInt();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Timer.builder("batch.user.recompute")
+                    .description("Time taken to recompute a single user")
+                    .tag("step", stepName)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            if (elapsed > slowUserThreshold.toNanos()) {
+                LOGGER.warn("Slow recompute in {} for user id {}: {} ms", stepName, userId, TimeUnit.NANOSECONDS.toMillis(elapsed));
+            }
+        }
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        String jobName = stepExecution.getJobExecution().getJobInstance().getJobName();
+        String stepName = stepExecution.getStepName();
+        LocalDateTime startTime = stepExecution.getStartTime();
+        Duration duration = startTime != null ? Duration.between(startTime, LocalDateTime.now()) : Duration.ZERO;
+        Timer.builder("batch.step.duration")
+                .description("Duration of batch steps")
+                .tag("job", jobName)
+                .tag("step", stepName)
+                .tag("status", stepExecution.getStatus().name())
+                .register(meterRegistry)
+                .record(duration);
+        ExecutionContext executionContext = stepExecution.getExecutionContext();
+        for (String kind : PROCESSED_KINDS) {
+            long processed = executionContext.getLong(kind, 0L);
+            if (processed == 0) {
+                continue;
+            }
+            Counter.builder("batch." + kind + ".processed")
+                    .tag("job", jobName)
+                    .tag("step", stepName)
+                    .register(meterRegistry)
+                    .increment(processed);
+            double seconds = Math.max(duration.toNanos() / 1e9, 1e-3);
+            DistributionSummary.builder("batch." + kind + ".throughput")
+                    .description("Items processed per second by a step")
+                    .baseUnit(kind + "/s")
+                    .tag("job", jobName)
+                    .tag("step", stepName)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(processed / seconds);
+        }
+        for (Throwable failure : stepExecution.getFailureExceptions()) {
+            Counter.builder("batch.step.failures")
+                    .tag("job", jobName)
+                    .tag("step", stepName)
+                    .tag("exception", failure.getClass().getSimpleName())
+                    .register(meterRegistry)
+                    .increment();
+        }
+        LOGGER.info("{} finished in {} ms with status {}", stepName, duration.toMillis(), stepExecution.getStatus());
+        return stepExecution.getExitStatus();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.investmentportfolio.batch;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+public class BatchRetentionBatchConfig {
+    private final JobRepository jobRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final BatchMetrics batchMetrics;
+
+    public BatchRetentionBatchConfig(JobRepository jobRepository, PlatformTransactionManager transactionManager, BatchMetrics batchMetrics) {
+        this.jobRepository = jobRepository;
+        this.transactionManager = transactionManager;
+        this.batchMetrics = batchMetrics;
+    }
+
+    @Bean
+    public Step purgeBatchMetadataStep(PurgeBatchMetadataTasklet purgeBatchMetadataTasklet) {
+        return new StepBuilder("purgeBatchMetadataStep", jobRepository)
+                .tasklet(purgeBatchMetadataTasklet, transactionManager)
+                .listener(batchMetrics)
+                .allowStartIfComplete(true)
+                .build();
+    }
+
+    @Bean
+    public Step purgeIdempotencyKeysStep(PurgeIdempotencyKeysTasklet purgeIdempotencyKeysTasklet) {
+        return new StepBuilder("purgeIdempotencyKeysStep", jobRepository)
+                .tasklet(purgeIdempotencyKeysTasklet, transactionManager)
+                .listener(batchMetrics)
+                .allowStartIfComplete(true)
+                .build();
+    }
+
+    @Bean
+    public Job batchRetentionJob(Step purgeBatchMetadataStep, Step purgeIdempotencyKeysStep) {
+        return new JobBuilder("batchRetentionJob", jobRepository)
+                .start(purgeBatchMetadataStep)
+                .next(purgeIdempotencyKeysStep)
+                .build();
+    }
+}
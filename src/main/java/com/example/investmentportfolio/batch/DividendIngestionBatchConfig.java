@@ -0,0 +1,39 @@
+package com.example.investmentportfolio.batch;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+public class DividendIngestionBatchConfig {
+    private final JobRepository jobRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final BatchMetrics batchMetrics;
+
+    public DividendIngestionBatchConfig(JobRepository jobRepository, PlatformTransactionManager transactionManager, BatchMetrics batchMetrics) {
+        this.jobRepository = jobRepository;
+        this.transactionManager = transactionManager;
+        this.batchMetrics = batchMetrics;
+    }
+
+    @Bean
+    public Step ingestDividendsStep(IngestDividendsTasklet ingestDividendsTasklet) {
+        return new StepBuilder("ingestDividendsStep", jobRepository)
+                .tasklet(ingestDividendsTasklet, transactionManager)
+                .listener(batchMetrics)
+                .allowStartIfComplete(true)
+                .build();
+    }
+
+    @Bean
+    public Job dividendIngestionJob(Step ingestDividendsStep) {
+        return new JobBuilder("dividendIngestionJob", jobRepository)
+                .start(ingestDividendsStep)
+                .build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.investmentportfolio.batch;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+public class ExchangeCloseBatchConfig {
+    private final JobRepository jobRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final BatchMetrics batchMetrics;
+
+    public ExchangeCloseBatchConfig(JobRepository jobRepository, PlatformTransactionManager transactionManager, BatchMetrics batchMetrics) {
+        this.jobRepository = jobRepository;
+        this.transactionManager = transactionManager;
+        this.batchMetrics = batchMetrics;
+    }
+
+    @Bean
+    public Step updateExchangePricesStep(UpdateExchangePricesTasklet updateExchangePricesTasklet) {
+        return new StepBuilder("updateExchangePricesStep", jobRepository)
+                .tasklet(updateExchangePricesTasklet, transactionManager)
+                .listener(batchMetrics)
+                .allowStartIfComplete(true)
+                .build();
+    }
+
+    @Bean
+    public Job exchangeCloseJob(Step updateExchangePricesStep, Step updateRatesStep, Step revaluePositionsStep) {
+        return new JobBuilder("exchangeCloseJob", jobRepository)
+                .start(updateExchangePricesStep)
+                .next(updateRatesStep)
+                .next(revaluePositionsStep)
+                .build();
+    }
+}
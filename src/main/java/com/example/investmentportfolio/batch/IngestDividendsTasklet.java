@@ -0,0 +1,26 @@
+package com.example.investmentportfolio.batch;
+
+import com.example.investmentportfolio.service.DividendIngestionService;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+@Component
+public class IngestDividendsTasklet implements Tasklet {
+    private final DividendIngestionService dividendIngestionService;
+
+    public IngestDividendsTasklet(DividendIngestionService dividendIngestionService) {
+        this.dividendIngestionService = dividendIngestionService;
+    }
+
+    @Override
+    public RepeatStatus execute(@NonNull StepContribution contribution, @Nullable ChunkContext chunkContext) {
+        int inserted = dividendIngestionService.ingestDividends();
+        contribution.incrementWriteCount(inserted);
+        return RepeatStatus.FINISHED;
+    }
+}
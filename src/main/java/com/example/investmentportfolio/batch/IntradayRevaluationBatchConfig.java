@@ -0,0 +1,50 @@
+package com.example.investmentportfolio.batch;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+public class IntradayRevaluationBatchConfig {
+    private final JobRepository jobRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final BatchMetrics batchMetrics;
+
+    public IntradayRevaluationBatchConfig(JobRepository jobRepository, PlatformTransactionManager transactionManager, BatchMetrics batchMetrics) {
+        this.jobRepository = jobRepository;
+        this.transactionManager = transactionManager;
+        this.batchMetrics = batchMetrics;
+    }
+
+    @Bean
+    public Step updateHeldLivePricesStep(UpdateHeldLivePricesTasklet updateHeldLivePricesTasklet) {
+        return new StepBuilder("updateHeldLivePricesStep", jobRepository)
+                .tasklet(updateHeldLivePricesTasklet, transactionManager)
+                .listener(batchMetrics)
+                .allowStartIfComplete(true)
+                .build();
+    }
+
+    @Bean
+    public Step revaluePositionsStep(RevaluePositionsTasklet revaluePositionsTasklet) {
+        return new StepBuilder("revaluePositionsStep", jobRepository)
+                .tasklet(revaluePositionsTasklet, transactionManager)
+                .listener(batchMetrics)
+                .allowStartIfComplete(true)
+                .build();
+    }
+
+    @Bean
+    public Job intradayJob(Step updateHeldLivePricesStep, Step updateRatesStep, Step revaluePositionsStep) {
+        return new JobBuilder("intradayJob", jobRepository)
+                .start(updateHeldLivePricesStep)
+                .next(updateRatesStep)
+                .next(revaluePositionsStep)
+                .build();
+    }
+}
@@ -13,16 +13,28 @@ import org.springframework.transaction.PlatformTransactionManager;
 public class LiveStockPriceBatchConfig {
     private final JobRepository jobRepository;
     private final PlatformTransactionManager transactionManager;
+    private final BatchMetrics batchMetrics;
 
-    public LiveStockPriceBatchConfig(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
+    public LiveStockPriceBatchConfig(JobRepository jobRepository, PlatformTransactionManager transactionManager, BatchMetrics batchMetrics) {
         this.jobRepository = jobRepository;
         this.transactionManager = transactionManager;
+        this.batchMetrics = batchMetrics;
     }
 
     @Bean
-    public Step updateLivePricesStep(UpdateLivePricesTasklet updateLivePricesTasklet) {
-        return new StepBuilder("updateLivePricesStep", jobRepository)
-                .tasklet(updateLivePricesTasklet, transactionManager)
+    public Step updateRatesStep(UpdateRatesTasklet updateRatesTasklet) {
+        return new StepBuilder("updateRatesStep", jobRepository)
+                .tasklet(updateRatesTasklet, transactionManager)
+                .listener(batchMetrics)
+                .allowStartIfComplete(true)
+                .build();
+    }
+
+    @Bean
+    public Step updatePriceHistoryStep(UpdatePriceHistoryTasklet updatePriceHistoryTasklet) {
+        return new StepBuilder("updatePriceHistoryStep", jobRepository)
+                .tasklet(updatePriceHistoryTasklet, transactionManager)
+                .listener(batchMetrics)
                 .allowStartIfComplete(true)
                 .build();
     }
@@ -31,6 +43,7 @@ public class LiveStockPriceBatchConfig {
     public Step updateStatisticsStep(UpdateStatisticsTasklet updateStatisticsTasklet) {
         return new StepBuilder("updateStatisticsStep", jobRepository)
                 .tasklet(updateStatisticsTasklet, transactionManager)
+                .listener(batchMetrics)
                 .allowStartIfComplete(true)
                 .build();
     }
@@ -39,16 +52,49 @@ public class LiveStockPriceBatchConfig {
     public Step updateTotalProfitsStep(UpdateTotalProfitsTasklet updateTotalProfitsTasklet) {
         return new StepBuilder("updateTotalProfitsStep", jobRepository)
                 .tasklet(updateTotalProfitsTasklet, transactionManager)
+                .listener(batchMetrics)
+                .allowStartIfComplete(true)
+                .build();
+    }
+
+    @Bean
+    public Step updateReturnsStep(UpdateReturnsTasklet updateReturnsTasklet) {
+        return new StepBuilder("updateReturnsStep", jobRepository)
+                .tasklet(updateReturnsTasklet, transactionManager)
+                .listener(batchMetrics)
+                .allowStartIfComplete(true)
+                .build();
+    }
+
+    @Bean
+    public Step updateRiskStep(UpdateRiskTasklet updateRiskTasklet) {
+        return new StepBuilder("updateRiskStep", jobRepository)
+                .tasklet(updateRiskTasklet, transactionManager)
+                .listener(batchMetrics)
+                .allowStartIfComplete(true)
+                .build();
+    }
+
+    @Bean
+    public Step snapshotPortfoliosStep(SnapshotPortfoliosTasklet snapshotPortfoliosTasklet) {
+        return new StepBuilder("snapshotPortfoliosStep", jobRepository)
+                .tasklet(snapshotPortfoliosTasklet, transactionManager)
+                .listener(batchMetrics)
                 .allowStartIfComplete(true)
                 .build();
     }
 
     @Bean
-    public Job job(Step updateLivePricesStep, Step updateStatisticsStep, Step updateTotalProfitsStep) {
+    public Job updateJob(Step updateRatesStep, Step updatePriceHistoryStep, Step updateStatisticsStep, Step updateTotalProfitsStep, Step updateReturnsStep,
+                         Step updateRiskStep, Step snapshotPortfoliosStep) {
         return new JobBuilder("updateJob", jobRepository)
-                .start(updateLivePricesStep)
+                .start(updateRatesStep)
+                .next(updatePriceHistoryStep)
                 .next(updateStatisticsStep)
                 .next(updateTotalProfitsStep)
+                .next(updateReturnsStep)
+                .next(updateRiskStep)
+                .next(snapshotPortfoliosStep)
                 .build();
     }
 }
@@ -0,0 +1,131 @@
+package com.example.investmentportfolio.batch;
+
+import com.example.investmentportfolio.cache.ExchangeCalendar;
+import com.example.investmentportfolio.cache.ExchangeCalendarCache;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Component
+public class MarketHoursScheduler {
+    private static final Logger LOGGER = LogManager.getLogger(MarketHoursScheduler.class);
+    public static final String CLOSE_TIME = "closeTime";
+    public static final String RUN_TIME = "runTime";
+    private final JobLauncher jobLauncher;
+    private final Job exchangeCloseJob;
+    private final Job intradayJob;
+    private final ExchangeCalendarCache exchangeCalendarCache;
+    private final Duration intradayInterval;
+    private final Duration closeCatchUp;
+    private final Map<Long, Instant> handledClosesByExchangeId = new ConcurrentHashMap<>();
+    private final Map<Long, Instant> intradayRunsByExchangeId = new ConcurrentHashMap<>();
+    private final Set<Long> refreshingExchangeIds = ConcurrentHashMap.newKeySet();
+    private final ExecutorService launchExecutor;
+
+    public MarketHoursScheduler(JobLauncher jobLauncher, Job exchangeCloseJob, Job intradayJob, ExchangeCalendarCache exchangeCalendarCache,
+                                @Value("${batch.market-hours.intraday-interval}") Duration intradayInterval,
+                                @Value("${batch.market-hours.close-catch-up}") Duration closeCatchUp,
+                                @Value("${batch.market-hours.launch-threads:4}") int launchThreads) {
+        this.jobLauncher = jobLauncher;
+        this.exchangeCloseJob = exchangeCloseJob;
+        this.intradayJob = intradayJob;
+        this.exchangeCalendarCache = exchangeCalendarCache;
+        this.intradayInterval = intradayInterval;
+        this.closeCatchUp = closeCatchUp;
+        this.launchExecutor = Executors.newFixedThreadPool(launchThreads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        launchExecutor.shutdownNow();
+    }
+
+    // Closed markets cost no fetches: each exchange is only refreshed while its session is open and once after each close
+    @Scheduled(fixedDelayString = "${batch.market-hours.tick}")
+    public void refreshExchanges() {
+        Instant now = Instant.now();
+        // Jobs run on the launch pool rather than the scheduler thread, so a slow close job on one exchange cannot hold up the others;
+        // an exchange whose previous refresh is still running is skipped until the next tick
+        for (ExchangeCalendar calendar : exchangeCalendarCache.findAll()) {
+            if (!refreshingExchangeIds.add(calendar.exchangeId())) {
+                continue;
+            }
+            launchExecutor.execute(() -> {
+                try {
+                    refreshExchange(calendar, now);
+                } catch (RuntimeException e) {
+                    LOGGER.error("Refresh for {} failed", calendar.exchange(), e);
+                } finally {
+                    refreshingExchangeIds.remove(calendar.exchangeId());
+                }
+            });
+        }
+    }
+
+    private void refreshExchange(ExchangeCalendar calendar, Instant now) {
+        calendar.lastClose(now).ifPresent(close -> runCloseRefresh(calendar, close, now));
+        if (calendar.isOpen(now)) {
+            runIntradayRefresh(calendar, now);
+        }
+    }
+
+    // The close time is an identifying parameter, so a close already refreshed by another node or before a restart is not fetched again;
+    // a close whose job failed or could not be launched stays unhandled and is retried on later ticks within the catch-up window
+    private void runCloseRefresh(ExchangeCalendar calendar, Instant close, Instant now) {
+        if (close.equals(handledClosesByExchangeId.get(calendar.exchangeId())) || Duration.between(close, now).compareTo(closeCatchUp) > 0) {
+            return;
+        }
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addLong(UpdateExchangePricesTasklet.EXCHANGE_ID, calendar.exchangeId())
+                .addLong(CLOSE_TIME, close.toEpochMilli())
+                .toJobParameters();
+        try {
+            JobExecution jobExecution = jobLauncher.run(exchangeCloseJob, jobParameters);
+            LOGGER.info("Close refresh for {} finished with status {}", calendar.exchange(), jobExecution.getStatus());
+            if (jobExecution.getStatus() == BatchStatus.COMPLETED) {
+                handledClosesByExchangeId.put(calendar.exchangeId(), close);
+            }
+        } catch (JobInstanceAlreadyCompleteException e) {
+            LOGGER.info("Close refresh for {} at {} already ran", calendar.exchange(), close);
+            handledClosesByExchangeId.put(calendar.exchangeId(), close);
+        } catch (JobExecutionException e) {
+            LOGGER.error("Close refresh for {} could not be launched: {}", calendar.exchange(), e.getMessage());
+        }
+    }
+
+    private void runIntradayRefresh(ExchangeCalendar calendar, Instant now) {
+        Instant lastRun = intradayRunsByExchangeId.get(calendar.exchangeId());
+        if (lastRun != null && Duration.between(lastRun, now).compareTo(intradayInterval) < 0) {
+            return;
+        }
+        intradayRunsByExchangeId.put(calendar.exchangeId(), now);
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addLong(UpdateExchangePricesTasklet.EXCHANGE_ID, calendar.exchangeId())
+                .addLong(RUN_TIME, now.toEpochMilli())
+                .toJobParameters();
+        try {
+            jobLauncher.run(intradayJob, jobParameters);
+        } catch (JobExecutionException e) {
+            LOGGER.error("Intraday refresh for {} could not be launched: {}", calendar.exchange(), e.getMessage());
+        }
+    }
+}
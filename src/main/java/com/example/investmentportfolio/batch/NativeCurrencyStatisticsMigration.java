@@ -0,0 +1,52 @@
+package com.example.investmentportfolio.batch;
+
+import com.example.investmentportfolio.repository.SchemaMigrationRepository;
+import com.example.investmentportfolio.service.StatisticService;
+import com.example.investmentportfolio.service.UserService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class NativeCurrencyStatisticsMigration {
+    private static final Logger LOGGER = LogManager.getLogger(NativeCurrencyStatisticsMigration.class);
+    public static final String NAME = "statistics-native-currency";
+    private final StatisticService statisticService;
+    private final UserService userService;
+    private final SchemaMigrationRepository schemaMigrationRepository;
+
+    public NativeCurrencyStatisticsMigration(StatisticService statisticService, UserService userService, SchemaMigrationRepository schemaMigrationRepository) {
+        this.statisticService = statisticService;
+        this.userService = userService;
+        this.schemaMigrationRepository = schemaMigrationRepository;
+    }
+
+    // Statistics written before positions were held in base currency are still in each user's display currency, so they are
+    // recomputed once from the transactions; the marker is only set when every user succeeded, so a failure is retried on the next start
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (schemaMigrationRepository.isApplied(NAME)) {
+            return;
+        }
+        List<Long> userIds = userService.getAllUserIds();
+        int failedUsers = 0;
+        for (Long userId : userIds) {
+            try {
+                statisticService.updateStatisticsForUser(userId);
+            } catch (RuntimeException e) {
+                failedUsers++;
+                LOGGER.error("Failed to recompute native currency statistics for user id {}", userId, e);
+            }
+        }
+        if (failedUsers > 0) {
+            LOGGER.error("Native currency statistics recompute failed for {} of {} user(s), it will be retried on the next start.", failedUsers, userIds.size());
+            return;
+        }
+        schemaMigrationRepository.markApplied(NAME);
+        LOGGER.info("Recomputed native currency statistics for {} user(s).", userIds.size());
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.investmentportfolio.batch;
+
+import com.example.investmentportfolio.repository.BatchRunRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class PurgeBatchMetadataTasklet implements Tasklet {
+    private static final Logger LOGGER = LogManager.getLogger(PurgeBatchMetadataTasklet.class);
+    private static final String LOOKUP_BEFORE_MICROS = "lookupBeforeMicros";
+    private static final String DELETED_EXECUTIONS = "deletedExecutions";
+    private final BatchRunRepository batchRunRepository;
+    private final JobRepository jobRepository;
+    private final MeterRegistry meterRegistry;
+    private final int retentionDays;
+    private final int batchSize;
+
+    public PurgeBatchMetadataTasklet(BatchRunRepository batchRunRepository, JobRepository jobRepository, MeterRegistry meterRegistry,
+                                     @Value("${batch.retention.days}") int retentionDays, @Value("${batch.retention.batch-size}") int batchSize) {
+        this.batchRunRepository = batchRunRepository;
+        this.jobRepository = jobRepository;
+        this.meterRegistry = meterRegistry;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+    }
+
+    // Each invocation deletes one bounded batch in its own transaction and asks to be called again until nothing is left
+    @Override
+    public RepeatStatus execute(@NonNull StepContribution contribution, @Nullable ChunkContext chunkContext) {
+        ExecutionContext executionContext = contribution.getStepExecution().getExecutionContext();
+        if (!executionContext.containsKey(LOOKUP_BEFORE_MICROS)) {
+            executionContext.putLong(LOOKUP_BEFORE_MICROS, timeRepositoryLookup("before"));
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        List<Long> jobExecutionIds = batchRunRepository.findFinishedJobExecutionIdsCreatedBefore(cutoff, batchSize);
+        if (!jobExecutionIds.isEmpty()) {
+            int deleted = batchRunRepository.deleteJobExecutions(jobExecutionIds);
+            executionContext.putLong(DELETED_EXECUTIONS, executionContext.getLong(DELETED_EXECUTIONS, 0L) + deleted);
+            contribution.incrementWriteCount(deleted);
+            LOGGER.info("Deleted {} job execution(s) created before {}", deleted, cutoff);
+        }
+        if (jobExecutionIds.size() == batchSize) {
+            return RepeatStatus.CONTINUABLE;
+        }
+        int deletedInstances = batchRunRepository.deleteOrphanedJobInstances();
+        long lookupBefore = executionContext.getLong(LOOKUP_BEFORE_MICROS);
+        long lookupAfter = timeRepositoryLookup("after");
+        String summary = String.format("Deleted %d job execution(s) and %d job instance(s) older than %d day(s). Repository lookup: %d us before, %d us after.",
+                executionContext.getLong(DELETED_EXECUTIONS, 0L), deletedInstances, retentionDays, lookupBefore, lookupAfter);
+        LOGGER.info(summary);
+        contribution.setExitStatus(ExitStatus.COMPLETED.addExitDescription(summary));
+        return RepeatStatus.FINISHED;
+    }
+
+    private long timeRepositoryLookup(String phase) {
+        long start = System.nanoTime();
+        jobRepository.getLastJobExecution("updateJob", new JobParameters());
+        long elapsed = System.nanoTime() - start;
+        Timer.builder("batch.repository.lookup")
+                .description("Time taken by the job repository to find the last nightly execution")
+                .tag("phase", phase)
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        return TimeUnit.NANOSECONDS.toMicros(elapsed);
+    }
+}
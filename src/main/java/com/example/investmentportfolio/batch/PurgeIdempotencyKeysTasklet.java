@@ -0,0 +1,36 @@
+package com.example.investmentportfolio.batch;
+
+import com.example.investmentportfolio.service.IdempotencyService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PurgeIdempotencyKeysTasklet implements Tasklet {
+    private static final Logger LOGGER = LogManager.getLogger(PurgeIdempotencyKeysTasklet.class);
+    private final IdempotencyService idempotencyService;
+    private final int batchSize;
+
+    public PurgeIdempotencyKeysTasklet(IdempotencyService idempotencyService, @Value("${batch.retention.batch-size}") int batchSize) {
+        this.idempotencyService = idempotencyService;
+        this.batchSize = batchSize;
+    }
+
+    // Expired keys are deleted in bounded batches, one transaction per invocation, like the batch metadata purge
+    @Override
+    public RepeatStatus execute(@NonNull StepContribution contribution, @Nullable ChunkContext chunkContext) {
+        int deleted = idempotencyService.purgeExpiredKeys(batchSize);
+        contribution.incrementWriteCount(deleted);
+        if (deleted > 0) {
+            LOGGER.info("Deleted {} expired idempotency key(s)", deleted);
+        }
+        return deleted == batchSize ? RepeatStatus.CONTINUABLE : RepeatStatus.FINISHED;
+    }
+}
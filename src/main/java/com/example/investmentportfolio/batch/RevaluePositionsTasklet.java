@@ -0,0 +1,35 @@
+package com.example.investmentportfolio.batch;
+
+import com.example.investmentportfolio.service.StatisticService;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class RevaluePositionsTasklet implements Tasklet {
+    private final StatisticService statisticService;
+
+    public RevaluePositionsTasklet(StatisticService statisticService) {
+        this.statisticService = statisticService;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public RepeatStatus execute(@NonNull StepContribution contribution, @Nullable ChunkContext chunkContext) {
+        if (chunkContext != null) {
+            Object movedStockIds = chunkContext.getStepContext().getJobExecutionContext().get(UpdateHeldLivePricesTasklet.MOVED_STOCK_IDS);
+            if (movedStockIds instanceof List<?> stockIds && !stockIds.isEmpty()) {
+                int positions = statisticService.revaluePositionsForStocks((List<Long>) stockIds);
+                BatchMetrics.addProcessed(contribution, BatchMetrics.SYMBOLS, stockIds.size());
+                BatchMetrics.addProcessed(contribution, BatchMetrics.POSITIONS, positions);
+            }
+        }
+        return RepeatStatus.FINISHED;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.investmentportfolio.batch;
+
+import com.example.investmentportfolio.cache.ExchangeCalendarCache;
+import com.example.investmentportfolio.service.PortfolioSnapshotService;
+import com.example.investmentportfolio.service.UserService;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.Optional;
+
+@Component
+public class SnapshotPortfoliosTasklet implements Tasklet {
+    private final PortfolioSnapshotService portfolioSnapshotService;
+    private final UserService userService;
+    private final BatchMetrics batchMetrics;
+    private final ExchangeCalendarCache exchangeCalendarCache;
+    private final ZoneId zone;
+
+    public SnapshotPortfoliosTasklet(PortfolioSnapshotService portfolioSnapshotService, UserService userService, BatchMetrics batchMetrics,
+                                     ExchangeCalendarCache exchangeCalendarCache, @Value("${batch.snapshot.zone:Asia/Singapore}") ZoneId zone) {
+        this.portfolioSnapshotService = portfolioSnapshotService;
+        this.userService = userService;
+        this.batchMetrics = batchMetrics;
+        this.exchangeCalendarCache = exchangeCalendarCache;
+        this.zone = zone;
+    }
+
+    @Override
+    public RepeatStatus execute(@NonNull StepContribution contribution, @Nullable ChunkContext chunkContext) {
+        LocalDate snapshotDate = tradingDate(Instant.now());
+        for (Long userId : userService.getAllUserIds()) {
+            int positions = batchMetrics.recordUserRecompute(contribution, userId, () -> portfolioSnapshotService.snapshotUser(userId, snapshotDate));
+            BatchMetrics.addProcessed(contribution, BatchMetrics.USERS, 1);
+            BatchMetrics.addProcessed(contribution, BatchMetrics.POSITIONS, positions);
+        }
+        return RepeatStatus.FINISHED;
+    }
+
+    // Rows are labelled with the session their closing prices belong to, which for an early morning run is the previous trading day
+    private LocalDate tradingDate(Instant now) {
+        return exchangeCalendarCache.findAll().stream()
+                .map(calendar -> calendar.lastTradingDate(now))
+                .flatMap(Optional::stream)
+                .max(Comparator.naturalOrder())
+                .orElse(LocalDate.ofInstant(now, zone).minusDays(1));
+    }
+}
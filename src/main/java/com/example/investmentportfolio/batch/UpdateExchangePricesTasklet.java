@@ -0,0 +1,35 @@
+package com.example.investmentportfolio.batch;
+
+import com.example.investmentportfolio.service.StockService;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class UpdateExchangePricesTasklet implements Tasklet {
+    public static final String EXCHANGE_ID = "exchangeId";
+    private final StockService stockService;
+
+    public UpdateExchangePricesTasklet(StockService stockService) {
+        this.stockService = stockService;
+    }
+
+    @Override
+    public RepeatStatus execute(@NonNull StepContribution contribution, @Nullable ChunkContext chunkContext) throws Exception {
+        if (chunkContext != null) {
+            Long exchangeId = chunkContext.getStepContext().getStepExecution().getJobParameters().getLong(EXCHANGE_ID);
+            List<Long> movedStockIds = stockService.updateLiveStockPricesForExchange(exchangeId);
+            BatchMetrics.addProcessed(contribution, BatchMetrics.SYMBOLS, movedStockIds.size());
+            chunkContext.getStepContext().getStepExecution().getJobExecution().getExecutionContext()
+                    .put(UpdateHeldLivePricesTasklet.MOVED_STOCK_IDS, new ArrayList<>(movedStockIds));
+        }
+        return RepeatStatus.FINISHED;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.investmentportfolio.batch;
+
+import com.example.investmentportfolio.service.StockService;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class UpdateHeldLivePricesTasklet implements Tasklet {
+    public static final String MOVED_STOCK_IDS = "movedStockIds";
+    private final StockService stockService;
+
+    public UpdateHeldLivePricesTasklet(StockService stockService) {
+        this.stockService = stockService;
+    }
+
+    @Override
+    public RepeatStatus execute(@NonNull StepContribution contribution, @Nullable ChunkContext chunkContext) throws Exception {
+        // Without an exchange id every held stock is refreshed, as when the job is launched by hand
+        Long exchangeId = chunkContext == null ? null
+                : chunkContext.getStepContext().getStepExecution().getJobParameters().getLong(UpdateExchangePricesTasklet.EXCHANGE_ID);
+        List<Long> movedStockIds = stockService.updateLiveStockPricesForHeldStocks(exchangeId);
+        BatchMetrics.addProcessed(contribution, BatchMetrics.SYMBOLS, movedStockIds.size());
+        if (chunkContext != null) {
+            chunkContext.getStepContext().getStepExecution().getJobExecution().getExecutionContext()
+                    .put(MOVED_STOCK_IDS, new ArrayList<>(movedStockIds));
+        }
+        return RepeatStatus.FINISHED;
+    }
+}
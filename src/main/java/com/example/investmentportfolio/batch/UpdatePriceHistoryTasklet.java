@@ -0,0 +1,39 @@
+package com.example.investmentportfolio.batch;
+
+import com.example.investmentportfolio.cache.HoldingIndex;
+import com.example.investmentportfolio.service.PriceHistoryService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UpdatePriceHistoryTasklet implements Tasklet {
+    private static final Logger LOGGER = LogManager.getLogger(UpdatePriceHistoryTasklet.class);
+    private final PriceHistoryService priceHistoryService;
+    private final HoldingIndex holdingIndex;
+
+    public UpdatePriceHistoryTasklet(PriceHistoryService priceHistoryService, HoldingIndex holdingIndex) {
+        this.priceHistoryService = priceHistoryService;
+        this.holdingIndex = holdingIndex;
+    }
+
+    // A stock whose provider request fails is retried from the same date on the next run
+    @Override
+    public RepeatStatus execute(@NonNull StepContribution contribution, @Nullable ChunkContext chunkContext) {
+        for (Long stockId : holdingIndex.findHeldStockIds()) {
+            try {
+                priceHistoryService.updatePriceHistory(stockId);
+                BatchMetrics.addProcessed(contribution, BatchMetrics.SYMBOLS, 1);
+            } catch (RuntimeException e) {
+                LOGGER.error("Failed to update price history for stock id {}", stockId, e);
+            }
+        }
+        return RepeatStatus.FINISHED;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.investmentportfolio.batch;
+
+import com.example.investmentportfolio.service.RateService;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class UpdateRatesTasklet implements Tasklet {
+    private final RateService rateService;
+
+    public UpdateRatesTasklet(RateService rateService) {
+        this.rateService = rateService;
+    }
+
+    @Override
+    public RepeatStatus execute(@NonNull StepContribution contribution, @Nullable ChunkContext chunkContext) {
+        List<String> changedRateNames = rateService.refreshRates();
+        contribution.incrementWriteCount(changedRateNames.size());
+        return RepeatStatus.FINISHED;
+    }
+}
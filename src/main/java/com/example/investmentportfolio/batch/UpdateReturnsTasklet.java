@@ -0,0 +1,33 @@
+package com.example.investmentportfolio.batch;
+
+import com.example.investmentportfolio.service.ReturnService;
+import com.example.investmentportfolio.service.UserService;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class UpdateReturnsTasklet implements Tasklet {
+    private final ReturnService returnService;
+    private final UserService userService;
+
+    public UpdateReturnsTasklet(ReturnService returnService, UserService userService) {
+        this.returnService = returnService;
+        this.userService = userService;
+    }
+
+    @Override
+    public RepeatStatus execute(@NonNull StepContribution contribution, @Nullable ChunkContext chunkContext) {
+        List<Long> userIds = userService.getAllUserIds();
+        int positions = returnService.updateReturnsForUsers(userIds);
+        BatchMetrics.addProcessed(contribution, BatchMetrics.USERS, userIds.size());
+        BatchMetrics.addProcessed(contribution, BatchMetrics.POSITIONS, positions);
+        return RepeatStatus.FINISHED;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.investmentportfolio.batch;
+
+import com.example.investmentportfolio.service.RiskService;
+import com.example.investmentportfolio.service.UserService;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UpdateRiskTasklet implements Tasklet {
+    private final RiskService riskService;
+    private final UserService userService;
+    private final BatchMetrics batchMetrics;
+
+    public UpdateRiskTasklet(RiskService riskService, UserService userService, BatchMetrics batchMetrics) {
+        this.riskService = riskService;
+        this.userService = userService;
+        this.batchMetrics = batchMetrics;
+    }
+
+    @Override
+    public RepeatStatus execute(@NonNull StepContribution contribution, @Nullable ChunkContext chunkContext) {
+        for (Long userId : userService.getAllUserIds()) {
+            batchMetrics.recordUserRecompute(contribution, userId, () -> riskService.updateRiskForUser(userId));
+            BatchMetrics.addProcessed(contribution, BatchMetrics.USERS, 1);
+        }
+        return RepeatStatus.FINISHED;
+    }
+}
@@ -1,24 +1,34 @@
 package com.example.investmentportfolio.batch;
 
 import com.example.investmentportfolio.service.StatisticService;
+import com.example.investmentportfolio.service.UserService;
 import org.springframework.batch.core.StepContribution;
 import org.springframework.batch.core.scope.context.ChunkContext;
 import org.springframework.batch.core.step.tasklet.Tasklet;
 import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 
 @Component
 public class UpdateStatisticsTasklet implements Tasklet {
     private final StatisticService statisticService;
+    private final UserService userService;
+    private final BatchMetrics batchMetrics;
 
-    public UpdateStatisticsTasklet(StatisticService statisticService) {
+    public UpdateStatisticsTasklet(StatisticService statisticService, UserService userService, BatchMetrics batchMetrics) {
         this.statisticService = statisticService;
+        this.userService = userService;
+        this.batchMetrics = batchMetrics;
     }
 
     @Override
-    public RepeatStatus execute(@Nullable StepContribution contribution, @Nullable ChunkContext chunkContext) {
-        statisticService.updateStatisticsForAllUsers();
+    public RepeatStatus execute(@NonNull StepContribution contribution, @Nullable ChunkContext chunkContext) {
+        for (Long userId : userService.getAllUserIds()) {
+            int positions = batchMetrics.recordUserRecompute(contribution, userId, () -> statisticService.updateStatisticsForUser(userId));
+            BatchMetrics.addProcessed(contribution, BatchMetrics.USERS, 1);
+            BatchMetrics.addProcessed(contribution, BatchMetrics.POSITIONS, positions);
+        }
         return RepeatStatus.FINISHED;
     }
 }
@@ -0,0 +1,113 @@
+package com.example.investmentportfolio.cache;
+
+import com.example.investmentportfolio.analytics.AllocationRollup;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+@Component
+public class AllocationCache implements CacheInvalidationListener {
+    private static final Logger LOGGER = LogManager.getLogger(AllocationCache.class);
+    private final Map<Long, UserAllocation> allocationsByUserId = new ConcurrentHashMap<>();
+    private final Map<Long, Long> generationsByUserId = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> userIdsByStockId = new ConcurrentHashMap<>();
+    private final Map<Long, Long> evictionsByStockId = new ConcurrentHashMap<>();
+    private long stockEvictions;
+    private long flushes;
+
+    public record UserAllocation(String displayCurrency, Set<Long> stockIds, AllocationRollup rollup) {
+    }
+
+    public AllocationCache(CacheInvalidationBus cacheInvalidationBus) {
+        cacheInvalidationBus.register(this);
+    }
+
+    public UserAllocation get(Long userId, Function<Long, UserAllocation> loader) {
+        UserAllocation cached = allocationsByUserId.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long generation;
+        long stockGeneration;
+        long flushGeneration;
+        synchronized (this) {
+            generation = generationsByUserId.getOrDefault(userId, 0L);
+            stockGeneration = stockEvictions;
+            flushGeneration = flushes;
+        }
+        UserAllocation loaded = loader.apply(userId);
+        // A rollup loaded across an invalidation of the user, one of its stocks or everything is served once but not kept
+        synchronized (this) {
+            if (flushes == flushGeneration && generationsByUserId.getOrDefault(userId, 0L) == generation
+                    && loaded.stockIds().stream().noneMatch(stockId -> evictionsByStockId.getOrDefault(stockId, 0L) > stockGeneration)) {
+                allocationsByUserId.put(userId, loaded);
+                loaded.stockIds().forEach(stockId -> userIdsByStockId.computeIfAbsent(stockId, key -> ConcurrentHashMap.newKeySet()).add(userId));
+            }
+        }
+        return loaded;
+    }
+
+    // Rollups are built from statistics rows, so they follow the statistics invalidations; stock and exchange edits can regroup positions
+    @Override
+    public void onInvalidation(CacheInvalidationEvent event) {
+        switch (event.entityType()) {
+            case USER_STATISTICS -> evict(Long.valueOf(event.id()));
+            case HOLDING -> {
+                if (event.id() == null) {
+                    evictAll();
+                } else {
+                    evict(Long.valueOf(event.id().split(":")[0]));
+                }
+            }
+            case STOCK_POSITIONS -> evictStocks(Arrays.stream(event.id().split(","))
+                    .map(Long::valueOf)
+                    .toList());
+            case RATE, ALL_STATISTICS, USER, STOCK, EXCHANGE -> evictAll();
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void onFlush() {
+        evictAll();
+    }
+
+    private synchronized void evictStocks(Collection<Long> stockIds) {
+        stockEvictions++;
+        for (Long stockId : stockIds) {
+            evictionsByStockId.put(stockId, stockEvictions);
+            Set<Long> userIds = userIdsByStockId.get(stockId);
+            if (userIds != null) {
+                List.copyOf(userIds).forEach(this::evict);
+            }
+        }
+    }
+
+    private synchronized void evictAll() {
+        flushes++;
+        List.copyOf(allocationsByUserId.keySet()).forEach(this::evict);
+        LOGGER.info("Invalidated all cached allocations.");
+    }
+
+    private synchronized void evict(Long userId) {
+        generationsByUserId.merge(userId, 1L, Long::sum);
+        UserAllocation removed = allocationsByUserId.remove(userId);
+        if (removed != null) {
+            removed.stockIds().forEach(stockId -> {
+                Set<Long> userIds = userIdsByStockId.get(stockId);
+                if (userIds != null) {
+                    userIds.remove(userId);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.investmentportfolio.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Component
+public class CacheInvalidationBus implements SmartLifecycle {
+    private static final Logger LOGGER = LogManager.getLogger(CacheInvalidationBus.class);
+    private final List<CacheInvalidationListener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<String, Long> lastVersionsByNodeId = new ConcurrentHashMap<>();
+    private final String nodeId = UUID.randomUUID().toString();
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final boolean enabled;
+    private final String channel;
+    private final Duration pollTimeout;
+    private final Duration reconnectDelay;
+    private final Counter publishedEvents;
+    private final Counter receivedEvents;
+    private final Counter flushes;
+    private long version;
+    private volatile boolean running;
+    private volatile Thread listenerThread;
+    private volatile Connection listenerConnection;
+
+    public CacheInvalidationBus(JdbcTemplate jdbcTemplate, DataSourceProperties dataSourceProperties, MeterRegistry meterRegistry,
+                                @Value("${cache.invalidation.enabled:true}") boolean enabled,
+                                @Value("${cache.invalidation.channel:cache_invalidation}") String channel,
+                                @Value("${cache.invalidation.poll-timeout:PT10S}") Duration pollTimeout,
+                                @Value("${cache.invalidation.reconnect-delay:PT5S}") Duration reconnectDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.enabled = enabled;
+        this.channel = channel;
+        this.pollTimeout = pollTimeout;
+        this.reconnectDelay = reconnectDelay;
+        publishedEvents = Counter.builder("cache.invalidation.events").tag("direction", "published").register(meterRegistry);
+        receivedEvents = Counter.builder("cache.invalidation.events").tag("direction", "received").register(meterRegistry);
+        flushes = Counter.builder("cache.invalidation.flushes").register(meterRegistry);
+    }
+
+    public void register(CacheInvalidationListener listener) {
+        listeners.add(listener);
+    }
+
+    // Other listeners on this node see the event straight away; other nodes only once the change has committed
+    public void publish(CacheInvalidationListener source, CacheInvalidationEvent.EntityType entityType, String id) {
+        CacheInvalidationEvent localEvent = new CacheInvalidationEvent(entityType, id, 0L, nodeId);
+        CacheSupport.runNowAndAfterCommit(() -> {
+            for (CacheInvalidationListener listener : listeners) {
+                if (listener != source) {
+                    listener.onInvalidation(localEvent);
+                }
+            }
+        });
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(entityType, id);
+                }
+            });
+        } else {
+            send(entityType, id);
+        }
+    }
+
+    private synchronized void send(CacheInvalidationEvent.EntityType entityType, String id) {
+        CacheInvalidationEvent event = new CacheInvalidationEvent(entityType, id, ++version, nodeId);
+        try {
+            jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, channel, event.toPayload());
+            publishedEvents.increment();
+        } catch (RuntimeException e) {
+            // Peers that miss this event see a version gap on the next one and flush
+            LOGGER.error("Failed to publish cache invalidation {} {}: {}", entityType, id, e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            LOGGER.info("Cache invalidation bus is disabled.");
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = listenerThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        closeQuietly(listenerConnection);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                listenerConnection = connection;
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                LOGGER.info("Listening for cache invalidations on channel {} as node {}", channel, nodeId);
+                // Anything published before LISTEN took effect is lost, so caches filled in the meantime are dropped
+                lastVersionsByNodeId.clear();
+                flushAll(reconnecting ? "reconnected to the database" : "connected to the database");
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                LOGGER.error("Cache invalidation listener lost its connection: {}", e.getMessage());
+                reconnecting = true;
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            } finally {
+                listenerConnection = null;
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        CacheInvalidationEvent event;
+        try {
+            event = CacheInvalidationEvent.fromPayload(payload);
+        } catch (IllegalArgumentException e) {
+            LOGGER.error(e.getMessage());
+            return;
+        }
+        if (nodeId.equals(event.nodeId())) {
+            return;
+        }
+        receivedEvents.increment();
+        Long lastVersion = lastVersionsByNodeId.put(event.nodeId(), event.version());
+        if (lastVersion != null && event.version() != lastVersion + 1) {
+            flushAll(String.format("node %s skipped from version %d to %d", event.nodeId(), lastVersion, event.version()));
+            return;
+        }
+        for (CacheInvalidationListener listener : listeners) {
+            listener.onInvalidation(event);
+        }
+    }
+
+    private void flushAll(String reason) {
+        LOGGER.warn("Flushing all local caches: {}", reason);
+        flushes.increment();
+        for (CacheInvalidationListener listener : listeners) {
+            listener.onFlush();
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                LOGGER.debug("Error closing cache invalidation connection: {}", e.getMessage());
+            }
+        }
+    }
+}
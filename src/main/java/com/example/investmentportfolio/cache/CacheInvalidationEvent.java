@@ -0,0 +1,31 @@
+package com.example.investmentportfolio.cache;
+
+public record CacheInvalidationEvent(EntityType entityType, String id, long version, String nodeId) {
+    private static final String SEPARATOR = "|";
+
+    public enum EntityType {
+        STOCK,
+        EXCHANGE,
+        USER,
+        RATE,
+        USER_STATISTICS,
+        STOCK_POSITIONS,
+        HOLDING,
+        ALL_STATISTICS,
+        PRICE_HISTORY,
+        DIVIDEND,
+        DATA_VERSION
+    }
+
+    public String toPayload() {
+        return String.join(SEPARATOR, nodeId, String.valueOf(version), entityType.name(), id == null ? "" : id);
+    }
+
+    public static CacheInvalidationEvent fromPayload(String payload) {
+        String[] parts = payload.split("\\|", 4);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Malformed cache invalidation payload: " + payload);
+        }
+        return new CacheInvalidationEvent(EntityType.valueOf(parts[2]), parts[3].isEmpty() ? null : parts[3], Long.parseLong(parts[1]), parts[0]);
+    }
+}
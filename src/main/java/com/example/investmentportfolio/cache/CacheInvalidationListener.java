@@ -0,0 +1,6 @@
+package com.example.investmentportfolio.cache;
+
+public interface CacheInvalidationListener {
+    void onInvalidation(CacheInvalidationEvent event);
+    void onFlush();
+}
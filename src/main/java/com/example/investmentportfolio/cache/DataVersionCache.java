@@ -0,0 +1,110 @@
+package com.example.investmentportfolio.cache;
+
+import com.example.investmentportfolio.repository.DataVersionRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class DataVersionCache implements CacheInvalidationListener {
+    public static final String STOCKS = "stocks";
+    public static final String EXCHANGES = "exchanges";
+    public static final String RATES = "rates";
+    public static final String STATISTICS = "statistics";
+    private static final String USER_STATISTICS_PREFIX = "user-statistics:";
+    private static final int SCOPES_PER_EVENT = 200;
+    private final DataVersionRepository dataVersionRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final Map<String, Long> versionsByScope = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public DataVersionCache(DataVersionRepository dataVersionRepository, CacheInvalidationBus cacheInvalidationBus) {
+        this.dataVersionRepository = dataVersionRepository;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        cacheInvalidationBus.register(this);
+    }
+
+    public static String userStatistics(Long userId) {
+        return USER_STATISTICS_PREFIX + userId;
+    }
+
+    // Built from counters only, so a matching If-None-Match is answered without loading or serializing the response body. No
+    // Last-Modified is derived from the counters: a timestamp cannot order two writes in the same second or a bump late in a long transaction
+    public String tag(List<String> scopes, String qualifier) {
+        StringBuilder eTag = new StringBuilder("\"");
+        for (String scope : scopes) {
+            eTag.append(find(scope)).append('.');
+        }
+        eTag.setLength(eTag.length() - 1);
+        if (qualifier != null && !qualifier.isBlank()) {
+            eTag.append('-').append(qualifier.trim().toUpperCase());
+        }
+        return eTag.append('"').toString();
+    }
+
+    public void bump(String scope) {
+        dataVersionRepository.bump(scope);
+        evictAndPublish(List.of(scope));
+    }
+
+    public void bumpUserStatisticsForStocks(Collection<Long> stockIds) {
+        if (stockIds.isEmpty()) {
+            return;
+        }
+        List<String> scopes = dataVersionRepository.bumpHoldersOfStocks(USER_STATISTICS_PREFIX, stockIds);
+        if (!scopes.isEmpty()) {
+            evictAndPublish(scopes);
+        }
+    }
+
+    @Override
+    public void onInvalidation(CacheInvalidationEvent event) {
+        if (event.entityType() == CacheInvalidationEvent.EntityType.DATA_VERSION && event.id() != null) {
+            evict(Arrays.asList(event.id().split(",")));
+        }
+    }
+
+    @Override
+    public void onFlush() {
+        synchronized (this) {
+            generation.incrementAndGet();
+            versionsByScope.clear();
+        }
+    }
+
+    private long find(String scope) {
+        Long cached = versionsByScope.get(scope);
+        if (cached != null) {
+            return cached;
+        }
+        long loadedGeneration = generation.get();
+        long loaded = dataVersionRepository.find(scope).orElse(0L);
+        synchronized (this) {
+            if (generation.get() == loadedGeneration) {
+                versionsByScope.put(scope, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    private void evictAndPublish(List<String> scopes) {
+        CacheSupport.runNowAndAfterCommit(() -> evict(scopes));
+        // NOTIFY payloads are capped at 8000 bytes, so large scope lists go out in chunks
+        for (int from = 0; from < scopes.size(); from += SCOPES_PER_EVENT) {
+            List<String> chunk = scopes.subList(from, Math.min(from + SCOPES_PER_EVENT, scopes.size()));
+            cacheInvalidationBus.publish(this, CacheInvalidationEvent.EntityType.DATA_VERSION, String.join(",", chunk));
+        }
+    }
+
+    private void evict(Collection<String> scopes) {
+        synchronized (this) {
+            generation.incrementAndGet();
+            scopes.forEach(versionsByScope::remove);
+        }
+    }
+}
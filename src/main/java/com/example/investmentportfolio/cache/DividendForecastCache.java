@@ -0,0 +1,93 @@
+package com.example.investmentportfolio.cache;
+
+import com.example.investmentportfolio.analytics.DividendProjector;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+@Component
+public class DividendForecastCache implements CacheInvalidationListener {
+    private static final Logger LOGGER = LogManager.getLogger(DividendForecastCache.class);
+    private final Map<Long, StockForecast> forecastsByStockId = new ConcurrentHashMap<>();
+    private final Map<Long, Long> generationsByStockId = new ConcurrentHashMap<>();
+    private long flushes;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    public record StockForecast(LocalDate computedOn, List<DividendProjector.PastDividend> announced, DividendProjector.Projection projection) {
+    }
+
+    public DividendForecastCache(CacheInvalidationBus cacheInvalidationBus) {
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        cacheInvalidationBus.register(this);
+    }
+
+    // Forecasts cover a window starting today, so one computed on an earlier day is rebuilt on first use
+    public StockForecast get(Long stockId, LocalDate today, Function<Long, StockForecast> loader) {
+        StockForecast cached = forecastsByStockId.get(stockId);
+        if (cached != null && cached.computedOn().equals(today)) {
+            return cached;
+        }
+        long generation;
+        long flushGeneration;
+        synchronized (this) {
+            generation = generationsByStockId.getOrDefault(stockId, 0L);
+            flushGeneration = flushes;
+        }
+        StockForecast loaded = loader.apply(stockId);
+        // A forecast loaded across an invalidation of its stock or of everything is served once but not kept
+        synchronized (this) {
+            if (flushes == flushGeneration && generationsByStockId.getOrDefault(stockId, 0L) == generation) {
+                forecastsByStockId.put(stockId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    public void invalidateStock(Long stockId) {
+        CacheSupport.runNowAndAfterCommit(() -> evict(stockId));
+        cacheInvalidationBus.publish(this, CacheInvalidationEvent.EntityType.DIVIDEND, String.valueOf(stockId));
+    }
+
+    public void invalidateAll() {
+        CacheSupport.runNowAndAfterCommit(this::evictAll);
+        cacheInvalidationBus.publish(this, CacheInvalidationEvent.EntityType.DIVIDEND, null);
+    }
+
+    @Override
+    public void onInvalidation(CacheInvalidationEvent event) {
+        switch (event.entityType()) {
+            case DIVIDEND -> {
+                if (event.id() == null) {
+                    evictAll();
+                } else {
+                    evict(Long.valueOf(event.id()));
+                }
+            }
+            case STOCK -> evictAll();
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void onFlush() {
+        evictAll();
+    }
+
+    private synchronized void evictAll() {
+        flushes++;
+        List.copyOf(forecastsByStockId.keySet()).forEach(this::evict);
+        LOGGER.info("Invalidated all cached dividend forecasts.");
+    }
+
+    private synchronized void evict(Long stockId) {
+        generationsByStockId.merge(stockId, 1L, Long::sum);
+        forecastsByStockId.remove(stockId);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.investmentportfolio.cache;
+
+import java.time.*;
+import java.util.Optional;
+import java.util.Set;
+
+// One regular session per weekday in the exchange's own time zone; sessions that run past midnight are not modelled
+public record ExchangeCalendar(Long exchangeId, String exchange, ZoneId zone, LocalTime openTime, LocalTime closeTime, Set<LocalDate> holidays) {
+    private static final int LOOKBACK_DAYS = 14;
+
+    public boolean isTradingDay(LocalDate date) {
+        DayOfWeek dayOfWeek = date.getDayOfWeek();
+        return dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY && !holidays.contains(date);
+    }
+
+    public boolean isOpen(Instant instant) {
+        ZonedDateTime local = instant.atZone(zone);
+        LocalTime time = local.toLocalTime();
+        return isTradingDay(local.toLocalDate()) && !time.isBefore(openTime) && time.isBefore(closeTime);
+    }
+
+    // A fortnight outlasts any run of weekends and holidays, so an empty result means the calendar is misconfigured
+    public Optional<Instant> lastClose(Instant instant) {
+        LocalDate today = instant.atZone(zone).toLocalDate();
+        for (int days = 0; days < LOOKBACK_DAYS; days++) {
+            LocalDate date = today.minusDays(days);
+            if (isTradingDay(date)) {
+                Instant close = date.atTime(closeTime).atZone(zone).toInstant();
+                if (!close.isAfter(instant)) {
+                    return Optional.of(close);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public Optional<LocalDate> lastTradingDate(Instant instant) {
+        return lastClose(instant).map(close -> close.atZone(zone).toLocalDate());
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.investmentportfolio.cache;
+
+import com.example.investmentportfolio.model.Exchange;
+import com.example.investmentportfolio.repository.ExchangeHolidayRepository;
+import com.example.investmentportfolio.repository.ExchangeRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class ExchangeCalendarCache implements CacheInvalidationListener {
+    private static final Logger LOGGER = LogManager.getLogger(ExchangeCalendarCache.class);
+    private final ExchangeRepository exchangeRepository;
+    private final ExchangeHolidayRepository exchangeHolidayRepository;
+    private final ZoneId defaultZone;
+    private final LocalTime defaultOpenTime;
+    private final LocalTime defaultCloseTime;
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Map<Long, ExchangeCalendar> calendarsByExchangeId;
+
+    public ExchangeCalendarCache(ExchangeRepository exchangeRepository, ExchangeHolidayRepository exchangeHolidayRepository,
+                                 CacheInvalidationBus cacheInvalidationBus, @Value("${batch.market-hours.default-zone}") String defaultZone,
+                                 @Value("${batch.market-hours.default-open}") String defaultOpenTime,
+                                 @Value("${batch.market-hours.default-close}") String defaultCloseTime) {
+        this.exchangeRepository = exchangeRepository;
+        this.exchangeHolidayRepository = exchangeHolidayRepository;
+        this.defaultZone = ZoneId.of(defaultZone);
+        this.defaultOpenTime = LocalTime.parse(defaultOpenTime);
+        this.defaultCloseTime = LocalTime.parse(defaultCloseTime);
+        cacheInvalidationBus.register(this);
+    }
+
+    public Collection<ExchangeCalendar> findAll() {
+        return load().values();
+    }
+
+    public Optional<ExchangeCalendar> findByExchangeId(Long exchangeId) {
+        return Optional.ofNullable(load().get(exchangeId));
+    }
+
+    // Exchange writes already publish EXCHANGE through the reference data cache, so other nodes are told once
+    public void invalidate() {
+        CacheSupport.runNowAndAfterCommit(this::clear);
+    }
+
+    @Override
+    public void onInvalidation(CacheInvalidationEvent event) {
+        if (event.entityType() == CacheInvalidationEvent.EntityType.EXCHANGE) {
+            clear();
+        }
+    }
+
+    @Override
+    public void onFlush() {
+        clear();
+    }
+
+    // Exchanges without their own hours fall back to the configured session, so every exchange gets a calendar
+    private Map<Long, ExchangeCalendar> load() {
+        Map<Long, ExchangeCalendar> calendars = calendarsByExchangeId;
+        if (calendars != null) {
+            return calendars;
+        }
+        long loadedGeneration = generation.get();
+        Map<Long, Set<LocalDate>> holidaysByExchangeId = new HashMap<>();
+        for (ExchangeHolidayRepository.ExchangeHoliday holiday : exchangeHolidayRepository.findAll()) {
+            holidaysByExchangeId.computeIfAbsent(holiday.exchangeId(), id -> new HashSet<>()).add(holiday.holidayDate());
+        }
+        Map<Long, ExchangeCalendar> loaded = new LinkedHashMap<>();
+        for (Exchange exchange : exchangeRepository.findAll()) {
+            ZoneId zone = exchange.getTimeZone() == null ? defaultZone : ZoneId.of(exchange.getTimeZone());
+            LocalTime openTime = exchange.getOpenTime() == null ? defaultOpenTime : LocalTime.parse(exchange.getOpenTime());
+            LocalTime closeTime = exchange.getCloseTime() == null ? defaultCloseTime : LocalTime.parse(exchange.getCloseTime());
+            loaded.put(exchange.getExchangeId(), new ExchangeCalendar(exchange.getExchangeId(), exchange.getExchange(), zone, openTime, closeTime,
+                    Set.copyOf(holidaysByExchangeId.getOrDefault(exchange.getExchangeId(), Collections.emptySet()))));
+        }
+        Map<Long, ExchangeCalendar> immutable = Collections.unmodifiableMap(loaded);
+        synchronized (this) {
+            if (generation.get() == loadedGeneration) {
+                calendarsByExchangeId = immutable;
+            }
+        }
+        LOGGER.info("Loaded trading calendars for {} exchange(s).", loaded.size());
+        return immutable;
+    }
+
+    private void clear() {
+        synchronized (this) {
+            generation.incrementAndGet();
+            calendarsByExchangeId = null;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.investmentportfolio.cache;
+
+import com.example.investmentportfolio.repository.TransactionRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Component
+public class HoldingIndex implements CacheInvalidationListener {
+    private static final Logger LOGGER = LogManager.getLogger(HoldingIndex.class);
+    private final TransactionRepository transactionRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    // Users whose units dropped to zero stay indexed, since a dividend with an earlier ex date can still be owed to them
+    private volatile Map<Long, Map<Long, BigDecimal>> unitsByUserIdByStockId;
+
+    public HoldingIndex(TransactionRepository transactionRepository, CacheInvalidationBus cacheInvalidationBus) {
+        this.transactionRepository = transactionRepository;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        cacheInvalidationBus.register(this);
+    }
+
+    // Built from the transactions themselves, since statistics lag behind imports and bulk deletes until the next recompute
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Map<Long, Map<Long, BigDecimal>> loaded = new ConcurrentHashMap<>();
+        List<TransactionRepository.PositionUnits> positions = transactionRepository.sumUnitsByPosition();
+        for (TransactionRepository.PositionUnits position : positions) {
+            loaded.computeIfAbsent(position.getStockId(), stockId -> new ConcurrentHashMap<>())
+                    .put(position.getUserId(), position.getUnits());
+        }
+        unitsByUserIdByStockId = loaded;
+        LOGGER.info("Loaded {} position(s) across {} stock(s) into the holding index.", positions.size(), loaded.size());
+    }
+
+    public Map<Long, BigDecimal> findHolders(Long stockId) {
+        return index().getOrDefault(stockId, Collections.emptyMap()).entrySet().stream()
+                .filter(entry -> entry.getValue().signum() > 0)
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    public Set<Long> findPositionUserIds(Long stockId) {
+        return Set.copyOf(index().getOrDefault(stockId, Collections.emptyMap()).keySet());
+    }
+
+    public List<Long> findHeldStockIds() {
+        return index().entrySet().stream()
+                .filter(entry -> entry.getValue().values().stream().anyMatch(units -> units.signum() > 0))
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+    }
+
+    public void refreshPosition(Long userId, Long stockId) {
+        CacheSupport.runNowAndAfterCommit(() -> reloadPosition(userId, stockId));
+        cacheInvalidationBus.publish(this, CacheInvalidationEvent.EntityType.HOLDING, userId + ":" + stockId);
+    }
+
+    public void refreshAll() {
+        CacheSupport.runNowAndAfterCommit(this::load);
+        cacheInvalidationBus.publish(this, CacheInvalidationEvent.EntityType.HOLDING, null);
+    }
+
+    @Override
+    public void onInvalidation(CacheInvalidationEvent event) {
+        if (event.entityType() != CacheInvalidationEvent.EntityType.HOLDING) {
+            return;
+        }
+        if (event.id() == null) {
+            load();
+        } else {
+            String[] ids = event.id().split(":");
+            reloadPosition(Long.valueOf(ids[0]), Long.valueOf(ids[1]));
+        }
+    }
+
+    @Override
+    public void onFlush() {
+        unitsByUserIdByStockId = null;
+    }
+
+    private void reloadPosition(Long userId, Long stockId) {
+        BigDecimal units = transactionRepository.sumUnitsByUserIdAndStockId(userId, stockId);
+        index().computeIfAbsent(stockId, id -> new ConcurrentHashMap<>()).put(userId, units);
+    }
+
+    private Map<Long, Map<Long, BigDecimal>> index() {
+        Map<Long, Map<Long, BigDecimal>> index = unitsByUserIdByStockId;
+        if (index == null) {
+            synchronized (this) {
+                if (unitsByUserIdByStockId == null) {
+                    load();
+                }
+                index = unitsByUserIdByStockId;
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.investmentportfolio.cache;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+@Component
+public class PortfolioHistoryCache implements CacheInvalidationListener {
+    private static final Logger LOGGER = LogManager.getLogger(PortfolioHistoryCache.class);
+    private final Map<Long, PortfolioHistory> historiesByUserId = new ConcurrentHashMap<>();
+    private final Map<Long, Long> generationsByUserId = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> userIdsByStockId = new ConcurrentHashMap<>();
+
+    public record PortfolioHistory(String displayCurrency, List<PositionHistory> positions) {
+    }
+
+    public PortfolioHistoryCache(CacheInvalidationBus cacheInvalidationBus) {
+        cacheInvalidationBus.register(this);
+    }
+
+    public PortfolioHistory get(Long userId, Function<Long, PortfolioHistory> loader) {
+        PortfolioHistory cached = historiesByUserId.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = generationsByUserId.getOrDefault(userId, 0L);
+        PortfolioHistory loaded = loader.apply(userId);
+        historiesByUserId.compute(userId, (id, existing) -> {
+            if (generationsByUserId.getOrDefault(id, 0L) != generation) {
+                return existing;
+            }
+            loaded.positions().forEach(position -> userIdsByStockId.computeIfAbsent(position.getStockId(), key -> ConcurrentHashMap.newKeySet()).add(id));
+            return loaded;
+        });
+        return loaded;
+    }
+
+    // Histories are rebuilt from the same events that invalidate holdings and computed statistics
+    @Override
+    public void onInvalidation(CacheInvalidationEvent event) {
+        switch (event.entityType()) {
+            case HOLDING -> {
+                if (event.id() == null) {
+                    evictAll();
+                } else {
+                    evict(Long.valueOf(event.id().split(":")[0]));
+                }
+            }
+            case USER_STATISTICS -> evict(Long.valueOf(event.id()));
+            case STOCK_POSITIONS -> Arrays.stream(event.id().split(","))
+                    .map(Long::valueOf)
+                    .map(userIdsByStockId::get)
+                    .filter(Objects::nonNull)
+                    .flatMap(userIds -> List.copyOf(userIds).stream())
+                    .forEach(this::evict);
+            case RATE, ALL_STATISTICS, USER -> evictAll();
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void onFlush() {
+        evictAll();
+    }
+
+    private void evictAll() {
+        List.copyOf(historiesByUserId.keySet()).forEach(this::evict);
+        LOGGER.info("Invalidated all cached portfolio histories.");
+    }
+
+    private void evict(Long userId) {
+        generationsByUserId.merge(userId, 1L, Long::sum);
+        PortfolioHistory removed = historiesByUserId.remove(userId);
+        if (removed != null) {
+            removed.positions().forEach(position -> {
+                Set<Long> userIds = userIdsByStockId.get(position.getStockId());
+                if (userIds != null) {
+                    userIds.remove(userId);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.investmentportfolio.cache;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+// Running totals after each transaction and each ex date of one position, in the owner's display currency
+public final class PositionHistory {
+    private final Long stockId;
+    private final long[] transactionDays;
+    private final BigDecimal[] cumulativeUnits;
+    private final BigDecimal[] cumulativeCost;
+    private final BigDecimal[] cumulativeRealizedProfits;
+    private final long[] exDays;
+    private final BigDecimal[] cumulativeDividends;
+
+    public PositionHistory(Long stockId, long[] transactionDays, BigDecimal[] cumulativeUnits, BigDecimal[] cumulativeCost,
+                           BigDecimal[] cumulativeRealizedProfits, long[] exDays, BigDecimal[] cumulativeDividends) {
+        this.stockId = stockId;
+        this.transactionDays = transactionDays;
+        this.cumulativeUnits = cumulativeUnits;
+        this.cumulativeCost = cumulativeCost;
+        this.cumulativeRealizedProfits = cumulativeRealizedProfits;
+        this.exDays = exDays;
+        this.cumulativeDividends = cumulativeDividends;
+    }
+
+    public Long getStockId() {
+        return stockId;
+    }
+
+    public boolean isOpenedBy(LocalDate date) {
+        return lastIndexOnOrBefore(transactionDays, date.toEpochDay()) >= 0;
+    }
+
+    public BigDecimal getUnits(LocalDate date) {
+        return valueAt(transactionDays, cumulativeUnits, date);
+    }
+
+    public BigDecimal getCost(LocalDate date) {
+        return valueAt(transactionDays, cumulativeCost, date);
+    }
+
+    public BigDecimal getRealizedProfits(LocalDate date) {
+        return valueAt(transactionDays, cumulativeRealizedProfits, date);
+    }
+
+    public BigDecimal getDividendsEarned(LocalDate date) {
+        return valueAt(exDays, cumulativeDividends, date);
+    }
+
+    private static BigDecimal valueAt(long[] days, BigDecimal[] values, LocalDate date) {
+        int index = lastIndexOnOrBefore(days, date.toEpochDay());
+        return index < 0 ? BigDecimal.ZERO : values[index];
+    }
+
+    // Same-day entries are collapsed when the arrays are built, so the days are strictly increasing
+    static int lastIndexOnOrBefore(long[] days, long day) {
+        int index = Arrays.binarySearch(days, day);
+        return index >= 0 ? index : -index - 2;
+    }
+}
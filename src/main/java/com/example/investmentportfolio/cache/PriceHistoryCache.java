@@ -0,0 +1,90 @@
+package com.example.investmentportfolio.cache;
+
+import com.example.investmentportfolio.provider.PriceBar;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+@Component
+public class PriceHistoryCache implements CacheInvalidationListener {
+    private final Map<PriceWindow, List<PriceBar>> barsByWindow;
+    private final Map<Long, Long> generationsByStockId = new HashMap<>();
+    private long flushes;
+    private final Counter hits;
+    private final Counter misses;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    public record PriceWindow(Long stockId, LocalDate from, LocalDate to) {
+    }
+
+    public PriceHistoryCache(MeterRegistry meterRegistry, CacheInvalidationBus cacheInvalidationBus,
+                             @Value("${price-history.cache.max-windows:256}") int maxWindows) {
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        cacheInvalidationBus.register(this);
+        barsByWindow = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PriceWindow, List<PriceBar>> eldest) {
+                return size() > maxWindows;
+            }
+        };
+        hits = Counter.builder("price-history.cache.requests").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("price-history.cache.requests").tag("result", "miss").register(meterRegistry);
+    }
+
+    public List<PriceBar> get(PriceWindow window, Function<PriceWindow, List<PriceBar>> loader) {
+        long generation;
+        long flushGeneration;
+        synchronized (barsByWindow) {
+            List<PriceBar> cached = barsByWindow.get(window);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            generation = generationsByStockId.getOrDefault(window.stockId(), 0L);
+            flushGeneration = flushes;
+        }
+        misses.increment();
+        List<PriceBar> loaded = List.copyOf(loader.apply(window));
+        synchronized (barsByWindow) {
+            if (flushes == flushGeneration && generationsByStockId.getOrDefault(window.stockId(), 0L) == generation) {
+                barsByWindow.put(window, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    public void invalidateStock(Long stockId) {
+        CacheSupport.runNowAndAfterCommit(() -> evictStock(stockId));
+        cacheInvalidationBus.publish(this, CacheInvalidationEvent.EntityType.PRICE_HISTORY, String.valueOf(stockId));
+    }
+
+    @Override
+    public void onInvalidation(CacheInvalidationEvent event) {
+        if (event.entityType() == CacheInvalidationEvent.EntityType.PRICE_HISTORY) {
+            evictStock(Long.valueOf(event.id()));
+        }
+    }
+
+    @Override
+    public void onFlush() {
+        synchronized (barsByWindow) {
+            flushes++;
+            barsByWindow.clear();
+        }
+    }
+
+    private void evictStock(Long stockId) {
+        synchronized (barsByWindow) {
+            generationsByStockId.merge(stockId, 1L, Long::sum);
+            barsByWindow.keySet().removeIf(window -> window.stockId().equals(stockId));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.investmentportfolio.cache;
+
+import com.example.investmentportfolio.model.Rate;
+import com.example.investmentportfolio.repository.RateRepository;
+import com.example.investmentportfolio.util.CustomError;
+import com.example.investmentportfolio.util.ErrorConstants;
+import com.example.investmentportfolio.util.NotFoundException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class RateCache implements CacheInvalidationListener {
+    private static final Logger LOGGER = LogManager.getLogger(RateCache.class);
+    public static final String INVALID_RATE = "Invalid rate: %s";
+    private final RateRepository rateRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final DataVersionCache dataVersionCache;
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Map<String, BigDecimal> ratesByName;
+
+    public RateCache(RateRepository rateRepository, CacheInvalidationBus cacheInvalidationBus, DataVersionCache dataVersionCache) {
+        this.rateRepository = rateRepository;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.dataVersionCache = dataVersionCache;
+        cacheInvalidationBus.register(this);
+    }
+
+    // Falls back to the inverse of QUOTE/BASE, so each pair only needs to be stored in one direction
+    public Optional<BigDecimal> findRate(String baseCurrency, String quoteCurrency) {
+        String base = baseCurrency.toUpperCase();
+        String quote = quoteCurrency.toUpperCase();
+        if (base.equals(quote)) {
+            return Optional.of(BigDecimal.ONE);
+        }
+        Map<String, BigDecimal> rates = load();
+        BigDecimal direct = rates.get(base + "/" + quote);
+        if (direct != null) {
+            return Optional.of(direct);
+        }
+        BigDecimal inverse = rates.get(quote + "/" + base);
+        if (inverse != null && inverse.signum() != 0) {
+            return Optional.of(BigDecimal.ONE.divide(inverse, MathContext.DECIMAL128));
+        }
+        return Optional.empty();
+    }
+
+    public BigDecimal getRate(String rateName) {
+        String[] currencies = rateName.split("/");
+        return getRate(currencies[0], currencies[1]);
+    }
+
+    public BigDecimal getRate(String baseCurrency, String quoteCurrency) {
+        Optional<BigDecimal> optionalRate = findRate(baseCurrency, quoteCurrency);
+        if (optionalRate.isPresent()) {
+            return optionalRate.get();
+        } else {
+            List<String> errorMessages = Collections.singletonList(String.format(INVALID_RATE, baseCurrency + "/" + quoteCurrency));
+            LOGGER.error(errorMessages);
+            throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
+        }
+    }
+
+    public void invalidateRate(String rateName) {
+        dataVersionCache.bump(DataVersionCache.RATES);
+        CacheSupport.runNowAndAfterCommit(this::clear);
+        cacheInvalidationBus.publish(this, CacheInvalidationEvent.EntityType.RATE, rateName);
+    }
+
+    public void invalidateAll() {
+        dataVersionCache.bump(DataVersionCache.RATES);
+        CacheSupport.runNowAndAfterCommit(this::clear);
+        cacheInvalidationBus.publish(this, CacheInvalidationEvent.EntityType.RATE, null);
+    }
+
+    @Override
+    public void onInvalidation(CacheInvalidationEvent event) {
+        if (event.entityType() == CacheInvalidationEvent.EntityType.RATE) {
+            clear();
+        }
+    }
+
+    @Override
+    public void onFlush() {
+        clear();
+    }
+
+    // The whole table is small, so it is loaded in one query and replaced wholesale on any rate change
+    private Map<String, BigDecimal> load() {
+        Map<String, BigDecimal> rates = ratesByName;
+        if (rates != null) {
+            return rates;
+        }
+        long loadedGeneration = generation.get();
+        Map<String, BigDecimal> loaded = new HashMap<>();
+        for (Rate rate : rateRepository.findAll()) {
+            if (rate.getRateName() != null && rate.getRate() != null) {
+                loaded.put(rate.getRateName().toUpperCase(), new BigDecimal(rate.getRate()));
+            }
+        }
+        synchronized (this) {
+            if (generation.get() == loadedGeneration) {
+                ratesByName = Map.copyOf(loaded);
+            }
+        }
+        LOGGER.info("Loaded {} rate(s) into the rate cache.", loaded.size());
+        return loaded;
+    }
+
+    private void clear() {
+        synchronized (this) {
+            generation.incrementAndGet();
+            ratesByName = null;
+        }
+    }
+}
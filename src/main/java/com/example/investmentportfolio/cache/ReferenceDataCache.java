@@ -0,0 +1,164 @@
+package com.example.investmentportfolio.cache;
+
+import com.example.investmentportfolio.model.Exchange;
+import com.example.investmentportfolio.model.Stock;
+import com.example.investmentportfolio.repository.ExchangeRepository;
+import com.example.investmentportfolio.repository.StockRepository;
+import com.example.investmentportfolio.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+@Component
+public class ReferenceDataCache implements CacheInvalidationListener {
+    private static final Logger LOGGER = LogManager.getLogger(ReferenceDataCache.class);
+    private static final String STOCKS = "stocks";
+    private static final String EXCHANGES = "exchanges";
+    private static final String USERS = "users";
+    private final StockRepository stockRepository;
+    private final ExchangeRepository exchangeRepository;
+    private final UserRepository userRepository;
+    private final Map<Long, Stock> stocksById = new ConcurrentHashMap<>();
+    private final Map<StockKey, Long> stockIdsByTickerAndExchangeId = new ConcurrentHashMap<>();
+    private final Map<Long, Exchange> exchangesById = new ConcurrentHashMap<>();
+    private final Map<String, Long> exchangeIdsByName = new ConcurrentHashMap<>();
+    private final Map<String, Long> userIdsByUsername = new ConcurrentHashMap<>();
+    private final Map<Long, String> usernamesByUserId = new ConcurrentHashMap<>();
+    private final Map<String, Counter> hits = new ConcurrentHashMap<>();
+    private final Map<String, Counter> misses = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private record StockKey(String stockTicker, long exchangeId) {
+    }
+
+    public ReferenceDataCache(StockRepository stockRepository, ExchangeRepository exchangeRepository, UserRepository userRepository, MeterRegistry meterRegistry, CacheInvalidationBus cacheInvalidationBus) {
+        this.stockRepository = stockRepository;
+        this.exchangeRepository = exchangeRepository;
+        this.userRepository = userRepository;
+        this.meterRegistry = meterRegistry;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        cacheInvalidationBus.register(this);
+    }
+
+    // Stocks are cached as detached copies without last_price, which changes too often to be cached here
+    public Optional<Stock> findStockById(Long stockId) {
+        return lookup(STOCKS, stocksById, stockId, id -> stockRepository.findById(id).map(stock -> new Stock(stock.getStockId(), stock.getStockTicker(),
+                stock.getStockName(), stock.getStockType(), stock.getExchangeId(), null, null, stock.getBaseCurrency(), stock.getDivInd(), stock.getDelistInd())));
+    }
+
+    public Optional<Long> findStockIdByTickerAndExchangeId(String stockTicker, Long exchangeId) {
+        return lookup(STOCKS, stockIdsByTickerAndExchangeId, new StockKey(stockTicker.toUpperCase(), exchangeId),
+                key -> stockRepository.findIdByTickerAndExchangeId(key.stockTicker(), key.exchangeId()));
+    }
+
+    public Optional<String> findStockTickerByStockId(Long stockId) {
+        return findStockById(stockId).map(Stock::getStockTicker);
+    }
+
+    public Optional<String> findBaseCurrencyByStockId(Long stockId) {
+        return findStockById(stockId).map(Stock::getBaseCurrency);
+    }
+
+    public Optional<Exchange> findExchangeById(Long exchangeId) {
+        return lookup(EXCHANGES, exchangesById, exchangeId, id -> exchangeRepository.findById(id).map(exchange -> new Exchange(exchange.getExchangeId(),
+                exchange.getExchange(), exchange.getCountryCode(), exchange.getSuffix(), exchange.getTimeZone(), exchange.getOpenTime(),
+                exchange.getCloseTime())));
+    }
+
+    public Optional<Long> findExchangeIdByName(String exchange) {
+        return lookup(EXCHANGES, exchangeIdsByName, exchange.toUpperCase(), exchangeRepository::findIdByExchange);
+    }
+
+    public Optional<String> findExchangeByStockId(Long stockId) {
+        return findStockById(stockId)
+                .flatMap(stock -> findExchangeById(stock.getExchangeId()))
+                .map(Exchange::getExchange);
+    }
+
+    public Optional<Long> findUserIdByUsername(String username) {
+        return lookup(USERS, userIdsByUsername, username.toUpperCase(), userRepository::findIdByUsername);
+    }
+
+    public Optional<String> findUsernameByUserId(Long userId) {
+        return lookup(USERS, usernamesByUserId, userId, id -> userRepository.findById(id).map(user -> String.valueOf(user.getUsername())));
+    }
+
+    public void invalidateStocks() {
+        CacheSupport.runNowAndAfterCommit(this::clearStocks);
+        cacheInvalidationBus.publish(this, CacheInvalidationEvent.EntityType.STOCK, null);
+    }
+
+    public void invalidateExchanges() {
+        CacheSupport.runNowAndAfterCommit(this::clearExchanges);
+        cacheInvalidationBus.publish(this, CacheInvalidationEvent.EntityType.EXCHANGE, null);
+    }
+
+    public void invalidateUsers() {
+        CacheSupport.runNowAndAfterCommit(this::clearUsers);
+        cacheInvalidationBus.publish(this, CacheInvalidationEvent.EntityType.USER, null);
+    }
+
+    @Override
+    public void onInvalidation(CacheInvalidationEvent event) {
+        switch (event.entityType()) {
+            case STOCK -> clearStocks();
+            case EXCHANGE -> clearExchanges();
+            case USER -> clearUsers();
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void onFlush() {
+        clearStocks();
+        clearExchanges();
+        clearUsers();
+    }
+
+    private void clearStocks() {
+        stocksById.clear();
+        stockIdsByTickerAndExchangeId.clear();
+        LOGGER.info("Invalidated cached stocks.");
+    }
+
+    private void clearExchanges() {
+        exchangesById.clear();
+        exchangeIdsByName.clear();
+        LOGGER.info("Invalidated cached exchanges.");
+    }
+
+    private void clearUsers() {
+        userIdsByUsername.clear();
+        usernamesByUserId.clear();
+        LOGGER.info("Invalidated cached users.");
+    }
+
+    private <K, V> Optional<V> lookup(String cacheName, Map<K, V> cache, K key, Function<K, Optional<V>> loader) {
+        V value = cache.get(key);
+        if (value != null) {
+            counter(hits, cacheName, "hit").increment();
+            return Optional.of(value);
+        }
+        counter(misses, cacheName, "miss").increment();
+        Optional<V> loaded = loader.apply(key);
+        loaded.ifPresent(loadedValue -> cache.put(key, loadedValue));
+        return loaded;
+    }
+
+    private Counter counter(Map<String, Counter> counters, String cacheName, String result) {
+        return counters.computeIfAbsent(cacheName, name -> Counter.builder("reference.cache.requests")
+                .description("Reference data cache lookups")
+                .tag("cache", name)
+                .tag("result", result)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.investmentportfolio.cache;
+
+import com.example.investmentportfolio.dto.StatisticDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+public class StatisticCache implements CacheInvalidationListener {
+    private static final Logger LOGGER = LogManager.getLogger(StatisticCache.class);
+    private static final int STOCK_IDS_PER_EVENT = 500;
+    private final Map<Long, CachedStatistics> statisticsByUserId = new ConcurrentHashMap<>();
+    private final Map<Long, Long> generationsByUserId = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> userIdsByStockId = new ConcurrentHashMap<>();
+    private final Map<Long, Long> evictionsByStockId = new ConcurrentHashMap<>();
+    private long stockEvictions;
+    private long flushes;
+    private final AtomicLong versions = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final DataVersionCache dataVersionCache;
+
+    // Figures are held in each position's native currency, listed in currencies, so no rate or display currency change can stale them
+    public record LoadedStatistics(List<StatisticDto> statistics, List<String> currencies, Set<Long> stockIds, String displayCurrency) {
+    }
+
+    public record CachedStatistics(long version, LoadedStatistics loaded) {
+    }
+
+    public StatisticCache(MeterRegistry meterRegistry, CacheInvalidationBus cacheInvalidationBus, DataVersionCache dataVersionCache) {
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.dataVersionCache = dataVersionCache;
+        cacheInvalidationBus.register(this);
+        hits = Counter.builder("statistics.cache.requests").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("statistics.cache.requests").tag("result", "miss").register(meterRegistry);
+    }
+
+    public CachedStatistics get(Long userId, Function<Long, LoadedStatistics> loader) {
+        CachedStatistics cached = statisticsByUserId.get(userId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        long generation;
+        long stockGeneration;
+        long flushGeneration;
+        synchronized (this) {
+            generation = generationsByUserId.getOrDefault(userId, 0L);
+            stockGeneration = stockEvictions;
+            flushGeneration = flushes;
+        }
+        LoadedStatistics loaded = loader.apply(userId);
+        CachedStatistics computed = new CachedStatistics(versions.incrementAndGet(), loaded);
+        // An invalidation that raced with the load, whether of the user, one of its stocks or everything, is served once but not kept;
+        // the stocks are only known once loaded, so each one remembers the eviction count it was last invalidated at
+        synchronized (this) {
+            if (flushes == flushGeneration && generationsByUserId.getOrDefault(userId, 0L) == generation
+                    && loaded.stockIds().stream().noneMatch(stockId -> evictionsByStockId.getOrDefault(stockId, 0L) > stockGeneration)) {
+                statisticsByUserId.put(userId, computed);
+                loaded.stockIds().forEach(stockId -> userIdsByStockId.computeIfAbsent(stockId, key -> ConcurrentHashMap.newKeySet()).add(userId));
+            }
+        }
+        return computed;
+    }
+
+    public void invalidateUser(Long userId) {
+        dataVersionCache.bump(DataVersionCache.userStatistics(userId));
+        CacheSupport.runNowAndAfterCommit(() -> evict(userId));
+        cacheInvalidationBus.publish(this, CacheInvalidationEvent.EntityType.USER_STATISTICS, String.valueOf(userId));
+    }
+
+    public void invalidateStocks(Collection<Long> stockIds) {
+        if (stockIds.isEmpty()) {
+            return;
+        }
+        List<Long> stockIdList = List.copyOf(stockIds);
+        dataVersionCache.bumpUserStatisticsForStocks(stockIdList);
+        CacheSupport.runNowAndAfterCommit(() -> evictStocks(stockIdList));
+        // NOTIFY payloads are capped at 8000 bytes, so large id lists go out in chunks
+        for (int from = 0; from < stockIdList.size(); from += STOCK_IDS_PER_EVENT) {
+            List<Long> chunk = stockIdList.subList(from, Math.min(from + STOCK_IDS_PER_EVENT, stockIdList.size()));
+            cacheInvalidationBus.publish(this, CacheInvalidationEvent.EntityType.STOCK_POSITIONS, chunk.stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(",")));
+        }
+    }
+
+    public void invalidateAll() {
+        dataVersionCache.bump(DataVersionCache.STATISTICS);
+        CacheSupport.runNowAndAfterCommit(this::evictAll);
+        cacheInvalidationBus.publish(this, CacheInvalidationEvent.EntityType.ALL_STATISTICS, null);
+    }
+
+    @Override
+    public void onInvalidation(CacheInvalidationEvent event) {
+        switch (event.entityType()) {
+            case USER_STATISTICS -> evict(Long.valueOf(event.id()));
+            case STOCK_POSITIONS -> evictStocks(Arrays.stream(event.id().split(","))
+                    .map(Long::valueOf)
+                    .toList());
+            case ALL_STATISTICS, EXCHANGE -> evictAll();
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void onFlush() {
+        evictAll();
+    }
+
+    private synchronized void evictStocks(Collection<Long> stockIds) {
+        stockEvictions++;
+        for (Long stockId : stockIds) {
+            evictionsByStockId.put(stockId, stockEvictions);
+            Set<Long> userIds = userIdsByStockId.get(stockId);
+            if (userIds != null) {
+                List.copyOf(userIds).forEach(this::evict);
+            }
+        }
+    }
+
+    private synchronized void evictAll() {
+        flushes++;
+        List.copyOf(statisticsByUserId.keySet()).forEach(this::evict);
+        LOGGER.info("Invalidated all cached statistics.");
+    }
+
+    private synchronized void evict(Long userId) {
+        generationsByUserId.merge(userId, 1L, Long::sum);
+        CachedStatistics removed = statisticsByUserId.remove(userId);
+        if (removed != null) {
+            removed.loaded().stockIds().forEach(stockId -> {
+                Set<Long> userIds = userIdsByStockId.get(stockId);
+                if (userIds != null) {
+                    userIds.remove(userId);
+                }
+            });
+        }
+    }
+}
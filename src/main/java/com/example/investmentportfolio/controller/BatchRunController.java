@@ -0,0 +1,28 @@
+package com.example.investmentportfolio.controller;
+
+import com.example.investmentportfolio.dto.BatchRunDto;
+import com.example.investmentportfolio.service.BatchRunService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/batch")
+public class BatchRunController {
+    private final BatchRunService batchRunService;
+
+    public BatchRunController(BatchRunService batchRunService) {
+        this.batchRunService = batchRunService;
+    }
+
+    // READ
+    @GetMapping("/runs")
+    public ResponseEntity<List<BatchRunDto>> getRecentRuns(@RequestParam(required = false) String jobName, @RequestParam(required = false) Integer limit) {
+        List<BatchRunDto> batchRunDtoList = batchRunService.getRecentRuns(jobName, limit);
+        return ResponseEntity.ok(batchRunDtoList);
+    }
+}
@@ -1,7 +1,11 @@
 package com.example.investmentportfolio.controller;
 
+import com.example.investmentportfolio.dto.DividendCalendarDto;
 import com.example.investmentportfolio.dto.DividendDto;
+import com.example.investmentportfolio.dto.DividendForecastDto;
+import com.example.investmentportfolio.service.DividendForecastService;
 import com.example.investmentportfolio.service.DividendService;
+import com.example.investmentportfolio.service.IdempotencyService;
 import com.example.investmentportfolio.util.CustomError;
 import com.example.investmentportfolio.util.ErrorConstants;
 import com.example.investmentportfolio.util.ValidationException;
@@ -20,15 +24,22 @@ import java.util.List;
 @RequestMapping("/dividends")
 public class DividendController {
     private static final Logger LOGGER = LogManager.getLogger(DividendController.class);
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
     private final DividendService dividendService;
+    private final DividendForecastService dividendForecastService;
+    private final IdempotencyService idempotencyService;
 
-    public DividendController(DividendService dividendService) {
+    public DividendController(DividendService dividendService, DividendForecastService dividendForecastService,
+                              IdempotencyService idempotencyService) {
         this.dividendService = dividendService;
+        this.dividendForecastService = dividendForecastService;
+        this.idempotencyService = idempotencyService;
     }
 
     // CREATE
     @PostMapping("/create")
-    public ResponseEntity<DividendDto> createDividend(@Valid @RequestBody DividendDto dividendDto, BindingResult bindingResult) {
+    public ResponseEntity<DividendDto> createDividend(@Valid @RequestBody DividendDto dividendDto, BindingResult bindingResult,
+                                                      @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         if (bindingResult.hasErrors()) {
             List<String> errorMessages = bindingResult.getAllErrors().stream()
                     .map(DefaultMessageSourceResolvable::getDefaultMessage)
@@ -36,11 +47,17 @@ public class DividendController {
             LOGGER.error(errorMessages);
             throw new ValidationException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
         } else {
-            DividendDto createdDividendDto = dividendService.createDividend(dividendDto);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdDividendDto);
+            return idempotencyService.execute("/dividends/create", idempotencyKey, dividendDto, DividendDto.class,
+                    () -> ResponseEntity.status(HttpStatus.CREATED).body(dividendService.createDividend(dividendDto)));
         }
     }
 
+    @PostMapping("/create/batch")
+    public ResponseEntity<List<DividendDto>> createDividends(@RequestBody List<DividendDto> dividendDtos) {
+        List<DividendDto> createdDividendDtos = dividendService.createDividends(dividendDtos);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdDividendDtos);
+    }
+
     // READ
     @GetMapping("/all")
     public ResponseEntity<List<DividendDto>> getAllDividends() {
@@ -66,6 +83,18 @@ public class DividendController {
         return ResponseEntity.ok(dividendDtoList);
     }
 
+    @GetMapping("/forecast/stockId/{stockId}")
+    public ResponseEntity<DividendForecastDto> getForecastByStockId(@PathVariable Long stockId) {
+        DividendForecastDto dividendForecastDto = dividendForecastService.getForecastByStockId(stockId);
+        return ResponseEntity.ok(dividendForecastDto);
+    }
+
+    @GetMapping("/calendar/userId/{userId}")
+    public ResponseEntity<DividendCalendarDto> getCalendarByUserId(@PathVariable Long userId) {
+        DividendCalendarDto dividendCalendarDto = dividendForecastService.getCalendarByUserId(userId);
+        return ResponseEntity.ok(dividendCalendarDto);
+    }
+
     // UPDATE
     @PostMapping("/update/id/{dividendId}")
     public ResponseEntity<DividendDto> updateDividendById(@PathVariable Long dividendId, @Valid @RequestBody DividendDto dividendDto, BindingResult bindingResult) {
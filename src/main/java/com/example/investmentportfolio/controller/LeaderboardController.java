@@ -0,0 +1,32 @@
+package com.example.investmentportfolio.controller;
+
+import com.example.investmentportfolio.dto.StockLeaderboardDto;
+import com.example.investmentportfolio.dto.UserLeaderboardDto;
+import com.example.investmentportfolio.service.LeaderboardService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/leaderboard")
+public class LeaderboardController {
+    private final LeaderboardService leaderboardService;
+
+    public LeaderboardController(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+    // READ
+    @GetMapping("/users")
+    public ResponseEntity<UserLeaderboardDto> getTopUsers(@RequestParam(defaultValue = "total_profits") String metric,
+                                                          @RequestParam(required = false) Integer limit, @RequestParam String currency) {
+        UserLeaderboardDto userLeaderboardDto = leaderboardService.getTopUsers(metric, limit, currency);
+        return ResponseEntity.ok(userLeaderboardDto);
+    }
+
+    @GetMapping("/stocks")
+    public ResponseEntity<StockLeaderboardDto> getMostHeldStocks(@RequestParam(defaultValue = "holders") String sortBy,
+                                                                 @RequestParam(required = false) Integer limit, @RequestParam String currency) {
+        StockLeaderboardDto stockLeaderboardDto = leaderboardService.getMostHeldStocks(sortBy, limit, currency);
+        return ResponseEntity.ok(stockLeaderboardDto);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.investmentportfolio.controller;
+
+import com.example.investmentportfolio.dto.PortfolioValuationDto;
+import com.example.investmentportfolio.dto.PortfolioValueHistoryDto;
+import com.example.investmentportfolio.service.PortfolioService;
+import com.example.investmentportfolio.service.PortfolioSnapshotService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/portfolio")
+public class PortfolioController {
+    private final PortfolioService portfolioService;
+    private final PortfolioSnapshotService portfolioSnapshotService;
+
+    public PortfolioController(PortfolioService portfolioService, PortfolioSnapshotService portfolioSnapshotService) {
+        this.portfolioService = portfolioService;
+        this.portfolioSnapshotService = portfolioSnapshotService;
+    }
+
+    // READ
+    @GetMapping("/{userId}/asOf/{date}")
+    public ResponseEntity<PortfolioValuationDto> getPortfolioAsOf(@PathVariable Long userId, @PathVariable String date) {
+        PortfolioValuationDto portfolioValuationDto = portfolioService.getPortfolioAsOf(userId, date);
+        return ResponseEntity.ok(portfolioValuationDto);
+    }
+
+    @GetMapping("/{userId}/history")
+    public ResponseEntity<PortfolioValueHistoryDto> getPortfolioValueHistory(@PathVariable Long userId, @RequestParam(required = false) String from,
+                                                                             @RequestParam(required = false) String to,
+                                                                             @RequestParam(required = false) String interval) {
+        PortfolioValueHistoryDto portfolioValueHistoryDto = portfolioSnapshotService.getPortfolioValueHistory(userId, from, to, interval);
+        return ResponseEntity.ok(portfolioValueHistoryDto);
+    }
+}
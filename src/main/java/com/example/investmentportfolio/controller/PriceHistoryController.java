@@ -0,0 +1,32 @@
+package com.example.investmentportfolio.controller;
+
+import com.example.investmentportfolio.dto.PriceHistoryDto;
+import com.example.investmentportfolio.service.PriceHistoryService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/prices")
+public class PriceHistoryController {
+    private final PriceHistoryService priceHistoryService;
+
+    public PriceHistoryController(PriceHistoryService priceHistoryService) {
+        this.priceHistoryService = priceHistoryService;
+    }
+
+    // READ
+    @GetMapping("/stockId/{stockId}")
+    public ResponseEntity<PriceHistoryDto> getPriceHistory(@PathVariable Long stockId, @RequestParam(required = false) String from,
+                                                           @RequestParam(required = false) String to) {
+        PriceHistoryDto priceHistoryDto = priceHistoryService.getPriceHistory(stockId, from, to);
+        return ResponseEntity.ok(priceHistoryDto);
+    }
+
+    // UPDATE
+    @PostMapping("/backfill/stockId/{stockId}")
+    public ResponseEntity<String> backfillPriceHistory(@PathVariable Long stockId, @RequestParam(required = false) String from,
+                                                       @RequestParam(required = false) String to) {
+        int saved = priceHistoryService.backfillPriceHistory(stockId, from, to);
+        return ResponseEntity.ok(String.format("Successfully saved %d daily bar(s) for stock with id: %d", saved, stockId));
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.investmentportfolio.controller;
 
+import com.example.investmentportfolio.cache.DataVersionCache;
 import com.example.investmentportfolio.dto.RateDto;
 import com.example.investmentportfolio.service.RateService;
 import com.example.investmentportfolio.util.CustomError;
@@ -13,6 +14,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -21,9 +23,11 @@ import java.util.List;
 public class RateController {
     private static final Logger LOGGER = LogManager.getLogger(RateController.class);
     private final RateService rateService;
+    private final DataVersionCache dataVersionCache;
 
-    public RateController(RateService rateService) {
+    public RateController(RateService rateService, DataVersionCache dataVersionCache) {
         this.rateService = rateService;
+        this.dataVersionCache = dataVersionCache;
     }
 
     // CREATE
@@ -41,9 +45,19 @@ public class RateController {
         }
     }
 
+    @PostMapping("/create/batch")
+    public ResponseEntity<List<RateDto>> createRates(@RequestBody List<RateDto> rateDtos) {
+        List<RateDto> createdRateDtos = rateService.createRates(rateDtos);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdRateDtos);
+    }
+
     // READ
     @GetMapping("/all")
-    public ResponseEntity<List<RateDto>> getAllRates() {
+    public ResponseEntity<List<RateDto>> getAllRates(WebRequest webRequest) {
+        String eTag = dataVersionCache.tag(List.of(DataVersionCache.RATES), null);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         List<RateDto> rateDtoList = rateService.getAllRates();
         return ResponseEntity.ok(rateDtoList);
     }
@@ -0,0 +1,30 @@
+package com.example.investmentportfolio.controller;
+
+import com.example.investmentportfolio.dto.PortfolioRiskDto;
+import com.example.investmentportfolio.service.RiskService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/risk")
+public class RiskController {
+    private final RiskService riskService;
+
+    public RiskController(RiskService riskService) {
+        this.riskService = riskService;
+    }
+
+    // READ
+    @GetMapping("/userId/{userId}")
+    public ResponseEntity<PortfolioRiskDto> getRiskByUserId(@PathVariable Long userId) {
+        PortfolioRiskDto portfolioRiskDto = riskService.getRiskByUserId(userId);
+        return ResponseEntity.ok(portfolioRiskDto);
+    }
+
+    // UPDATE
+    @PostMapping("/update/userId/{userId}")
+    public ResponseEntity<PortfolioRiskDto> updateRiskByUserId(@PathVariable Long userId) {
+        riskService.updateRiskForUser(userId);
+        return ResponseEntity.ok(riskService.getRiskByUserId(userId));
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.investmentportfolio.controller;
+
+import com.example.investmentportfolio.dto.SimulationDto;
+import com.example.investmentportfolio.service.SimulationService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/simulation")
+public class SimulationController {
+    private final SimulationService simulationService;
+
+    public SimulationController(SimulationService simulationService) {
+        this.simulationService = simulationService;
+    }
+
+    // READ
+    @GetMapping("/userId/{userId}")
+    public ResponseEntity<SimulationDto> simulatePortfolio(@PathVariable Long userId, @RequestParam(required = false) Integer paths,
+                                                           @RequestParam(required = false) Integer horizonDays,
+                                                           @RequestParam(defaultValue = "false") boolean correlated,
+                                                           @RequestParam(required = false) Long seed) {
+        SimulationDto simulationDto = simulationService.simulatePortfolio(userId, paths, horizonDays, correlated, seed);
+        return ResponseEntity.ok(simulationDto);
+    }
+}
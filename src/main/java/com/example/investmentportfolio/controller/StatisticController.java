@@ -1,6 +1,13 @@
 package com.example.investmentportfolio.controller;
 
+import com.example.investmentportfolio.cache.DataVersionCache;
+import com.example.investmentportfolio.dto.AllocationDto;
+import com.example.investmentportfolio.dto.PortfolioReturnsDto;
+import com.example.investmentportfolio.dto.PortfolioStatisticsDto;
+import com.example.investmentportfolio.dto.PortfolioSummaryDto;
 import com.example.investmentportfolio.dto.StatisticDto;
+import com.example.investmentportfolio.service.AllocationService;
+import com.example.investmentportfolio.service.ReturnService;
 import com.example.investmentportfolio.service.StatisticService;
 import com.example.investmentportfolio.util.CustomError;
 import com.example.investmentportfolio.util.ErrorConstants;
@@ -13,6 +20,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -20,10 +28,17 @@ import java.util.List;
 @RequestMapping("/statistics")
 public class StatisticController {
     private static final Logger LOGGER = LogManager.getLogger(StatisticController.class);
+    public static final String STATISTICS_VERSION_HEADER = "X-Statistics-Version";
     private final StatisticService statisticService;
+    private final ReturnService returnService;
+    private final AllocationService allocationService;
+    private final DataVersionCache dataVersionCache;
 
-    public StatisticController(StatisticService statisticService) {
+    public StatisticController(StatisticService statisticService, ReturnService returnService, AllocationService allocationService, DataVersionCache dataVersionCache) {
         this.statisticService = statisticService;
+        this.returnService = returnService;
+        this.allocationService = allocationService;
+        this.dataVersionCache = dataVersionCache;
     }
 
     // CREATE
@@ -55,9 +70,43 @@ public class StatisticController {
     }
 
     @GetMapping("/userId/{userId}")
-    public ResponseEntity<List<StatisticDto>> getStatisticsByUserId(@PathVariable Long userId) {
-        List<StatisticDto> statisticDtoList = statisticService.getStatisticsByUserId(userId);
-        return ResponseEntity.ok(statisticDtoList);
+    public ResponseEntity<List<StatisticDto>> getStatisticsByUserId(@PathVariable Long userId, @RequestParam(required = false) String currency, WebRequest webRequest) {
+        if (isNotModified(userId, currency, webRequest)) {
+            return null;
+        }
+        PortfolioStatisticsDto portfolioStatisticsDto = statisticService.getPortfolioStatistics(userId, currency);
+        return ResponseEntity.ok()
+                .header(STATISTICS_VERSION_HEADER, String.valueOf(portfolioStatisticsDto.getVersion()))
+                .body(portfolioStatisticsDto.getStatistics());
+    }
+
+    @GetMapping("/userId/{userId}/summary")
+    public ResponseEntity<PortfolioSummaryDto> getPortfolioSummaryByUserId(@PathVariable Long userId, @RequestParam(required = false) String currency, WebRequest webRequest) {
+        if (isNotModified(userId, currency, webRequest)) {
+            return null;
+        }
+        PortfolioStatisticsDto portfolioStatisticsDto = statisticService.getPortfolioStatistics(userId, currency);
+        return ResponseEntity.ok()
+                .header(STATISTICS_VERSION_HEADER, String.valueOf(portfolioStatisticsDto.getVersion()))
+                .body(portfolioStatisticsDto.getSummary());
+    }
+
+    @GetMapping("/userId/{userId}/returns")
+    public ResponseEntity<PortfolioReturnsDto> getReturnsByUserId(@PathVariable Long userId) {
+        PortfolioReturnsDto portfolioReturnsDto = returnService.getReturnsByUserId(userId);
+        return ResponseEntity.ok(portfolioReturnsDto);
+    }
+
+    @GetMapping("/userId/{userId}/allocation")
+    public ResponseEntity<AllocationDto> getAllocationByUserId(@PathVariable Long userId) {
+        AllocationDto allocationDto = allocationService.getAllocationByUserId(userId);
+        return ResponseEntity.ok(allocationDto);
+    }
+
+    @GetMapping("/allocation")
+    public ResponseEntity<AllocationDto> getBookAllocation(@RequestParam String currency) {
+        AllocationDto allocationDto = allocationService.getBookAllocation(currency);
+        return ResponseEntity.ok(allocationDto);
     }
 
     // UPDATE
@@ -99,4 +148,12 @@ public class StatisticController {
         statisticService.updateStatisticsForAllUsers();
         return ResponseEntity.ok("");
     }
-}
\ No newline at end of file
+
+    // Rates are applied at read time and each row carries its exchange name, so the rates and exchanges versions and the requested
+    // currency are part of the tag. The tag is read before the statistics, so a write racing the load can only cost one extra full response
+    private boolean isNotModified(Long userId, String currency, WebRequest webRequest) {
+        String eTag = dataVersionCache.tag(List.of(DataVersionCache.userStatistics(userId), DataVersionCache.STATISTICS, DataVersionCache.RATES,
+                DataVersionCache.EXCHANGES), currency);
+        return webRequest.checkNotModified(eTag);
+    }
+}
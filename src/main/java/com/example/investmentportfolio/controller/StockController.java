@@ -1,5 +1,6 @@
 package com.example.investmentportfolio.controller;
 
+import com.example.investmentportfolio.cache.DataVersionCache;
 import com.example.investmentportfolio.dto.StockDto;
 import com.example.investmentportfolio.service.StockService;
 import com.example.investmentportfolio.util.CustomError;
@@ -13,6 +14,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
@@ -23,9 +25,11 @@ import java.util.List;
 public class StockController {
     private static final Logger LOGGER = LogManager.getLogger(StockController.class);
     private final StockService stockService;
+    private final DataVersionCache dataVersionCache;
 
-    public StockController(StockService stockService) {
+    public StockController(StockService stockService, DataVersionCache dataVersionCache) {
         this.stockService = stockService;
+        this.dataVersionCache = dataVersionCache;
     }
 
     // CREATE
@@ -43,9 +47,19 @@ public class StockController {
         }
     }
 
+    @PostMapping("/create/batch")
+    public ResponseEntity<List<StockDto>> createStocks(@RequestBody List<StockDto> stockDtos) {
+        List<StockDto> createdStockDtos = stockService.createStocks(stockDtos);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdStockDtos);
+    }
+
     // READ
     @GetMapping("/all")
-    public ResponseEntity<List<StockDto>> getAllStocks() {
+    public ResponseEntity<List<StockDto>> getAllStocks(WebRequest webRequest) {
+        String eTag = dataVersionCache.tag(List.of(DataVersionCache.STOCKS, DataVersionCache.EXCHANGES), null);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         List<StockDto> stockDtoList = stockService.getAllStocks();
         return ResponseEntity.ok(stockDtoList);
     }
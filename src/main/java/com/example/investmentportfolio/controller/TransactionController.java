@@ -1,6 +1,9 @@
 package com.example.investmentportfolio.controller;
 
 import com.example.investmentportfolio.dto.TransactionDto;
+import com.example.investmentportfolio.dto.TransactionImportDto;
+import com.example.investmentportfolio.service.IdempotencyService;
+import com.example.investmentportfolio.service.TransactionImportService;
 import com.example.investmentportfolio.service.TransactionService;
 import com.example.investmentportfolio.util.CustomError;
 import com.example.investmentportfolio.util.ErrorConstants;
@@ -9,26 +12,35 @@ import jakarta.validation.Valid;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
 @RequestMapping("/transactions")
 public class TransactionController {
     private static final Logger LOGGER = LogManager.getLogger(TransactionController.class);
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
     private final TransactionService transactionService;
+    private final TransactionImportService transactionImportService;
+    private final IdempotencyService idempotencyService;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, TransactionImportService transactionImportService,
+                                 IdempotencyService idempotencyService) {
         this.transactionService = transactionService;
+        this.transactionImportService = transactionImportService;
+        this.idempotencyService = idempotencyService;
     }
 
     // CREATE
     @PostMapping("/create")
-    public ResponseEntity<TransactionDto> createTransaction(@Valid @RequestBody TransactionDto transactionDto, BindingResult bindingResult) {
+    public ResponseEntity<TransactionDto> createTransaction(@Valid @RequestBody TransactionDto transactionDto, BindingResult bindingResult,
+                                                            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         if (bindingResult.hasErrors()) {
             List<String> errorMessages = bindingResult.getAllErrors().stream()
                     .map(DefaultMessageSourceResolvable::getDefaultMessage)
@@ -36,11 +48,23 @@ public class TransactionController {
             LOGGER.error(errorMessages);
             throw new ValidationException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
         } else {
-            TransactionDto createdTransactionDto = transactionService.createTransaction(transactionDto);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdTransactionDto);
+            return idempotencyService.execute("/transactions/create", idempotencyKey, transactionDto, TransactionDto.class,
+                    () -> ResponseEntity.status(HttpStatus.CREATED).body(transactionService.createTransaction(transactionDto)));
         }
     }
 
+    @PostMapping("/create/batch")
+    public ResponseEntity<List<TransactionDto>> createTransactions(@RequestBody List<TransactionDto> transactionDtos) {
+        List<TransactionDto> createdTransactionDtos = transactionService.createTransactions(transactionDtos);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdTransactionDtos);
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<TransactionImportDto> importTransactions(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream inputStream) {
+        TransactionImportDto transactionImportDto = transactionImportService.importTransactions(inputStream, contentType);
+        return ResponseEntity.ok(transactionImportDto);
+    }
+
     // READ
     @GetMapping("/all")
     public ResponseEntity<List<TransactionDto>> getAllTransactions() {
@@ -0,0 +1,43 @@
+package com.example.investmentportfolio.controller;
+
+import com.example.investmentportfolio.dto.WhatIfDto;
+import com.example.investmentportfolio.dto.WhatIfScenarioDto;
+import com.example.investmentportfolio.service.WhatIfService;
+import com.example.investmentportfolio.util.CustomError;
+import com.example.investmentportfolio.util.ErrorConstants;
+import com.example.investmentportfolio.util.ValidationException;
+import jakarta.validation.Valid;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/whatif")
+public class WhatIfController {
+    private static final Logger LOGGER = LogManager.getLogger(WhatIfController.class);
+    private final WhatIfService whatIfService;
+
+    public WhatIfController(WhatIfService whatIfService) {
+        this.whatIfService = whatIfService;
+    }
+
+    // READ
+    @PostMapping("/run")
+    public ResponseEntity<WhatIfDto> runScenario(@Valid @RequestBody WhatIfScenarioDto whatIfScenarioDto, BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            List<String> errorMessages = bindingResult.getAllErrors().stream()
+                    .map(DefaultMessageSourceResolvable::getDefaultMessage)
+                    .toList();
+            LOGGER.error(errorMessages);
+            throw new ValidationException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
+        } else {
+            WhatIfDto whatIfDto = whatIfService.runScenario(whatIfScenarioDto);
+            return ResponseEntity.ok(whatIfDto);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.investmentportfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AllocationDto {
+    private Long userId;
+    private String currency;
+    private int users;
+    private String totalValue;
+    private String totalCost;
+    private String totalProfits;
+    private String foreignCurrencyValue;
+    private String foreignCurrencyWeight;
+    private List<AllocationGroupDto> byStockType;
+    private List<AllocationGroupDto> byExchange;
+    private List<AllocationGroupDto> byCurrency;
+}
@@ -0,0 +1,22 @@
+package com.example.investmentportfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AllocationGroupDto {
+    private String group;
+    private String value;
+    private String weight;
+    private String cost;
+    private String unrealizedProfits;
+    private String realizedProfits;
+    private String dividendsEarned;
+    private String totalProfits;
+    private String returnContribution;
+}
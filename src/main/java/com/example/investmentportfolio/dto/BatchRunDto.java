@@ -0,0 +1,23 @@
+package com.example.investmentportfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRunDto {
+    private Long jobExecutionId;
+    private String jobName;
+    private String status;
+    private String exitCode;
+    private String startTime;
+    private String endTime;
+    private Long durationMillis;
+    private List<BatchStepRunDto> steps;
+}
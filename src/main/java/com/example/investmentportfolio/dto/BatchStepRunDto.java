@@ -0,0 +1,22 @@
+package com.example.investmentportfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchStepRunDto {
+    private String stepName;
+    private String status;
+    private String startTime;
+    private String endTime;
+    private Long durationMillis;
+    private Long usersProcessed;
+    private Long positionsProcessed;
+    private Long symbolsProcessed;
+    private String exitDescription;
+}
@@ -0,0 +1,21 @@
+package com.example.investmentportfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DividendCalendarDto {
+    private Long userId;
+    private String displayCurrency;
+    private String fromDate;
+    private String toDate;
+    private String totalAmount;
+    private List<DividendCalendarEntryDto> dividends;
+}
@@ -0,0 +1,21 @@
+package com.example.investmentportfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DividendCalendarEntryDto {
+    private String stockTicker;
+    private String exchange;
+    private String exDate;
+    private String payDate;
+    private String units;
+    private String payout;
+    private String amount;
+    private boolean projected;
+}
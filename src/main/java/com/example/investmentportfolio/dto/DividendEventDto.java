@@ -0,0 +1,17 @@
+package com.example.investmentportfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DividendEventDto {
+    private String exDate;
+    private String payDate;
+    private String payout;
+    private boolean projected;
+}
@@ -0,0 +1,21 @@
+package com.example.investmentportfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DividendForecastDto {
+    private Long stockId;
+    private String stockTicker;
+    private String exchange;
+    private String baseCurrency;
+    private String cadence;
+    private List<DividendEventDto> dividends;
+}
@@ -8,6 +8,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.util.List;
+
 @Getter
 @Setter
 @NoArgsConstructor
@@ -24,4 +26,15 @@ public class ExchangeDto {
     @NotBlank(groups = CreateValidation.class, message = "Suffix cannot be blank.")
     @Pattern(regexp = "^\\.[a-zA-Z]{0,4}$", message = "Suffix must start with a . followed by up to 4 letters.")
     private String suffix;
+
+    @Pattern(regexp = "^[A-Za-z]+(/[A-Za-z_+-]+)*$", message = "Time zone must be a region id such as Asia/Singapore.")
+    private String timeZone;
+
+    @Pattern(regexp = "^([01]\\d|2[0-3]):[0-5]\\d$", message = "Open time must be in the format HH:mm.")
+    private String openTime;
+
+    @Pattern(regexp = "^([01]\\d|2[0-3]):[0-5]\\d$", message = "Close time must be in the format HH:mm.")
+    private String closeTime;
+
+    private List<@Pattern(regexp = "^\\d{4}-\\d{2}-\\d{2}$", message = "Holidays must be in the format yyyy-MM-dd.") String> holidays;
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.example.investmentportfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioPositionDto {
+    private String stockTicker;
+    private String exchange;
+    private String units;
+    private String totalCost;
+    private String realizedProfits;
+    private String dividendsEarned;
+}
@@ -0,0 +1,23 @@
+package com.example.investmentportfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioReturnsDto {
+    private Long userId;
+    private String displayCurrency;
+    private String timeWeightedReturn;
+    private String moneyWeightedReturn;
+    private Integer xirrIterations;
+    private Boolean xirrConverged;
+    private String computedAt;
+    private List<PositionReturnDto> positions;
+}
@@ -0,0 +1,24 @@
+package com.example.investmentportfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioRiskDto {
+    private Long userId;
+    private String benchmarkTicker;
+    private String benchmarkExchange;
+    private String lastReturnDate;
+    private Long observations;
+    private String volatility;
+    private String maxDrawdown;
+    private String beta;
+    private String valueAtRisk;
+    private String valueAtRiskAmount;
+    private String computedAt;
+}
@@ -0,0 +1,18 @@
+package com.example.investmentportfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioStatisticsDto {
+    private long version;
+    private List<StatisticDto> statistics;
+    private PortfolioSummaryDto summary;
+}
@@ -0,0 +1,22 @@
+package com.example.investmentportfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioSummaryDto {
+    private Long userId;
+    private String displayCurrency;
+    private int positions;
+    private String totalCost;
+    private String totalValue;
+    private String realizedProfits;
+    private String unrealizedProfits;
+    private String dividendsEarned;
+    private String totalProfits;
+}
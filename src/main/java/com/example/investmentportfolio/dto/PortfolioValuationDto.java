@@ -0,0 +1,19 @@
+package com.example.investmentportfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioValuationDto {
+    private Long userId;
+    private String asOfDate;
+    private String displayCurrency;
+    private List<PortfolioPositionDto> positions;
+}
@@ -0,0 +1,20 @@
+package com.example.investmentportfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioValueHistoryDto {
+    private Long userId;
+    private String from;
+    private String to;
+    private String interval;
+    private List<PortfolioValuePointDto> points;
+}
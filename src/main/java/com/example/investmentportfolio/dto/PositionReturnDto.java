@@ -0,0 +1,17 @@
+package com.example.investmentportfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PositionReturnDto {
+    private String stockTicker;
+    private String exchange;
+    private String timeWeightedReturn;
+    private String moneyWeightedReturn;
+}
@@ -0,0 +1,20 @@
+package com.example.investmentportfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceBarDto {
+    private String date;
+    private String open;
+    private String high;
+    private String low;
+    private String close;
+    private String adjustedClose;
+    private Long volume;
+}
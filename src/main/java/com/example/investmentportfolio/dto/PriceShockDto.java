@@ -0,0 +1,27 @@
+package com.example.investmentportfolio.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceShockDto {
+    private String exchange;
+
+    private String stockType;
+
+    @Pattern(regexp = "^[a-zA-Z]{3}$", message = "Currency should contain exactly 3 letters.")
+    private String currency;
+
+    private String stockTicker;
+
+    @NotBlank(message = "Price shock percent change cannot be blank.")
+    @Pattern(regexp = "^-?\\d{1,10}(\\.\\d{1,10})?$", message = "Price shock percent change should be a number with at most 10 digits before and after the decimal point.")
+    private String percentChange;
+}
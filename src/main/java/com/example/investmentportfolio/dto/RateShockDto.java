@@ -0,0 +1,22 @@
+package com.example.investmentportfolio.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateShockDto {
+    @NotBlank(message = "Rate name cannot be blank.")
+    @Pattern(regexp = "^[a-zA-Z]{3}/[a-zA-Z]{3}$", message = "Rate name should contain exactly 3 letters followed by a slash followed by another 3 letters.")
+    private String rateName;
+
+    @NotBlank(message = "Rate shock percent change cannot be blank.")
+    @Pattern(regexp = "^-?\\d{1,10}(\\.\\d{1,10})?$", message = "Rate shock percent change should be a number with at most 10 digits before and after the decimal point.")
+    private String percentChange;
+}
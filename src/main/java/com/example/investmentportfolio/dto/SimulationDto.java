@@ -0,0 +1,24 @@
+package com.example.investmentportfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationDto {
+    private Long userId;
+    private String displayCurrency;
+    private Integer paths;
+    private Integer horizonDays;
+    private Boolean correlated;
+    private Long seed;
+    private String currentValue;
+    private List<PercentileValueDto> finalValuePercentiles;
+    private Long elapsedMillis;
+}
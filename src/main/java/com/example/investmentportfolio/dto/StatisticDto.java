@@ -52,4 +52,8 @@ public class StatisticDto {
     @NotBlank(groups = CreateValidation.class, message = "Total profits cannot be blank.")
     @Pattern(regexp = "^(?!.*\\..*\\.)\\d{1,10}(\\.\\d{1,10})?$", message = "Total profits should contain at most one decimal point and 10 numbers before and after the decimal point, and no white spaces or special characters.")
     private String totalProfits;
+
+    private String timeWeightedReturn;
+
+    private String moneyWeightedReturn;
 }
@@ -0,0 +1,19 @@
+package com.example.investmentportfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockRankDto {
+    private int rank;
+    private String stockTicker;
+    private String exchange;
+    private long holders;
+    private String totalUnits;
+    private String totalValue;
+}
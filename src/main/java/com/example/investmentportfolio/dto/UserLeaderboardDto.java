@@ -0,0 +1,19 @@
+package com.example.investmentportfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserLeaderboardDto {
+    private String metric;
+    private String currency;
+    private long usersRanked;
+    private List<UserRankDto> users;
+}
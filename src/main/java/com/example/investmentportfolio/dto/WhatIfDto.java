@@ -0,0 +1,19 @@
+package com.example.investmentportfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class WhatIfDto {
+    private int usersRevalued;
+    private int positionsRevalued;
+    private List<WhatIfUserDto> users;
+    private long elapsedMillis;
+}
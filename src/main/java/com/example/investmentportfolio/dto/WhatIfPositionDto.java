@@ -0,0 +1,18 @@
+package com.example.investmentportfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class WhatIfPositionDto {
+    private String stockTicker;
+    private String exchange;
+    private String currentValue;
+    private String shockedValue;
+    private String valueChange;
+}
@@ -0,0 +1,23 @@
+package com.example.investmentportfolio.dto;
+
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class WhatIfScenarioDto {
+    private List<@Valid PriceShockDto> priceShocks;
+
+    private List<@Valid RateShockDto> rateShocks;
+
+    private List<Long> userIds;
+
+    private boolean includePositions;
+}
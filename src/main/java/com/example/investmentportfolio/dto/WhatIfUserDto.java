@@ -0,0 +1,22 @@
+package com.example.investmentportfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class WhatIfUserDto {
+    private Long userId;
+    private String displayCurrency;
+    private String currentValue;
+    private String shockedValue;
+    private String valueChange;
+    private String percentChange;
+    private List<WhatIfPositionDto> positions;
+}
@@ -30,6 +30,8 @@ public interface StatisticMapper {
     @Mapping(target = "unrealizedProfits", source = "unrealizedProfits", qualifiedByName = "trimTrailingZeros")
     @Mapping(target = "dividendsEarned", source = "dividendsEarned", qualifiedByName = "trimTrailingZeros")
     @Mapping(target = "totalProfits", source = "totalProfits", qualifiedByName = "trimTrailingZeros")
+    @Mapping(target = "timeWeightedReturn", ignore = true)
+    @Mapping(target = "moneyWeightedReturn", ignore = true)
     Statistic convertToEntity(StatisticDto statisticDto);
 
     @Mapping(target = "stockTicker", source = "stockTicker", qualifiedByName = "toUpperCase")
@@ -41,6 +43,8 @@ public interface StatisticMapper {
     @Mapping(target = "unrealizedProfits", source = "unrealizedProfits", qualifiedByName = "trimTrailingZeros")
     @Mapping(target = "dividendsEarned", source = "dividendsEarned", qualifiedByName = "trimTrailingZeros")
     @Mapping(target = "totalProfits", source = "totalProfits", qualifiedByName = "trimTrailingZeros")
+    @Mapping(target = "timeWeightedReturn", ignore = true)
+    @Mapping(target = "moneyWeightedReturn", ignore = true)
     Statistic updateEntityWithDto(StatisticDto statisticDto, @MappingTarget Statistic statistic);
 
     @Named("toUpperCase")
@@ -14,7 +14,8 @@ import lombok.Setter;
 @Table(name = "Dividends")
 public class Dividend {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dividends_seq")
+    @SequenceGenerator(name = "dividends_seq", sequenceName = "dividends_dividend_id_seq", allocationSize = 50)
     @Column(name = "dividend_id")
     private Long dividendId;
 
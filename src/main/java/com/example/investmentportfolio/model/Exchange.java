@@ -26,4 +26,13 @@ public class Exchange {
 
     @Column
     private String suffix;
+
+    @Column(name = "time_zone")
+    private String timeZone;
+
+    @Column(name = "open_time")
+    private String openTime;
+
+    @Column(name = "close_time")
+    private String closeTime;
 }
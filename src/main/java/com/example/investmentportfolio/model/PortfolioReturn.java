@@ -0,0 +1,39 @@
+package com.example.investmentportfolio.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "Portfolio_Returns")
+public class PortfolioReturn {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "display_currency")
+    private String displayCurrency;
+
+    @Column(name = "time_weighted_return")
+    private String timeWeightedReturn;
+
+    @Column(name = "money_weighted_return")
+    private String moneyWeightedReturn;
+
+    @Column(name = "xirr_iterations")
+    private Integer xirrIterations;
+
+    @Column(name = "xirr_converged")
+    private Boolean xirrConverged;
+
+    @Column(name = "computed_at")
+    private LocalDateTime computedAt;
+}
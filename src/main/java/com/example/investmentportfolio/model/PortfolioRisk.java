@@ -0,0 +1,80 @@
+package com.example.investmentportfolio.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "Portfolio_Risks")
+public class PortfolioRisk {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "benchmark_stock_id")
+    private Long benchmarkStockId;
+
+    @Column(name = "last_return_date")
+    private LocalDate lastReturnDate;
+
+    @Column(name = "holdings_fingerprint")
+    private String holdingsFingerprint;
+
+    @Column
+    private Long observations;
+
+    @Column(name = "mean_return")
+    private Double meanReturn;
+
+    @Column(name = "return_m2")
+    private Double returnM2;
+
+    @Column(name = "paired_observations")
+    private Long pairedObservations;
+
+    @Column(name = "paired_mean_return")
+    private Double pairedMeanReturn;
+
+    @Column(name = "benchmark_mean_return")
+    private Double benchmarkMeanReturn;
+
+    @Column(name = "benchmark_m2")
+    private Double benchmarkM2;
+
+    @Column(name = "co_moment")
+    private Double coMoment;
+
+    @Column
+    private Double wealth;
+
+    @Column(name = "peak_wealth")
+    private Double peakWealth;
+
+    @Column(name = "quantile_state")
+    private String quantileState;
+
+    @Column
+    private String volatility;
+
+    @Column(name = "max_drawdown")
+    private Double maxDrawdown;
+
+    @Column
+    private String beta;
+
+    @Column(name = "value_at_risk")
+    private String valueAtRisk;
+
+    @Column(name = "value_at_risk_amount")
+    private String valueAtRiskAmount;
+
+    @Column(name = "computed_at")
+    private LocalDateTime computedAt;
+}
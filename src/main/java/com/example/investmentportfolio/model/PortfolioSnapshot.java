@@ -0,0 +1,56 @@
+package com.example.investmentportfolio.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "Portfolio_Snapshots")
+public class PortfolioSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "snapshot_id")
+    private Long snapshotId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "stock_id")
+    private Long stockId;
+
+    @Column(name = "snapshot_date")
+    private LocalDate snapshotDate;
+
+    @Column(name = "total_units")
+    private BigDecimal totalUnits;
+
+    @Column(name = "units_bought")
+    private BigDecimal unitsBought;
+
+    @Column(name = "total_cost")
+    private BigDecimal totalCost;
+
+    @Column(name = "total_value")
+    private BigDecimal totalValue;
+
+    @Column(name = "realized_profits")
+    private BigDecimal realizedProfits;
+
+    @Column(name = "unrealized_profits")
+    private BigDecimal unrealizedProfits;
+
+    @Column(name = "dividends_earned")
+    private BigDecimal dividendsEarned;
+
+    @Column(name = "total_profits")
+    private BigDecimal totalProfits;
+}
@@ -15,7 +15,8 @@ import lombok.Setter;
 @Table(name = "Rates")
 public class Rate {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rates_seq")
+    @SequenceGenerator(name = "rates_seq", sequenceName = "rates_rate_id_seq", allocationSize = 50)
     @Column(name = "rate_id")
     private Long rateId;
 
@@ -53,4 +53,10 @@ public class Statistic {
 
     @Column(name = "total_profits")
     private String totalProfits;
+
+    @Column(name = "time_weighted_return")
+    private String timeWeightedReturn;
+
+    @Column(name = "money_weighted_return")
+    private String moneyWeightedReturn;
 }
\ No newline at end of file
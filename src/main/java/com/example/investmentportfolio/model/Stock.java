@@ -15,7 +15,8 @@ import lombok.Setter;
 @Table(name = "Stocks")
 public class Stock {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stocks_seq")
+    @SequenceGenerator(name = "stocks_seq", sequenceName = "stocks_stock_id_seq", allocationSize = 50)
     @Column(name = "stock_id")
     private Long stockId;
 
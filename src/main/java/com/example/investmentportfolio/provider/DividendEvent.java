@@ -0,0 +1,7 @@
+package com.example.investmentportfolio.provider;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record DividendEvent(LocalDate exDate, BigDecimal payout) {
+}
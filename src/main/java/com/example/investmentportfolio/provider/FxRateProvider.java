@@ -0,0 +1,9 @@
+package com.example.investmentportfolio.provider;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URISyntaxException;
+
+public interface FxRateProvider {
+    BigDecimal fetchRate(String baseCurrency, String quoteCurrency) throws IOException, URISyntaxException;
+}
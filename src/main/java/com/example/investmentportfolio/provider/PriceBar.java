@@ -0,0 +1,7 @@
+package com.example.investmentportfolio.provider;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record PriceBar(LocalDate date, BigDecimal open, BigDecimal high, BigDecimal low, BigDecimal close, BigDecimal adjustedClose, long volume) {
+}
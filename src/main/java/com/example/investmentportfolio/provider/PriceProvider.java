@@ -0,0 +1,13 @@
+package com.example.investmentportfolio.provider;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URISyntaxException;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface PriceProvider {
+    BigDecimal fetchLastPrice(String symbol) throws IOException, URISyntaxException;
+    List<PriceBar> fetchDailyBars(String symbol, LocalDate from, LocalDate to) throws IOException, URISyntaxException;
+    List<DividendEvent> fetchDividends(String symbol, LocalDate from, LocalDate to) throws IOException, URISyntaxException;
+}
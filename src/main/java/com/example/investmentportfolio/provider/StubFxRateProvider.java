@@ -0,0 +1,44 @@
+package com.example.investmentportfolio.provider;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+
+// Cross rates derived from a fixed table of US dollar values, for running the refresh job locally without an external FX feed;
+// only registered when asked for, so it never overwrites rates maintained by an admin
+@Component
+@ConditionalOnProperty(name = "rates.refresh.provider", havingValue = "stub")
+public class StubFxRateProvider implements FxRateProvider {
+    private static final Logger LOGGER = LogManager.getLogger(StubFxRateProvider.class);
+    private static final Map<String, BigDecimal> USD_PER_UNIT = Map.ofEntries(
+            Map.entry("USD", new BigDecimal("1")),
+            Map.entry("SGD", new BigDecimal("0.74")),
+            Map.entry("EUR", new BigDecimal("1.08")),
+            Map.entry("GBP", new BigDecimal("1.27")),
+            Map.entry("JPY", new BigDecimal("0.0067")),
+            Map.entry("HKD", new BigDecimal("0.128")),
+            Map.entry("CNY", new BigDecimal("0.138")),
+            Map.entry("AUD", new BigDecimal("0.66")),
+            Map.entry("CAD", new BigDecimal("0.73")),
+            Map.entry("CHF", new BigDecimal("1.12")),
+            Map.entry("MYR", new BigDecimal("0.21")),
+            Map.entry("INR", new BigDecimal("0.012")));
+
+    @Override
+    public BigDecimal fetchRate(String baseCurrency, String quoteCurrency) throws IOException {
+        BigDecimal base = USD_PER_UNIT.get(baseCurrency);
+        BigDecimal quote = USD_PER_UNIT.get(quoteCurrency);
+        if (base == null || quote == null) {
+            throw new IOException(String.format("No stub rate for %s/%s", baseCurrency, quoteCurrency));
+        }
+        BigDecimal rate = base.divide(quote, 10, RoundingMode.HALF_UP).stripTrailingZeros();
+        LOGGER.info("{}/{}: {}", baseCurrency, quoteCurrency, rate);
+        return rate;
+    }
+}
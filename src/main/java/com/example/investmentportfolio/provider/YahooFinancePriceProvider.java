@@ -0,0 +1,128 @@
+package com.example.investmentportfolio.provider;
+
+import com.example.investmentportfolio.util.CustomError;
+import com.example.investmentportfolio.util.ErrorConstants;
+import com.example.investmentportfolio.util.GeneralException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Component
+public class YahooFinancePriceProvider implements PriceProvider {
+    private static final Logger LOGGER = LogManager.getLogger(YahooFinancePriceProvider.class);
+    private static final String CHART_URL = "https://query1.finance.yahoo.com/v8/finance/chart/";
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Override
+    public BigDecimal fetchLastPrice(String symbol) throws IOException, URISyntaxException {
+        JsonNode metaNode = fetchChart(CHART_URL + symbol).path("meta");
+        JsonNode priceNode = metaNode.path("regularMarketPrice");
+        if (!priceNode.isNumber()) {
+            List<String> errorMessages = Collections.singletonList(String.format("No market price returned for %s.", symbol));
+            LOGGER.error(errorMessages);
+            throw new GeneralException(new CustomError(ErrorConstants.INTERNAL_SERVER_ERROR_ERROR_CODE, errorMessages));
+        }
+        BigDecimal regularMarketPrice = priceNode.decimalValue();
+        String currency = metaNode.path("currency").asText();
+        LOGGER.info("{}: {} {}", symbol, regularMarketPrice, currency);
+        return regularMarketPrice;
+    }
+
+    // Bars are dated in the exchange's own time zone, and days with a missing close are skipped
+    @Override
+    public List<PriceBar> fetchDailyBars(String symbol, LocalDate from, LocalDate to) throws IOException, URISyntaxException {
+        long period1 = from.atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        long period2 = to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        JsonNode resultNode = fetchChart(CHART_URL + symbol + "?interval=1d&events=div,split&period1=" + period1 + "&period2=" + period2);
+        ZoneId zone = exchangeZone(resultNode);
+        JsonNode timestamps = resultNode.path("timestamp");
+        JsonNode quoteNode = resultNode.path("indicators").path("quote").path(0);
+        JsonNode adjustedCloses = resultNode.path("indicators").path("adjclose").path(0).path("adjclose");
+        List<PriceBar> bars = new ArrayList<>();
+        for (int i = 0; i < timestamps.size(); i++) {
+            JsonNode close = quoteNode.path("close").path(i);
+            if (close.isMissingNode() || close.isNull()) {
+                continue;
+            }
+            LocalDate date = Instant.ofEpochSecond(timestamps.get(i).asLong()).atZone(zone).toLocalDate();
+            if (date.isBefore(from) || date.isAfter(to)) {
+                continue;
+            }
+            JsonNode adjustedClose = adjustedCloses.path(i);
+            bars.add(new PriceBar(date,
+                    decimalOrNull(quoteNode.path("open").path(i)),
+                    decimalOrNull(quoteNode.path("high").path(i)),
+                    decimalOrNull(quoteNode.path("low").path(i)),
+                    close.decimalValue(),
+                    adjustedClose.isMissingNode() || adjustedClose.isNull() ? close.decimalValue() : adjustedClose.decimalValue(),
+                    quoteNode.path("volume").path(i).asLong(0)));
+        }
+        LOGGER.info("{}: {} daily bar(s) between {} and {}", symbol, bars.size(), from, to);
+        return bars;
+    }
+
+    // Yahoo reports only the ex date and amount of each dividend, so pay dates are left for manual entry
+    @Override
+    public List<DividendEvent> fetchDividends(String symbol, LocalDate from, LocalDate to) throws IOException, URISyntaxException {
+        long period1 = from.atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        long period2 = to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        JsonNode resultNode = fetchChart(CHART_URL + symbol + "?interval=1d&events=div&period1=" + period1 + "&period2=" + period2);
+        ZoneId zone = exchangeZone(resultNode);
+        List<DividendEvent> dividends = new ArrayList<>();
+        for (JsonNode dividendNode : resultNode.path("events").path("dividends")) {
+            JsonNode amount = dividendNode.path("amount");
+            if (amount.isMissingNode() || amount.isNull()) {
+                continue;
+            }
+            LocalDate exDate = Instant.ofEpochSecond(dividendNode.path("date").asLong()).atZone(zone).toLocalDate();
+            if (!exDate.isBefore(from) && !exDate.isAfter(to)) {
+                dividends.add(new DividendEvent(exDate, amount.decimalValue()));
+            }
+        }
+        LOGGER.info("{}: {} dividend(s) between {} and {}", symbol, dividends.size(), from, to);
+        return dividends;
+    }
+
+    private JsonNode fetchChart(String urlString) throws IOException, URISyntaxException {
+        URI uri = new URI(urlString);
+        HttpURLConnection connection = (HttpURLConnection) uri.toURL().openConnection();
+        connection.setRequestMethod("GET");
+        try {
+            JsonNode chartNode = mapper.readTree(connection.getInputStream()).path("chart");
+            JsonNode resultNode = chartNode.path("result").path(0);
+            if (resultNode.isMissingNode() || resultNode.isNull()) {
+                String description = chartNode.path("error").path("description").textValue();
+                List<String> errorMessages = Collections.singletonList(String.format("No chart data returned for %s: %s", uri, description == null ? "empty result" : description));
+                LOGGER.error(errorMessages);
+                throw new GeneralException(new CustomError(ErrorConstants.INTERNAL_SERVER_ERROR_ERROR_CODE, errorMessages));
+            }
+            return resultNode;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static BigDecimal decimalOrNull(JsonNode node) {
+        return node.isMissingNode() || node.isNull() ? null : node.decimalValue();
+    }
+
+    private static ZoneId exchangeZone(JsonNode resultNode) {
+        String timezone = resultNode.path("meta").path("exchangeTimezoneName").textValue();
+        return ZoneId.of(timezone == null ? "UTC" : timezone);
+    }
+}
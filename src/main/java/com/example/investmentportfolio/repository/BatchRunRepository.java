@@ -0,0 +1,45 @@
+package com.example.investmentportfolio.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public class BatchRunRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public BatchRunRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    public List<Long> findRecentJobExecutionIds(int limit) {
+        return jdbcTemplate.queryForList("SELECT job_execution_id FROM batch_job_execution ORDER BY job_execution_id DESC LIMIT ?", Long.class, limit);
+    }
+
+    public List<Long> findRecentJobExecutionIdsByJobName(String jobName, int limit) {
+        return jdbcTemplate.queryForList("SELECT e.job_execution_id FROM batch_job_execution e JOIN batch_job_instance i ON e.job_instance_id = i.job_instance_id WHERE i.job_name = ? ORDER BY e.job_execution_id DESC LIMIT ?", Long.class, jobName, limit);
+    }
+
+    public List<Long> findFinishedJobExecutionIdsCreatedBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.queryForList("SELECT job_execution_id FROM batch_job_execution WHERE create_time < ? AND status NOT IN ('STARTING', 'STARTED', 'STOPPING') ORDER BY job_execution_id LIMIT ?", Long.class, cutoff, limit);
+    }
+
+    public int deleteJobExecutions(List<Long> jobExecutionIds) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("ids", jobExecutionIds);
+        namedParameterJdbcTemplate.update("DELETE FROM batch_step_execution_context WHERE step_execution_id IN (SELECT step_execution_id FROM batch_step_execution WHERE job_execution_id IN (:ids))", parameters);
+        namedParameterJdbcTemplate.update("DELETE FROM batch_step_execution WHERE job_execution_id IN (:ids)", parameters);
+        namedParameterJdbcTemplate.update("DELETE FROM batch_job_execution_context WHERE job_execution_id IN (:ids)", parameters);
+        namedParameterJdbcTemplate.update("DELETE FROM batch_job_execution_params WHERE job_execution_id IN (:ids)", parameters);
+        return namedParameterJdbcTemplate.update("DELETE FROM batch_job_execution WHERE job_execution_id IN (:ids)", parameters);
+    }
+
+    public int deleteOrphanedJobInstances() {
+        return jdbcTemplate.update("DELETE FROM batch_job_instance i WHERE NOT EXISTS (SELECT 1 FROM batch_job_execution e WHERE e.job_instance_id = i.job_instance_id)");
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.investmentportfolio.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public class DataVersionRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public DataVersionRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    public Optional<Long> find(String scope) {
+        return jdbcTemplate.queryForList("SELECT version FROM data_versions WHERE scope = ?", Long.class, scope).stream().findFirst();
+    }
+
+    // clock_timestamp() rather than now(), which is the start of the transaction and can predate a bump made late in a long one
+    public void bump(String scope) {
+        jdbcTemplate.update("INSERT INTO data_versions (scope, version, modified_at) VALUES (?, 1, clock_timestamp()) "
+                + "ON CONFLICT (scope) DO UPDATE SET version = data_versions.version + 1, modified_at = clock_timestamp()", scope);
+    }
+
+    // Rows are bumped in scope order so two writers touching overlapping holders cannot deadlock on each other
+    public List<String> bumpHoldersOfStocks(String scopePrefix, Collection<Long> stockIds) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("prefix", scopePrefix)
+                .addValue("stockIds", stockIds);
+        return namedParameterJdbcTemplate.queryForList("INSERT INTO data_versions (scope, version, modified_at) "
+                + "SELECT DISTINCT :prefix || user_id, 1, clock_timestamp() FROM statistics WHERE stock_id IN (:stockIds) ORDER BY 1 "
+                + "ON CONFLICT (scope) DO UPDATE SET version = data_versions.version + 1, modified_at = clock_timestamp() RETURNING scope", parameters, String.class);
+    }
+}
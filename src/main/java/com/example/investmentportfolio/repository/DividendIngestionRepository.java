@@ -0,0 +1,45 @@
+package com.example.investmentportfolio.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Repository
+public class DividendIngestionRepository {
+    private static final int BATCH_SIZE = 500;
+    private final JdbcTemplate jdbcTemplate;
+
+    public record NewDividend(Long stockId, Long exchangeId, LocalDate exDate, BigDecimal payout) {
+    }
+
+    public DividendIngestionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // The unique index still guards against a dividend entered by hand between the in-memory dedupe and this insert. Rows skipped by
+    // the conflict return nothing, so RETURNING counts real inserts, which batch update counts (SUCCESS_NO_INFO) cannot
+    public int insertDividends(List<NewDividend> dividends) {
+        int inserted = 0;
+        for (int from = 0; from < dividends.size(); from += BATCH_SIZE) {
+            List<NewDividend> chunk = dividends.subList(from, Math.min(from + BATCH_SIZE, dividends.size()));
+            List<Object> parameters = new ArrayList<>(chunk.size() * 4);
+            for (NewDividend dividend : chunk) {
+                parameters.add(dividend.stockId());
+                parameters.add(dividend.exchangeId());
+                parameters.add(Date.valueOf(dividend.exDate()));
+                parameters.add(dividend.payout());
+            }
+            inserted += jdbcTemplate.queryForList("INSERT INTO dividends (stock_id, exchange_id, ex_date, payout) VALUES " +
+                            String.join(", ", Collections.nCopies(chunk.size(), "(?, ?, ?, ?)")) +
+                            " ON CONFLICT (stock_id, ex_date) DO NOTHING RETURNING dividend_id",
+                    Long.class, parameters.toArray()).size();
+        }
+        return inserted;
+    }
+}
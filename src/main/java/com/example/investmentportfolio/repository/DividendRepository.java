@@ -9,9 +9,16 @@ import java.util.List;
 
 @Repository
 public interface DividendRepository extends JpaRepository<Dividend, Long> {
-    boolean existsByExDateOrPayDate(String exDate, String payDate);
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM dividends WHERE stock_id = ?1 AND ex_date = CAST(?2 AS DATE))", nativeQuery = true)
+    boolean existsByStockIdAndExDate(Long stockId, String exDate);
+    @Query(value = "SELECT stock_id || '|' || TO_CHAR(ex_date, 'YYYY-MM-DD') FROM dividends", nativeQuery = true)
+    List<String> findAllStockIdAndExDateKeys();
+    @Query(value = "SELECT stock_id || '|' || TO_CHAR(ex_date, 'YYYY-MM-DD') FROM dividends WHERE stock_id IN (?1)", nativeQuery = true)
+    List<String> findStockIdAndExDateKeysByStockIds(List<Long> stockIds);
     List<Dividend> findByStockId(Long stockId);
     List<Dividend> findByExchangeId(Long exchangeId);
     @Query(value = "SELECT * FROM dividends WHERE stock_id = ?1 AND ex_date >= CAST(?2 AS DATE) ORDER BY ex_date ASC", nativeQuery = true)
     List<Dividend> getRelevantDividends(Long stockId, String date);
+    @Query(value = "SELECT * FROM dividends WHERE stock_id = ?1 AND ex_date > CAST(?2 AS DATE) AND ex_date <= CAST(?3 AS DATE) ORDER BY ex_date ASC", nativeQuery = true)
+    List<Dividend> findByStockIdAndExDateRange(Long stockId, String afterDate, String toDate);
 }
@@ -0,0 +1,43 @@
+package com.example.investmentportfolio.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public class ExchangeHolidayRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public record ExchangeHoliday(Long exchangeId, LocalDate holidayDate) {
+    }
+
+    public ExchangeHolidayRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<ExchangeHoliday> findAll() {
+        return jdbcTemplate.query("SELECT exchange_id, holiday_date FROM exchange_holidays",
+                (resultSet, rowNum) -> new ExchangeHoliday(resultSet.getLong("exchange_id"), resultSet.getDate("holiday_date").toLocalDate()));
+    }
+
+    // The calendar is replaced as a whole, so a holiday dropped from the list stops suppressing refreshes
+    public void replaceHolidays(Long exchangeId, List<LocalDate> holidayDates) {
+        jdbcTemplate.update("DELETE FROM exchange_holidays WHERE exchange_id = ?", exchangeId);
+        jdbcTemplate.batchUpdate("INSERT INTO exchange_holidays (exchange_id, holiday_date) VALUES (?, ?) ON CONFLICT DO NOTHING",
+                holidayDates, 500, (preparedStatement, holidayDate) -> {
+                    preparedStatement.setLong(1, exchangeId);
+                    preparedStatement.setDate(2, Date.valueOf(holidayDate));
+                });
+    }
+
+    public void deleteByExchangeId(Long exchangeId) {
+        jdbcTemplate.update("DELETE FROM exchange_holidays WHERE exchange_id = ?", exchangeId);
+    }
+
+    public void deleteAll() {
+        jdbcTemplate.update("DELETE FROM exchange_holidays");
+    }
+}
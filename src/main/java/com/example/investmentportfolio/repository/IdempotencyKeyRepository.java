@@ -0,0 +1,65 @@
+package com.example.investmentportfolio.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public class IdempotencyKeyRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public record IdempotencyKey(String requestHash, Integer statusCode, String responseBody, LocalDateTime lockedUntil, LocalDateTime expiresAt) {
+        public boolean isCompleted() {
+            return statusCode != null;
+        }
+
+        public boolean isLocked(LocalDateTime now) {
+            return !isCompleted() && lockedUntil != null && lockedUntil.isAfter(now);
+        }
+    }
+
+    public IdempotencyKeyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<IdempotencyKey> find(String endpoint, String key) {
+        return jdbcTemplate.query("SELECT request_hash, status_code, response_body, locked_until, expires_at FROM idempotency_keys WHERE endpoint = ? AND idempotency_key = ?",
+                (resultSet, rowNum) -> {
+                    Timestamp lockedUntil = resultSet.getTimestamp("locked_until");
+                    return new IdempotencyKey(resultSet.getString("request_hash"), (Integer) resultSet.getObject("status_code"), resultSet.getString("response_body"),
+                            lockedUntil == null ? null : lockedUntil.toLocalDateTime(), resultSet.getTimestamp("expires_at").toLocalDateTime());
+                },
+                endpoint, key).stream().findFirst();
+    }
+
+    // The primary key makes the reservation atomic across nodes; an expired row, or a pending one whose lease ran out because its
+    // node died before completing, is taken over instead of blocking the key until the response TTL. The lease token names the owner
+    public boolean reserve(String endpoint, String key, String requestHash, String leaseToken, LocalDateTime now, LocalDateTime lockedUntil, LocalDateTime expiresAt) {
+        return jdbcTemplate.update("INSERT INTO idempotency_keys (endpoint, idempotency_key, request_hash, lease_token, created_at, locked_until, expires_at) VALUES (?, ?, ?, ?, ?, ?, ?) " +
+                        "ON CONFLICT (endpoint, idempotency_key) DO UPDATE SET request_hash = EXCLUDED.request_hash, lease_token = EXCLUDED.lease_token, status_code = NULL, " +
+                        "response_body = NULL, created_at = EXCLUDED.created_at, locked_until = EXCLUDED.locked_until, expires_at = EXCLUDED.expires_at " +
+                        "WHERE idempotency_keys.expires_at < ? OR (idempotency_keys.status_code IS NULL AND idempotency_keys.locked_until < ?)",
+                endpoint, key, requestHash, leaseToken, Timestamp.valueOf(now), Timestamp.valueOf(lockedUntil), Timestamp.valueOf(expiresAt),
+                Timestamp.valueOf(now), Timestamp.valueOf(now)) == 1;
+    }
+
+    // Only the holder of the current lease may store a response; a caller whose lease expired and was taken over gets false
+    public boolean complete(String endpoint, String key, String leaseToken, int statusCode, String responseBody) {
+        return jdbcTemplate.update("UPDATE idempotency_keys SET status_code = ?, response_body = ?, locked_until = NULL " +
+                        "WHERE endpoint = ? AND idempotency_key = ? AND lease_token = ? AND status_code IS NULL",
+                statusCode, responseBody, endpoint, key, leaseToken) == 1;
+    }
+
+    public void release(String endpoint, String key, String leaseToken) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE endpoint = ? AND idempotency_key = ? AND lease_token = ? AND status_code IS NULL",
+                endpoint, key, leaseToken);
+    }
+
+    public int deleteExpired(LocalDateTime now, int limit) {
+        return jdbcTemplate.update("DELETE FROM idempotency_keys WHERE ctid IN (SELECT ctid FROM idempotency_keys WHERE expires_at < ? LIMIT ?)",
+                Timestamp.valueOf(now), limit);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.investmentportfolio.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.function.Consumer;
+
+@Repository
+public class LeaderboardRepository {
+    private static final int FETCH_SIZE = 1000;
+    private final JdbcTemplate jdbcTemplate;
+
+    public record UserTotal(Long userId, String username, String baseCurrency, BigDecimal total) {
+    }
+
+    public record StockHolding(Long stockId, long holders, BigDecimal units, BigDecimal value) {
+    }
+
+    // A bounded fetch size lets Postgres stream the rows through a cursor instead of buffering the whole result
+    public LeaderboardRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    // The column comes from a fixed set of statistics columns chosen by the caller, never from request input;
+    // statistics are held in each stock's base currency, so a user's rows arrive consecutively, one per currency
+    public void forEachUserTotal(String column, Consumer<UserTotal> consumer) {
+        jdbcTemplate.query("SELECT s.user_id, u.username, st.base_currency, SUM(CAST(s." + column + " AS DECIMAL)) AS total FROM statistics s " +
+                        "JOIN users u ON u.user_id = s.user_id JOIN stocks st ON st.stock_id = s.stock_id WHERE s." + column + " IS NOT NULL " +
+                        "GROUP BY s.user_id, u.username, st.base_currency ORDER BY s.user_id",
+                resultSet -> {
+                    consumer.accept(new UserTotal(resultSet.getLong("user_id"), resultSet.getString("username"), resultSet.getString("base_currency"),
+                            resultSet.getBigDecimal("total")));
+                });
+    }
+
+    public void forEachStockHolding(Consumer<StockHolding> consumer) {
+        jdbcTemplate.query("SELECT s.stock_id, COUNT(*) AS holders, SUM(CAST(s.total_units AS DECIMAL)) AS units, " +
+                        "COALESCE(SUM(CAST(s.total_value AS DECIMAL)), 0) AS value FROM statistics s " +
+                        "WHERE CAST(s.total_units AS DECIMAL) > 0 GROUP BY s.stock_id",
+                resultSet -> {
+                    consumer.accept(new StockHolding(resultSet.getLong("stock_id"), resultSet.getLong("holders"),
+                            resultSet.getBigDecimal("units"), resultSet.getBigDecimal("value")));
+                });
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.investmentportfolio.repository;
+
+import com.example.investmentportfolio.model.PortfolioReturn;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PortfolioReturnRepository extends JpaRepository<PortfolioReturn, Long> {
+}
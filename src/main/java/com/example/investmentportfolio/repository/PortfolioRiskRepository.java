@@ -0,0 +1,9 @@
+package com.example.investmentportfolio.repository;
+
+import com.example.investmentportfolio.model.PortfolioRisk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PortfolioRiskRepository extends JpaRepository<PortfolioRisk, Long> {
+}
@@ -0,0 +1,42 @@
+package com.example.investmentportfolio.repository;
+
+import com.example.investmentportfolio.model.PortfolioSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface PortfolioSnapshotRepository extends JpaRepository<PortfolioSnapshot, Long> {
+    @Query(value = "SELECT CAST(MAX(snapshot_date) AS VARCHAR) FROM portfolio_snapshots WHERE user_id = ?1 AND snapshot_date < CAST(?2 AS DATE)", nativeQuery = true)
+    String getLatestSnapshotDateBefore(Long userId, String date);
+    @Query(value = "SELECT DISTINCT CAST(snapshot_date AS VARCHAR) FROM portfolio_snapshots WHERE user_id = ?1 AND snapshot_date >= CAST(?2 AS DATE) ORDER BY 1", nativeQuery = true)
+    List<String> findSnapshotDatesFrom(Long userId, String date);
+    @Query(value = "SELECT * FROM portfolio_snapshots WHERE user_id = ?1 AND snapshot_date = CAST(?2 AS DATE)", nativeQuery = true)
+    List<PortfolioSnapshot> findByUserIdAndSnapshotDate(Long userId, String date);
+    @Modifying
+    @Query(value = "DELETE FROM portfolio_snapshots WHERE user_id = ?1 AND snapshot_date = CAST(?2 AS DATE)", nativeQuery = true)
+    int deleteByUserIdAndSnapshotDate(Long userId, String date);
+    // Each bucket is represented by its last snapshot date, so a weekly or monthly point is the value at the end of that period
+    @Query(value = "SELECT CAST(s.snapshot_date AS VARCHAR) AS \"snapshotDate\", SUM(s.total_cost) AS \"totalCost\", SUM(s.total_value) AS \"totalValue\", " +
+            "SUM(s.realized_profits) AS \"realizedProfits\", SUM(s.unrealized_profits) AS \"unrealizedProfits\", " +
+            "SUM(s.dividends_earned) AS \"dividendsEarned\", SUM(s.total_profits) AS \"totalProfits\" " +
+            "FROM portfolio_snapshots s WHERE s.user_id = ?1 AND s.snapshot_date IN (" +
+            "SELECT MAX(snapshot_date) FROM portfolio_snapshots WHERE user_id = ?1 AND snapshot_date BETWEEN CAST(?2 AS DATE) AND CAST(?3 AS DATE) " +
+            "GROUP BY DATE_TRUNC(?4, snapshot_date)) " +
+            "GROUP BY s.snapshot_date ORDER BY s.snapshot_date ASC", nativeQuery = true)
+    List<PortfolioValuePoint> getPortfolioValueSeries(Long userId, String from, String to, String bucket);
+
+    interface PortfolioValuePoint {
+        String getSnapshotDate();
+        BigDecimal getTotalCost();
+        BigDecimal getTotalValue();
+        BigDecimal getRealizedProfits();
+        BigDecimal getUnrealizedProfits();
+        BigDecimal getDividendsEarned();
+        BigDecimal getTotalProfits();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.investmentportfolio.repository;
+
+import com.example.investmentportfolio.provider.PriceBar;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public class PriceHistoryRepository {
+    private static final RowMapper<PriceBar> PRICE_BAR_ROW_MAPPER = (resultSet, rowNum) -> new PriceBar(
+            resultSet.getDate("price_date").toLocalDate(),
+            resultSet.getBigDecimal("open_price"),
+            resultSet.getBigDecimal("high_price"),
+            resultSet.getBigDecimal("low_price"),
+            resultSet.getBigDecimal("close_price"),
+            resultSet.getBigDecimal("adjusted_close_price"),
+            resultSet.getLong("volume"));
+    private final JdbcTemplate jdbcTemplate;
+
+    public PriceHistoryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<PriceBar> findBars(Long stockId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("SELECT price_date, open_price, high_price, low_price, close_price, adjusted_close_price, volume FROM price_history WHERE stock_id = ? AND price_date BETWEEN ? AND ? ORDER BY price_date ASC",
+                PRICE_BAR_ROW_MAPPER, stockId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    public LocalDate findLatestPriceDate(Long stockId) {
+        Date latest = jdbcTemplate.queryForObject("SELECT MAX(price_date) FROM price_history WHERE stock_id = ?", Date.class, stockId);
+        return latest == null ? null : latest.toLocalDate();
+    }
+
+    public int upsertBars(Long stockId, List<PriceBar> bars) {
+        int[][] updated = jdbcTemplate.batchUpdate("INSERT INTO price_history (stock_id, price_date, open_price, high_price, low_price, close_price, adjusted_close_price, volume) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+                        "ON CONFLICT (stock_id, price_date) DO UPDATE SET open_price = EXCLUDED.open_price, high_price = EXCLUDED.high_price, low_price = EXCLUDED.low_price, " +
+                        "close_price = EXCLUDED.close_price, adjusted_close_price = EXCLUDED.adjusted_close_price, volume = EXCLUDED.volume",
+                bars, 500, (preparedStatement, bar) -> {
+                    preparedStatement.setLong(1, stockId);
+                    preparedStatement.setDate(2, Date.valueOf(bar.date()));
+                    preparedStatement.setBigDecimal(3, bar.open());
+                    preparedStatement.setBigDecimal(4, bar.high());
+                    preparedStatement.setBigDecimal(5, bar.low());
+                    preparedStatement.setBigDecimal(6, bar.close());
+                    preparedStatement.setBigDecimal(7, bar.adjustedClose());
+                    preparedStatement.setLong(8, bar.volume());
+                });
+        return bars.size();
+    }
+}
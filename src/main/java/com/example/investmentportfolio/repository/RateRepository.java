@@ -2,12 +2,19 @@ package com.example.investmentportfolio.repository;
 
 import com.example.investmentportfolio.model.Rate;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RateRepository extends JpaRepository<Rate, Long> {
     Optional<Rate> findByRateNameIgnoreCase(String rate);
     boolean existsByRateNameIgnoreCase(String rateName);
+    @Query(value = "SELECT UPPER(rate_name) FROM rates", nativeQuery = true)
+    List<String> findAllRateNames();
+    @Query(value = "SELECT b.currency || '/' || d.currency FROM (SELECT DISTINCT UPPER(base_currency) AS currency FROM stocks WHERE base_currency IS NOT NULL) b " +
+            "CROSS JOIN (SELECT DISTINCT UPPER(disp_curr) AS currency FROM users WHERE disp_curr IS NOT NULL) d WHERE b.currency <> d.currency", nativeQuery = true)
+    List<String> findRequiredRateNames();
 }
@@ -0,0 +1,21 @@
+package com.example.investmentportfolio.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class SchemaMigrationRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchemaMigrationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isApplied(String name) {
+        return !jdbcTemplate.queryForList("SELECT name FROM schema_migrations WHERE name = ?", String.class, name).isEmpty();
+    }
+
+    public void markApplied(String name) {
+        jdbcTemplate.update("INSERT INTO schema_migrations (name, applied_at) VALUES (?, now()) ON CONFLICT (name) DO NOTHING", name);
+    }
+}
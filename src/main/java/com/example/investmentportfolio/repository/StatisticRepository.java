@@ -14,6 +14,12 @@ import java.util.Optional;
 @Repository
 public interface StatisticRepository extends JpaRepository<Statistic, Long> {
     List<Statistic> findByUserId(Long userId);
+    List<Statistic> findByStockId(Long stockId);
+    @Query(value = "SELECT * FROM statistics WHERE total_units IS NOT NULL", nativeQuery = true)
+    List<Statistic> findAllPositions();
+    @Query(value = "SELECT * FROM statistics WHERE total_units IS NOT NULL AND user_id IN (?1)", nativeQuery = true)
+    List<Statistic> findPositionsByUserIds(List<Long> userIds);
+    int countByUserId(Long userId);
     void deleteByUserId(Long userId);
     boolean existsByUserIdAndStockId(Long userId, Long stockId);
     @Modifying
@@ -53,4 +59,7 @@ public interface StatisticRepository extends JpaRepository<Statistic, Long> {
     void updateTotalProfits(BigDecimal unrealizedProfits, Long userId, Long stockId);
     @Query(value = "SELECT total_profits FROM statistics WHERE user_id = :userId AND stock_id = :stockId", nativeQuery = true)
     BigDecimal getTotalProfits(@Param("userId") Long userId, @Param("stockId") Long stockId);
+    @Modifying
+    @Query(value = "UPDATE statistics SET time_weighted_return = ?1, money_weighted_return = ?2 WHERE user_id = ?3 AND stock_id = ?4", nativeQuery = true)
+    void updateReturns(String timeWeightedReturn, String moneyWeightedReturn, Long userId, Long stockId);
 }
@@ -20,6 +20,8 @@ public interface StockRepository extends JpaRepository<Stock, Long> {
     List<Stock> findByDelistInd(String divInd);
     void deleteByStockTickerIgnoreCase(String stockTicker);
     boolean existsByStockTickerIgnoreCase(String stockTicker);
+    @Query(value = "SELECT UPPER(stock_ticker) FROM stocks", nativeQuery = true)
+    List<String> findAllStockTickers();
     @Query(value = "SELECT stock_id FROM stocks WHERE stock_ticker = ?1 AND exchange_id = ?2", nativeQuery = true)
     Optional<Long> findIdByTickerAndExchangeId(String stockTicker, Long exchangeId);
     @Query(value = "SELECT exchange from exchanges WHERE exchange_id = (SELECT exchange_id FROM stocks WHERE stock_id = ?1);", nativeQuery = true)
@@ -39,4 +41,7 @@ public interface StockRepository extends JpaRepository<Stock, Long> {
     @Modifying
     @Query(value = "UPDATE stocks SET last_price = ?1 WHERE stock_ticker = ?2 AND exchange_id = ?3", nativeQuery = true)
     void updateLastPriceByStockTickerAndExchange(BigDecimal lastPrice, String stockTicker, Long exchangeId);
+    @Modifying
+    @Query(value = "UPDATE stocks SET last_price = ?1 WHERE stock_id = ?2", nativeQuery = true)
+    void updateLastPriceByStockId(BigDecimal lastPrice, Long stockId);
 }
@@ -0,0 +1,27 @@
+package com.example.investmentportfolio.repository;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+@Repository
+public class TransactionImportRepository {
+    private static final String COPY_TRANSACTIONS = "COPY transactions (user_id, transaction_date, transaction_type, stock_id, units, unit_price, fees, currency) " +
+            "FROM STDIN WITH (FORMAT csv)";
+    private final DataSource dataSource;
+
+    public TransactionImportRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    // The copy runs on the connection bound to the caller's transaction, so rows only become visible when it commits
+    public CopyIn beginTransactionCopy() throws SQLException {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_TRANSACTIONS);
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @Repository
@@ -20,4 +21,20 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     List<Transaction> getSellTransactionsByStock(Long userId, Long stockId);
     @Query(value = "SELECT * FROM transactions WHERE user_id = ?1 AND stock_id = ?2 AND transaction_type = 'Buy' AND transaction_date <= CAST(?3 AS DATE)", nativeQuery = true)
     List<Transaction> getBuyTransactionsByUserIdAndStockIdAndDate(Long userId, Long stockId, String date);
-}
\ No newline at end of file
+    @Query(value = "SELECT COALESCE(SUM(CASE WHEN TRIM(transaction_type) = 'Buy' THEN CAST(units AS DECIMAL) ELSE -CAST(units AS DECIMAL) END), 0) FROM transactions WHERE user_id = ?1 AND stock_id = ?2", nativeQuery = true)
+    BigDecimal sumUnitsByUserIdAndStockId(Long userId, Long stockId);
+    @Query(value = "SELECT * FROM transactions WHERE user_id = ?1 AND transaction_date > CAST(?2 AS DATE) AND transaction_date <= CAST(?3 AS DATE)", nativeQuery = true)
+    List<Transaction> findByUserIdAndDateRange(Long userId, String afterDate, String toDate);
+    @Query(value = "SELECT DISTINCT CAST(user_id AS BIGINT) FROM transactions WHERE stock_id = ?1", nativeQuery = true)
+    List<Long> findUserIdsByStockId(Long stockId);
+    @Query(value = "SELECT CAST(user_id AS BIGINT) AS \"userId\", CAST(stock_id AS BIGINT) AS \"stockId\", " +
+            "COALESCE(SUM(CASE WHEN TRIM(transaction_type) = 'Buy' THEN CAST(units AS DECIMAL) ELSE -CAST(units AS DECIMAL) END), 0) AS \"units\" " +
+            "FROM transactions GROUP BY user_id, stock_id", nativeQuery = true)
+    List<PositionUnits> sumUnitsByPosition();
+
+    interface PositionUnits {
+        Long getUserId();
+        Long getStockId();
+        BigDecimal getUnits();
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.investmentportfolio.service;
+
+import com.example.investmentportfolio.dto.AllocationDto;
+
+public interface AllocationService {
+    AllocationDto getAllocationByUserId(Long userId);
+    AllocationDto getBookAllocation(String currency);
+}
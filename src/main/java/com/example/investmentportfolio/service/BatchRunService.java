@@ -0,0 +1,9 @@
+package com.example.investmentportfolio.service;
+
+import com.example.investmentportfolio.dto.BatchRunDto;
+
+import java.util.List;
+
+public interface BatchRunService {
+    List<BatchRunDto> getRecentRuns(String jobName, Integer limit);
+}
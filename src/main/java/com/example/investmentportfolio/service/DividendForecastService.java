@@ -0,0 +1,9 @@
+package com.example.investmentportfolio.service;
+
+import com.example.investmentportfolio.dto.DividendCalendarDto;
+import com.example.investmentportfolio.dto.DividendForecastDto;
+
+public interface DividendForecastService {
+    DividendForecastDto getForecastByStockId(Long stockId);
+    DividendCalendarDto getCalendarByUserId(Long userId);
+}
@@ -0,0 +1,5 @@
+package com.example.investmentportfolio.service;
+
+public interface DividendIngestionService {
+    int ingestDividends();
+}
@@ -6,6 +6,7 @@ import java.util.List;
 
 public interface DividendService {
     DividendDto createDividend(DividendDto dividendDto);
+    List<DividendDto> createDividends(List<DividendDto> dividendDtos);
     List<DividendDto> getAllDividends();
     DividendDto getDividendById(Long dividendId);
     List<DividendDto> getDividendsByStockId(Long stockId);
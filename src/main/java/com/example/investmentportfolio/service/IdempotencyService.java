@@ -0,0 +1,10 @@
+package com.example.investmentportfolio.service;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+    <T> ResponseEntity<T> execute(String endpoint, String idempotencyKey, Object request, Class<T> responseType, Supplier<ResponseEntity<T>> action);
+    int purgeExpiredKeys(int limit);
+}
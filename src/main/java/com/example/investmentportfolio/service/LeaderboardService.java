@@ -0,0 +1,9 @@
+package com.example.investmentportfolio.service;
+
+import com.example.investmentportfolio.dto.StockLeaderboardDto;
+import com.example.investmentportfolio.dto.UserLeaderboardDto;
+
+public interface LeaderboardService {
+    UserLeaderboardDto getTopUsers(String metric, Integer limit, String currency);
+    StockLeaderboardDto getMostHeldStocks(String sortBy, Integer limit, String currency);
+}
@@ -0,0 +1,7 @@
+package com.example.investmentportfolio.service;
+
+import com.example.investmentportfolio.dto.PortfolioValuationDto;
+
+public interface PortfolioService {
+    PortfolioValuationDto getPortfolioAsOf(Long userId, String date);
+}
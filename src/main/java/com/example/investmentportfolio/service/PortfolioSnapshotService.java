@@ -0,0 +1,14 @@
+package com.example.investmentportfolio.service;
+
+import com.example.investmentportfolio.dto.PortfolioValueHistoryDto;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+public interface PortfolioSnapshotService {
+    int snapshotUser(Long userId, LocalDate snapshotDate);
+    int rebuildSnapshots(Long userId, LocalDate fromDate);
+    void rebuildSnapshotsForStocks(Map<Long, LocalDate> fromDatesByStockId);
+    void deleteAllSnapshots();
+    PortfolioValueHistoryDto getPortfolioValueHistory(Long userId, String from, String to, String interval);
+}
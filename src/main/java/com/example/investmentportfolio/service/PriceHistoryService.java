@@ -0,0 +1,14 @@
+package com.example.investmentportfolio.service;
+
+import com.example.investmentportfolio.dto.PriceHistoryDto;
+import com.example.investmentportfolio.provider.PriceBar;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface PriceHistoryService {
+    PriceHistoryDto getPriceHistory(Long stockId, String from, String to);
+    List<PriceBar> findBars(Long stockId, LocalDate from, LocalDate to);
+    int backfillPriceHistory(Long stockId, String from, String to);
+    int updatePriceHistory(Long stockId);
+}
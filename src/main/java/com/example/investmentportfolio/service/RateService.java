@@ -6,9 +6,11 @@ import java.util.List;
 
 public interface RateService {
     RateDto createRate(RateDto rateDto);
+    List<RateDto> createRates(List<RateDto> rateDtos);
     List<RateDto> getAllRates();
     RateDto getRateById(Long rateId);
     RateDto updateRateById(Long rateId, RateDto rateDto);
     void deleteAllRates();
     void deleteRateById(Long rateId);
+    List<String> refreshRates();
 }
@@ -0,0 +1,10 @@
+package com.example.investmentportfolio.service;
+
+import com.example.investmentportfolio.dto.PortfolioReturnsDto;
+
+import java.util.List;
+
+public interface ReturnService {
+    PortfolioReturnsDto getReturnsByUserId(Long userId);
+    int updateReturnsForUsers(List<Long> userIds);
+}
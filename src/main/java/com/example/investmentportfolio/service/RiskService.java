@@ -0,0 +1,8 @@
+package com.example.investmentportfolio.service;
+
+import com.example.investmentportfolio.dto.PortfolioRiskDto;
+
+public interface RiskService {
+    PortfolioRiskDto getRiskByUserId(Long userId);
+    int updateRiskForUser(Long userId);
+}
@@ -0,0 +1,7 @@
+package com.example.investmentportfolio.service;
+
+import com.example.investmentportfolio.dto.SimulationDto;
+
+public interface SimulationService {
+    SimulationDto simulatePortfolio(Long userId, Integer paths, Integer horizonDays, boolean correlated, Long seed);
+}
@@ -1,5 +1,6 @@
 package com.example.investmentportfolio.service;
 
+import com.example.investmentportfolio.dto.PortfolioStatisticsDto;
 import com.example.investmentportfolio.dto.StatisticDto;
 
 import java.math.BigDecimal;
@@ -10,6 +11,7 @@ public interface StatisticService {
     List<StatisticDto> getAllStatistics();
     StatisticDto getStatisticById(Long statisticId);
     List<StatisticDto> getStatisticsByUserId(Long userId);
+    PortfolioStatisticsDto getPortfolioStatistics(Long userId, String currency);
     StatisticDto updateStatisticById(Long statisticId, StatisticDto statisticDto);
     void deleteAllStatistics();
     void deleteStatisticById(Long statisticId);
@@ -28,8 +30,10 @@ public interface StatisticService {
     void calculateUnrealizedProfits(Long userId);
     BigDecimal calculateTotalProfitsByStock(Long userId, Long stockId);
     void calculateTotalProfits(Long userId);
-    void updateStatisticsForUser(Long userId);
+    int updateStatisticsForUser(Long userId);
     void updateStatisticsForAllUsers();
-    void updateTotalProfitsForUser(Long userId);
+    int updateTotalProfitsForUser(Long userId);
     void updateTotalProfitsForAllUsers();
+    int revaluePositionsForStocks(List<Long> stockIds);
+    int recomputeDividendsForStock(Long stockId);
 }
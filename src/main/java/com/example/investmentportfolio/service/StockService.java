@@ -8,6 +8,7 @@ import java.util.List;
 
 public interface StockService {
     StockDto createStock(StockDto stockDto);
+    List<StockDto> createStocks(List<StockDto> stockDtos);
     List<StockDto> getAllStocks();
     StockDto getStockById(Long stockId);
     StockDto getStockByTicker(String stockTicker);
@@ -20,5 +21,7 @@ public interface StockService {
     void deleteAllStocks();
     void deleteStockById(Long stockId);
     StockDto deleteStockByTicker(String stockTicker);
-    void updateLiveStockPrices() throws IOException, URISyntaxException;
+    int updateLiveStockPrices() throws IOException, URISyntaxException;
+    List<Long> updateLiveStockPricesForHeldStocks(Long exchangeId) throws IOException, URISyntaxException;
+    List<Long> updateLiveStockPricesForExchange(Long exchangeId) throws IOException, URISyntaxException;
 }
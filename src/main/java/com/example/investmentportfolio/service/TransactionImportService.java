@@ -0,0 +1,9 @@
+package com.example.investmentportfolio.service;
+
+import com.example.investmentportfolio.dto.TransactionImportDto;
+
+import java.io.InputStream;
+
+public interface TransactionImportService {
+    TransactionImportDto importTransactions(InputStream inputStream, String contentType);
+}
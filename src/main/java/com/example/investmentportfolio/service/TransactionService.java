@@ -6,6 +6,7 @@ import java.util.List;
 
 public interface TransactionService {
     TransactionDto createTransaction(TransactionDto transactionDto);
+    List<TransactionDto> createTransactions(List<TransactionDto> transactionDtos);
     List<TransactionDto> getAllTransactions();
     TransactionDto getTransactionById(Long transactionId);
     List<TransactionDto> getTransactionsByUserId(Long userId);
@@ -7,6 +7,7 @@ import java.util.List;
 public interface UserService {
     UserDto createUser(UserDto userDto);
     List<UserDto> getAllUsers();
+    List<Long> getAllUserIds();
     UserDto getUserById(Long userId);
     UserDto getUserByUsername(String username);
     UserDto updateUserById(Long userId, UserDto userDto);
@@ -0,0 +1,8 @@
+package com.example.investmentportfolio.service;
+
+import com.example.investmentportfolio.dto.WhatIfDto;
+import com.example.investmentportfolio.dto.WhatIfScenarioDto;
+
+public interface WhatIfService {
+    WhatIfDto runScenario(WhatIfScenarioDto whatIfScenarioDto);
+}
@@ -0,0 +1,153 @@
+package com.example.investmentportfolio.service.impl;
+
+import com.example.investmentportfolio.analytics.AllocationRollup;
+import com.example.investmentportfolio.cache.AllocationCache;
+import com.example.investmentportfolio.cache.RateCache;
+import com.example.investmentportfolio.cache.ReferenceDataCache;
+import com.example.investmentportfolio.dto.AllocationDto;
+import com.example.investmentportfolio.dto.AllocationGroupDto;
+import com.example.investmentportfolio.model.Statistic;
+import com.example.investmentportfolio.model.Stock;
+import com.example.investmentportfolio.model.User;
+import com.example.investmentportfolio.repository.StatisticRepository;
+import com.example.investmentportfolio.repository.UserRepository;
+import com.example.investmentportfolio.service.AllocationService;
+import com.example.investmentportfolio.util.CustomError;
+import com.example.investmentportfolio.util.ErrorConstants;
+import com.example.investmentportfolio.util.NotFoundException;
+import com.example.investmentportfolio.util.ValidationException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+public class AllocationServiceImpl implements AllocationService {
+    private static final Logger LOGGER = LogManager.getLogger(AllocationServiceImpl.class);
+    public static final String NO_USER_FOUND_WITH_ID = "No user found with id: %d";
+    private static final String UNKNOWN = "UNKNOWN";
+    private final StatisticRepository statisticRepository;
+    private final UserRepository userRepository;
+    private final RateCache rateCache;
+    private final ReferenceDataCache referenceDataCache;
+    private final AllocationCache allocationCache;
+
+    public AllocationServiceImpl(StatisticRepository statisticRepository, UserRepository userRepository, RateCache rateCache,
+                                 ReferenceDataCache referenceDataCache, AllocationCache allocationCache) {
+        this.statisticRepository = statisticRepository;
+        this.userRepository = userRepository;
+        this.rateCache = rateCache;
+        this.referenceDataCache = referenceDataCache;
+        this.allocationCache = allocationCache;
+    }
+
+    @Override
+    public AllocationDto getAllocationByUserId(Long userId) {
+        Optional<User> optionalUser = userRepository.findById(userId);
+        if (optionalUser.isEmpty()) {
+            List<String> errorMessages = Collections.singletonList(String.format(NO_USER_FOUND_WITH_ID, userId));
+            LOGGER.error(errorMessages);
+            throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
+        }
+        String displayCurrency = optionalUser.get().getDisplayCurrency();
+        AllocationCache.UserAllocation allocation = allocationCache.get(userId,
+                id -> buildAllocation(displayCurrency, statisticRepository.findByUserId(id)));
+        return toDto(userId, allocation.displayCurrency(), 1, allocation.rollup());
+    }
+
+    // The book merges each user's cached rollup at the rate from their display currency, loading every missing user's rows in one query
+    @Override
+    public AllocationDto getBookAllocation(String currency) {
+        if (currency == null || !currency.matches("^[a-zA-Z]{3}$")) {
+            List<String> errorMessages = Collections.singletonList("Currency should contain exactly 3 letters.");
+            LOGGER.error(errorMessages);
+            throw new ValidationException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
+        }
+        String reportingCurrency = currency.toUpperCase();
+        List<User> users = userRepository.findAll();
+        Map<Long, List<Statistic>> prefetched = new HashMap<>();
+        Map<String, BigDecimal> rates = new HashMap<>();
+        AllocationRollup book = new AllocationRollup();
+        for (User user : users) {
+            AllocationCache.UserAllocation allocation = allocationCache.get(user.getUserId(), id -> {
+                if (prefetched.isEmpty()) {
+                    prefetched.putAll(statisticRepository.findAll().stream().collect(Collectors.groupingBy(Statistic::getUserId)));
+                }
+                return buildAllocation(user.getDisplayCurrency(), prefetched.getOrDefault(id, Collections.emptyList()));
+            });
+            BigDecimal rate = rates.computeIfAbsent(allocation.displayCurrency(), displayCurrency -> rateCache.getRate(displayCurrency, reportingCurrency));
+            book.merge(allocation.rollup(), rate.doubleValue());
+        }
+        LOGGER.info("Rolled up allocations of {} user(s) in {}", users.size(), reportingCurrency);
+        return toDto(null, reportingCurrency, users.size(), book);
+    }
+
+    // Statistics are held in each stock's base currency, so every position is brought into the display currency before it is rolled up
+    private AllocationCache.UserAllocation buildAllocation(String displayCurrency, List<Statistic> statistics) {
+        AllocationRollup rollup = new AllocationRollup();
+        Set<Long> stockIds = new HashSet<>();
+        Map<String, Double> rates = new HashMap<>();
+        double[] metrics = new double[AllocationRollup.METRICS];
+        for (Statistic statistic : statistics) {
+            Optional<Stock> optionalStock = referenceDataCache.findStockById(statistic.getStockId());
+            String stockType = optionalStock.map(Stock::getStockType).map(String::trim).orElse(UNKNOWN);
+            String exchange = referenceDataCache.findExchangeByStockId(statistic.getStockId()).orElse(UNKNOWN);
+            String baseCurrency = optionalStock.map(Stock::getBaseCurrency).orElse(displayCurrency);
+            double rate = rates.computeIfAbsent(baseCurrency, currency -> rateCache.getRate(currency, displayCurrency).doubleValue());
+            metrics[AllocationRollup.VALUE] = parse(statistic.getTotalValue()) * rate;
+            metrics[AllocationRollup.COST] = parse(statistic.getTotalCost()) * rate;
+            metrics[AllocationRollup.UNREALIZED_PROFITS] = parse(statistic.getUnrealizedProfits()) * rate;
+            metrics[AllocationRollup.REALIZED_PROFITS] = parse(statistic.getRealizedProfits()) * rate;
+            metrics[AllocationRollup.DIVIDENDS_EARNED] = parse(statistic.getDividendsEarned()) * rate;
+            metrics[AllocationRollup.TOTAL_PROFITS] = parse(statistic.getTotalProfits()) * rate;
+            rollup.add(stockType, exchange, baseCurrency, metrics);
+            stockIds.add(statistic.getStockId());
+        }
+        return new AllocationCache.UserAllocation(displayCurrency, Set.copyOf(stockIds), rollup);
+    }
+
+    // Costs are converted at current rates, so without rate history the currency effect is reported as exposure rather than profit
+    private static AllocationDto toDto(Long userId, String currency, int users, AllocationRollup rollup) {
+        double totalValue = rollup.total(AllocationRollup.VALUE);
+        double totalCost = rollup.total(AllocationRollup.COST);
+        double foreignCurrencyValue = rollup.groups(AllocationRollup.Dimension.CURRENCY).entrySet().stream()
+                .filter(entry -> !entry.getKey().equalsIgnoreCase(currency))
+                .mapToDouble(entry -> entry.getValue()[AllocationRollup.VALUE])
+                .sum();
+        return new AllocationDto(userId, currency, users, format(totalValue), format(totalCost), format(rollup.total(AllocationRollup.TOTAL_PROFITS)),
+                format(foreignCurrencyValue), percent(foreignCurrencyValue, totalValue),
+                toGroups(rollup, AllocationRollup.Dimension.STOCK_TYPE, totalValue, totalCost),
+                toGroups(rollup, AllocationRollup.Dimension.EXCHANGE, totalValue, totalCost),
+                toGroups(rollup, AllocationRollup.Dimension.CURRENCY, totalValue, totalCost));
+    }
+
+    private static List<AllocationGroupDto> toGroups(AllocationRollup rollup, AllocationRollup.Dimension dimension, double totalValue, double totalCost) {
+        return rollup.groups(dimension).entrySet().stream()
+                .sorted(Comparator.comparingDouble((Map.Entry<String, double[]> entry) -> entry.getValue()[AllocationRollup.VALUE]).reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .map(entry -> {
+                    double[] metrics = entry.getValue();
+                    return new AllocationGroupDto(entry.getKey(), format(metrics[AllocationRollup.VALUE]), percent(metrics[AllocationRollup.VALUE], totalValue),
+                            format(metrics[AllocationRollup.COST]), format(metrics[AllocationRollup.UNREALIZED_PROFITS]),
+                            format(metrics[AllocationRollup.REALIZED_PROFITS]), format(metrics[AllocationRollup.DIVIDENDS_EARNED]),
+                            format(metrics[AllocationRollup.TOTAL_PROFITS]), percent(metrics[AllocationRollup.TOTAL_PROFITS], totalCost));
+                })
+                .toList();
+    }
+
+    private static double parse(String value) {
+        return value == null || value.isBlank() ? 0 : Double.parseDouble(value);
+    }
+
+    private static String format(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).stripTrailingZeros().toPlainString();
+    }
+
+    private static String percent(double part, double whole) {
+        return whole == 0 ? null : format(part * 100 / whole);
+    }
+}
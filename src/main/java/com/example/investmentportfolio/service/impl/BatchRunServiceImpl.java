@@ -0,0 +1,92 @@
+package com.example.investmentportfolio.service.impl;
+
+import com.example.investmentportfolio.batch.BatchMetrics;
+import com.example.investmentportfolio.dto.BatchRunDto;
+import com.example.investmentportfolio.dto.BatchStepRunDto;
+import com.example.investmentportfolio.repository.BatchRunRepository;
+import com.example.investmentportfolio.service.BatchRunService;
+import com.example.investmentportfolio.util.CustomError;
+import com.example.investmentportfolio.util.ErrorConstants;
+import com.example.investmentportfolio.util.NotFoundException;
+import com.example.investmentportfolio.util.ValidationException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+public class BatchRunServiceImpl implements BatchRunService {
+    private static final Logger LOGGER = LogManager.getLogger(BatchRunServiceImpl.class);
+    private final BatchRunRepository batchRunRepository;
+    private final JobExplorer jobExplorer;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public BatchRunServiceImpl(BatchRunRepository batchRunRepository, JobExplorer jobExplorer,
+                               @Value("${batch.runs.limit.default:20}") int defaultLimit,
+                               @Value("${batch.runs.limit.max:200}") int maxLimit) {
+        this.batchRunRepository = batchRunRepository;
+        this.jobExplorer = jobExplorer;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    @Override
+    public List<BatchRunDto> getRecentRuns(String jobName, Integer limit) {
+        int resolvedLimit = limit == null ? defaultLimit : limit;
+        if (resolvedLimit < 1 || resolvedLimit > maxLimit) {
+            List<String> errorMessages = Collections.singletonList(String.format("Limit must be between 1 and %d.", maxLimit));
+            LOGGER.error(errorMessages);
+            throw new ValidationException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
+        }
+        List<Long> jobExecutionIds = jobName != null
+                ? batchRunRepository.findRecentJobExecutionIdsByJobName(jobName, resolvedLimit)
+                : batchRunRepository.findRecentJobExecutionIds(resolvedLimit);
+        if (!jobExecutionIds.isEmpty()) {
+            return jobExecutionIds.stream()
+                    .map(jobExplorer::getJobExecution)
+                    .filter(Objects::nonNull)
+                    .map(this::convertToDto)
+                    .toList();
+        } else {
+            List<String> errorMessages = Collections.singletonList("No batch run(s) found.");
+            LOGGER.error(errorMessages);
+            throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
+        }
+    }
+
+    private BatchRunDto convertToDto(JobExecution jobExecution) {
+        List<BatchStepRunDto> steps = jobExecution.getStepExecutions().stream()
+                .map(this::convertToDto)
+                .toList();
+        return new BatchRunDto(jobExecution.getId(), jobExecution.getJobInstance().getJobName(), jobExecution.getStatus().name(),
+                jobExecution.getExitStatus().getExitCode(), toString(jobExecution.getStartTime()), toString(jobExecution.getEndTime()),
+                durationMillis(jobExecution.getStartTime(), jobExecution.getEndTime()), steps);
+    }
+
+    private BatchStepRunDto convertToDto(StepExecution stepExecution) {
+        ExecutionContext executionContext = stepExecution.getExecutionContext();
+        return new BatchStepRunDto(stepExecution.getStepName(), stepExecution.getStatus().name(), toString(stepExecution.getStartTime()),
+                toString(stepExecution.getEndTime()), durationMillis(stepExecution.getStartTime(), stepExecution.getEndTime()),
+                executionContext.getLong(BatchMetrics.USERS, 0L), executionContext.getLong(BatchMetrics.POSITIONS, 0L),
+                executionContext.getLong(BatchMetrics.SYMBOLS, 0L), stepExecution.getExitStatus().getExitDescription());
+    }
+
+    private static String toString(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toString() : null;
+    }
+
+    private static Long durationMillis(LocalDateTime startTime, LocalDateTime endTime) {
+        return startTime != null && endTime != null ? Duration.between(startTime, endTime).toMillis() : null;
+    }
+}
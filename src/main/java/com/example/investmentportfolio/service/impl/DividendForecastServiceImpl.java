@@ -0,0 +1,152 @@
+package com.example.investmentportfolio.service.impl;
+
+import com.example.investmentportfolio.analytics.DividendProjector;
+import com.example.investmentportfolio.cache.DividendForecastCache;
+import com.example.investmentportfolio.cache.RateCache;
+import com.example.investmentportfolio.cache.ReferenceDataCache;
+import com.example.investmentportfolio.dto.DividendCalendarDto;
+import com.example.investmentportfolio.dto.DividendCalendarEntryDto;
+import com.example.investmentportfolio.dto.DividendEventDto;
+import com.example.investmentportfolio.dto.DividendForecastDto;
+import com.example.investmentportfolio.model.Statistic;
+import com.example.investmentportfolio.model.Stock;
+import com.example.investmentportfolio.model.User;
+import com.example.investmentportfolio.repository.DividendRepository;
+import com.example.investmentportfolio.repository.StatisticRepository;
+import com.example.investmentportfolio.repository.UserRepository;
+import com.example.investmentportfolio.service.DividendForecastService;
+import com.example.investmentportfolio.util.CustomError;
+import com.example.investmentportfolio.util.ErrorConstants;
+import com.example.investmentportfolio.util.NotFoundException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.*;
+
+@Service
+public class DividendForecastServiceImpl implements DividendForecastService {
+    private static final Logger LOGGER = LogManager.getLogger(DividendForecastServiceImpl.class);
+    public static final String NO_USER_FOUND_WITH_ID = "No user found with id: %d";
+    public static final String NO_STOCK_FOUND_WITH_ID = "No stock found with id: %d";
+    private static final String YES = "Y";
+    private final DividendRepository dividendRepository;
+    private final StatisticRepository statisticRepository;
+    private final UserRepository userRepository;
+    private final RateCache rateCache;
+    private final ReferenceDataCache referenceDataCache;
+    private final DividendForecastCache dividendForecastCache;
+    private final int horizonMonths;
+
+    private record CalendarEvent(Long stockId, LocalDate exDate, LocalDate payDate, BigDecimal payout, boolean projected) {
+    }
+
+    public DividendForecastServiceImpl(DividendRepository dividendRepository, StatisticRepository statisticRepository, UserRepository userRepository,
+                                       RateCache rateCache, ReferenceDataCache referenceDataCache, DividendForecastCache dividendForecastCache,
+                                       @Value("${dividend.forecast.horizon-months:12}") int horizonMonths) {
+        this.dividendRepository = dividendRepository;
+        this.statisticRepository = statisticRepository;
+        this.userRepository = userRepository;
+        this.rateCache = rateCache;
+        this.referenceDataCache = referenceDataCache;
+        this.dividendForecastCache = dividendForecastCache;
+        this.horizonMonths = horizonMonths;
+    }
+
+    @Override
+    public DividendForecastDto getForecastByStockId(Long stockId) {
+        Optional<Stock> optionalStock = referenceDataCache.findStockById(stockId);
+        if (optionalStock.isEmpty()) {
+            List<String> errorMessages = Collections.singletonList(String.format(NO_STOCK_FOUND_WITH_ID, stockId));
+            LOGGER.error(errorMessages);
+            throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
+        }
+        LocalDate today = LocalDate.now();
+        DividendForecastCache.StockForecast forecast = dividendForecastCache.get(stockId, today, id -> loadForecast(id, today));
+        List<DividendEventDto> dividends = events(stockId, forecast, today.plusMonths(horizonMonths)).stream()
+                .map(event -> new DividendEventDto(event.exDate().toString(), event.payDate() == null ? null : event.payDate().toString(),
+                        event.payout().stripTrailingZeros().toPlainString(), event.projected()))
+                .toList();
+        Stock stock = optionalStock.get();
+        DividendProjector.Cadence cadence = forecast.projection().cadence();
+        return new DividendForecastDto(stockId, stock.getStockTicker(), referenceDataCache.findExchangeByStockId(stockId).orElse(null),
+                stock.getBaseCurrency(), cadence == null ? null : cadence.name(), dividends);
+    }
+
+    // Each stock's forecast is inferred once and shared by all of its holders, so a calendar only scales it by units and rate
+    @Override
+    public DividendCalendarDto getCalendarByUserId(Long userId) {
+        Optional<User> optionalUser = userRepository.findById(userId);
+        if (optionalUser.isEmpty()) {
+            List<String> errorMessages = Collections.singletonList(String.format(NO_USER_FOUND_WITH_ID, userId));
+            LOGGER.error(errorMessages);
+            throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
+        }
+        String displayCurrency = optionalUser.get().getDisplayCurrency();
+        LocalDate today = LocalDate.now();
+        LocalDate to = today.plusMonths(horizonMonths);
+        Map<String, BigDecimal> rates = new HashMap<>();
+        List<DividendCalendarEntryDto> entries = new ArrayList<>();
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        List<CalendarEvent> events = new ArrayList<>();
+        Map<Long, BigDecimal> unitsByStockId = new HashMap<>();
+        for (Statistic statistic : statisticRepository.findByUserId(userId)) {
+            if (statistic.getTotalUnits() == null || new BigDecimal(statistic.getTotalUnits()).signum() <= 0) {
+                continue;
+            }
+            unitsByStockId.put(statistic.getStockId(), new BigDecimal(statistic.getTotalUnits()));
+            DividendForecastCache.StockForecast forecast = dividendForecastCache.get(statistic.getStockId(), today, id -> loadForecast(id, today));
+            events.addAll(events(statistic.getStockId(), forecast, to));
+        }
+        events.sort(Comparator.comparing(CalendarEvent::exDate).thenComparing(CalendarEvent::stockId));
+        for (CalendarEvent event : events) {
+            BigDecimal units = unitsByStockId.get(event.stockId());
+            String baseCurrency = referenceDataCache.findBaseCurrencyByStockId(event.stockId()).orElse(displayCurrency);
+            BigDecimal rate = rates.computeIfAbsent(baseCurrency + "/" + displayCurrency, rateCache::getRate);
+            BigDecimal amount = units.multiply(event.payout()).multiply(rate);
+            totalAmount = totalAmount.add(amount);
+            entries.add(new DividendCalendarEntryDto(referenceDataCache.findStockTickerByStockId(event.stockId()).orElse(null),
+                    referenceDataCache.findExchangeByStockId(event.stockId()).orElse(null), event.exDate().toString(),
+                    event.payDate() == null ? null : event.payDate().toString(), units.stripTrailingZeros().toPlainString(),
+                    event.payout().stripTrailingZeros().toPlainString(), format(amount), event.projected()));
+        }
+        LOGGER.info("Built dividend calendar of {} entry(ies) across {} position(s) for user id {}", entries.size(), unitsByStockId.size(), userId);
+        return new DividendCalendarDto(userId, displayCurrency, today.toString(), to.toString(), format(totalAmount), entries);
+    }
+
+    private DividendForecastCache.StockForecast loadForecast(Long stockId, LocalDate today) {
+        Optional<Stock> optionalStock = referenceDataCache.findStockById(stockId);
+        if (optionalStock.isEmpty() || !YES.equals(optionalStock.get().getDivInd()) || YES.equals(optionalStock.get().getDelistInd())) {
+            return new DividendForecastCache.StockForecast(today, List.of(), new DividendProjector.Projection(null, List.of()));
+        }
+        List<DividendProjector.PastDividend> history = dividendRepository.findByStockId(stockId).stream()
+                .map(dividend -> new DividendProjector.PastDividend(LocalDate.parse(dividend.getExDate()),
+                        dividend.getPayDate() == null ? null : LocalDate.parse(dividend.getPayDate()), new BigDecimal(dividend.getPayout())))
+                .toList();
+        List<DividendProjector.PastDividend> announced = history.stream()
+                .filter(dividend -> !dividend.exDate().isBefore(today))
+                .sorted(Comparator.comparing(DividendProjector.PastDividend::exDate))
+                .toList();
+        DividendProjector.Projection projection = DividendProjector.project(history, today, today.plusMonths(horizonMonths));
+        LOGGER.info("Projected {} dividend(s) for stock id {} on a {} cadence", projection.dividends().size(), stockId, projection.cadence());
+        return new DividendForecastCache.StockForecast(today, announced, projection);
+    }
+
+    private static List<CalendarEvent> events(Long stockId, DividendForecastCache.StockForecast forecast, LocalDate to) {
+        List<CalendarEvent> events = new ArrayList<>();
+        forecast.announced().stream()
+                .filter(dividend -> !dividend.exDate().isAfter(to))
+                .forEach(dividend -> events.add(new CalendarEvent(stockId, dividend.exDate(), dividend.payDate(), dividend.payout(), false)));
+        forecast.projection().dividends()
+                .forEach(dividend -> events.add(new CalendarEvent(stockId, dividend.exDate(), dividend.payDate(), dividend.payout(), true)));
+        return events;
+    }
+
+    private static String format(BigDecimal value) {
+        return value.setScale(2, RoundingMode.HALF_UP).stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.investmentportfolio.service.impl;
+
+import com.example.investmentportfolio.cache.DividendForecastCache;
+import com.example.investmentportfolio.cache.ReferenceDataCache;
+import com.example.investmentportfolio.model.Exchange;
+import com.example.investmentportfolio.model.Stock;
+import com.example.investmentportfolio.provider.DividendEvent;
+import com.example.investmentportfolio.provider.PriceProvider;
+import com.example.investmentportfolio.repository.DividendIngestionRepository;
+import com.example.investmentportfolio.repository.DividendRepository;
+import com.example.investmentportfolio.repository.StockRepository;
+import com.example.investmentportfolio.service.DividendIngestionService;
+import com.example.investmentportfolio.service.PortfolioSnapshotService;
+import com.example.investmentportfolio.service.StatisticService;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Service
+public class DividendIngestionServiceImpl implements DividendIngestionService {
+    private static final Logger LOGGER = LogManager.getLogger(DividendIngestionServiceImpl.class);
+    private static final String YES = "Y";
+    private final DividendRepository dividendRepository;
+    private final DividendIngestionRepository dividendIngestionRepository;
+    private final StockRepository stockRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final DividendForecastCache dividendForecastCache;
+    private final StatisticService statisticService;
+    private final PortfolioSnapshotService portfolioSnapshotService;
+    private final PriceProvider priceProvider;
+    private final ExecutorService fetchExecutor;
+    private final int initialYears;
+
+    private record FetchedDividends(Stock stock, List<DividendEvent> dividends) {
+    }
+
+    public DividendIngestionServiceImpl(DividendRepository dividendRepository, DividendIngestionRepository dividendIngestionRepository, StockRepository stockRepository,
+                                        ReferenceDataCache referenceDataCache, DividendForecastCache dividendForecastCache, StatisticService statisticService,
+                                        PortfolioSnapshotService portfolioSnapshotService,
+                                        PriceProvider priceProvider, @Value("${dividend.ingestion.threads:4}") int threads,
+                                        @Value("${dividend.ingestion.initial-years:5}") int initialYears) {
+        this.dividendRepository = dividendRepository;
+        this.dividendIngestionRepository = dividendIngestionRepository;
+        this.stockRepository = stockRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.dividendForecastCache = dividendForecastCache;
+        this.statisticService = statisticService;
+        this.portfolioSnapshotService = portfolioSnapshotService;
+        this.priceProvider = priceProvider;
+        this.fetchExecutor = Executors.newFixedThreadPool(threads);
+        this.initialYears = initialYears;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fetchExecutor.shutdownNow();
+    }
+
+    // Each stock is fetched from its latest stored ex date onwards, so a nightly run only asks the provider for recent events;
+    // a stock whose request fails is skipped and picked up again on the next run
+    @Override
+    public int ingestDividends() {
+        List<Stock> stocks = stockRepository.findByDivInd(YES).stream()
+                .filter(stock -> !YES.equals(stock.getDelistInd()))
+                .toList();
+        if (stocks.isEmpty()) {
+            LOGGER.info("No dividend paying stocks found.");
+            return 0;
+        }
+        Set<String> existingKeys = new HashSet<>(dividendRepository.findStockIdAndExDateKeysByStockIds(stocks.stream().map(Stock::getStockId).toList()));
+        Map<Long, LocalDate> latestExDates = new HashMap<>();
+        for (String key : existingKeys) {
+            String[] parts = key.split("\\|");
+            latestExDates.merge(Long.valueOf(parts[0]), LocalDate.parse(parts[1]), (left, right) -> left.isAfter(right) ? left : right);
+        }
+        LocalDate today = LocalDate.now();
+        List<Future<FetchedDividends>> fetches = new ArrayList<>();
+        for (Stock stock : stocks) {
+            String symbol = symbolOf(stock);
+            LocalDate from = latestExDates.getOrDefault(stock.getStockId(), today.minusYears(initialYears));
+            fetches.add(fetchExecutor.submit(() -> new FetchedDividends(stock, priceProvider.fetchDividends(symbol, from, today))));
+        }
+        List<DividendIngestionRepository.NewDividend> newDividends = new ArrayList<>();
+        for (Future<FetchedDividends> fetch : fetches) {
+            try {
+                FetchedDividends fetched = fetch.get();
+                for (DividendEvent dividend : fetched.dividends()) {
+                    if (existingKeys.add(fetched.stock().getStockId() + "|" + dividend.exDate())) {
+                        newDividends.add(new DividendIngestionRepository.NewDividend(fetched.stock().getStockId(), fetched.stock().getExchangeId(),
+                                dividend.exDate(), dividend.payout()));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fetches.forEach(pending -> pending.cancel(true));
+                LOGGER.error("Dividend ingestion interrupted", e);
+                return 0;
+            } catch (ExecutionException e) {
+                LOGGER.error("Failed to fetch dividends", e.getCause());
+            }
+        }
+        if (newDividends.isEmpty()) {
+            LOGGER.info("No new dividends found for {} stock(s).", stocks.size());
+            return 0;
+        }
+        int inserted = dividendIngestionRepository.insertDividends(newDividends);
+        List<Long> stockIds = newDividends.stream()
+                .map(DividendIngestionRepository.NewDividend::stockId)
+                .distinct()
+                .toList();
+        for (Long stockId : stockIds) {
+            statisticService.recomputeDividendsForStock(stockId);
+            dividendForecastCache.invalidateStock(stockId);
+        }
+        Map<Long, LocalDate> earliestExDates = new HashMap<>();
+        newDividends.forEach(dividend -> earliestExDates.merge(dividend.stockId(), dividend.exDate(), (left, right) -> left.isBefore(right) ? left : right));
+        portfolioSnapshotService.rebuildSnapshotsForStocks(earliestExDates);
+        LOGGER.info("Ingested {} new dividend(s) for {} of {} stock(s).", inserted, stockIds.size(), stocks.size());
+        return inserted;
+    }
+
+    private String symbolOf(Stock stock) {
+        String suffix = referenceDataCache.findExchangeById(stock.getExchangeId()).map(Exchange::getSuffix).orElse(null);
+        return (suffix != null) ? stock.getStockTicker() + suffix : stock.getStockTicker();
+    }
+}
@@ -1,47 +1,60 @@
 package com.example.investmentportfolio.service.impl;
 
+import com.example.investmentportfolio.cache.DividendForecastCache;
+import com.example.investmentportfolio.cache.ReferenceDataCache;
+import com.example.investmentportfolio.cache.StatisticCache;
 import com.example.investmentportfolio.dto.DividendDto;
 import com.example.investmentportfolio.mapper.DividendMapper;
 import com.example.investmentportfolio.model.Dividend;
 import com.example.investmentportfolio.model.Exchange;
-import com.example.investmentportfolio.model.Stock;
 import com.example.investmentportfolio.repository.DividendRepository;
-import com.example.investmentportfolio.repository.ExchangeRepository;
-import com.example.investmentportfolio.repository.StockRepository;
 import com.example.investmentportfolio.service.DividendService;
+import com.example.investmentportfolio.service.PortfolioSnapshotService;
+import com.example.investmentportfolio.service.StatisticService;
 import com.example.investmentportfolio.util.*;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 public class DividendServiceImpl implements DividendService {
     private static final Logger LOGGER = LogManager.getLogger(DividendServiceImpl.class);
     public static final String NO_DIVIDEND_FOUND_WITH_ID = "No dividend found with id: %d";
+    public static final String DUPLICATE_DIVIDEND = "A dividend with the same ex date already exists for this stock.";
     private final DividendRepository dividendRepository;
-    private final StockRepository stockRepository;
-    private final ExchangeRepository exchangeRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final StatisticCache statisticCache;
+    private final DividendForecastCache dividendForecastCache;
+    private final StatisticService statisticService;
+    private final PortfolioSnapshotService portfolioSnapshotService;
     private final DividendMapper dividendMapper;
     private final Validator validator;
+    private final int maxBatchItems;
 
-    public DividendServiceImpl(DividendRepository dividendRepository, StockRepository stockRepository, ExchangeRepository exchangeRepository, DividendMapper dividendMapper) {
+    public DividendServiceImpl(DividendRepository dividendRepository, ReferenceDataCache referenceDataCache, StatisticCache statisticCache, DividendForecastCache dividendForecastCache, StatisticService statisticService, PortfolioSnapshotService portfolioSnapshotService, DividendMapper dividendMapper, @Value("${create.batch.max-items:5000}") int maxBatchItems) {
         this.dividendRepository = dividendRepository;
-        this.stockRepository = stockRepository;
-        this.exchangeRepository = exchangeRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.statisticCache = statisticCache;
+        this.dividendForecastCache = dividendForecastCache;
+        this.statisticService = statisticService;
+        this.portfolioSnapshotService = portfolioSnapshotService;
         this.dividendMapper = dividendMapper;
+        this.maxBatchItems = maxBatchItems;
         validator = Validation.buildDefaultValidatorFactory().getValidator();
     }
 
+    // The save and the position recompute commit together, so a failed recompute never leaves a stored dividend behind an error
     @Override
+    @Transactional
     public DividendDto createDividend(DividendDto dividendDto) {
         Set<ConstraintViolation<DividendDto>> violations = validator.validate(dividendDto, CreateValidation.class);
         if (!violations.isEmpty()) {
@@ -53,7 +66,7 @@ public class DividendServiceImpl implements DividendService {
         }
         else {
             Dividend dividend = dividendMapper.convertToEntity(dividendDto);
-            Optional<Long> optionalExchangeId = exchangeRepository.findIdByExchange(dividendDto.getExchange().toUpperCase());
+            Optional<Long> optionalExchangeId = referenceDataCache.findExchangeIdByName(dividendDto.getExchange());
             if (optionalExchangeId.isPresent()) {
                 dividend.setExchangeId(optionalExchangeId.get());
             } else {
@@ -61,7 +74,7 @@ public class DividendServiceImpl implements DividendService {
                 LOGGER.error(errorMessages);
                 throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
             }
-            Optional<Long> optionalStockId = stockRepository.findIdByTickerAndExchangeId(dividendDto.getStockTicker().toUpperCase(), optionalExchangeId.get());
+            Optional<Long> optionalStockId = referenceDataCache.findStockIdByTickerAndExchangeId(dividendDto.getStockTicker(), optionalExchangeId.get());
             if (optionalStockId.isPresent()) {
                 dividend.setStockId(optionalStockId.get());
             } else {
@@ -69,26 +82,72 @@ public class DividendServiceImpl implements DividendService {
                 LOGGER.error(errorMessages);
                 throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
             }
-            if (dividendRepository.existsByExDateOrPayDate(dividend.getExDate(), dividend.getPayDate())) {
-                List<String> errorMessages = Collections.singletonList("An dividend with the same ex date or pay date already exists.");
+            if (dividendRepository.existsByStockIdAndExDate(dividend.getStockId(), dividend.getExDate())) {
+                List<String> errorMessages = Collections.singletonList(DUPLICATE_DIVIDEND);
                 LOGGER.error(errorMessages);
                 throw new AlreadyExistsException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
             } else {
                 dividendRepository.save(dividend);
+                statisticService.recomputeDividendsForStock(dividend.getStockId());
+                dividendForecastCache.invalidateStock(dividend.getStockId());
+                rebuildSnapshots(List.of(dividend));
                 return dividendMapper.convertToDto(dividend);
             }
         }
     }
 
+    @Override
+    @Transactional
+    public List<DividendDto> createDividends(List<DividendDto> dividendDtos) {
+        List<String> errorMessages = BatchValidation.validate(validator, dividendDtos, maxBatchItems);
+        BatchValidation.throwIfInvalid(errorMessages);
+        Set<String> stockIdAndExDates = new HashSet<>(dividendRepository.findAllStockIdAndExDateKeys());
+        List<Dividend> dividends = new ArrayList<>();
+        for (int i = 0; i < dividendDtos.size(); i++) {
+            DividendDto dividendDto = dividendDtos.get(i);
+            Dividend dividend = dividendMapper.convertToEntity(dividendDto);
+            Optional<Long> optionalExchangeId = referenceDataCache.findExchangeIdByName(dividendDto.getExchange());
+            if (optionalExchangeId.isPresent()) {
+                dividend.setExchangeId(optionalExchangeId.get());
+                Optional<Long> optionalStockId = referenceDataCache.findStockIdByTickerAndExchangeId(dividendDto.getStockTicker(), optionalExchangeId.get());
+                if (optionalStockId.isPresent()) {
+                    dividend.setStockId(optionalStockId.get());
+                } else {
+                    errorMessages.add(String.format(BatchValidation.ITEM_ERROR, i + 1, String.format("Stock ticker %s cannot be found in exchange: %s", dividendDto.getStockTicker(), dividendDto.getExchange())));
+                }
+            } else {
+                errorMessages.add(String.format(BatchValidation.ITEM_ERROR, i + 1, String.format("No exchange found with name: %s", dividendDto.getExchange())));
+            }
+            if (dividend.getStockId() != null && !stockIdAndExDates.add(dividend.getStockId() + "|" + dividend.getExDate())) {
+                errorMessages.add(String.format(BatchValidation.ITEM_ERROR, i + 1, DUPLICATE_DIVIDEND));
+            }
+            dividends.add(dividend);
+        }
+        BatchValidation.throwIfInvalid(errorMessages);
+        dividendRepository.saveAll(dividends);
+        dividends.stream()
+                .map(Dividend::getStockId)
+                .distinct()
+                .forEach(stockId -> {
+                    statisticService.recomputeDividendsForStock(stockId);
+                    dividendForecastCache.invalidateStock(stockId);
+                });
+        rebuildSnapshots(dividends);
+        LOGGER.info("Created {} dividend(s)", dividends.size());
+        return dividends.stream()
+                .map(dividendMapper::convertToDto)
+                .toList();
+    }
+
     @Override
     public List<DividendDto> getAllDividends() {
         List<Dividend> dividends = dividendRepository.findAll();
         if (!dividends.isEmpty()) {
             return dividends.stream()
                     .map(dividend -> {
-                        Optional<Stock> optionalStock = stockRepository.findById(dividend.getStockId());
-                        optionalStock.ifPresent(stock -> dividend.setStockTicker(stock.getStockTicker()));
-                        Optional<Exchange> optionalExchange = exchangeRepository.findById(dividend.getExchangeId());
+                        Optional<String> optionalStockTicker = referenceDataCache.findStockTickerByStockId(dividend.getStockId());
+                        optionalStockTicker.ifPresent(dividend::setStockTicker);
+                        Optional<Exchange> optionalExchange = referenceDataCache.findExchangeById(dividend.getExchangeId());
                         optionalExchange.ifPresent(exchange -> dividend.setExchange(exchange.getExchange()));
                         return dividendMapper.convertToDto(dividend);
                     })
@@ -105,9 +164,9 @@ public class DividendServiceImpl implements DividendService {
         Optional<Dividend> optionalDividend = dividendRepository.findById(dividendId);
         if (optionalDividend.isPresent()) {
             Dividend dividend = optionalDividend.get();
-            Optional<Stock> optionalStock = stockRepository.findById(dividend.getStockId());
-            optionalStock.ifPresent(stock -> dividend.setStockTicker(stock.getStockTicker()));
-            Optional<Exchange> optionalExchange = exchangeRepository.findById(dividend.getExchangeId());
+            Optional<String> optionalStockTicker = referenceDataCache.findStockTickerByStockId(dividend.getStockId());
+            optionalStockTicker.ifPresent(dividend::setStockTicker);
+            Optional<Exchange> optionalExchange = referenceDataCache.findExchangeById(dividend.getExchangeId());
             optionalExchange.ifPresent(exchange -> dividend.setExchange(String.valueOf(exchange.getExchange())));
             return dividendMapper.convertToDto(dividend);
         } else {
@@ -123,9 +182,9 @@ public class DividendServiceImpl implements DividendService {
         if (!dividends.isEmpty()) {
             return dividends.stream()
                     .map(dividend -> {
-                        Optional<Stock> optionalStock = stockRepository.findById(dividend.getStockId());
-                        optionalStock.ifPresent(stock -> dividend.setStockTicker(stock.getStockTicker()));
-                        Optional<Exchange> optionalExchange = exchangeRepository.findById(dividend.getExchangeId());
+                        Optional<String> optionalStockTicker = referenceDataCache.findStockTickerByStockId(dividend.getStockId());
+                        optionalStockTicker.ifPresent(dividend::setStockTicker);
+                        Optional<Exchange> optionalExchange = referenceDataCache.findExchangeById(dividend.getExchangeId());
                         optionalExchange.ifPresent(exchange -> dividend.setExchange(exchange.getExchange()));
                         return dividendMapper.convertToDto(dividend);
                     })
@@ -143,9 +202,9 @@ public class DividendServiceImpl implements DividendService {
         if (!dividends.isEmpty()) {
             return dividends.stream()
                     .map(dividend -> {
-                        Optional<Stock> optionalStock = stockRepository.findById(dividend.getStockId());
-                        optionalStock.ifPresent(stock -> dividend.setStockTicker(stock.getStockTicker()));
-                        Optional<Exchange> optionalExchange = exchangeRepository.findById(dividend.getExchangeId());
+                        Optional<String> optionalStockTicker = referenceDataCache.findStockTickerByStockId(dividend.getStockId());
+                        optionalStockTicker.ifPresent(dividend::setStockTicker);
+                        Optional<Exchange> optionalExchange = referenceDataCache.findExchangeById(dividend.getExchangeId());
                         optionalExchange.ifPresent(exchange -> dividend.setExchange(exchange.getExchange()));
                         return dividendMapper.convertToDto(dividend);
                     })
@@ -158,11 +217,14 @@ public class DividendServiceImpl implements DividendService {
     }
 
     @Override
+    @Transactional
     public DividendDto updateDividendById(Long dividendId, DividendDto dividendDto) {
         Optional<Dividend> optionalDividend = dividendRepository.findById(dividendId);
         if (optionalDividend.isPresent()) {
+            Long previousStockId = optionalDividend.get().getStockId();
+            LocalDate previousExDate = LocalDate.parse(optionalDividend.get().getExDate());
             Dividend updatedDividend = dividendMapper.updateEntityWithDto(dividendDto, optionalDividend.get());
-            Optional<Long> optionalExchangeId = exchangeRepository.findIdByExchange(dividendDto.getExchange().toUpperCase());
+            Optional<Long> optionalExchangeId = referenceDataCache.findExchangeIdByName(dividendDto.getExchange());
             if (optionalExchangeId.isPresent()) {
                 updatedDividend.setExchangeId(optionalExchangeId.get());
             } else {
@@ -170,7 +232,7 @@ public class DividendServiceImpl implements DividendService {
                 LOGGER.error(errorMessages);
                 throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
             }
-            Optional<Long> optionalStockId = stockRepository.findIdByTickerAndExchangeId(dividendDto.getStockTicker().toUpperCase(), optionalExchangeId.get());
+            Optional<Long> optionalStockId = referenceDataCache.findStockIdByTickerAndExchangeId(dividendDto.getStockTicker(), optionalExchangeId.get());
             if (optionalStockId.isPresent()) {
                 updatedDividend.setStockId(optionalStockId.get());
             } else {
@@ -179,6 +241,13 @@ public class DividendServiceImpl implements DividendService {
                 throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
             }
             dividendRepository.save(updatedDividend);
+            statisticCache.invalidateStocks(List.of(previousStockId, updatedDividend.getStockId()));
+            dividendForecastCache.invalidateStock(previousStockId);
+            dividendForecastCache.invalidateStock(updatedDividend.getStockId());
+            Map<Long, LocalDate> fromDatesByStockId = new HashMap<>();
+            fromDatesByStockId.put(previousStockId, previousExDate);
+            fromDatesByStockId.merge(updatedDividend.getStockId(), LocalDate.parse(updatedDividend.getExDate()), (first, second) -> first.isBefore(second) ? first : second);
+            portfolioSnapshotService.rebuildSnapshotsForStocks(fromDatesByStockId);
             return dividendMapper.convertToDto(updatedDividend);
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_DIVIDEND_FOUND_WITH_ID, dividendId));
@@ -193,6 +262,9 @@ public class DividendServiceImpl implements DividendService {
         List<Dividend> dividends = dividendRepository.findAll();
         if (!dividends.isEmpty()) {
             dividendRepository.deleteAll();
+            statisticCache.invalidateAll();
+            dividendForecastCache.invalidateAll();
+            rebuildSnapshots(dividends);
         } else {
             List<String> errorMessages = Collections.singletonList("No dividend(s) found.");
             LOGGER.error(errorMessages);
@@ -206,10 +278,19 @@ public class DividendServiceImpl implements DividendService {
         Optional<Dividend> optionalDividend = dividendRepository.findById(dividendId);
         if (optionalDividend.isPresent()) {
             dividendRepository.deleteById(dividendId);
+            statisticCache.invalidateStocks(List.of(optionalDividend.get().getStockId()));
+            dividendForecastCache.invalidateStock(optionalDividend.get().getStockId());
+            rebuildSnapshots(List.of(optionalDividend.get()));
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_DIVIDEND_FOUND_WITH_ID, dividendId));
             LOGGER.error(errorMessages);
             throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
         }
     }
-}
\ No newline at end of file
+
+    private void rebuildSnapshots(Collection<Dividend> dividends) {
+        portfolioSnapshotService.rebuildSnapshotsForStocks(dividends.stream()
+                .collect(Collectors.toMap(Dividend::getStockId, dividend -> LocalDate.parse(dividend.getExDate()),
+                        (first, second) -> first.isBefore(second) ? first : second)));
+    }
+}
@@ -1,8 +1,13 @@
 package com.example.investmentportfolio.service.impl;
 
+import com.example.investmentportfolio.cache.DataVersionCache;
+import com.example.investmentportfolio.cache.ExchangeCalendar;
+import com.example.investmentportfolio.cache.ExchangeCalendarCache;
+import com.example.investmentportfolio.cache.ReferenceDataCache;
 import com.example.investmentportfolio.dto.ExchangeDto;
 import com.example.investmentportfolio.mapper.ExchangeMapper;
 import com.example.investmentportfolio.model.Exchange;
+import com.example.investmentportfolio.repository.ExchangeHolidayRepository;
 import com.example.investmentportfolio.repository.ExchangeRepository;
 import com.example.investmentportfolio.service.ExchangeService;
 import com.example.investmentportfolio.util.*;
@@ -14,6 +19,11 @@ import org.apache.logging.log4j.Logger;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -25,16 +35,26 @@ public class ExchangeServiceImpl implements ExchangeService {
     public static final String NO_EXCHANGE_FOUND_WITH_ID = "No exchange found with id: %d";
     public static final String NO_EXCHANGE_FOUND_WITH_SUFFIX = "No exchange found with suffix: %s";
     private final ExchangeRepository exchangeRepository;
+    private final ExchangeHolidayRepository exchangeHolidayRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final ExchangeCalendarCache exchangeCalendarCache;
+    private final DataVersionCache dataVersionCache;
     private final ExchangeMapper exchangeMapper;
     private final Validator validator;
 
-    public ExchangeServiceImpl(ExchangeRepository exchangeRepository, ExchangeMapper exchangeMapper) {
+    public ExchangeServiceImpl(ExchangeRepository exchangeRepository, ExchangeHolidayRepository exchangeHolidayRepository, ReferenceDataCache referenceDataCache,
+                               ExchangeCalendarCache exchangeCalendarCache, DataVersionCache dataVersionCache, ExchangeMapper exchangeMapper) {
         this.exchangeRepository = exchangeRepository;
+        this.exchangeHolidayRepository = exchangeHolidayRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.exchangeCalendarCache = exchangeCalendarCache;
+        this.dataVersionCache = dataVersionCache;
         this.exchangeMapper = exchangeMapper;
         validator = Validation.buildDefaultValidatorFactory().getValidator();
     }
 
     @Override
+    @Transactional
     public ExchangeDto createExchange(ExchangeDto exchangeDto) {
         Set<ConstraintViolation<ExchangeDto>> violations = validator.validate(exchangeDto, CreateValidation.class);
         if (!violations.isEmpty()) {
@@ -51,8 +71,13 @@ public class ExchangeServiceImpl implements ExchangeService {
                 LOGGER.error(errorMessages);
                 throw new AlreadyExistsException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
             } else {
+                List<LocalDate> holidays = validateCalendar(exchange, exchangeDto.getHolidays());
                 exchangeRepository.save(exchange);
-                return exchangeMapper.convertToDto(exchange);
+                if (holidays != null) {
+                    exchangeHolidayRepository.replaceHolidays(exchange.getExchangeId(), holidays);
+                }
+                invalidateExchanges();
+                return toDto(exchange);
             }
         }
     }
@@ -62,7 +87,7 @@ public class ExchangeServiceImpl implements ExchangeService {
         List<Exchange> exchanges = exchangeRepository.findAll();
         if (!exchanges.isEmpty()) {
             return exchanges.stream()
-                    .map(exchangeMapper::convertToDto)
+                    .map(this::toDto)
                     .toList();
         } else {
             List<String> errorMessages = Collections.singletonList("No exchange(s) found.");
@@ -75,7 +100,7 @@ public class ExchangeServiceImpl implements ExchangeService {
     public ExchangeDto getExchangeById(Long exchangeId) {
         Optional<Exchange> optionalExchange = exchangeRepository.findById(exchangeId);
         if (optionalExchange.isPresent()) {
-            return exchangeMapper.convertToDto(optionalExchange.get());
+            return toDto(optionalExchange.get());
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_EXCHANGE_FOUND_WITH_ID, exchangeId));
             LOGGER.error(errorMessages);
@@ -88,7 +113,7 @@ public class ExchangeServiceImpl implements ExchangeService {
         List<Exchange> exchanges = exchangeRepository.findByCountryCodeIgnoreCase(countryCode);
         if (!exchanges.isEmpty()) {
             return exchanges.stream()
-                    .map(exchangeMapper::convertToDto)
+                    .map(this::toDto)
                     .toList();
         } else {
             List<String> errorMessages = Collections.singletonList(String.format("No exchange(s) found with country code: %s", countryCode));
@@ -101,7 +126,7 @@ public class ExchangeServiceImpl implements ExchangeService {
     public ExchangeDto getExchangeBySuffix(String suffix) {
         Optional<Exchange> optionalExchange = exchangeRepository.findBySuffixIgnoreCase(suffix);
         if (optionalExchange.isPresent()) {
-            return exchangeMapper.convertToDto(optionalExchange.get());
+            return toDto(optionalExchange.get());
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_EXCHANGE_FOUND_WITH_SUFFIX, suffix));
             LOGGER.error(errorMessages);
@@ -110,12 +135,18 @@ public class ExchangeServiceImpl implements ExchangeService {
     }
 
     @Override
+    @Transactional
     public ExchangeDto updateExchangeById(Long exchangeId, ExchangeDto exchangeDto) {
         Optional<Exchange> optionalExchange = exchangeRepository.findById(exchangeId);
         if (optionalExchange.isPresent()) {
             Exchange updatedExchange = exchangeMapper.updateEntityWithDto(exchangeDto, optionalExchange.get());
+            List<LocalDate> holidays = validateCalendar(updatedExchange, exchangeDto.getHolidays());
             exchangeRepository.save(updatedExchange);
-            return exchangeMapper.convertToDto(updatedExchange);
+            if (holidays != null) {
+                exchangeHolidayRepository.replaceHolidays(updatedExchange.getExchangeId(), holidays);
+            }
+            invalidateExchanges();
+            return toDto(updatedExchange);
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_EXCHANGE_FOUND_WITH_ID, exchangeId));
             LOGGER.error(errorMessages);
@@ -124,12 +155,18 @@ public class ExchangeServiceImpl implements ExchangeService {
     }
 
     @Override
+    @Transactional
     public ExchangeDto updateExchangeBySuffix(String suffix, ExchangeDto exchangeDto) {
         Optional<Exchange> optionalExchange = exchangeRepository.findBySuffixIgnoreCase(suffix);
         if (optionalExchange.isPresent()) {
             Exchange updatedExchange = exchangeMapper.updateEntityWithDto(exchangeDto, optionalExchange.get());
+            List<LocalDate> holidays = validateCalendar(updatedExchange, exchangeDto.getHolidays());
             exchangeRepository.save(updatedExchange);
-            return exchangeMapper.convertToDto(updatedExchange);
+            if (holidays != null) {
+                exchangeHolidayRepository.replaceHolidays(updatedExchange.getExchangeId(), holidays);
+            }
+            invalidateExchanges();
+            return toDto(updatedExchange);
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_EXCHANGE_FOUND_WITH_SUFFIX, suffix));
             LOGGER.error(errorMessages);
@@ -143,6 +180,8 @@ public class ExchangeServiceImpl implements ExchangeService {
         List<Exchange> exchanges = exchangeRepository.findAll();
         if (!exchanges.isEmpty()) {
             exchangeRepository.deleteAll();
+            exchangeHolidayRepository.deleteAll();
+            invalidateExchanges();
         } else {
             List<String> errorMessages = Collections.singletonList("No exchange(s) found.");
             LOGGER.error(errorMessages);
@@ -156,6 +195,8 @@ public class ExchangeServiceImpl implements ExchangeService {
         Optional<Exchange> optionalExchange = exchangeRepository.findById(exchangeId);
         if (optionalExchange.isPresent()) {
             exchangeRepository.deleteById(exchangeId);
+            exchangeHolidayRepository.deleteByExchangeId(exchangeId);
+            invalidateExchanges();
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_EXCHANGE_FOUND_WITH_ID, exchangeId));
             LOGGER.error(errorMessages);
@@ -169,6 +210,8 @@ public class ExchangeServiceImpl implements ExchangeService {
         Optional<Exchange> optionalExchange = exchangeRepository.findBySuffixIgnoreCase(suffix);
         if (optionalExchange.isPresent()) {
              exchangeRepository.deleteBySuffixIgnoreCase(suffix);
+             exchangeHolidayRepository.deleteByExchangeId(optionalExchange.get().getExchangeId());
+             invalidateExchanges();
              return exchangeMapper.convertToDto(optionalExchange.get());
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_EXCHANGE_FOUND_WITH_SUFFIX, suffix));
@@ -176,4 +219,55 @@ public class ExchangeServiceImpl implements ExchangeService {
             throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
         }
     }
+
+    private ExchangeDto toDto(Exchange exchange) {
+        ExchangeDto exchangeDto = exchangeMapper.convertToDto(exchange);
+        exchangeCalendarCache.findByExchangeId(exchange.getExchangeId())
+                .map(ExchangeCalendar::holidays)
+                .filter(holidays -> !holidays.isEmpty())
+                .ifPresent(holidays -> exchangeDto.setHolidays(holidays.stream()
+                        .sorted()
+                        .map(LocalDate::toString)
+                        .toList()));
+        return exchangeDto;
+    }
+
+    // Checked against the merged entity, so an update that only moves one end of the session is still validated against the other
+    private List<LocalDate> validateCalendar(Exchange exchange, List<String> holidays) {
+        List<String> errorMessages = new ArrayList<>();
+        if (exchange.getTimeZone() != null) {
+            try {
+                ZoneId.of(exchange.getTimeZone());
+            } catch (DateTimeException e) {
+                errorMessages.add(String.format("Unknown time zone: %s", exchange.getTimeZone()));
+            }
+        }
+        if ((exchange.getOpenTime() == null) != (exchange.getCloseTime() == null)) {
+            errorMessages.add("Open time and close time must be given together.");
+        } else if (exchange.getOpenTime() != null && !LocalTime.parse(exchange.getOpenTime()).isBefore(LocalTime.parse(exchange.getCloseTime()))) {
+            errorMessages.add("Open time must be before close time.");
+        }
+        List<LocalDate> holidayDates = null;
+        if (holidays != null) {
+            holidayDates = new ArrayList<>();
+            for (String holiday : holidays) {
+                try {
+                    holidayDates.add(LocalDate.parse(holiday));
+                } catch (DateTimeException e) {
+                    errorMessages.add(String.format("Invalid holiday: %s", holiday));
+                }
+            }
+        }
+        if (!errorMessages.isEmpty()) {
+            LOGGER.error(errorMessages);
+            throw new ValidationException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
+        }
+        return holidayDates;
+    }
+
+    private void invalidateExchanges() {
+        referenceDataCache.invalidateExchanges();
+        exchangeCalendarCache.invalidate();
+        dataVersionCache.bump(DataVersionCache.EXCHANGES);
+    }
 }
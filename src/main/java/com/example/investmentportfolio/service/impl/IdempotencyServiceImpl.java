@@ -0,0 +1,191 @@
+package com.example.investmentportfolio.service.impl;
+
+import com.example.investmentportfolio.repository.IdempotencyKeyRepository;
+import com.example.investmentportfolio.service.IdempotencyService;
+import com.example.investmentportfolio.util.*;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+    private static final Logger LOGGER = LogManager.getLogger(IdempotencyServiceImpl.class);
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final String INVALID_KEY = "Idempotency key must be at most %d characters.";
+    public static final String KEY_REUSED = "Idempotency key %s was already used with a different request.";
+    public static final String KEY_IN_PROGRESS = "A request with idempotency key %s is still in progress.";
+    public static final String LEASE_LOST = "The lease on idempotency key %s expired and was taken over before the request completed.";
+    private static final int MAX_KEY_LENGTH = 255;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final long ttlHours;
+    private final long leaseSeconds;
+    private final Map<String, StoredResponse> responses;
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    private record StoredResponse(String requestHash, int statusCode, String responseBody, LocalDateTime expiresAt) {
+    }
+
+    public IdempotencyServiceImpl(IdempotencyKeyRepository idempotencyKeyRepository, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                                  @Value("${idempotency.ttl-hours:24}") long ttlHours,
+                                  @Value("${idempotency.lease-seconds:60}") long leaseSeconds,
+                                  @Value("${idempotency.cache.max-entries:10000}") int maxCacheEntries) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.ttlHours = ttlHours;
+        this.leaseSeconds = leaseSeconds;
+        this.responses = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > maxCacheEntries;
+            }
+        });
+    }
+
+    // Duplicates of the same key queue behind the first caller on this node only, so unrelated keys never contend;
+    // across nodes the primary key on idempotency_keys decides which request runs
+    @Override
+    public <T> ResponseEntity<T> execute(String endpoint, String idempotencyKey, Object request, Class<T> responseType, Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            List<String> errorMessages = Collections.singletonList(String.format(INVALID_KEY, MAX_KEY_LENGTH));
+            LOGGER.error(errorMessages);
+            throw new ValidationException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
+        }
+        String requestHash = hash(request);
+        String cacheKey = endpoint + "|" + idempotencyKey;
+        while (true) {
+            StoredResponse cached = responses.get(cacheKey);
+            if (cached != null && cached.expiresAt().isAfter(LocalDateTime.now())) {
+                return replay(cached, idempotencyKey, requestHash, responseType);
+            }
+            CompletableFuture<Void> mine = new CompletableFuture<>();
+            CompletableFuture<Void> running = inFlight.putIfAbsent(cacheKey, mine);
+            if (running != null) {
+                running.join();
+                continue;
+            }
+            try {
+                return executeOnce(endpoint, idempotencyKey, cacheKey, requestHash, responseType, action);
+            } finally {
+                inFlight.remove(cacheKey, mine);
+                mine.complete(null);
+            }
+        }
+    }
+
+    @Override
+    public int purgeExpiredKeys(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        responses.values().removeIf(response -> !response.expiresAt().isAfter(now));
+        return idempotencyKeyRepository.deleteExpired(now, limit);
+    }
+
+    private <T> ResponseEntity<T> executeOnce(String endpoint, String idempotencyKey, String cacheKey, String requestHash, Class<T> responseType,
+                                              Supplier<ResponseEntity<T>> action) {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<IdempotencyKeyRepository.IdempotencyKey> optionalKey = idempotencyKeyRepository.find(endpoint, idempotencyKey)
+                .filter(key -> key.expiresAt().isAfter(now));
+        if (optionalKey.isPresent()) {
+            IdempotencyKeyRepository.IdempotencyKey key = optionalKey.get();
+            if (key.isLocked(now)) {
+                throw conflict(idempotencyKey, key.requestHash(), requestHash);
+            }
+        }
+        if (optionalKey.filter(IdempotencyKeyRepository.IdempotencyKey::isCompleted).isPresent()) {
+            IdempotencyKeyRepository.IdempotencyKey key = optionalKey.get();
+            StoredResponse stored = new StoredResponse(key.requestHash(), key.statusCode(), key.responseBody(), key.expiresAt());
+            responses.put(cacheKey, stored);
+            return replay(stored, idempotencyKey, requestHash, responseType);
+        }
+        LocalDateTime expiresAt = now.plusHours(ttlHours);
+        String leaseToken = UUID.randomUUID().toString();
+        if (!idempotencyKeyRepository.reserve(endpoint, idempotencyKey, requestHash, leaseToken, now, now.plusSeconds(leaseSeconds), expiresAt)) {
+            throw conflict(idempotencyKey, requestHash, requestHash);
+        }
+        try {
+            // The create and the stored response commit together, so a retry never sees one without the other; if the lease was
+            // taken over meanwhile the other request owns the key, and throwing rolls this create back rather than applying it twice
+            ResponseEntity<T> response = transactionTemplate.execute(status -> {
+                ResponseEntity<T> result = action.get();
+                if (!idempotencyKeyRepository.complete(endpoint, idempotencyKey, leaseToken, result.getStatusCode().value(), serialize(result.getBody()))) {
+                    List<String> errorMessages = Collections.singletonList(String.format(LEASE_LOST, idempotencyKey));
+                    LOGGER.error(errorMessages);
+                    throw new ConflictException(new CustomError(ErrorConstants.CONFLICT_ERROR_CODE, errorMessages));
+                }
+                return result;
+            });
+            responses.put(cacheKey, new StoredResponse(requestHash, response.getStatusCode().value(), serialize(response.getBody()), expiresAt));
+            return response;
+        } catch (RuntimeException e) {
+            idempotencyKeyRepository.release(endpoint, idempotencyKey, leaseToken);
+            throw e;
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String idempotencyKey, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            List<String> errorMessages = Collections.singletonList(String.format(KEY_REUSED, idempotencyKey));
+            LOGGER.error(errorMessages);
+            throw new ValidationException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
+        }
+        LOGGER.info("Replaying stored response for idempotency key {}", idempotencyKey);
+        try {
+            T body = stored.responseBody() == null ? null : objectMapper.readValue(stored.responseBody(), responseType);
+            return ResponseEntity.status(stored.statusCode()).header(REPLAYED_HEADER, "true").body(body);
+        } catch (JsonProcessingException e) {
+            List<String> errorMessages = Collections.singletonList(e.getOriginalMessage());
+            LOGGER.error(errorMessages);
+            throw new GeneralException(new CustomError(ErrorConstants.INTERNAL_SERVER_ERROR_ERROR_CODE, errorMessages));
+        }
+    }
+
+    private RuntimeException conflict(String idempotencyKey, String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            List<String> errorMessages = Collections.singletonList(String.format(KEY_REUSED, idempotencyKey));
+            LOGGER.error(errorMessages);
+            return new ValidationException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
+        }
+        List<String> errorMessages = Collections.singletonList(String.format(KEY_IN_PROGRESS, idempotencyKey));
+        LOGGER.error(errorMessages);
+        return new ConflictException(new CustomError(ErrorConstants.CONFLICT_ERROR_CODE, errorMessages));
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(serialize(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String serialize(Object value) {
+        try {
+            return value == null ? null : objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            List<String> errorMessages = Collections.singletonList(e.getOriginalMessage());
+            LOGGER.error(errorMessages);
+            throw new GeneralException(new CustomError(ErrorConstants.INTERNAL_SERVER_ERROR_ERROR_CODE, errorMessages));
+        }
+    }
+}
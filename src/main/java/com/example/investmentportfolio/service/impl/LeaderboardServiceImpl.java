@@ -0,0 +1,165 @@
+package com.example.investmentportfolio.service.impl;
+
+import com.example.investmentportfolio.analytics.TopK;
+import com.example.investmentportfolio.cache.RateCache;
+import com.example.investmentportfolio.cache.ReferenceDataCache;
+import com.example.investmentportfolio.dto.StockLeaderboardDto;
+import com.example.investmentportfolio.dto.StockRankDto;
+import com.example.investmentportfolio.dto.UserLeaderboardDto;
+import com.example.investmentportfolio.dto.UserRankDto;
+import com.example.investmentportfolio.repository.LeaderboardRepository;
+import com.example.investmentportfolio.service.LeaderboardService;
+import com.example.investmentportfolio.util.CustomError;
+import com.example.investmentportfolio.util.ErrorConstants;
+import com.example.investmentportfolio.util.ValidationException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.function.Function;
+
+@Service
+public class LeaderboardServiceImpl implements LeaderboardService {
+    private static final Logger LOGGER = LogManager.getLogger(LeaderboardServiceImpl.class);
+    private static final Map<String, String> COLUMNS_BY_METRIC = Map.of(
+            "totalprofits", "total_profits",
+            "dividendsearned", "dividends_earned",
+            "realizedprofits", "realized_profits",
+            "unrealizedprofits", "unrealized_profits",
+            "totalvalue", "total_value",
+            "totalcost", "total_cost");
+    private static final String HOLDERS = "holders";
+    private static final String VALUE = "value";
+    private final LeaderboardRepository leaderboardRepository;
+    private final RateCache rateCache;
+    private final ReferenceDataCache referenceDataCache;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    private record RankedUser(Long userId, String username, BigDecimal value) {
+    }
+
+    private static final class StockTotals {
+        private final Long stockId;
+        private long holders;
+        private BigDecimal units = BigDecimal.ZERO;
+        private BigDecimal value = BigDecimal.ZERO;
+
+        private StockTotals(Long stockId) {
+            this.stockId = stockId;
+        }
+    }
+
+    public LeaderboardServiceImpl(LeaderboardRepository leaderboardRepository, RateCache rateCache, ReferenceDataCache referenceDataCache,
+                                  @Value("${leaderboard.limit.default:100}") int defaultLimit,
+                                  @Value("${leaderboard.limit.max:1000}") int maxLimit) {
+        this.leaderboardRepository = leaderboardRepository;
+        this.rateCache = rateCache;
+        this.referenceDataCache = referenceDataCache;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    // Per-user sums are streamed from Postgres ordered by user and only the current top k are held, so memory does not grow with the user count
+    @Transactional(readOnly = true)
+    @Override
+    public UserLeaderboardDto getTopUsers(String metric, Integer limit, String currency) {
+        String column = COLUMNS_BY_METRIC.get(metric == null ? "" : metric.replace("_", "").toLowerCase());
+        int resolvedLimit = validate(limit, currency, column == null ? String.format("Metric must be one of: %s.", String.join(", ",
+                new TreeSet<>(COLUMNS_BY_METRIC.values()))) : null);
+        String reportingCurrency = currency.toUpperCase();
+        Function<String, BigDecimal> rates = rateLookup(reportingCurrency);
+        TopK<RankedUser> topUsers = new TopK<>(resolvedLimit, Comparator.comparing(RankedUser::value)
+                .thenComparing(RankedUser::userId, Comparator.reverseOrder()));
+        RankedUser[] current = new RankedUser[1];
+        leaderboardRepository.forEachUserTotal(column, userTotal -> {
+            BigDecimal value = userTotal.total().multiply(rates.apply(userTotal.baseCurrency()));
+            if (current[0] != null && current[0].userId().equals(userTotal.userId())) {
+                current[0] = new RankedUser(userTotal.userId(), userTotal.username(), current[0].value().add(value));
+            } else {
+                if (current[0] != null) {
+                    topUsers.offer(current[0]);
+                }
+                current[0] = new RankedUser(userTotal.userId(), userTotal.username(), value);
+            }
+        });
+        if (current[0] != null) {
+            topUsers.offer(current[0]);
+        }
+        List<RankedUser> ranked = topUsers.toSortedList();
+        List<UserRankDto> users = new ArrayList<>();
+        for (int i = 0; i < ranked.size(); i++) {
+            users.add(new UserRankDto(i + 1, ranked.get(i).userId(), ranked.get(i).username(), format(ranked.get(i).value())));
+        }
+        LOGGER.info("Ranked top {} of {} user(s) by {} in {}", users.size(), topUsers.offered(), column, reportingCurrency);
+        return new UserLeaderboardDto(column, reportingCurrency, topUsers.offered(), users);
+    }
+
+    // Holdings arrive pre-grouped by stock in its base currency, so the working set is bounded by the stock universe
+    @Transactional(readOnly = true)
+    @Override
+    public StockLeaderboardDto getMostHeldStocks(String sortBy, Integer limit, String currency) {
+        String resolvedSortBy = sortBy == null ? HOLDERS : sortBy.toLowerCase();
+        int resolvedLimit = validate(limit, currency, HOLDERS.equals(resolvedSortBy) || VALUE.equals(resolvedSortBy) ? null
+                : "Sort by must be one of: holders, value.");
+        String reportingCurrency = currency.toUpperCase();
+        Function<String, BigDecimal> rates = rateLookup(reportingCurrency);
+        Map<Long, StockTotals> totalsByStockId = new HashMap<>();
+        leaderboardRepository.forEachStockHolding(holding -> {
+            StockTotals totals = totalsByStockId.computeIfAbsent(holding.stockId(), StockTotals::new);
+            totals.holders += holding.holders();
+            totals.units = totals.units.add(holding.units());
+            String baseCurrency = referenceDataCache.findBaseCurrencyByStockId(holding.stockId()).orElse(reportingCurrency);
+            totals.value = totals.value.add(holding.value().multiply(rates.apply(baseCurrency)));
+        });
+        Comparator<StockTotals> byHolders = Comparator.comparingLong((StockTotals totals) -> totals.holders)
+                .thenComparing(totals -> totals.value);
+        Comparator<StockTotals> byValue = Comparator.comparing((StockTotals totals) -> totals.value)
+                .thenComparingLong(totals -> totals.holders);
+        TopK<StockTotals> topStocks = new TopK<>(resolvedLimit, (HOLDERS.equals(resolvedSortBy) ? byHolders : byValue)
+                .thenComparing(totals -> totals.stockId, Comparator.reverseOrder()));
+        totalsByStockId.values().forEach(topStocks::offer);
+        List<StockTotals> ranked = topStocks.toSortedList();
+        List<StockRankDto> stocks = new ArrayList<>();
+        for (int i = 0; i < ranked.size(); i++) {
+            StockTotals totals = ranked.get(i);
+            stocks.add(new StockRankDto(i + 1, referenceDataCache.findStockTickerByStockId(totals.stockId).orElse(null),
+                    referenceDataCache.findExchangeByStockId(totals.stockId).orElse(null), totals.holders, format(totals.units), format(totals.value)));
+        }
+        LOGGER.info("Ranked top {} of {} held stock(s) by {} in {}", stocks.size(), totalsByStockId.size(), resolvedSortBy, reportingCurrency);
+        return new StockLeaderboardDto(resolvedSortBy, reportingCurrency, totalsByStockId.size(), stocks);
+    }
+
+    private int validate(Integer limit, String currency, String criterionError) {
+        int resolvedLimit = limit == null ? defaultLimit : limit;
+        List<String> errorMessages = new ArrayList<>();
+        if (criterionError != null) {
+            errorMessages.add(criterionError);
+        }
+        if (resolvedLimit < 1 || resolvedLimit > maxLimit) {
+            errorMessages.add(String.format("Limit must be between 1 and %d.", maxLimit));
+        }
+        if (currency == null || !currency.matches("^[a-zA-Z]{3}$")) {
+            errorMessages.add("Currency should contain exactly 3 letters.");
+        }
+        if (!errorMessages.isEmpty()) {
+            LOGGER.error(errorMessages);
+            throw new ValidationException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
+        }
+        return resolvedLimit;
+    }
+
+    private Function<String, BigDecimal> rateLookup(String reportingCurrency) {
+        Map<String, BigDecimal> rates = new HashMap<>();
+        return baseCurrency -> rates.computeIfAbsent(baseCurrency, key -> rateCache.getRate(key, reportingCurrency));
+    }
+
+    private static String format(BigDecimal value) {
+        return value.setScale(2, RoundingMode.HALF_UP).stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.investmentportfolio.service.impl;
+
+import com.example.investmentportfolio.cache.PortfolioHistoryCache;
+import com.example.investmentportfolio.cache.PositionHistory;
+import com.example.investmentportfolio.cache.RateCache;
+import com.example.investmentportfolio.cache.ReferenceDataCache;
+import com.example.investmentportfolio.dto.PortfolioPositionDto;
+import com.example.investmentportfolio.dto.PortfolioValuationDto;
+import com.example.investmentportfolio.model.Dividend;
+import com.example.investmentportfolio.model.Transaction;
+import com.example.investmentportfolio.model.User;
+import com.example.investmentportfolio.repository.DividendRepository;
+import com.example.investmentportfolio.repository.TransactionRepository;
+import com.example.investmentportfolio.repository.UserRepository;
+import com.example.investmentportfolio.service.PortfolioService;
+import com.example.investmentportfolio.util.CustomError;
+import com.example.investmentportfolio.util.ErrorConstants;
+import com.example.investmentportfolio.util.NotFoundException;
+import com.example.investmentportfolio.util.ValidationException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+public class PortfolioServiceImpl implements PortfolioService {
+    private static final Logger LOGGER = LogManager.getLogger(PortfolioServiceImpl.class);
+    public static final String NO_USER_FOUND_WITH_ID = "No user found with id: %d";
+    private static final String BUY = "Buy";
+    private final TransactionRepository transactionRepository;
+    private final DividendRepository dividendRepository;
+    private final RateCache rateCache;
+    private final UserRepository userRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final PortfolioHistoryCache portfolioHistoryCache;
+
+    public PortfolioServiceImpl(TransactionRepository transactionRepository, DividendRepository dividendRepository, RateCache rateCache,
+                                UserRepository userRepository, ReferenceDataCache referenceDataCache, PortfolioHistoryCache portfolioHistoryCache) {
+        this.transactionRepository = transactionRepository;
+        this.dividendRepository = dividendRepository;
+        this.rateCache = rateCache;
+        this.userRepository = userRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.portfolioHistoryCache = portfolioHistoryCache;
+    }
+
+    @Override
+    public PortfolioValuationDto getPortfolioAsOf(Long userId, String date) {
+        LocalDate asOfDate;
+        try {
+            asOfDate = LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            List<String> errorMessages = Collections.singletonList(String.format("Invalid date: %s. Dates must be in yyyy-MM-dd format.", date));
+            LOGGER.error(errorMessages);
+            throw new ValidationException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
+        }
+        PortfolioHistoryCache.PortfolioHistory history = portfolioHistoryCache.get(userId, this::loadPortfolioHistory);
+        List<PortfolioPositionDto> positions = history.positions().stream()
+                .filter(position -> position.isOpenedBy(asOfDate))
+                .map(position -> new PortfolioPositionDto(
+                        referenceDataCache.findStockTickerByStockId(position.getStockId()).orElse(null),
+                        referenceDataCache.findExchangeByStockId(position.getStockId()).orElse(null),
+                        String.valueOf(position.getUnits(asOfDate)),
+                        String.valueOf(position.getCost(asOfDate)),
+                        String.valueOf(position.getRealizedProfits(asOfDate)),
+                        String.valueOf(position.getDividendsEarned(asOfDate))))
+                .toList();
+        return new PortfolioValuationDto(userId, asOfDate.toString(), history.displayCurrency(), positions);
+    }
+
+    private PortfolioHistoryCache.PortfolioHistory loadPortfolioHistory(Long userId) {
+        Optional<User> optionalUser = userRepository.findById(userId);
+        if (optionalUser.isEmpty()) {
+            List<String> errorMessages = Collections.singletonList(String.format(NO_USER_FOUND_WITH_ID, userId));
+            LOGGER.error(errorMessages);
+            throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
+        }
+        String displayCurrency = optionalUser.get().getDisplayCurrency();
+        Map<String, BigDecimal> rates = new HashMap<>();
+        Map<Long, List<Transaction>> transactionsByStockId = transactionRepository.findByUserId(userId).stream()
+                .collect(Collectors.groupingBy(Transaction::getStockId, TreeMap::new, Collectors.toList()));
+        List<PositionHistory> positions = new ArrayList<>();
+        for (Map.Entry<Long, List<Transaction>> entry : transactionsByStockId.entrySet()) {
+            positions.add(buildPositionHistory(entry.getKey(), entry.getValue(), displayCurrency, rates));
+        }
+        LOGGER.info("Built position history for {} stock(s) of user id {}", positions.size(), userId);
+        return new PortfolioHistoryCache.PortfolioHistory(displayCurrency, List.copyOf(positions));
+    }
+
+    // Buys on a sell date count towards that sell's average buying price, as in StatisticServiceImpl
+    private PositionHistory buildPositionHistory(Long stockId, List<Transaction> transactions, String displayCurrency, Map<String, BigDecimal> rates) {
+        List<Transaction> orderedTransactions = transactions.stream()
+                .sorted(Comparator.comparing((Transaction transaction) -> LocalDate.parse(transaction.getTransactionDate()))
+                        .thenComparing(transaction -> !isBuy(transaction)))
+                .toList();
+        List<Long> transactionDays = new ArrayList<>();
+        List<BigDecimal> cumulativeUnits = new ArrayList<>();
+        List<BigDecimal> cumulativeCost = new ArrayList<>();
+        List<BigDecimal> cumulativeRealizedProfits = new ArrayList<>();
+        BigDecimal units = BigDecimal.ZERO;
+        BigDecimal unitsBought = BigDecimal.ZERO;
+        BigDecimal cost = BigDecimal.ZERO;
+        BigDecimal realizedProfits = BigDecimal.ZERO;
+        for (Transaction transaction : orderedTransactions) {
+            BigDecimal rate = rates.computeIfAbsent(transaction.getCurrency() + "/" + displayCurrency, rateCache::getRate);
+            BigDecimal transactionUnits = new BigDecimal(transaction.getUnits());
+            BigDecimal unitPrice = new BigDecimal(transaction.getUnitPrice()).multiply(rate);
+            BigDecimal fees = new BigDecimal(transaction.getFees()).multiply(rate);
+            if (isBuy(transaction)) {
+                units = units.add(transactionUnits);
+                unitsBought = unitsBought.add(transactionUnits);
+                cost = cost.add(transactionUnits.multiply(unitPrice)).add(fees);
+            } else {
+                units = units.subtract(transactionUnits);
+                BigDecimal averageBuyingPrice = unitsBought.signum() == 0 ? BigDecimal.ZERO : cost.divide(unitsBought, 15, RoundingMode.HALF_UP);
+                realizedProfits = realizedProfits.add(transactionUnits.multiply(unitPrice.subtract(averageBuyingPrice)).subtract(fees));
+            }
+            append(transactionDays, LocalDate.parse(transaction.getTransactionDate()).toEpochDay(),
+                    List.of(cumulativeUnits, cumulativeCost, cumulativeRealizedProfits), List.of(units, cost, realizedProfits));
+        }
+        long[] days = transactionDays.stream().mapToLong(Long::longValue).toArray();
+        BigDecimal[] unitsByDay = cumulativeUnits.toArray(BigDecimal[]::new);
+        PositionHistory transactionsOnly = new PositionHistory(stockId, days, unitsByDay, new BigDecimal[0], new BigDecimal[0], new long[0], new BigDecimal[0]);
+
+        String baseCurrency = referenceDataCache.findBaseCurrencyByStockId(stockId).orElse(displayCurrency);
+        BigDecimal dividendRate = rates.computeIfAbsent(baseCurrency + "/" + displayCurrency, rateCache::getRate);
+        List<Long> exDays = new ArrayList<>();
+        List<BigDecimal> cumulativeDividends = new ArrayList<>();
+        BigDecimal dividendsEarned = BigDecimal.ZERO;
+        List<Dividend> dividends = dividendRepository.findByStockId(stockId).stream()
+                .sorted(Comparator.comparing(dividend -> LocalDate.parse(dividend.getExDate())))
+                .toList();
+        for (Dividend dividend : dividends) {
+            LocalDate exDate = LocalDate.parse(dividend.getExDate());
+            if (!transactionsOnly.isOpenedBy(exDate)) {
+                continue;
+            }
+            BigDecimal unitsOnExDate = transactionsOnly.getUnits(exDate);
+            dividendsEarned = dividendsEarned.add(unitsOnExDate.multiply(new BigDecimal(dividend.getPayout())).multiply(dividendRate));
+            append(exDays, exDate.toEpochDay(), List.of(cumulativeDividends), List.of(dividendsEarned));
+        }
+        return new PositionHistory(stockId, days, unitsByDay, cumulativeCost.toArray(BigDecimal[]::new),
+                cumulativeRealizedProfits.toArray(BigDecimal[]::new), exDays.stream().mapToLong(Long::longValue).toArray(),
+                cumulativeDividends.toArray(BigDecimal[]::new));
+    }
+
+    // Several entries on one day collapse into the running total at the end of that day
+    private static void append(List<Long> days, long day, List<List<BigDecimal>> columns, List<BigDecimal> values) {
+        boolean sameDay = !days.isEmpty() && days.get(days.size() - 1) == day;
+        if (!sameDay) {
+            days.add(day);
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            if (sameDay) {
+                columns.get(i).set(columns.get(i).size() - 1, values.get(i));
+            } else {
+                columns.get(i).add(values.get(i));
+            }
+        }
+    }
+
+    private static boolean isBuy(Transaction transaction) {
+        return Objects.equals(transaction.getTransactionType().trim(), BUY);
+    }
+}
@@ -0,0 +1,325 @@
+package com.example.investmentportfolio.service.impl;
+
+import com.example.investmentportfolio.cache.RateCache;
+import com.example.investmentportfolio.dto.PortfolioValueHistoryDto;
+import com.example.investmentportfolio.dto.PortfolioValuePointDto;
+import com.example.investmentportfolio.model.Dividend;
+import com.example.investmentportfolio.model.PortfolioSnapshot;
+import com.example.investmentportfolio.model.Stock;
+import com.example.investmentportfolio.model.Transaction;
+import com.example.investmentportfolio.model.User;
+import com.example.investmentportfolio.provider.PriceBar;
+import com.example.investmentportfolio.repository.DividendRepository;
+import com.example.investmentportfolio.repository.PortfolioSnapshotRepository;
+import com.example.investmentportfolio.repository.PriceHistoryRepository;
+import com.example.investmentportfolio.repository.StockRepository;
+import com.example.investmentportfolio.repository.TransactionRepository;
+import com.example.investmentportfolio.repository.UserRepository;
+import com.example.investmentportfolio.service.PortfolioSnapshotService;
+import com.example.investmentportfolio.util.CustomError;
+import com.example.investmentportfolio.util.ErrorConstants;
+import com.example.investmentportfolio.util.NotFoundException;
+import com.example.investmentportfolio.util.ValidationException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+public class PortfolioSnapshotServiceImpl implements PortfolioSnapshotService {
+    private static final Logger LOGGER = LogManager.getLogger(PortfolioSnapshotServiceImpl.class);
+    public static final String NO_USER_FOUND_WITH_ID = "No user found with id: %d";
+    public static final String INVALID_DATE = "Invalid date: %s. Dates must be in yyyy-MM-dd format.";
+    private static final String BUY = "Buy";
+    // Lower bound for the first snapshot of a user, which has no earlier snapshot to start from
+    private static final String FIRST_SNAPSHOT_AFTER = "1900-01-01";
+    // Reaches back over weekends and holidays to the last close before the first replayed day
+    private static final int CLOSE_LOOKBACK_DAYS = 14;
+    private static final Map<String, String> BUCKETS_BY_INTERVAL = Map.of("daily", "day", "weekly", "week", "monthly", "month");
+    private final PortfolioSnapshotRepository portfolioSnapshotRepository;
+    private final TransactionRepository transactionRepository;
+    private final DividendRepository dividendRepository;
+    private final StockRepository stockRepository;
+    private final PriceHistoryRepository priceHistoryRepository;
+    private final RateCache rateCache;
+    private final UserRepository userRepository;
+
+    public PortfolioSnapshotServiceImpl(PortfolioSnapshotRepository portfolioSnapshotRepository, TransactionRepository transactionRepository,
+                                        DividendRepository dividendRepository, StockRepository stockRepository, PriceHistoryRepository priceHistoryRepository,
+                                        RateCache rateCache, UserRepository userRepository) {
+        this.portfolioSnapshotRepository = portfolioSnapshotRepository;
+        this.transactionRepository = transactionRepository;
+        this.dividendRepository = dividendRepository;
+        this.stockRepository = stockRepository;
+        this.priceHistoryRepository = priceHistoryRepository;
+        this.rateCache = rateCache;
+        this.userRepository = userRepository;
+    }
+
+    // Only the activity since the user's latest snapshot is read, and rerunning a day replaces that day's rows
+    @Override
+    @Transactional
+    public int snapshotUser(Long userId, LocalDate snapshotDate) {
+        return replay(userId, List.of(snapshotDate), false);
+    }
+
+    // Every stored day from fromDate on is replayed in one pass, so backdated, edited and deleted activity reaches the whole history
+    @Override
+    @Transactional
+    public int rebuildSnapshots(Long userId, LocalDate fromDate) {
+        List<LocalDate> dates = portfolioSnapshotRepository.findSnapshotDatesFrom(userId, fromDate.toString()).stream()
+                .map(LocalDate::parse)
+                .toList();
+        if (dates.isEmpty()) {
+            return 0;
+        }
+        int positions = replay(userId, dates, true);
+        LOGGER.info("Rebuilt {} snapshot day(s) for user id {} from {}", dates.size(), userId, fromDate);
+        return positions;
+    }
+
+    // Each holder is replayed once from the earliest date across the given stocks
+    @Override
+    @Transactional
+    public void rebuildSnapshotsForStocks(Map<Long, LocalDate> fromDatesByStockId) {
+        Map<Long, LocalDate> fromDatesByUserId = new HashMap<>();
+        fromDatesByStockId.forEach((stockId, fromDate) -> transactionRepository.findUserIdsByStockId(stockId)
+                .forEach(userId -> fromDatesByUserId.merge(userId, fromDate, (first, second) -> first.isBefore(second) ? first : second)));
+        fromDatesByUserId.forEach(this::rebuildSnapshots);
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllSnapshots() {
+        portfolioSnapshotRepository.deleteAllInBatch();
+        LOGGER.info("Deleted all portfolio snapshots.");
+    }
+
+    @Override
+    public PortfolioValueHistoryDto getPortfolioValueHistory(Long userId, String from, String to, String interval) {
+        findUser(userId);
+        LocalDate toDate = to == null ? LocalDate.now() : parseDate(to);
+        LocalDate fromDate = from == null ? toDate.minusYears(1) : parseDate(from);
+        if (fromDate.isAfter(toDate)) {
+            List<String> errorMessages = Collections.singletonList(String.format("From date %s is after to date %s.", fromDate, toDate));
+            LOGGER.error(errorMessages);
+            throw new ValidationException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
+        }
+        String resolvedInterval = interval == null ? defaultInterval(fromDate, toDate) : interval.toLowerCase();
+        String bucket = BUCKETS_BY_INTERVAL.get(resolvedInterval);
+        if (bucket == null) {
+            List<String> errorMessages = Collections.singletonList(String.format("Invalid interval: %s. Interval must be one of daily, weekly or monthly.", interval));
+            LOGGER.error(errorMessages);
+            throw new ValidationException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
+        }
+        List<PortfolioValuePointDto> points = portfolioSnapshotRepository.getPortfolioValueSeries(userId, fromDate.toString(), toDate.toString(), bucket).stream()
+                .map(point -> new PortfolioValuePointDto(point.getSnapshotDate(),
+                        String.valueOf(point.getTotalCost().stripTrailingZeros()),
+                        String.valueOf(point.getTotalValue().stripTrailingZeros()),
+                        String.valueOf(point.getRealizedProfits().stripTrailingZeros()),
+                        String.valueOf(point.getUnrealizedProfits().stripTrailingZeros()),
+                        String.valueOf(point.getDividendsEarned().stripTrailingZeros()),
+                        String.valueOf(point.getTotalProfits().stripTrailingZeros())))
+                .toList();
+        return new PortfolioValueHistoryDto(userId, fromDate.toString(), toDate.toString(), resolvedInterval, points);
+    }
+
+    // Past days are valued at their stored closing price, falling back to the price implied by the row being replaced
+    private int replay(Long userId, List<LocalDate> dates, boolean historicalPrices) {
+        String displayCurrency = findUser(userId).getDisplayCurrency();
+        LocalDate firstDate = dates.get(0);
+        LocalDate lastDate = dates.get(dates.size() - 1);
+        String previousDate = portfolioSnapshotRepository.getLatestSnapshotDateBefore(userId, firstDate.toString());
+        String afterDate = previousDate == null ? FIRST_SNAPSHOT_AFTER : previousDate;
+        Map<Long, PortfolioSnapshot> previousByStockId = previousDate == null ? Collections.emptyMap()
+                : portfolioSnapshotRepository.findByUserIdAndSnapshotDate(userId, previousDate).stream()
+                .collect(Collectors.toMap(PortfolioSnapshot::getStockId, snapshot -> snapshot));
+        Map<Long, List<Transaction>> transactionsByStockId = transactionRepository.findByUserIdAndDateRange(userId, afterDate, lastDate.toString()).stream()
+                .collect(Collectors.groupingBy(Transaction::getStockId));
+        Set<Long> stockIds = new TreeSet<>(previousByStockId.keySet());
+        stockIds.addAll(transactionsByStockId.keySet());
+
+        Map<String, BigDecimal> rates = new HashMap<>();
+        transactionsByStockId.values().forEach(transactions -> transactions.forEach(transaction ->
+                rates.computeIfAbsent(transaction.getCurrency(), currency -> rateCache.getRate(currency, displayCurrency))));
+        List<StockReplay> replays = new ArrayList<>();
+        for (Long stockId : stockIds) {
+            Optional<Stock> optionalStock = stockRepository.findById(stockId);
+            String baseCurrency = optionalStock.map(Stock::getBaseCurrency).orElse(displayCurrency);
+            replays.add(new StockReplay(stockId, previousByStockId.get(stockId), transactionsByStockId.getOrDefault(stockId, Collections.emptyList()), rates,
+                    dividendRepository.findByStockIdAndExDateRange(stockId, afterDate, lastDate.toString()),
+                    rates.computeIfAbsent(baseCurrency, currency -> rateCache.getRate(currency, displayCurrency)),
+                    optionalStock.map(Stock::getLastPrice).map(BigDecimal::new).orElse(null),
+                    historicalPrices ? priceHistoryRepository.findBars(stockId, firstDate.minusDays(CLOSE_LOOKBACK_DAYS), lastDate) : List.of()));
+        }
+
+        int positions = 0;
+        for (LocalDate date : dates) {
+            Map<Long, PortfolioSnapshot> replacedByStockId = historicalPrices
+                    ? portfolioSnapshotRepository.findByUserIdAndSnapshotDate(userId, date.toString()).stream()
+                    .collect(Collectors.toMap(PortfolioSnapshot::getStockId, snapshot -> snapshot))
+                    : Collections.emptyMap();
+            List<PortfolioSnapshot> snapshots = new ArrayList<>();
+            for (StockReplay replay : replays) {
+                replay.advanceTo(date);
+                if (replay.started) {
+                    snapshots.add(replay.snapshot(userId, date, historicalPrices, replacedByStockId.get(replay.stockId)));
+                }
+            }
+            portfolioSnapshotRepository.deleteByUserIdAndSnapshotDate(userId, date.toString());
+            portfolioSnapshotRepository.saveAll(snapshots);
+            positions += snapshots.size();
+        }
+        LOGGER.info("Saved {} position snapshot(s) for user id {} from {} to {} (previous snapshot: {})", positions, userId, firstDate, lastDate, previousDate);
+        return positions;
+    }
+
+    private static String defaultInterval(LocalDate from, LocalDate to) {
+        long days = ChronoUnit.DAYS.between(from, to);
+        if (days <= 92) {
+            return "daily";
+        }
+        return days <= 731 ? "weekly" : "monthly";
+    }
+
+    private static boolean isBuy(Transaction transaction) {
+        return Objects.equals(transaction.getTransactionType().trim(), BUY);
+    }
+
+    private static LocalDate parseDate(String date) {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            List<String> errorMessages = Collections.singletonList(String.format(INVALID_DATE, date));
+            LOGGER.error(errorMessages);
+            throw new ValidationException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
+        }
+    }
+
+    private User findUser(Long userId) {
+        Optional<User> optionalUser = userRepository.findById(userId);
+        if (optionalUser.isEmpty()) {
+            List<String> errorMessages = Collections.singletonList(String.format(NO_USER_FOUND_WITH_ID, userId));
+            LOGGER.error(errorMessages);
+            throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
+        }
+        return optionalUser.get();
+    }
+
+
+    // Dividends count the units held at the end of their ex date, so that day's transactions are applied first
+    private static final class StockReplay {
+        private final Long stockId;
+        private final RunningPosition position;
+        private final Deque<Transaction> pendingTransactions;
+        private final Map<String, BigDecimal> ratesByCurrency;
+        private final Deque<Dividend> pendingDividends;
+        private final BigDecimal stockRate;
+        private final BigDecimal lastPrice;
+        private final NavigableMap<LocalDate, BigDecimal> closesByDate = new TreeMap<>();
+        private boolean started;
+
+        private StockReplay(Long stockId, PortfolioSnapshot previous, List<Transaction> transactions, Map<String, BigDecimal> ratesByCurrency,
+                            List<Dividend> dividends, BigDecimal stockRate, BigDecimal lastPrice, List<PriceBar> bars) {
+            this.stockId = stockId;
+            this.position = new RunningPosition(previous);
+            this.ratesByCurrency = ratesByCurrency;
+            this.pendingTransactions = transactions.stream()
+                    .sorted(Comparator.comparing((Transaction transaction) -> LocalDate.parse(transaction.getTransactionDate()))
+                            .thenComparing(transaction -> !isBuy(transaction)))
+                    .collect(Collectors.toCollection(ArrayDeque::new));
+            this.pendingDividends = new ArrayDeque<>(dividends);
+            this.stockRate = stockRate;
+            this.lastPrice = lastPrice;
+            bars.forEach(bar -> closesByDate.put(bar.date(), bar.close()));
+            this.started = previous != null;
+        }
+
+        private void advanceTo(LocalDate date) {
+            while (true) {
+                Transaction transaction = pendingTransactions.peekFirst();
+                Dividend dividend = pendingDividends.peekFirst();
+                LocalDate transactionDate = transaction == null ? null : LocalDate.parse(transaction.getTransactionDate());
+                LocalDate exDate = dividend == null ? null : LocalDate.parse(dividend.getExDate());
+                boolean transactionDue = transactionDate != null && !transactionDate.isAfter(date);
+                boolean dividendDue = exDate != null && !exDate.isAfter(date);
+                if (transactionDue && (!dividendDue || !transactionDate.isAfter(exDate))) {
+                    pendingTransactions.pollFirst();
+                    position.apply(transaction, ratesByCurrency.get(transaction.getCurrency()));
+                    started = true;
+                } else if (dividendDue) {
+                    pendingDividends.pollFirst();
+                    position.dividendsEarned = position.dividendsEarned.add(position.units.multiply(new BigDecimal(dividend.getPayout())).multiply(stockRate));
+                } else {
+                    return;
+                }
+            }
+        }
+
+        private PortfolioSnapshot snapshot(Long userId, LocalDate date, boolean historicalPrices, PortfolioSnapshot replaced) {
+            BigDecimal units = position.units;
+            BigDecimal value = units.signum() == 0 ? BigDecimal.ZERO : valueAt(date, historicalPrices, replaced);
+            BigDecimal unrealizedProfits = units.signum() == 0 ? BigDecimal.ZERO : value.subtract(position.cost);
+            BigDecimal totalProfits = position.realizedProfits.add(unrealizedProfits).add(position.dividendsEarned);
+            return new PortfolioSnapshot(null, userId, stockId, date, units, position.unitsBought, position.cost, value,
+                    position.realizedProfits, unrealizedProfits, position.dividendsEarned, totalProfits);
+        }
+
+        private BigDecimal valueAt(LocalDate date, boolean historicalPrices, PortfolioSnapshot replaced) {
+            if (historicalPrices) {
+                Map.Entry<LocalDate, BigDecimal> close = closesByDate.floorEntry(date);
+                if (close != null) {
+                    return position.units.multiply(close.getValue()).multiply(stockRate);
+                }
+                if (replaced != null && replaced.getTotalUnits().signum() != 0) {
+                    BigDecimal displayPrice = replaced.getTotalValue().divide(replaced.getTotalUnits(), MathContext.DECIMAL128);
+                    return position.units.multiply(displayPrice);
+                }
+            }
+            return lastPrice == null ? BigDecimal.ZERO : position.units.multiply(lastPrice).multiply(stockRate);
+        }
+    }
+
+    // Realized profits use the average buying price over all units bought so far, as in StatisticServiceImpl
+    private static final class RunningPosition {
+        private BigDecimal units = BigDecimal.ZERO;
+        private BigDecimal unitsBought = BigDecimal.ZERO;
+        private BigDecimal cost = BigDecimal.ZERO;
+        private BigDecimal realizedProfits = BigDecimal.ZERO;
+        private BigDecimal dividendsEarned = BigDecimal.ZERO;
+
+        private RunningPosition(PortfolioSnapshot previous) {
+            if (previous != null) {
+                units = previous.getTotalUnits();
+                unitsBought = previous.getUnitsBought();
+                cost = previous.getTotalCost();
+                realizedProfits = previous.getRealizedProfits();
+                dividendsEarned = previous.getDividendsEarned();
+            }
+        }
+
+        private void apply(Transaction transaction, BigDecimal rate) {
+            BigDecimal transactionUnits = new BigDecimal(transaction.getUnits());
+            BigDecimal unitPrice = new BigDecimal(transaction.getUnitPrice()).multiply(rate);
+            BigDecimal fees = new BigDecimal(transaction.getFees()).multiply(rate);
+            if (isBuy(transaction)) {
+                units = units.add(transactionUnits);
+                unitsBought = unitsBought.add(transactionUnits);
+                cost = cost.add(transactionUnits.multiply(unitPrice)).add(fees);
+            } else {
+                units = units.subtract(transactionUnits);
+                BigDecimal averageBuyingPrice = unitsBought.signum() == 0 ? BigDecimal.ZERO : cost.divide(unitsBought, 15, RoundingMode.HALF_UP);
+                realizedProfits = realizedProfits.add(transactionUnits.multiply(unitPrice.subtract(averageBuyingPrice)).subtract(fees));
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.investmentportfolio.service.impl;
+
+import com.example.investmentportfolio.cache.PriceHistoryCache;
+import com.example.investmentportfolio.cache.ReferenceDataCache;
+import com.example.investmentportfolio.dto.PriceBarDto;
+import com.example.investmentportfolio.dto.PriceHistoryDto;
+import com.example.investmentportfolio.model.Exchange;
+import com.example.investmentportfolio.model.Stock;
+import com.example.investmentportfolio.provider.PriceBar;
+import com.example.investmentportfolio.provider.PriceProvider;
+import com.example.investmentportfolio.repository.PriceHistoryRepository;
+import com.example.investmentportfolio.service.PriceHistoryService;
+import com.example.investmentportfolio.util.CustomError;
+import com.example.investmentportfolio.util.ErrorConstants;
+import com.example.investmentportfolio.util.GeneralException;
+import com.example.investmentportfolio.util.NotFoundException;
+import com.example.investmentportfolio.util.ValidationException;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Service
+public class PriceHistoryServiceImpl implements PriceHistoryService {
+    private static final Logger LOGGER = LogManager.getLogger(PriceHistoryServiceImpl.class);
+    public static final String NO_STOCK_FOUND_WITH_ID = "No stock found with id: %d";
+    public static final String INVALID_DATE = "Invalid date: %s. Dates must be in yyyy-MM-dd format.";
+    private final PriceHistoryRepository priceHistoryRepository;
+    private final PriceHistoryCache priceHistoryCache;
+    private final ReferenceDataCache referenceDataCache;
+    private final PriceProvider priceProvider;
+    private final ExecutorService backfillExecutor;
+    private final int chunkDays;
+    private final int initialYears;
+
+    public PriceHistoryServiceImpl(PriceHistoryRepository priceHistoryRepository, PriceHistoryCache priceHistoryCache, ReferenceDataCache referenceDataCache,
+                                   PriceProvider priceProvider, @Value("${price-history.backfill.threads:4}") int threads,
+                                   @Value("${price-history.backfill.chunk-days:365}") int chunkDays,
+                                   @Value("${price-history.backfill.initial-years:5}") int initialYears) {
+        this.priceHistoryRepository = priceHistoryRepository;
+        this.priceHistoryCache = priceHistoryCache;
+        this.referenceDataCache = referenceDataCache;
+        this.priceProvider = priceProvider;
+        this.backfillExecutor = Executors.newFixedThreadPool(threads);
+        this.chunkDays = chunkDays;
+        this.initialYears = initialYears;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backfillExecutor.shutdownNow();
+    }
+
+    @Override
+    public PriceHistoryDto getPriceHistory(Long stockId, String from, String to) {
+        Stock stock = findStock(stockId);
+        LocalDate toDate = to == null ? LocalDate.now() : parseDate(to);
+        LocalDate fromDate = from == null ? toDate.minusYears(1) : parseDate(from);
+        validateRange(fromDate, toDate);
+        List<PriceBarDto> bars = findBars(stockId, fromDate, toDate).stream()
+                .map(bar -> new PriceBarDto(bar.date().toString(), toString(bar.open()), toString(bar.high()), toString(bar.low()),
+                        toString(bar.close()), toString(bar.adjustedClose()), bar.volume()))
+                .toList();
+        String exchange = referenceDataCache.findExchangeById(stock.getExchangeId()).map(Exchange::getExchange).orElse(null);
+        return new PriceHistoryDto(stockId, stock.getStockTicker(), exchange, fromDate.toString(), toDate.toString(), bars);
+    }
+
+    @Override
+    public List<PriceBar> findBars(Long stockId, LocalDate from, LocalDate to) {
+        return priceHistoryCache.get(new PriceHistoryCache.PriceWindow(stockId, from, to),
+                window -> priceHistoryRepository.findBars(window.stockId(), window.from(), window.to()));
+    }
+
+    @Override
+    public int backfillPriceHistory(Long stockId, String from, String to) {
+        Stock stock = findStock(stockId);
+        LocalDate toDate = to == null ? LocalDate.now() : parseDate(to);
+        LocalDate fromDate = from == null ? toDate.minusYears(initialYears) : parseDate(from);
+        validateRange(fromDate, toDate);
+        return backfill(stock, fromDate, toDate);
+    }
+
+    // Restarts at the latest stored bar, which an intraday run may have stored part-way through the session; the upsert replaces it
+    @Override
+    public int updatePriceHistory(Long stockId) {
+        Stock stock = findStock(stockId);
+        LocalDate today = LocalDate.now();
+        LocalDate latest = priceHistoryRepository.findLatestPriceDate(stockId);
+        LocalDate fromDate = latest == null ? today.minusYears(initialYears) : latest;
+        if (fromDate.isAfter(today)) {
+            return 0;
+        }
+        return backfill(stock, fromDate, today);
+    }
+
+    // The range is split into chunks that are fetched and written concurrently, each chunk as its own batch
+    private int backfill(Stock stock, LocalDate from, LocalDate to) {
+        String symbol = symbolOf(stock);
+        List<Future<Integer>> chunks = new ArrayList<>();
+        for (LocalDate chunkFrom = from; !chunkFrom.isAfter(to); chunkFrom = chunkFrom.plusDays(chunkDays)) {
+            LocalDate start = chunkFrom;
+            LocalDate end = chunkFrom.plusDays(chunkDays - 1L).isAfter(to) ? to : chunkFrom.plusDays(chunkDays - 1L);
+            chunks.add(backfillExecutor.submit(() -> priceHistoryRepository.upsertBars(stock.getStockId(), priceProvider.fetchDailyBars(symbol, start, end))));
+        }
+        int saved = 0;
+        try {
+            for (Future<Integer> chunk : chunks) {
+                saved += chunk.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            chunks.forEach(chunk -> chunk.cancel(true));
+            throw backfillFailed(symbol, e);
+        } catch (ExecutionException e) {
+            chunks.forEach(chunk -> chunk.cancel(true));
+            throw backfillFailed(symbol, e.getCause());
+        } finally {
+            priceHistoryCache.invalidateStock(stock.getStockId());
+        }
+        LOGGER.info("Saved {} daily bar(s) for {} between {} and {} in {} chunk(s)", saved, symbol, from, to, chunks.size());
+        return saved;
+    }
+
+    private GeneralException backfillFailed(String symbol, Throwable cause) {
+        List<String> errorMessages = Collections.singletonList(String.format("Failed to backfill price history for %s: %s", symbol, cause.getMessage()));
+        LOGGER.error(errorMessages);
+        return new GeneralException(new CustomError(ErrorConstants.INTERNAL_SERVER_ERROR_ERROR_CODE, errorMessages));
+    }
+
+    private String symbolOf(Stock stock) {
+        String suffix = referenceDataCache.findExchangeById(stock.getExchangeId()).map(Exchange::getSuffix).orElse(null);
+        return (suffix != null) ? stock.getStockTicker() + suffix : stock.getStockTicker();
+    }
+
+    private Stock findStock(Long stockId) {
+        Optional<Stock> optionalStock = referenceDataCache.findStockById(stockId);
+        if (optionalStock.isEmpty()) {
+            List<String> errorMessages = Collections.singletonList(String.format(NO_STOCK_FOUND_WITH_ID, stockId));
+            LOGGER.error(errorMessages);
+            throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
+        }
+        return optionalStock.get();
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            List<String> errorMessages = Collections.singletonList(String.format("From date %s is after to date %s.", from, to));
+            LOGGER.error(errorMessages);
+            throw new ValidationException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
+        }
+    }
+
+    private static LocalDate parseDate(String date) {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            List<String> errorMessages = Collections.singletonList(String.format(INVALID_DATE, date));
+            LOGGER.error(errorMessages);
+            throw new ValidationException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
+        }
+    }
+
+    private static String toString(BigDecimal value) {
+        return value == null ? null : String.valueOf(value.stripTrailingZeros());
+    }
+}
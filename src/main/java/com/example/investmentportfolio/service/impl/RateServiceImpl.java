@@ -1,38 +1,58 @@
 package com.example.investmentportfolio.service.impl;
 
+import com.example.investmentportfolio.cache.RateCache;
 import com.example.investmentportfolio.dto.RateDto;
 import com.example.investmentportfolio.mapper.RateMapper;
 import com.example.investmentportfolio.model.Rate;
+import com.example.investmentportfolio.provider.FxRateProvider;
 import com.example.investmentportfolio.repository.RateRepository;
 import com.example.investmentportfolio.service.RateService;
 import com.example.investmentportfolio.util.*;
+import jakarta.annotation.PreDestroy;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @Service
 public class RateServiceImpl implements RateService {
     private static final Logger LOGGER = LogManager.getLogger(RateServiceImpl.class);
     public static final String NO_RATE_FOUND_WITH_ID = "No rate found with id: %d";
     private final RateRepository rateRepository;
+    private final RateCache rateCache;
     private final RateMapper rateMapper;
+    private final Optional<FxRateProvider> fxRateProvider;
+    private final ExecutorService refreshExecutor;
     private final Validator validator;
+    private final int maxBatchItems;
 
-    public RateServiceImpl(RateRepository rateRepository, RateMapper rateMapper) {
+    public RateServiceImpl(RateRepository rateRepository, RateCache rateCache, RateMapper rateMapper, Optional<FxRateProvider> fxRateProvider,
+                           @Value("${create.batch.max-items:5000}") int maxBatchItems, @Value("${rates.refresh.threads:4}") int refreshThreads) {
         this.rateRepository = rateRepository;
+        this.rateCache = rateCache;
         this.rateMapper = rateMapper;
+        this.fxRateProvider = fxRateProvider;
+        this.refreshExecutor = Executors.newFixedThreadPool(refreshThreads);
+        this.maxBatchItems = maxBatchItems;
         validator = Validation.buildDefaultValidatorFactory().getValidator();
     }
 
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
     @Override
     public RateDto createRate(RateDto rateDto) {
         Set<ConstraintViolation<RateDto>> violations = validator.validate(rateDto, CreateValidation.class);
@@ -51,11 +71,35 @@ public class RateServiceImpl implements RateService {
                 throw new AlreadyExistsException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
             } else {
                 rateRepository.save(rate);
+                rateCache.invalidateRate(rate.getRateName());
                 return rateMapper.convertToDto(rate);
             }
         }
     }
 
+    @Override
+    @Transactional
+    public List<RateDto> createRates(List<RateDto> rateDtos) {
+        List<String> errorMessages = BatchValidation.validate(validator, rateDtos, maxBatchItems);
+        BatchValidation.throwIfInvalid(errorMessages);
+        Set<String> rateNames = new HashSet<>(rateRepository.findAllRateNames());
+        List<Rate> rates = new ArrayList<>();
+        for (int i = 0; i < rateDtos.size(); i++) {
+            Rate rate = rateMapper.convertToEntity(rateDtos.get(i));
+            if (!rateNames.add(rate.getRateName().toUpperCase())) {
+                errorMessages.add(String.format(BatchValidation.ITEM_ERROR, i + 1, "A rate with the same name already exists."));
+            }
+            rates.add(rate);
+        }
+        BatchValidation.throwIfInvalid(errorMessages);
+        rateRepository.saveAll(rates);
+        rates.forEach(rate -> rateCache.invalidateRate(rate.getRateName()));
+        LOGGER.info("Created {} rate(s)", rates.size());
+        return rates.stream()
+                .map(rateMapper::convertToDto)
+                .toList();
+    }
+
     @Override
     public List<RateDto> getAllRates() {
         List<Rate> rates = rateRepository.findAll();
@@ -86,8 +130,11 @@ public class RateServiceImpl implements RateService {
     public RateDto updateRateById(Long rateId, RateDto rateDto) {
         Optional<Rate> optionalRate = rateRepository.findById(rateId);
         if (optionalRate.isPresent()) {
+            String previousRateName = optionalRate.get().getRateName();
             Rate updatedRate = rateMapper.updateEntityWithDto(rateDto, optionalRate.get());
             rateRepository.save(updatedRate);
+            rateCache.invalidateRate(previousRateName);
+            rateCache.invalidateRate(updatedRate.getRateName());
             return rateMapper.convertToDto(updatedRate);
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_RATE_FOUND_WITH_ID, rateId));
@@ -102,6 +149,7 @@ public class RateServiceImpl implements RateService {
         List<Rate> rates = rateRepository.findAll();
         if (!rates.isEmpty()) {
             rateRepository.deleteAll();
+            rateCache.invalidateAll();
         } else {
             List<String> errorMessages = Collections.singletonList("No rate(s) found.");
             LOGGER.error(errorMessages);
@@ -115,10 +163,65 @@ public class RateServiceImpl implements RateService {
         Optional<Rate> optionalRate = rateRepository.findById(rateId);
         if (optionalRate.isPresent()) {
             rateRepository.deleteById(rateId);
+            rateCache.invalidateRate(optionalRate.get().getRateName());
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_RATE_FOUND_WITH_ID, rateId));
             LOGGER.error(errorMessages);
             throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
         }
     }
+
+    // Pairs are fetched concurrently and only rates that moved are written, so unchanged pairs cost no update and no cache eviction;
+    // a pair whose request fails keeps its previous rate until the next run, and without a provider every rate is left as maintained
+    @Override
+    @Transactional
+    public List<String> refreshRates() {
+        if (fxRateProvider.isEmpty()) {
+            LOGGER.info("No FX rate provider configured, skipping the rate refresh.");
+            return List.of();
+        }
+        FxRateProvider provider = fxRateProvider.get();
+        List<String> rateNames = rateRepository.findRequiredRateNames();
+        if (rateNames.isEmpty()) {
+            LOGGER.info("No currency pairs to refresh.");
+            return List.of();
+        }
+        Map<String, Future<BigDecimal>> fetches = new LinkedHashMap<>();
+        for (String rateName : rateNames) {
+            String[] currencies = rateName.split("/");
+            fetches.put(rateName, refreshExecutor.submit(() -> provider.fetchRate(currencies[0], currencies[1])));
+        }
+        Map<String, Rate> ratesByName = new HashMap<>();
+        rateRepository.findAll().forEach(rate -> ratesByName.putIfAbsent(rate.getRateName().toUpperCase(), rate));
+        List<Rate> changedRates = new ArrayList<>();
+        for (Map.Entry<String, Future<BigDecimal>> fetch : fetches.entrySet()) {
+            BigDecimal fetchedRate;
+            try {
+                fetchedRate = fetch.getValue().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fetches.values().forEach(pending -> pending.cancel(true));
+                List<String> errorMessages = Collections.singletonList("Rate refresh interrupted.");
+                LOGGER.error(errorMessages);
+                throw new GeneralException(new CustomError(ErrorConstants.INTERNAL_SERVER_ERROR_ERROR_CODE, errorMessages));
+            } catch (ExecutionException e) {
+                LOGGER.error("Failed to fetch rate {}", fetch.getKey(), e.getCause());
+                continue;
+            }
+            Rate rate = ratesByName.get(fetch.getKey());
+            if (rate == null) {
+                changedRates.add(new Rate(null, fetch.getKey(), fetchedRate.toPlainString()));
+            } else if (rate.getRate() == null || new BigDecimal(rate.getRate()).compareTo(fetchedRate) != 0) {
+                rate.setRate(fetchedRate.toPlainString());
+                changedRates.add(rate);
+            }
+        }
+        rateRepository.saveAll(changedRates);
+        List<String> changedRateNames = changedRates.stream()
+                .map(rate -> rate.getRateName().toUpperCase())
+                .toList();
+        changedRateNames.forEach(rateCache::invalidateRate);
+        LOGGER.info("Rates changed for {} of {} currency pair(s).", changedRateNames.size(), rateNames.size());
+        return changedRateNames;
+    }
 }
@@ -0,0 +1,334 @@
+package com.example.investmentportfolio.service.impl;
+
+import com.example.investmentportfolio.analytics.CashFlows;
+import com.example.investmentportfolio.analytics.TimeWeightedReturn;
+import com.example.investmentportfolio.analytics.XirrSolver;
+import com.example.investmentportfolio.cache.RateCache;
+import com.example.investmentportfolio.cache.ReferenceDataCache;
+import com.example.investmentportfolio.cache.StatisticCache;
+import com.example.investmentportfolio.dto.PortfolioReturnsDto;
+import com.example.investmentportfolio.dto.PositionReturnDto;
+import com.example.investmentportfolio.model.Dividend;
+import com.example.investmentportfolio.model.PortfolioReturn;
+import com.example.investmentportfolio.model.Stock;
+import com.example.investmentportfolio.model.Transaction;
+import com.example.investmentportfolio.model.User;
+import com.example.investmentportfolio.provider.PriceBar;
+import com.example.investmentportfolio.repository.DividendRepository;
+import com.example.investmentportfolio.repository.PortfolioReturnRepository;
+import com.example.investmentportfolio.repository.StatisticRepository;
+import com.example.investmentportfolio.repository.StockRepository;
+import com.example.investmentportfolio.repository.TransactionRepository;
+import com.example.investmentportfolio.repository.UserRepository;
+import com.example.investmentportfolio.service.PriceHistoryService;
+import com.example.investmentportfolio.service.ReturnService;
+import com.example.investmentportfolio.util.CustomError;
+import com.example.investmentportfolio.util.ErrorConstants;
+import com.example.investmentportfolio.util.NotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+public class ReturnServiceImpl implements ReturnService {
+    private static final Logger LOGGER = LogManager.getLogger(ReturnServiceImpl.class);
+    public static final String NO_USER_FOUND_WITH_ID = "No user found with id: %d";
+    public static final String NO_RETURNS_FOUND_FOR_USER_ID = "No returns have been computed for user id: %d";
+    private static final String BUY = "Buy";
+    private static final double DAYS_PER_YEAR = 365.0;
+    private final TransactionRepository transactionRepository;
+    private final DividendRepository dividendRepository;
+    private final StockRepository stockRepository;
+    private final RateCache rateCache;
+    private final UserRepository userRepository;
+    private final StatisticRepository statisticRepository;
+    private final PortfolioReturnRepository portfolioReturnRepository;
+    private final PriceHistoryService priceHistoryService;
+    private final ReferenceDataCache referenceDataCache;
+    private final StatisticCache statisticCache;
+    private final DistributionSummary xirrIterations;
+    private final Counter xirrUnconverged;
+    private final int maxIterations;
+    private final double tolerance;
+
+    private record Trade(long day, double units, double price, double fees) {
+    }
+
+    private record Income(long day, double amount) {
+    }
+
+    // Prices and amounts are already converted to the user's display currency
+    private record PositionInput(Long stockId, List<Trade> trades, List<Income> incomes, long[] barDays, double[] barCloses,
+                                 double units, double lastPrice) {
+    }
+
+    private record ReturnInput(Long userId, String displayCurrency, List<PositionInput> positions, double timeWeightedReturn,
+                               double[] positionTimeWeightedReturns, CashFlows cashFlows, List<CashFlows> positionCashFlows) {
+    }
+
+    public ReturnServiceImpl(TransactionRepository transactionRepository, DividendRepository dividendRepository, StockRepository stockRepository,
+                             RateCache rateCache, UserRepository userRepository, StatisticRepository statisticRepository,
+                             PortfolioReturnRepository portfolioReturnRepository, PriceHistoryService priceHistoryService,
+                             ReferenceDataCache referenceDataCache, StatisticCache statisticCache, MeterRegistry meterRegistry,
+                             @Value("${returns.xirr.max-iterations:100}") int maxIterations,
+                             @Value("${returns.xirr.tolerance:1e-10}") double tolerance) {
+        this.transactionRepository = transactionRepository;
+        this.dividendRepository = dividendRepository;
+        this.stockRepository = stockRepository;
+        this.rateCache = rateCache;
+        this.userRepository = userRepository;
+        this.statisticRepository = statisticRepository;
+        this.portfolioReturnRepository = portfolioReturnRepository;
+        this.priceHistoryService = priceHistoryService;
+        this.referenceDataCache = referenceDataCache;
+        this.statisticCache = statisticCache;
+        this.maxIterations = maxIterations;
+        this.tolerance = tolerance;
+        xirrIterations = DistributionSummary.builder("returns.xirr.iterations")
+                .description("Solver iterations needed per XIRR")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        xirrUnconverged = Counter.builder("returns.xirr.unconverged")
+                .description("XIRRs that hit the iteration limit or had no root")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public PortfolioReturnsDto getReturnsByUserId(Long userId) {
+        Optional<PortfolioReturn> optionalPortfolioReturn = portfolioReturnRepository.findById(userId);
+        if (optionalPortfolioReturn.isEmpty()) {
+            List<String> errorMessages = Collections.singletonList(String.format(NO_RETURNS_FOUND_FOR_USER_ID, userId));
+            LOGGER.error(errorMessages);
+            throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
+        }
+        PortfolioReturn portfolioReturn = optionalPortfolioReturn.get();
+        List<PositionReturnDto> positions = statisticRepository.findByUserId(userId).stream()
+                .filter(statistic -> statistic.getTotalUnits() != null)
+                .map(statistic -> new PositionReturnDto(
+                        referenceDataCache.findStockTickerByStockId(statistic.getStockId()).orElse(null),
+                        referenceDataCache.findExchangeByStockId(statistic.getStockId()).orElse(null),
+                        statistic.getTimeWeightedReturn(),
+                        statistic.getMoneyWeightedReturn()))
+                .toList();
+        return new PortfolioReturnsDto(userId, portfolioReturn.getDisplayCurrency(), portfolioReturn.getTimeWeightedReturn(),
+                portfolioReturn.getMoneyWeightedReturn(), portfolioReturn.getXirrIterations(), portfolioReturn.getXirrConverged(),
+                String.valueOf(portfolioReturn.getComputedAt()), positions);
+    }
+
+    // Inputs are read one user at a time, then every portfolio and position XIRR is solved in a single parallel pass;
+    // a user whose inputs cannot be read is logged and skipped so the rest of the batch still gets returns
+    @Override
+    @Transactional
+    public int updateReturnsForUsers(List<Long> userIds) {
+        long today = LocalDate.now().toEpochDay();
+        Map<String, BigDecimal> rates = new HashMap<>();
+        List<ReturnInput> inputs = new ArrayList<>();
+        for (Long userId : userIds) {
+            try {
+                inputs.add(loadInput(userId, today, rates));
+            } catch (RuntimeException e) {
+                LOGGER.error("Failed to load return inputs for user id {}", userId, e);
+            }
+        }
+        List<CashFlows> cashFlows = new ArrayList<>();
+        for (ReturnInput input : inputs) {
+            cashFlows.add(input.cashFlows());
+            cashFlows.addAll(input.positionCashFlows());
+        }
+        long start = System.nanoTime();
+        List<XirrSolver.Result> results = XirrSolver.solveAll(cashFlows, maxIterations, tolerance);
+        LOGGER.info("Solved {} XIRR(s) for {} user(s) in {} ms", results.size(), inputs.size(), (System.nanoTime() - start) / 1_000_000);
+
+        int positions = 0;
+        int resultIndex = 0;
+        LocalDateTime computedAt = LocalDateTime.now();
+        for (ReturnInput input : inputs) {
+            XirrSolver.Result portfolioResult = record(results.get(resultIndex++));
+            for (int i = 0; i < input.positions().size(); i++) {
+                XirrSolver.Result positionResult = record(results.get(resultIndex++));
+                statisticRepository.updateReturns(format(input.positionTimeWeightedReturns()[i]), format(positionResult.rate()),
+                        input.userId(), input.positions().get(i).stockId());
+            }
+            portfolioReturnRepository.save(new PortfolioReturn(input.userId(), input.displayCurrency(), format(input.timeWeightedReturn()),
+                    format(portfolioResult.rate()), portfolioResult.iterations(), portfolioResult.converged(), computedAt));
+            statisticCache.invalidateUser(input.userId());
+            positions += input.positions().size();
+        }
+        return positions;
+    }
+
+    private XirrSolver.Result record(XirrSolver.Result result) {
+        xirrIterations.record(result.iterations());
+        if (!result.converged()) {
+            xirrUnconverged.increment();
+        }
+        return result;
+    }
+
+    private ReturnInput loadInput(Long userId, long today, Map<String, BigDecimal> rates) {
+        Optional<User> optionalUser = userRepository.findById(userId);
+        if (optionalUser.isEmpty()) {
+            List<String> errorMessages = Collections.singletonList(String.format(NO_USER_FOUND_WITH_ID, userId));
+            LOGGER.error(errorMessages);
+            throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
+        }
+        String displayCurrency = optionalUser.get().getDisplayCurrency();
+        Map<Long, List<Transaction>> transactionsByStockId = transactionRepository.findByUserId(userId).stream()
+                .collect(Collectors.groupingBy(Transaction::getStockId, TreeMap::new, Collectors.toList()));
+        List<PositionInput> positions = new ArrayList<>();
+        for (Map.Entry<Long, List<Transaction>> entry : transactionsByStockId.entrySet()) {
+            positions.add(loadPosition(entry.getKey(), entry.getValue(), displayCurrency, today, rates));
+        }
+        double[] positionTimeWeightedReturns = new double[positions.size()];
+        List<CashFlows> positionCashFlows = new ArrayList<>();
+        for (int i = 0; i < positions.size(); i++) {
+            positionTimeWeightedReturns[i] = timeWeightedReturn(List.of(positions.get(i)));
+            positionCashFlows.add(cashFlows(List.of(positions.get(i)), today));
+        }
+        return new ReturnInput(userId, displayCurrency, positions, timeWeightedReturn(positions), positionTimeWeightedReturns,
+                cashFlows(positions, today), positionCashFlows);
+    }
+
+    // Dividends are counted on the units held at the end of the ex date and received on the pay date, or on the ex date
+    // for ingested dividends whose pay date has not been entered yet
+    private PositionInput loadPosition(Long stockId, List<Transaction> transactions, String displayCurrency, long today, Map<String, BigDecimal> rates) {
+        List<Trade> trades = new ArrayList<>();
+        transactions.stream()
+                .sorted(Comparator.comparing((Transaction transaction) -> LocalDate.parse(transaction.getTransactionDate()))
+                        .thenComparing(transaction -> !Objects.equals(transaction.getTransactionType().trim(), BUY)))
+                .forEach(transaction -> {
+                    double rate = rates.computeIfAbsent(transaction.getCurrency() + "/" + displayCurrency, rateCache::getRate).doubleValue();
+                    double units = Double.parseDouble(transaction.getUnits());
+                    boolean buy = Objects.equals(transaction.getTransactionType().trim(), BUY);
+                    trades.add(new Trade(LocalDate.parse(transaction.getTransactionDate()).toEpochDay(), buy ? units : -units,
+                            Double.parseDouble(transaction.getUnitPrice()) * rate, Double.parseDouble(transaction.getFees()) * rate));
+                });
+        double units = trades.stream().mapToDouble(Trade::units).sum();
+
+        Optional<Stock> optionalStock = stockRepository.findById(stockId);
+        String baseCurrency = optionalStock.map(Stock::getBaseCurrency).orElse(displayCurrency);
+        double stockRate = rates.computeIfAbsent(baseCurrency + "/" + displayCurrency, rateCache::getRate).doubleValue();
+        List<Income> incomes = new ArrayList<>();
+        for (Dividend dividend : dividendRepository.findByStockId(stockId)) {
+            long exDay = LocalDate.parse(dividend.getExDate()).toEpochDay();
+            long payDay = dividend.getPayDate() == null ? exDay : LocalDate.parse(dividend.getPayDate()).toEpochDay();
+            if (payDay > today) {
+                continue;
+            }
+            double unitsOnExDate = trades.stream().filter(trade -> trade.day() <= exDay).mapToDouble(Trade::units).sum();
+            if (unitsOnExDate > 0) {
+                incomes.add(new Income(payDay, unitsOnExDate * Double.parseDouble(dividend.getPayout()) * stockRate));
+            }
+        }
+        incomes.sort(Comparator.comparingLong(Income::day));
+
+        List<PriceBar> bars = priceHistoryService.findBars(stockId, LocalDate.ofEpochDay(trades.get(0).day()), LocalDate.ofEpochDay(today));
+        long[] barDays = bars.stream().mapToLong(bar -> bar.date().toEpochDay()).toArray();
+        double[] barCloses = bars.stream().mapToDouble(bar -> bar.close().doubleValue() * stockRate).toArray();
+        String lastPrice = optionalStock.map(Stock::getLastPrice).orElse(null);
+        double lastPriceInDisplayCurrency = lastPrice != null ? Double.parseDouble(lastPrice) * stockRate
+                : barCloses.length > 0 ? barCloses[barCloses.length - 1] : trades.get(trades.size() - 1).price();
+        return new PositionInput(stockId, trades, incomes, barDays, barCloses, units, lastPriceInDisplayCurrency);
+    }
+
+    // Buys are contributions, sells and dividends withdrawals, and whatever is still held is sold at the last price today
+    private static CashFlows cashFlows(List<PositionInput> positions, long today) {
+        List<Long> days = new ArrayList<>();
+        List<Double> amounts = new ArrayList<>();
+        double closingValue = 0;
+        for (PositionInput position : positions) {
+            for (Trade trade : position.trades()) {
+                double amount = trade.units() > 0 ? -(trade.units() * trade.price() + trade.fees()) : -trade.units() * trade.price() - trade.fees();
+                days.add(trade.day());
+                amounts.add(amount);
+            }
+            for (Income income : position.incomes()) {
+                days.add(income.day());
+                amounts.add(income.amount());
+            }
+            closingValue += Math.max(position.units(), 0) * position.lastPrice();
+        }
+        if (closingValue > 0) {
+            days.add(today);
+            amounts.add(closingValue);
+        }
+        long firstDay = days.stream().mapToLong(Long::longValue).min().orElse(today);
+        double[] years = new double[days.size()];
+        double[] amountArray = new double[amounts.size()];
+        for (int i = 0; i < years.length; i++) {
+            years[i] = (days.get(i) - firstDay) / DAYS_PER_YEAR;
+            amountArray[i] = amounts.get(i);
+        }
+        return new CashFlows(years, amountArray);
+    }
+
+    // Holdings are marked at the trade price on trade dates, otherwise at the latest stored close, otherwise at the latest trade price
+    private static double timeWeightedReturn(List<PositionInput> positions) {
+        TreeSet<Long> eventDays = new TreeSet<>();
+        positions.forEach(position -> {
+            position.trades().forEach(trade -> eventDays.add(trade.day()));
+            position.incomes().forEach(income -> eventDays.add(income.day()));
+        });
+        double[] valuesBeforeFlows = new double[eventDays.size()];
+        double[] valuesAfterFlows = new double[eventDays.size()];
+        double[] units = new double[positions.size()];
+        int[] nextTrade = new int[positions.size()];
+        int[] nextIncome = new int[positions.size()];
+        double[] lastTradePrices = new double[positions.size()];
+        int index = 0;
+        for (long day : eventDays) {
+            double before = 0;
+            double after = 0;
+            for (int p = 0; p < positions.size(); p++) {
+                PositionInput position = positions.get(p);
+                double tradePrice = Double.NaN;
+                double unitsAfter = units[p];
+                while (nextTrade[p] < position.trades().size() && position.trades().get(nextTrade[p]).day() == day) {
+                    Trade trade = position.trades().get(nextTrade[p]++);
+                    tradePrice = trade.price();
+                    unitsAfter += trade.units();
+                }
+                double price = !Double.isNaN(tradePrice) ? tradePrice : markPrice(position, day, lastTradePrices[p]);
+                while (nextIncome[p] < position.incomes().size() && position.incomes().get(nextIncome[p]).day() == day) {
+                    before += position.incomes().get(nextIncome[p]++).amount();
+                }
+                before += units[p] * price;
+                after += unitsAfter * price;
+                units[p] = unitsAfter;
+                if (!Double.isNaN(tradePrice)) {
+                    lastTradePrices[p] = tradePrice;
+                }
+            }
+            valuesBeforeFlows[index] = before;
+            valuesAfterFlows[index] = after;
+            index++;
+        }
+        double endValue = 0;
+        for (int p = 0; p < positions.size(); p++) {
+            endValue += units[p] * positions.get(p).lastPrice();
+        }
+        return TimeWeightedReturn.chainLink(valuesBeforeFlows, valuesAfterFlows, endValue);
+    }
+
+    private static double markPrice(PositionInput position, long day, double lastTradePrice) {
+        int index = Arrays.binarySearch(position.barDays(), day);
+        index = index >= 0 ? index : -index - 2;
+        return index >= 0 ? position.barCloses()[index] : lastTradePrice;
+    }
+
+    private static String format(double value) {
+        return Double.isFinite(value) ? BigDecimal.valueOf(value).setScale(10, RoundingMode.HALF_UP).stripTrailingZeros().toPlainString() : null;
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.investmentportfolio.service.impl;
+
+import com.example.investmentportfolio.analytics.RiskAccumulator;
+import com.example.investmentportfolio.cache.RateCache;
+import com.example.investmentportfolio.cache.ReferenceDataCache;
+import com.example.investmentportfolio.dto.PortfolioRiskDto;
+import com.example.investmentportfolio.model.PortfolioRisk;
+import com.example.investmentportfolio.model.Transaction;
+import com.example.investmentportfolio.model.User;
+import com.example.investmentportfolio.provider.PriceBar;
+import com.example.investmentportfolio.repository.PortfolioRiskRepository;
+import com.example.investmentportfolio.repository.TransactionRepository;
+import com.example.investmentportfolio.repository.UserRepository;
+import com.example.investmentportfolio.service.PriceHistoryService;
+import com.example.investmentportfolio.service.RiskService;
+import com.example.investmentportfolio.util.CustomError;
+import com.example.investmentportfolio.util.ErrorConstants;
+import com.example.investmentportfolio.util.NotFoundException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+public class RiskServiceImpl implements RiskService {
+    private static final Logger LOGGER = LogManager.getLogger(RiskServiceImpl.class);
+    public static final String NO_USER_FOUND_WITH_ID = "No user found with id: %d";
+    public static final String NO_RISK_FOUND_FOR_USER_ID = "No risk metrics have been computed for user id: %d";
+    private static final String BUY = "Buy";
+    // Closes are carried forward, so a few weeks before the start are read to price holdings on the first day
+    private static final int CARRY_FORWARD_DAYS = 30;
+    private final PortfolioRiskRepository portfolioRiskRepository;
+    private final TransactionRepository transactionRepository;
+    private final RateCache rateCache;
+    private final UserRepository userRepository;
+    private final PriceHistoryService priceHistoryService;
+    private final ReferenceDataCache referenceDataCache;
+    private final String benchmarkTicker;
+    private final String benchmarkExchange;
+    private final double varConfidence;
+
+    private record Trade(long day, double units) {
+    }
+
+    private record PriceSeries(long[] days, double[] closes) {
+        private static final PriceSeries EMPTY = new PriceSeries(new long[0], new double[0]);
+    }
+
+    public RiskServiceImpl(PortfolioRiskRepository portfolioRiskRepository, TransactionRepository transactionRepository, RateCache rateCache,
+                           UserRepository userRepository, PriceHistoryService priceHistoryService, ReferenceDataCache referenceDataCache,
+                           @Value("${risk.benchmark.ticker:ES3}") String benchmarkTicker,
+                           @Value("${risk.benchmark.exchange:SGX}") String benchmarkExchange,
+                           @Value("${risk.var-confidence:0.95}") double varConfidence) {
+        this.portfolioRiskRepository = portfolioRiskRepository;
+        this.transactionRepository = transactionRepository;
+        this.rateCache = rateCache;
+        this.userRepository = userRepository;
+        this.priceHistoryService = priceHistoryService;
+        this.referenceDataCache = referenceDataCache;
+        this.benchmarkTicker = benchmarkTicker;
+        this.benchmarkExchange = benchmarkExchange;
+        this.varConfidence = varConfidence;
+    }
+
+    @Override
+    public PortfolioRiskDto getRiskByUserId(Long userId) {
+        Optional<PortfolioRisk> optionalPortfolioRisk = portfolioRiskRepository.findById(userId);
+        if (optionalPortfolioRisk.isEmpty()) {
+            List<String> errorMessages = Collections.singletonList(String.format(NO_RISK_FOUND_FOR_USER_ID, userId));
+            LOGGER.error(errorMessages);
+            throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
+        }
+        PortfolioRisk portfolioRisk = optionalPortfolioRisk.get();
+        Long benchmarkStockId = portfolioRisk.getBenchmarkStockId();
+        return new PortfolioRiskDto(userId,
+                benchmarkStockId == null ? null : referenceDataCache.findStockTickerByStockId(benchmarkStockId).orElse(null),
+                benchmarkStockId == null ? null : referenceDataCache.findExchangeByStockId(benchmarkStockId).orElse(null),
+                String.valueOf(portfolioRisk.getLastReturnDate()), portfolioRisk.getObservations(), portfolioRisk.getVolatility(),
+                format(portfolioRisk.getMaxDrawdown()), portfolioRisk.getBeta(), portfolioRisk.getValueAtRisk(),
+                portfolioRisk.getValueAtRiskAmount(), String.valueOf(portfolioRisk.getComputedAt()));
+    }
+
+    // Continues from the stored accumulators unless a transaction on or before the last processed day, or the benchmark, has changed
+    @Override
+    @Transactional
+    public int updateRiskForUser(Long userId) {
+        Optional<User> optionalUser = userRepository.findById(userId);
+        if (optionalUser.isEmpty()) {
+            List<String> errorMessages = Collections.singletonList(String.format(NO_USER_FOUND_WITH_ID, userId));
+            LOGGER.error(errorMessages);
+            throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
+        }
+        String displayCurrency = optionalUser.get().getDisplayCurrency();
+        List<Transaction> transactions = transactionRepository.findByUserId(userId);
+        if (transactions.isEmpty()) {
+            return 0;
+        }
+        Long benchmarkStockId = referenceDataCache.findExchangeIdByName(benchmarkExchange)
+                .flatMap(exchangeId -> referenceDataCache.findStockIdByTickerAndExchangeId(benchmarkTicker, exchangeId))
+                .orElse(null);
+        PortfolioRisk state = portfolioRiskRepository.findById(userId).orElse(null);
+        if (state != null && (!Objects.equals(state.getBenchmarkStockId(), benchmarkStockId)
+                || !fingerprint(transactions, state.getLastReturnDate()).equals(state.getHoldingsFingerprint()))) {
+            LOGGER.info("Holdings or benchmark changed for user id {}, recomputing risk metrics from the first transaction.", userId);
+            state = null;
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate start = state != null ? state.getLastReturnDate() : transactions.stream()
+                .map(transaction -> LocalDate.parse(transaction.getTransactionDate()))
+                .min(Comparator.naturalOrder())
+                .orElse(today);
+        if (!start.isBefore(today)) {
+            return 0;
+        }
+        RiskAccumulator accumulator = state == null ? new RiskAccumulator(varConfidence) : new RiskAccumulator(varConfidence, state.getObservations(),
+                state.getMeanReturn(), state.getReturnM2(), state.getPairedObservations(), state.getPairedMeanReturn(), state.getBenchmarkMeanReturn(),
+                state.getBenchmarkM2(), state.getCoMoment(), state.getWealth(), state.getPeakWealth(), state.getMaxDrawdown(), state.getQuantileState());
+
+        Map<Long, List<Trade>> tradesByStockId = transactions.stream()
+                .collect(Collectors.groupingBy(Transaction::getStockId, TreeMap::new, Collectors.mapping(transaction -> new Trade(
+                        LocalDate.parse(transaction.getTransactionDate()).toEpochDay(),
+                        Objects.equals(transaction.getTransactionType().trim(), BUY) ? Double.parseDouble(transaction.getUnits()) : -Double.parseDouble(transaction.getUnits())),
+                        Collectors.toList())));
+        List<Long> stockIds = new ArrayList<>(tradesByStockId.keySet());
+        Map<String, BigDecimal> rates = new HashMap<>();
+        List<List<Trade>> trades = new ArrayList<>();
+        List<PriceSeries> prices = new ArrayList<>();
+        for (Long stockId : stockIds) {
+            List<Trade> stockTrades = new ArrayList<>(tradesByStockId.get(stockId));
+            stockTrades.sort(Comparator.comparingLong(Trade::day));
+            trades.add(stockTrades);
+            String baseCurrency = referenceDataCache.findBaseCurrencyByStockId(stockId).orElse(displayCurrency);
+            prices.add(priceSeries(stockId, start, today, rates.computeIfAbsent(baseCurrency + "/" + displayCurrency, rateCache::getRate).doubleValue()));
+        }
+        PriceSeries benchmark = benchmarkStockId == null ? PriceSeries.EMPTY : priceSeries(benchmarkStockId, start, today, 1);
+
+        long startDay = start.toEpochDay();
+        TreeSet<Long> calendar = new TreeSet<>();
+        prices.forEach(series -> Arrays.stream(series.days()).filter(day -> day > startDay).forEach(calendar::add));
+
+        int stocks = stockIds.size();
+        double[] units = new double[stocks];
+        int[] nextTrade = new int[stocks];
+        int[] nextPrice = new int[stocks];
+        double[] previousCloses = new double[stocks];
+        for (int s = 0; s < stocks; s++) {
+            units[s] = applyTrades(trades.get(s), nextTrade, s, startDay);
+            previousCloses[s] = closeOnOrBefore(prices.get(s), nextPrice, s, startDay);
+        }
+        int[] nextBenchmarkPrice = new int[1];
+        double previousBenchmarkClose = closeOnOrBefore(benchmark, nextBenchmarkPrice, 0, startDay);
+        double previousValue = value(units, previousCloses);
+        long lastDay = startDay;
+        int observations = 0;
+        for (long day : calendar) {
+            double[] closes = new double[stocks];
+            for (int s = 0; s < stocks; s++) {
+                closes[s] = closeOnOrBefore(prices.get(s), nextPrice, s, day);
+            }
+            double benchmarkClose = closeOnOrBefore(benchmark, nextBenchmarkPrice, 0, day);
+            double currentValue = value(units, closes);
+            if (previousValue > 0 && Double.isFinite(previousValue) && Double.isFinite(currentValue)) {
+                double benchmarkReturn = previousBenchmarkClose > 0 ? benchmarkClose / previousBenchmarkClose - 1 : Double.NaN;
+                accumulator.add(currentValue / previousValue - 1, benchmarkReturn);
+                observations++;
+            }
+            for (int s = 0; s < stocks; s++) {
+                units[s] += applyTrades(trades.get(s), nextTrade, s, day);
+            }
+            previousCloses = closes;
+            previousBenchmarkClose = benchmarkClose;
+            previousValue = value(units, previousCloses);
+            lastDay = day;
+        }
+
+        LocalDate lastReturnDate = LocalDate.ofEpochDay(lastDay);
+        PortfolioRisk portfolioRisk = new PortfolioRisk();
+        portfolioRisk.setUserId(userId);
+        portfolioRisk.setBenchmarkStockId(benchmarkStockId);
+        portfolioRisk.setLastReturnDate(lastReturnDate);
+        portfolioRisk.setHoldingsFingerprint(fingerprint(transactions, lastReturnDate));
+        portfolioRisk.setObservations(accumulator.getCount());
+        portfolioRisk.setMeanReturn(accumulator.getMean());
+        portfolioRisk.setReturnM2(accumulator.getM2());
+        portfolioRisk.setPairedObservations(accumulator.getPairedCount());
+        portfolioRisk.setPairedMeanReturn(accumulator.getPairedMean());
+        portfolioRisk.setBenchmarkMeanReturn(accumulator.getBenchmarkMean());
+        portfolioRisk.setBenchmarkM2(accumulator.getBenchmarkM2());
+        portfolioRisk.setCoMoment(accumulator.getCoMoment());
+        portfolioRisk.setWealth(accumulator.getWealth());
+        portfolioRisk.setPeakWealth(accumulator.getPeakWealth());
+        portfolioRisk.setMaxDrawdown(accumulator.getMaxDrawdown());
+        portfolioRisk.setQuantileState(accumulator.getQuantileState());
+        portfolioRisk.setVolatility(format(accumulator.getAnnualizedVolatility()));
+        portfolioRisk.setBeta(format(accumulator.getBeta()));
+        portfolioRisk.setValueAtRisk(format(accumulator.getValueAtRisk()));
+        portfolioRisk.setValueAtRiskAmount(format(accumulator.getValueAtRisk() * previousValue));
+        portfolioRisk.setComputedAt(LocalDateTime.now());
+        portfolioRiskRepository.save(portfolioRisk);
+        LOGGER.info("Added {} daily return(s) for user id {} up to {}", observations, userId, lastReturnDate);
+        return observations;
+    }
+
+    private PriceSeries priceSeries(Long stockId, LocalDate start, LocalDate end, double rate) {
+        List<PriceBar> bars = priceHistoryService.findBars(stockId, start.minusDays(CARRY_FORWARD_DAYS), end);
+        return new PriceSeries(bars.stream().mapToLong(bar -> bar.date().toEpochDay()).toArray(),
+                bars.stream().mapToDouble(bar -> bar.close().doubleValue() * rate).toArray());
+    }
+
+    // Days only move forward, so each series keeps a cursor instead of searching from the start
+    private static double closeOnOrBefore(PriceSeries series, int[] cursors, int index, long day) {
+        while (cursors[index] < series.days().length && series.days()[cursors[index]] <= day) {
+            cursors[index]++;
+        }
+        return cursors[index] == 0 ? Double.NaN : series.closes()[cursors[index] - 1];
+    }
+
+    private static double applyTrades(List<Trade> trades, int[] cursors, int index, long day) {
+        double units = 0;
+        while (cursors[index] < trades.size() && trades.get(cursors[index]).day() <= day) {
+            units += trades.get(cursors[index]++).units();
+        }
+        return units;
+    }
+
+    // A held stock without a close yet makes the whole day's value unknown rather than understated
+    private static double value(double[] units, double[] closes) {
+        double value = 0;
+        for (int s = 0; s < units.length; s++) {
+            if (units[s] != 0) {
+                value += units[s] * closes[s];
+            }
+        }
+        return value;
+    }
+
+    private static String fingerprint(List<Transaction> transactions, LocalDate upTo) {
+        String joined = transactions.stream()
+                .filter(transaction -> !LocalDate.parse(transaction.getTransactionDate()).isAfter(upTo))
+                .sorted(Comparator.comparing(Transaction::getTransactionId))
+                .map(transaction -> String.join(":", String.valueOf(transaction.getTransactionId()), transaction.getTransactionDate(),
+                        transaction.getTransactionType().trim(), String.valueOf(transaction.getStockId()), transaction.getUnits()))
+                .collect(Collectors.joining("|"));
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(joined.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String format(Double value) {
+        return value != null && Double.isFinite(value) ? BigDecimal.valueOf(value).setScale(10, RoundingMode.HALF_UP).stripTrailingZeros().toPlainString() : null;
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.investmentportfolio.service.impl;
+
+import com.example.investmentportfolio.analytics.Cholesky;
+import com.example.investmentportfolio.analytics.MonteCarloSimulator;
+import com.example.investmentportfolio.cache.RateCache;
+import com.example.investmentportfolio.dto.PercentileValueDto;
+import com.example.investmentportfolio.dto.SimulationDto;
+import com.example.investmentportfolio.model.Statistic;
+import com.example.investmentportfolio.model.Stock;
+import com.example.investmentportfolio.model.User;
+import com.example.investmentportfolio.provider.PriceBar;
+import com.example.investmentportfolio.repository.StatisticRepository;
+import com.example.investmentportfolio.repository.StockRepository;
+import com.example.investmentportfolio.repository.UserRepository;
+import com.example.investmentportfolio.service.PriceHistoryService;
+import com.example.investmentportfolio.service.SimulationService;
+import com.example.investmentportfolio.util.CustomError;
+import com.example.investmentportfolio.util.ErrorConstants;
+import com.example.investmentportfolio.util.NotFoundException;
+import com.example.investmentportfolio.util.ValidationException;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+@Service
+public class SimulationServiceImpl implements SimulationService {
+    private static final Logger LOGGER = LogManager.getLogger(SimulationServiceImpl.class);
+    public static final String NO_USER_FOUND_WITH_ID = "No user found with id: %d";
+    public static final String NO_POSITIONS_FOUND_FOR_USER_ID = "No open positions found for user id: %d";
+    private static final double[] PERCENTILES = {5, 25, 50, 75, 95};
+    private static final int MIN_RETURNS = 20;
+    private static final double TRADING_DAYS_PER_YEAR = 252;
+    private final StatisticRepository statisticRepository;
+    private final StockRepository stockRepository;
+    private final RateCache rateCache;
+    private final UserRepository userRepository;
+    private final PriceHistoryService priceHistoryService;
+    private final ForkJoinPool simulationPool;
+    private final int defaultPaths;
+    private final int maxPaths;
+    private final int defaultHorizonDays;
+    private final int maxHorizonDays;
+    private final int lookbackDays;
+    private final double defaultVolatility;
+
+    private record Position(Long stockId, double value, Map<Long, Double> closesByDay, double drift, double volatility) {
+    }
+
+    public SimulationServiceImpl(StatisticRepository statisticRepository, StockRepository stockRepository, RateCache rateCache,
+                                 UserRepository userRepository, PriceHistoryService priceHistoryService,
+                                 @Value("${simulation.parallelism:0}") int parallelism,
+                                 @Value("${simulation.paths.default:20000}") int defaultPaths,
+                                 @Value("${simulation.paths.max:200000}") int maxPaths,
+                                 @Value("${simulation.horizon-days.default:252}") int defaultHorizonDays,
+                                 @Value("${simulation.horizon-days.max:2520}") int maxHorizonDays,
+                                 @Value("${simulation.lookback-days:365}") int lookbackDays,
+                                 @Value("${simulation.default-volatility:0.25}") double defaultVolatility) {
+        this.statisticRepository = statisticRepository;
+        this.stockRepository = stockRepository;
+        this.rateCache = rateCache;
+        this.userRepository = userRepository;
+        this.priceHistoryService = priceHistoryService;
+        this.simulationPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.defaultPaths = defaultPaths;
+        this.maxPaths = maxPaths;
+        this.defaultHorizonDays = defaultHorizonDays;
+        this.maxHorizonDays = maxHorizonDays;
+        this.lookbackDays = lookbackDays;
+        this.defaultVolatility = defaultVolatility;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        simulationPool.shutdownNow();
+    }
+
+    @Override
+    public SimulationDto simulatePortfolio(Long userId, Integer paths, Integer horizonDays, boolean correlated, Long seed) {
+        int resolvedPaths = paths == null ? defaultPaths : paths;
+        int resolvedHorizonDays = horizonDays == null ? defaultHorizonDays : horizonDays;
+        List<String> errorMessages = new ArrayList<>();
+        if (resolvedPaths < 1 || resolvedPaths > maxPaths) {
+            errorMessages.add(String.format("Paths must be between 1 and %d.", maxPaths));
+        }
+        if (resolvedHorizonDays < 1 || resolvedHorizonDays > maxHorizonDays) {
+            errorMessages.add(String.format("Horizon must be between 1 and %d trading days.", maxHorizonDays));
+        }
+        if (!errorMessages.isEmpty()) {
+            LOGGER.error(errorMessages);
+            throw new ValidationException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
+        }
+        Optional<User> optionalUser = userRepository.findById(userId);
+        if (optionalUser.isEmpty()) {
+            List<String> userErrorMessages = Collections.singletonList(String.format(NO_USER_FOUND_WITH_ID, userId));
+            LOGGER.error(userErrorMessages);
+            throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, userErrorMessages));
+        }
+        String displayCurrency = optionalUser.get().getDisplayCurrency();
+        List<Position> positions = loadPositions(userId, displayCurrency);
+        if (positions.isEmpty()) {
+            List<String> positionErrorMessages = Collections.singletonList(String.format(NO_POSITIONS_FOUND_FOR_USER_ID, userId));
+            LOGGER.error(positionErrorMessages);
+            throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, positionErrorMessages));
+        }
+
+        double[] values = positions.stream().mapToDouble(Position::value).toArray();
+        double[] drifts = positions.stream().mapToDouble(Position::drift).toArray();
+        double[] volatilities = positions.stream().mapToDouble(Position::volatility).toArray();
+        double[][] choleskyLower = correlated && positions.size() > 1 ? correlationFactor(positions) : null;
+        long resolvedSeed = seed == null ? System.nanoTime() : seed;
+
+        long start = System.nanoTime();
+        MonteCarloSimulator simulator = new MonteCarloSimulator(values, drifts, volatilities, choleskyLower, resolvedHorizonDays);
+        double[] finalValues = simulator.simulateFinalValues(resolvedPaths, resolvedSeed, simulationPool);
+        double[] bands = MonteCarloSimulator.percentiles(finalValues, PERCENTILES);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        LOGGER.info("Simulated {} path(s) over {} day(s) for user id {} in {} ms on {} thread(s)", resolvedPaths, resolvedHorizonDays, userId,
+                elapsedMillis, simulationPool.getParallelism());
+
+        List<PercentileValueDto> percentiles = new ArrayList<>();
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            percentiles.add(new PercentileValueDto(format(PERCENTILES[i]), format(bands[i])));
+        }
+        return new SimulationDto(userId, displayCurrency, resolvedPaths, resolvedHorizonDays, choleskyLower != null, resolvedSeed,
+                format(Arrays.stream(values).sum()), percentiles, elapsedMillis);
+    }
+
+    // Drift and volatility come from the stock's daily log returns over the lookback window, with a flat default when history is short
+    private List<Position> loadPositions(Long userId, String displayCurrency) {
+        LocalDate today = LocalDate.now();
+        Map<String, BigDecimal> rates = new HashMap<>();
+        List<Position> positions = new ArrayList<>();
+        for (Statistic statistic : statisticRepository.findByUserId(userId)) {
+            if (statistic.getTotalUnits() == null || new BigDecimal(statistic.getTotalUnits()).signum() <= 0) {
+                continue;
+            }
+            Optional<Stock> optionalStock = stockRepository.findById(statistic.getStockId());
+            if (optionalStock.isEmpty()) {
+                continue;
+            }
+            Stock stock = optionalStock.get();
+            List<PriceBar> bars = priceHistoryService.findBars(stock.getStockId(), today.minusDays(lookbackDays), today);
+            Double lastPrice = stock.getLastPrice() != null ? Double.valueOf(stock.getLastPrice())
+                    : bars.isEmpty() ? null : bars.get(bars.size() - 1).close().doubleValue();
+            if (lastPrice == null) {
+                LOGGER.warn("Skipping stock id {} for user id {} as it has no price.", stock.getStockId(), userId);
+                continue;
+            }
+            double rate = rates.computeIfAbsent(stock.getBaseCurrency() + "/" + displayCurrency, rateCache::getRate).doubleValue();
+            Map<Long, Double> closesByDay = new HashMap<>();
+            long count = 0;
+            double mean = 0;
+            double m2 = 0;
+            for (int i = 0; i < bars.size(); i++) {
+                closesByDay.put(bars.get(i).date().toEpochDay(), bars.get(i).close().doubleValue());
+                if (i > 0 && bars.get(i - 1).close().signum() > 0 && bars.get(i).close().signum() > 0) {
+                    double logReturn = Math.log(bars.get(i).close().doubleValue() / bars.get(i - 1).close().doubleValue());
+                    count++;
+                    double delta = logReturn - mean;
+                    mean += delta / count;
+                    m2 += delta * (logReturn - mean);
+                }
+            }
+            double volatility = defaultVolatility;
+            double drift = 0;
+            if (count >= MIN_RETURNS) {
+                volatility = Math.sqrt(m2 / (count - 1) * TRADING_DAYS_PER_YEAR);
+                drift = mean * TRADING_DAYS_PER_YEAR + 0.5 * volatility * volatility;
+            }
+            positions.add(new Position(stock.getStockId(), Double.parseDouble(statistic.getTotalUnits()) * lastPrice * rate, closesByDay, drift, volatility));
+        }
+        return positions;
+    }
+
+    // Correlations use log returns between consecutive days on which every position has a close
+    private static double[][] correlationFactor(List<Position> positions) {
+        int n = positions.size();
+        TreeSet<Long> commonDays = new TreeSet<>(positions.get(0).closesByDay().keySet());
+        positions.forEach(position -> commonDays.retainAll(position.closesByDay().keySet()));
+        double[][] correlation = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            correlation[i][i] = 1;
+        }
+        if (commonDays.size() <= MIN_RETURNS) {
+            LOGGER.warn("Only {} common price date(s) across {} position(s), simulating them independently.", commonDays.size(), n);
+            return null;
+        }
+        Long[] days = commonDays.toArray(Long[]::new);
+        double[][] returns = new double[n][days.length - 1];
+        for (int p = 0; p < n; p++) {
+            Map<Long, Double> closes = positions.get(p).closesByDay();
+            for (int d = 1; d < days.length; d++) {
+                returns[p][d - 1] = Math.log(closes.get(days[d]) / closes.get(days[d - 1]));
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < i; j++) {
+                double value = pearson(returns[i], returns[j]);
+                correlation[i][j] = value;
+                correlation[j][i] = value;
+            }
+        }
+        return Cholesky.decompose(correlation);
+    }
+
+    private static double pearson(double[] x, double[] y) {
+        double meanX = 0;
+        double meanY = 0;
+        double m2X = 0;
+        double m2Y = 0;
+        double coMoment = 0;
+        for (int k = 0; k < x.length; k++) {
+            double deltaX = x[k] - meanX;
+            double deltaY = y[k] - meanY;
+            meanX += deltaX / (k + 1);
+            meanY += deltaY / (k + 1);
+            m2X += deltaX * (x[k] - meanX);
+            m2Y += deltaY * (y[k] - meanY);
+            coMoment += deltaX * (y[k] - meanY);
+        }
+        return m2X == 0 || m2Y == 0 ? 0 : coMoment / Math.sqrt(m2X * m2Y);
+    }
+
+    private static String format(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).stripTrailingZeros().toPlainString();
+    }
+}
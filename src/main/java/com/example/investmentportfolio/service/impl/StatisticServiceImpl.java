@@ -1,5 +1,11 @@
 package com.example.investmentportfolio.service.impl;
 
+import com.example.investmentportfolio.cache.HoldingIndex;
+import com.example.investmentportfolio.cache.RateCache;
+import com.example.investmentportfolio.cache.ReferenceDataCache;
+import com.example.investmentportfolio.cache.StatisticCache;
+import com.example.investmentportfolio.dto.PortfolioStatisticsDto;
+import com.example.investmentportfolio.dto.PortfolioSummaryDto;
 import com.example.investmentportfolio.dto.StatisticDto;
 import com.example.investmentportfolio.mapper.StatisticMapper;
 import com.example.investmentportfolio.model.*;
@@ -18,34 +24,39 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class StatisticServiceImpl implements StatisticService {
     private static final Logger LOGGER = LogManager.getLogger(StatisticServiceImpl.class);
     public static final String STOCK_TICKER = "Stock Ticker: %s";
     public static final String INVALID_STOCK = "Invalid stock";
-    public static final String INVALID_RATE = "Invalid rate: %s";
     public static final String NO_USER_FOUND_WITH_ID = "No user found with id: %d";
     public static final String NO_STATISTIC_FOUND_WITH_ID = "No statistic found with id: %d";
     public static final String NO_STOCKS_FOUND_FOR_USER_WITH_ID = "No stocks found for user with id: %d";
     private final StatisticRepository statisticRepository;
     private final StockRepository stockRepository;
-    private final ExchangeRepository exchangeRepository;
     private final UserRepository userRepository;
     private final TransactionRepository transactionRepository;
     private final DividendRepository dividendRepository;
-    private final RateRepository rateRepository;
+        private final ReferenceDataCache referenceDataCache;
+    private final StatisticCache statisticCache;
+    private final RateCache rateCache;
+    private final HoldingIndex holdingIndex;
     private final StatisticMapper statisticMapper;
     private final Validator validator;
 
-    public StatisticServiceImpl(StatisticRepository statisticRepository, StockRepository stockRepository, ExchangeRepository exchangeRepository, UserRepository userRepository, TransactionRepository transactionRepository, DividendRepository dividendRepository, RateRepository rateRepository, StatisticMapper statisticMapper) {
+    public StatisticServiceImpl(StatisticRepository statisticRepository, StockRepository stockRepository, UserRepository userRepository, TransactionRepository transactionRepository, DividendRepository dividendRepository, ReferenceDataCache referenceDataCache, StatisticCache statisticCache, RateCache rateCache, HoldingIndex holdingIndex, StatisticMapper statisticMapper) {
         this.statisticRepository = statisticRepository;
         this.stockRepository = stockRepository;
-        this.exchangeRepository = exchangeRepository;
         this.userRepository = userRepository;
         this.transactionRepository = transactionRepository;
         this.dividendRepository = dividendRepository;
-        this.rateRepository = rateRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.statisticCache = statisticCache;
+        this.rateCache = rateCache;
+        this.holdingIndex = holdingIndex;
         this.statisticMapper = statisticMapper;
         validator = Validation.buildDefaultValidatorFactory().getValidator();
     }
@@ -61,7 +72,7 @@ public class StatisticServiceImpl implements StatisticService {
             throw new ValidationException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
         } else {
             Statistic statistic = statisticMapper.convertToEntity(statisticDto);
-            Optional<Long> optionalUserId = userRepository.findIdByUsername(statisticDto.getUsername().toUpperCase());
+            Optional<Long> optionalUserId = referenceDataCache.findUserIdByUsername(statisticDto.getUsername());
             if (optionalUserId.isPresent()) {
                 statistic.setUserId(optionalUserId.get());
             } else {
@@ -69,13 +80,13 @@ public class StatisticServiceImpl implements StatisticService {
                 LOGGER.error(errorMessages);
                 throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
             }
-            Optional<Long> optionalExchangeId = exchangeRepository.findIdByExchange(statisticDto.getExchange().toUpperCase());
+            Optional<Long> optionalExchangeId = referenceDataCache.findExchangeIdByName(statisticDto.getExchange());
             if (optionalExchangeId.isEmpty()) {
                 List<String> errorMessages = Collections.singletonList(String.format("No exchange found with name: %s", statisticDto.getExchange()));
                 LOGGER.error(errorMessages);
                 throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
             }
-            Optional<Long> optionalStockId = stockRepository.findIdByTickerAndExchangeId(statisticDto.getStockTicker().toUpperCase(), optionalExchangeId.get());
+            Optional<Long> optionalStockId = referenceDataCache.findStockIdByTickerAndExchangeId(statisticDto.getStockTicker(), optionalExchangeId.get());
             if (optionalStockId.isPresent()) {
                 statistic.setStockId(optionalStockId.get());
             } else {
@@ -89,6 +100,7 @@ public class StatisticServiceImpl implements StatisticService {
                 throw new AlreadyExistsException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
             } else {
                 statisticRepository.save(statistic);
+                statisticCache.invalidateUser(statistic.getUserId());
                 return statisticMapper.convertToDto(statistic);
             }
         }
@@ -100,11 +112,11 @@ public class StatisticServiceImpl implements StatisticService {
         if (!statistics.isEmpty()) {
             return statistics.stream()
                     .map(statistic -> {
-                        Optional<User> optionalUser = userRepository.findById(statistic.getUserId());
-                        optionalUser.ifPresent(user -> statistic.setUsername(String.valueOf(user.getUsername())));
-                        Optional<Stock> optionalStock = stockRepository.findById(statistic.getStockId());
-                        optionalStock.ifPresent(stock -> statistic.setStockTicker(stock.getStockTicker()));
-                        Optional<String> optionalExchange = stockRepository.findExchangeByStockId(statistic.getStockId());
+                        Optional<String> optionalUsername = referenceDataCache.findUsernameByUserId(statistic.getUserId());
+                        optionalUsername.ifPresent(statistic::setUsername);
+                        Optional<String> optionalStockTicker = referenceDataCache.findStockTickerByStockId(statistic.getStockId());
+                        optionalStockTicker.ifPresent(statistic::setStockTicker);
+                        Optional<String> optionalExchange = referenceDataCache.findExchangeByStockId(statistic.getStockId());
                         optionalExchange.ifPresent(statistic::setExchange);
                         return statisticMapper.convertToDto(statistic);
                     })
@@ -121,11 +133,11 @@ public class StatisticServiceImpl implements StatisticService {
         Optional<Statistic> optionalStatistic = statisticRepository.findById(statisticId);
         if (optionalStatistic.isPresent()) {
             Statistic statistic = optionalStatistic.get();
-            Optional<User> optionalUser = userRepository.findById(statistic.getUserId());
-            optionalUser.ifPresent(user -> statistic.setUsername(String.valueOf(user.getUsername())));
-            Optional<Stock> optionalStock = stockRepository.findById(statistic.getStockId());
-            optionalStock.ifPresent(stock -> statistic.setStockTicker(stock.getStockTicker()));
-            Optional<String> optionalExchange = stockRepository.findExchangeByStockId(statistic.getStockId());
+            Optional<String> optionalUsername = referenceDataCache.findUsernameByUserId(statistic.getUserId());
+            optionalUsername.ifPresent(statistic::setUsername);
+            Optional<String> optionalStockTicker = referenceDataCache.findStockTickerByStockId(statistic.getStockId());
+            optionalStockTicker.ifPresent(statistic::setStockTicker);
+            Optional<String> optionalExchange = referenceDataCache.findExchangeByStockId(statistic.getStockId());
             optionalExchange.ifPresent(statistic::setExchange);
             return statisticMapper.convertToDto(statistic);
         } else {
@@ -137,32 +149,99 @@ public class StatisticServiceImpl implements StatisticService {
 
     @Override
     public List<StatisticDto> getStatisticsByUserId(Long userId) {
+        return getPortfolioStatistics(userId, null).getStatistics();
+    }
+
+    // The cached figures stay in native currency, so any requested currency is a projection at current rates rather than a recomputation
+    @Override
+    public PortfolioStatisticsDto getPortfolioStatistics(Long userId, String currency) {
+        if (currency != null && !currency.matches("^[a-zA-Z]{3}$")) {
+            List<String> errorMessages = Collections.singletonList("Currency should contain exactly 3 letters.");
+            LOGGER.error(errorMessages);
+            throw new ValidationException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
+        }
+        StatisticCache.CachedStatistics cached = statisticCache.get(userId, this::loadPortfolioStatistics);
+        StatisticCache.LoadedStatistics loaded = cached.loaded();
+        String targetCurrency = currency == null ? loaded.displayCurrency() : currency.toUpperCase();
+        Map<String, BigDecimal> rates = new HashMap<>();
+        List<StatisticDto> statisticDtos = new ArrayList<>(loaded.statistics().size());
+        for (int i = 0; i < loaded.statistics().size(); i++) {
+            BigDecimal rate = rates.computeIfAbsent(loaded.currencies().get(i), baseCurrency -> rateCache.getRate(baseCurrency, targetCurrency));
+            statisticDtos.add(convert(loaded.statistics().get(i), rate));
+        }
+        PortfolioSummaryDto summary = new PortfolioSummaryDto(userId, targetCurrency, statisticDtos.size(),
+                sum(statisticDtos, StatisticDto::getTotalCost), sum(statisticDtos, StatisticDto::getTotalValue),
+                sum(statisticDtos, StatisticDto::getRealizedProfits), sum(statisticDtos, StatisticDto::getUnrealizedProfits),
+                sum(statisticDtos, StatisticDto::getDividendsEarned), sum(statisticDtos, StatisticDto::getTotalProfits));
+        return new PortfolioStatisticsDto(cached.version(), statisticDtos, summary);
+    }
+
+    private StatisticCache.LoadedStatistics loadPortfolioStatistics(Long userId) {
         List<Statistic> statistics = statisticRepository.findByUserId(userId);
-        if (!statistics.isEmpty()) {
-            return statistics.stream()
-                    .map(statistic -> {
-                        Optional<User> optionalUser = userRepository.findById(statistic.getUserId());
-                        optionalUser.ifPresent(user -> statistic.setUsername(String.valueOf(user.getUsername())));
-                        Optional<Stock> optionalStock = stockRepository.findById(statistic.getStockId());
-                        optionalStock.ifPresent(stock -> statistic.setStockTicker(stock.getStockTicker()));
-                        Optional<String> optionalExchange = stockRepository.findExchangeByStockId(statistic.getStockId());
-                        optionalExchange.ifPresent(statistic::setExchange);
-                        return statisticMapper.convertToDto(statistic);
-                    })
-                    .toList();
-        } else {
+        if (statistics.isEmpty()) {
             List<String> errorMessages = Collections.singletonList(String.format("No statistics found for user id: %d", userId));
             LOGGER.error(errorMessages);
             throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
         }
+        Optional<User> optionalUser = userRepository.findById(userId);
+        if (optionalUser.isEmpty()) {
+            List<String> errorMessages = Collections.singletonList(String.format(NO_USER_FOUND_WITH_ID, userId));
+            LOGGER.error(errorMessages);
+            throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
+        }
+        String displayCurrency = optionalUser.get().getDisplayCurrency();
+        List<StatisticDto> statisticDtos = statistics.stream()
+                .map(statistic -> {
+                    Optional<String> optionalUsername = referenceDataCache.findUsernameByUserId(statistic.getUserId());
+                    optionalUsername.ifPresent(statistic::setUsername);
+                    Optional<String> optionalStockTicker = referenceDataCache.findStockTickerByStockId(statistic.getStockId());
+                    optionalStockTicker.ifPresent(statistic::setStockTicker);
+                    Optional<String> optionalExchange = referenceDataCache.findExchangeByStockId(statistic.getStockId());
+                    optionalExchange.ifPresent(statistic::setExchange);
+                    return statisticMapper.convertToDto(statistic);
+                })
+                .toList();
+        List<String> currencies = statistics.stream()
+                .map(statistic -> referenceDataCache.findBaseCurrencyByStockId(statistic.getStockId())
+                        .orElse(displayCurrency)
+                        .toUpperCase())
+                .toList();
+        Set<Long> stockIds = statistics.stream()
+                .map(Statistic::getStockId)
+                .collect(Collectors.toSet());
+        return new StatisticCache.LoadedStatistics(statisticDtos, currencies, stockIds, displayCurrency.toUpperCase());
+    }
+
+    private static StatisticDto convert(StatisticDto statisticDto, BigDecimal rate) {
+        if (rate.compareTo(BigDecimal.ONE) == 0) {
+            return statisticDto;
+        }
+        return new StatisticDto(statisticDto.getUsername(), statisticDto.getStockTicker(), statisticDto.getExchange(), statisticDto.getTotalUnits(),
+                convert(statisticDto.getTotalCost(), rate), convert(statisticDto.getTotalValue(), rate),
+                convert(statisticDto.getRealizedProfits(), rate), convert(statisticDto.getUnrealizedProfits(), rate),
+                convert(statisticDto.getDividendsEarned(), rate), convert(statisticDto.getTotalProfits(), rate),
+                statisticDto.getTimeWeightedReturn(), statisticDto.getMoneyWeightedReturn());
+    }
+
+    private static String convert(String amount, BigDecimal rate) {
+        return amount == null ? null : String.valueOf(new BigDecimal(amount).multiply(rate));
+    }
+
+    private static String sum(List<StatisticDto> statisticDtos, Function<StatisticDto, String> field) {
+        return String.valueOf(statisticDtos.stream()
+                .map(field)
+                .filter(Objects::nonNull)
+                .map(BigDecimal::new)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
     }
 
     @Override
     public StatisticDto updateStatisticById(Long statisticId, StatisticDto statisticDto) {
         Optional<Statistic> optionalStatistic = statisticRepository.findById(statisticId);
         if (optionalStatistic.isPresent()) {
+            Long previousUserId = optionalStatistic.get().getUserId();
             Statistic updatedStatistic = statisticMapper.updateEntityWithDto(statisticDto, optionalStatistic.get());
-            Optional<Long> optionalUserId = userRepository.findIdByUsername(statisticDto.getUsername().toUpperCase());
+            Optional<Long> optionalUserId = referenceDataCache.findUserIdByUsername(statisticDto.getUsername());
             if (optionalUserId.isPresent()) {
                 updatedStatistic.setUserId(optionalUserId.get());
             } else {
@@ -170,13 +249,13 @@ public class StatisticServiceImpl implements StatisticService {
                 LOGGER.error(errorMessages);
                 throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
             }
-            Optional<Long> optionalExchangeId = exchangeRepository.findIdByExchange(statisticDto.getExchange().toUpperCase());
+            Optional<Long> optionalExchangeId = referenceDataCache.findExchangeIdByName(statisticDto.getExchange());
             if (optionalExchangeId.isEmpty()) {
                 List<String> errorMessages = Collections.singletonList(String.format("No exchange found with name: %s", statisticDto.getExchange()));
                 LOGGER.error(errorMessages);
                 throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
             }
-            Optional<Long> optionalStockId = stockRepository.findIdByTickerAndExchangeId(statisticDto.getStockTicker().toUpperCase(), optionalExchangeId.get());
+            Optional<Long> optionalStockId = referenceDataCache.findStockIdByTickerAndExchangeId(statisticDto.getStockTicker(), optionalExchangeId.get());
             if (optionalStockId.isPresent()) {
                 updatedStatistic.setStockId(optionalStockId.get());
             } else {
@@ -185,6 +264,8 @@ public class StatisticServiceImpl implements StatisticService {
                 throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
             }
             statisticRepository.save(updatedStatistic);
+            statisticCache.invalidateUser(previousUserId);
+            statisticCache.invalidateUser(updatedStatistic.getUserId());
             return statisticMapper.convertToDto(updatedStatistic);
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_STATISTIC_FOUND_WITH_ID, statisticId));
@@ -199,6 +280,7 @@ public class StatisticServiceImpl implements StatisticService {
         List<Statistic> statistics = statisticRepository.findAll();
         if (!statistics.isEmpty()) {
             statisticRepository.deleteAll();
+            statisticCache.invalidateAll();
         } else {
             List<String> errorMessages = Collections.singletonList("No statistic(s) found.");
             LOGGER.error(errorMessages);
@@ -212,6 +294,7 @@ public class StatisticServiceImpl implements StatisticService {
         Optional<Statistic> optionalStatistic = statisticRepository.findById(statisticId);
         if (optionalStatistic.isPresent()) {
             statisticRepository.deleteById(statisticId);
+            statisticCache.invalidateUser(optionalStatistic.get().getUserId());
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_STATISTIC_FOUND_WITH_ID, statisticId));
             LOGGER.error(errorMessages);
@@ -225,6 +308,7 @@ public class StatisticServiceImpl implements StatisticService {
         List<Statistic> statistics = statisticRepository.findByUserId(userId);
         if (!statistics.isEmpty()) {
             statisticRepository.deleteByUserId(userId);
+            statisticCache.invalidateUser(userId);
         } else {
             List<String> errorMessages = Collections.singletonList(String.format("No statistics found for user id: %d", userId));
             LOGGER.error(errorMessages);
@@ -235,7 +319,7 @@ public class StatisticServiceImpl implements StatisticService {
     @Override
     public BigDecimal calculateTotalUnitsOwnedOnGivenDate(Long userId, Long stockId, String date) {
         List<Transaction> transactions = transactionRepository.findByUserIdAndStockIdAndDate(userId, stockId, date);
-        String stockTicker = stockRepository.findStockTickerByStockId(stockId);
+        String stockTicker = referenceDataCache.findStockTickerByStockId(stockId).orElse(null);
         BigDecimal totalUnits = transactions.stream()
                 .map(transaction -> {
                     BigDecimal units = new BigDecimal(transaction.getUnits());
@@ -282,35 +366,22 @@ public class StatisticServiceImpl implements StatisticService {
     @Override
     public BigDecimal calculateTotalCostByStock(Long userId, Long stockId) {
         BigDecimal totalCost = BigDecimal.ZERO;
-        String displayCurrency;
+        String baseCurrency;
         String currency;
-        Optional<Stock> stock = stockRepository.findById(stockId);
-        Optional<User> optionalUser = userRepository.findById(userId);
-        if (optionalUser.isPresent()) {
-            displayCurrency = optionalUser.get().getDisplayCurrency();
-        } else {
+        Optional<Stock> stock = referenceDataCache.findStockById(stockId);
+        if (userRepository.findById(userId).isEmpty()) {
             List<String> errorMessages = Collections.singletonList(String.format(NO_USER_FOUND_WITH_ID, userId));
             LOGGER.error(errorMessages);
             throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
         }
         if (stock.isPresent()) {
             LOGGER.info("Stock Ticker: {}", stock.get().getStockTicker());
+            baseCurrency = stock.get().getBaseCurrency();
             List<Transaction> transactions = transactionRepository.getBuyTransactionsByStock(userId, stockId);
             if (!transactions.isEmpty()) {
                 for (Transaction transaction : transactions) {
                     currency = transaction.getCurrency();
-                    BigDecimal rate = BigDecimal.ONE;
-                    if (!currency.equals(displayCurrency)) {
-                        String rateName = currency + "/" + displayCurrency;
-                        Optional<Rate> optionalRate = rateRepository.findByRateNameIgnoreCase(rateName);
-                        if (optionalRate.isPresent()) {
-                            rate = new BigDecimal(optionalRate.get().getRate());
-                        } else {
-                            List<String> errorMessages = Collections.singletonList(String.format(INVALID_RATE, rateName));
-                            LOGGER.error(errorMessages);
-                            throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
-                        }
-                    }
+                    BigDecimal rate = rateCache.getRate(currency, baseCurrency);
                     BigDecimal unitPrice = new BigDecimal(transaction.getUnitPrice());
                     BigDecimal units = new BigDecimal(transaction.getUnits());
                     BigDecimal fees = new BigDecimal(transaction.getFees());
@@ -321,7 +392,7 @@ public class StatisticServiceImpl implements StatisticService {
                 LOGGER.error(errorMessages);
                 throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
             }
-            LOGGER.info("Cost: {} ${}", displayCurrency, totalCost.stripTrailingZeros());
+            LOGGER.info("Cost: {} ${}", baseCurrency, totalCost.stripTrailingZeros());
             LOGGER.info("");
             return totalCost;
         } else {
@@ -371,9 +442,7 @@ public class StatisticServiceImpl implements StatisticService {
                 List<String> errorMessages = Collections.singletonList(String.format(NO_STOCKS_FOUND_FOR_USER_WITH_ID, userId));
                 LOGGER.info(errorMessages);
             }
-            totalCost = stockIds.stream()
-                    .map(stockId -> statisticRepository.getCost(userId, stockId))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            totalCost = sumInCurrency(stockIds, stockId -> statisticRepository.getCost(userId, stockId), displayCurrency);
             LOGGER.info("Total Cost: {} ${}", displayCurrency, totalCost.stripTrailingZeros());
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_USER_FOUND_WITH_ID, userId));
@@ -384,7 +453,7 @@ public class StatisticServiceImpl implements StatisticService {
 
     @Override
     public BigDecimal calculateTotalValueByStock(Long userId, Long stockId) {
-        Optional<Stock> stock = stockRepository.findById(stockId);
+        Optional<Stock> stock = referenceDataCache.findStockById(stockId);
         if (stock.isPresent()) {
             LOGGER.info(String.format(STOCK_TICKER, stock.get().getStockTicker()));
             BigDecimal stockUnits = statisticRepository.getStockUnits(userId, stockId);
@@ -420,27 +489,14 @@ public class StatisticServiceImpl implements StatisticService {
                         if (optionalStock.isPresent()) {
                             Stock stock = optionalStock.get();
                             Long stockId = stock.getStockId();
-                            String baseCurrency = stockRepository.findBaseCurrencyByStockId(stockId);
                             BigDecimal totalStockValue = calculateTotalValueByStock(userId, stockId);
-                            BigDecimal rate = BigDecimal.ONE;
-                            if (!baseCurrency.equals(displayCurrency)) {
-                                String rateName = baseCurrency + "/" + displayCurrency;
-                                Optional<Rate> optionalRate = rateRepository.findByRateNameIgnoreCase(rateName);
-                                if (optionalRate.isPresent()) {
-                                    rate = new BigDecimal(optionalRate.get().getRate());
-                                } else {
-                                    List<String> errorMessages = Collections.singletonList(String.format(INVALID_RATE, rateName));
-                                    LOGGER.error(errorMessages);
-                                    throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
-                                }
-                            }
                             if (statisticRepository.existsByUserIdAndStockId(userId, stockId)) {
-                                statisticRepository.updateValue(totalStockValue.multiply(rate), userId, stockId);
+                                statisticRepository.updateValue(totalStockValue, userId, stockId);
                             } else {
                                 Statistic statistic = new Statistic();
                                 statistic.setUserId(userId);
                                 statistic.setStockId(stockId);
-                                statistic.setTotalValue(String.valueOf(totalStockValue.multiply(rate)));
+                                statistic.setTotalValue(String.valueOf(totalStockValue));
                                 statisticRepository.save(statistic);
                             }
                         } else {
@@ -454,9 +510,7 @@ public class StatisticServiceImpl implements StatisticService {
                 List<String> errorMessages = Collections.singletonList(String.format(NO_STOCKS_FOUND_FOR_USER_WITH_ID, userId));
                 LOGGER.info(errorMessages);
             }
-            totalValue = stockIds.stream()
-                    .map(stockId -> statisticRepository.getValue(userId, stockId))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            totalValue = sumInCurrency(stockIds, stockId -> statisticRepository.getValue(userId, stockId), displayCurrency);
             LOGGER.info("Total Value: {} ${}", displayCurrency, totalValue.stripTrailingZeros());
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_USER_FOUND_WITH_ID, userId));
@@ -467,40 +521,28 @@ public class StatisticServiceImpl implements StatisticService {
 
     @Override
     public BigDecimal calculateRealizedProfitsByStock(Long userId, Long stockId) {
-        Optional<Stock> stock = stockRepository.findById(stockId);
+        Optional<Stock> stock = referenceDataCache.findStockById(stockId);
         Optional<User> optionalUser = userRepository.findById(userId);
         BigDecimal totalStockRealizedProfits = BigDecimal.ZERO;
-        String displayCurrency;
-        if (optionalUser.isPresent()) {
-            displayCurrency = optionalUser.get().getDisplayCurrency();
-        } else {
+        String baseCurrency;
+        if (optionalUser.isEmpty()) {
             List<String> errorMessages = Collections.singletonList(String.format(NO_USER_FOUND_WITH_ID, userId));
             LOGGER.error(errorMessages);
             throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
         }
         if (stock.isPresent()) {
             LOGGER.info(String.format(STOCK_TICKER, stock.get().getStockTicker()));
+            baseCurrency = stock.get().getBaseCurrency();
             List<Transaction> sellTransactions = transactionRepository.getSellTransactionsByStock(userId, stockId);
             if (sellTransactions.isEmpty()) {
-                LOGGER.info("Realized Profits: {} ${}", displayCurrency, BigDecimal.ZERO);
+                LOGGER.info("Realized Profits: {} ${}", baseCurrency, BigDecimal.ZERO);
                 LOGGER.info("");
                 return BigDecimal.ZERO;
             } else {
                 for (Transaction sellTransaction : sellTransactions) {
                     String sellTransactionDate = sellTransaction.getTransactionDate();
                     String sellTransactionCurrency = sellTransaction.getCurrency();
-                    BigDecimal rate = BigDecimal.ONE;
-                    if (!sellTransactionCurrency.equals(displayCurrency)) {
-                        String rateName = sellTransactionCurrency + "/" + displayCurrency;
-                        Optional<Rate> optionalRate = rateRepository.findByRateNameIgnoreCase(rateName);
-                        if (optionalRate.isPresent()) {
-                            rate = new BigDecimal(optionalRate.get().getRate());
-                        } else {
-                            List<String> errorMessages = Collections.singletonList(String.format(INVALID_RATE, rateName));
-                            LOGGER.error(errorMessages);
-                            throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
-                        }
-                    }
+                    BigDecimal rate = rateCache.getRate(sellTransactionCurrency, baseCurrency);
                     BigDecimal unitsSold = new BigDecimal(sellTransaction.getUnits());
                     BigDecimal unitSellingPrice = new BigDecimal(sellTransaction.getUnitPrice()).multiply(rate);
                     BigDecimal sellingFees = new BigDecimal(sellTransaction.getFees()).multiply(rate);
@@ -515,20 +557,10 @@ public class StatisticServiceImpl implements StatisticService {
                         for (Transaction buyTransaction : buyTransactions) {
                             totalUnitsBought = totalUnitsBought.add(new BigDecimal(buyTransaction.getUnits()));
                             String buyTransactionCurrency = buyTransaction.getCurrency();
-                            if (!buyTransactionCurrency.equals(displayCurrency)) {
-                                String rateName = sellTransactionCurrency + "/" + displayCurrency;
-                                Optional<Rate> optionalRate = rateRepository.findByRateNameIgnoreCase(rateName);
-                                if (optionalRate.isPresent()) {
-                                    rate = new BigDecimal(optionalRate.get().getRate());
-                                } else {
-                                    List<String> errorMessages = Collections.singletonList(String.format(INVALID_RATE, rateName));
-                                    LOGGER.error(errorMessages);
-                                    throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
-                                }
-                            }
+                            BigDecimal buyRate = rateCache.getRate(buyTransactionCurrency, baseCurrency);
                             BigDecimal unitsBought = new BigDecimal(buyTransaction.getUnits());
-                            BigDecimal unitBuyingPrice = new BigDecimal(buyTransaction.getUnitPrice()).multiply(rate);
-                            BigDecimal buyingFees = new BigDecimal(buyTransaction.getFees()).multiply(rate);
+                            BigDecimal unitBuyingPrice = new BigDecimal(buyTransaction.getUnitPrice()).multiply(buyRate);
+                            BigDecimal buyingFees = new BigDecimal(buyTransaction.getFees()).multiply(buyRate);
                             totalBuyingCost = totalBuyingCost.add(unitsBought.multiply(unitBuyingPrice)).add(buyingFees);
                         }
                         BigDecimal averageBuyingPrice = totalUnitsBought.compareTo(BigDecimal.ZERO) == 0 ? BigDecimal.ZERO : totalBuyingCost.divide(totalUnitsBought, 15, RoundingMode.HALF_UP);
@@ -538,7 +570,7 @@ public class StatisticServiceImpl implements StatisticService {
                     }
                 }
             }
-            LOGGER.info("Realized Profits: {} ${}", displayCurrency, totalStockRealizedProfits.stripTrailingZeros());
+            LOGGER.info("Realized Profits: {} ${}", baseCurrency, totalStockRealizedProfits.stripTrailingZeros());
             LOGGER.info("");
             return totalStockRealizedProfits;
         } else {
@@ -588,9 +620,7 @@ public class StatisticServiceImpl implements StatisticService {
                 List<String> errorMessages = Collections.singletonList(String.format(NO_STOCKS_FOUND_FOR_USER_WITH_ID, userId));
                 LOGGER.info(errorMessages);
             }
-            totalRealizedProfits = stockIds.stream()
-                    .map(stockId -> statisticRepository.getRealizedProfits(userId, stockId))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            totalRealizedProfits = sumInCurrency(stockIds, stockId -> statisticRepository.getRealizedProfits(userId, stockId), displayCurrency);
             LOGGER.info("Total Realized Profits: {} ${}", displayCurrency, totalRealizedProfits.stripTrailingZeros());
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_USER_FOUND_WITH_ID, userId));
@@ -601,12 +631,8 @@ public class StatisticServiceImpl implements StatisticService {
 
     @Override
     public BigDecimal calculateUnrealizedProfitsByStock(Long userId, Long stockId) {
-        Optional<Stock> stock = stockRepository.findById(stockId);
-        Optional<User> optionalUser = userRepository.findById(userId);
-        String displayCurrency;
-        if (optionalUser.isPresent()) {
-            displayCurrency = optionalUser.get().getDisplayCurrency();
-        } else {
+        Optional<Stock> stock = referenceDataCache.findStockById(stockId);
+        if (userRepository.findById(userId).isEmpty()) {
             List<String> errorMessages = Collections.singletonList(String.format(NO_USER_FOUND_WITH_ID, userId));
             LOGGER.error(errorMessages);
             throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
@@ -614,24 +640,12 @@ public class StatisticServiceImpl implements StatisticService {
         if (stock.isPresent()) {
             LOGGER.info(String.format(STOCK_TICKER, stock.get().getStockTicker()));
             String baseCurrency = stock.get().getBaseCurrency();
-            BigDecimal rate = BigDecimal.ONE;
-            if (!baseCurrency.equals(displayCurrency)) {
-                String rateName = baseCurrency + "/" + displayCurrency;
-                Optional<Rate> optionalRate = rateRepository.findByRateNameIgnoreCase(rateName);
-                if (optionalRate.isPresent()) {
-                    rate = new BigDecimal(optionalRate.get().getRate());
-                } else {
-                    List<String> errorMessages = Collections.singletonList(String.format(INVALID_RATE, rateName));
-                    LOGGER.error(errorMessages);
-                    throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
-                }
-            }
-            BigDecimal lastPrice = (stockRepository.findLastPriceByStockId(stockId)).multiply(rate);
+            BigDecimal lastPrice = stockRepository.findLastPriceByStockId(stockId);
             BigDecimal stockCost = statisticRepository.getCost(userId, stockId);
             BigDecimal units = statisticRepository.getStockUnits(userId, stockId);
             BigDecimal averageBuyingPrice = units.compareTo(BigDecimal.ZERO) == 0 ? BigDecimal.ZERO : stockCost.divide(units, 15, RoundingMode.HALF_UP);
             BigDecimal unrealizedProfits = (lastPrice.subtract(averageBuyingPrice)).multiply(units);
-            LOGGER.info("Unrealized Profits: {} ${}", displayCurrency, unrealizedProfits.stripTrailingZeros());
+            LOGGER.info("Unrealized Profits: {} ${}", baseCurrency, unrealizedProfits.stripTrailingZeros());
             LOGGER.info("");
             return unrealizedProfits;
         } else {
@@ -681,9 +695,7 @@ public class StatisticServiceImpl implements StatisticService {
                 List<String> errorMessages = Collections.singletonList(String.format(NO_STOCKS_FOUND_FOR_USER_WITH_ID, userId));
                 LOGGER.info(errorMessages);
             }
-            totalUnrealizedProfits = stockIds.stream()
-                    .map(stockId -> statisticRepository.getUnrealizedProfits(userId, stockId))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            totalUnrealizedProfits = sumInCurrency(stockIds, stockId -> statisticRepository.getUnrealizedProfits(userId, stockId), displayCurrency);
             LOGGER.info("Total Unrealized Profits: {} ${}", displayCurrency, totalUnrealizedProfits.stripTrailingZeros());
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_USER_FOUND_WITH_ID, userId));
@@ -694,7 +706,7 @@ public class StatisticServiceImpl implements StatisticService {
 
     @Override
     public BigDecimal calculateTotalDividendsEarnedByStock(Long userId, Long stockId) {
-        Optional<Stock> stock = stockRepository.findById(stockId);
+        Optional<Stock> stock = referenceDataCache.findStockById(stockId);
         if (stock.isPresent()) {
             LOGGER.info(String.format(STOCK_TICKER, stock.get().getStockTicker()));
             String earliestDate = transactionRepository.getEarliestTransactionDate(userId, stockId);
@@ -738,27 +750,14 @@ public class StatisticServiceImpl implements StatisticService {
                         if (optionalStock.isPresent()) {
                             Stock stock = optionalStock.get();
                             Long stockId = stock.getStockId();
-                            String baseCurrency = stockRepository.findBaseCurrencyByStockId(stockId);
                             BigDecimal dividendsEarned = calculateTotalDividendsEarnedByStock(userId, stockId);
-                            BigDecimal rate = BigDecimal.ONE;
-                            if (!baseCurrency.equals(displayCurrency)) {
-                                String rateName = baseCurrency + "/" + displayCurrency;
-                                Optional<Rate> optionalRate = rateRepository.findByRateNameIgnoreCase(rateName);
-                                if (optionalRate.isPresent()) {
-                                    rate = new BigDecimal(optionalRate.get().getRate());
-                                } else {
-                                    List<String> errorMessages = Collections.singletonList(String.format(INVALID_RATE, rateName));
-                                    LOGGER.error(errorMessages);
-                                    throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
-                                }
-                            }
                             if (statisticRepository.existsByUserIdAndStockId(userId, stockId)) {
-                                statisticRepository.updateDividends(dividendsEarned.multiply(rate), userId, stockId);
+                                statisticRepository.updateDividends(dividendsEarned, userId, stockId);
                             } else {
                                 Statistic statistic = new Statistic();
                                 statistic.setUserId(userId);
                                 statistic.setStockId(stockId);
-                                statistic.setDividendsEarned(String.valueOf(dividendsEarned.multiply(rate)));
+                                statistic.setDividendsEarned(String.valueOf(dividendsEarned));
                                 statisticRepository.save(statistic);
                             }
                         } else {
@@ -772,9 +771,7 @@ public class StatisticServiceImpl implements StatisticService {
                 List<String> errorMessages = Collections.singletonList(String.format(NO_STOCKS_FOUND_FOR_USER_WITH_ID, userId));
                 LOGGER.info(errorMessages);
             }
-            totalDividends = stockIds.stream()
-                    .map(stockId -> statisticRepository.getDividends(userId, stockId))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            totalDividends = sumInCurrency(stockIds, stockId -> statisticRepository.getDividends(userId, stockId), displayCurrency);
             LOGGER.info("Total Dividends Earned: {} ${}", displayCurrency, totalDividends.stripTrailingZeros());
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_USER_FOUND_WITH_ID, userId));
@@ -785,13 +782,9 @@ public class StatisticServiceImpl implements StatisticService {
 
     @Override
     public BigDecimal calculateTotalProfitsByStock(Long userId, Long stockId) {
-        Optional<Stock> stock = stockRepository.findById(stockId);
-        Optional<User> optionalUser = userRepository.findById(userId);
-        String displayCurrency;
+        Optional<Stock> stock = referenceDataCache.findStockById(stockId);
         BigDecimal totalProfits = BigDecimal.ZERO;
-        if (optionalUser.isPresent()) {
-            displayCurrency = optionalUser.get().getDisplayCurrency();
-        } else {
+        if (userRepository.findById(userId).isEmpty()) {
             List<String> errorMessages = Collections.singletonList(String.format(NO_USER_FOUND_WITH_ID, userId));
             LOGGER.error(errorMessages);
             throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
@@ -810,7 +803,7 @@ public class StatisticServiceImpl implements StatisticService {
                 LOGGER.error(errorMessages);
                 throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
             }
-            LOGGER.info("Total Profits: {} ${}", displayCurrency, totalProfits.stripTrailingZeros());
+            LOGGER.info("Total Profits: {} ${}", stock.get().getBaseCurrency(), totalProfits.stripTrailingZeros());
             LOGGER.info("");
             return totalProfits;
         } else {
@@ -860,9 +853,7 @@ public class StatisticServiceImpl implements StatisticService {
                 List<String> errorMessages = Collections.singletonList(String.format(NO_STOCKS_FOUND_FOR_USER_WITH_ID, userId));
                 LOGGER.info(errorMessages);
             }
-            overallProfits = stockIds.stream()
-                    .map(stockId -> statisticRepository.getTotalProfits(userId, stockId))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            overallProfits = sumInCurrency(stockIds, stockId -> statisticRepository.getTotalProfits(userId, stockId), displayCurrency);
             LOGGER.info("Total Profits: {} ${}", displayCurrency, overallProfits.stripTrailingZeros());
             LOGGER.info(Constants.ASTERISK);
         } else {
@@ -874,7 +865,7 @@ public class StatisticServiceImpl implements StatisticService {
 
     @Transactional
     @Override
-    public void updateStatisticsForUser(Long userId) {
+    public int updateStatisticsForUser(Long userId) {
         LOGGER.info("");
         LOGGER.info(Constants.ASTERISK);
         LOGGER.info(String.format("Statistics for user id: %d", userId));
@@ -885,6 +876,8 @@ public class StatisticServiceImpl implements StatisticService {
         calculateUnrealizedProfits(userId);
         calculateTotalDividendsEarned(userId);
         calculateTotalProfits(userId);
+        statisticCache.invalidateUser(userId);
+        return statisticRepository.countByUserId(userId);
     }
 
     @Transactional
@@ -898,8 +891,10 @@ public class StatisticServiceImpl implements StatisticService {
 
     @Transactional
     @Override
-    public void updateTotalProfitsForUser(Long userId) {
+    public int updateTotalProfitsForUser(Long userId) {
         calculateTotalProfits(userId);
+        statisticCache.invalidateUser(userId);
+        return statisticRepository.countByUserId(userId);
     }
 
     @Transactional
@@ -910,4 +905,88 @@ public class StatisticServiceImpl implements StatisticService {
             updateTotalProfitsForUser(userId);
         }
     }
-}
\ No newline at end of file
+
+    // Positions are held in the stock's base currency, so a price move only rescales value and unrealized profits
+    @Transactional
+    @Override
+    public int revaluePositionsForStocks(List<Long> stockIds) {
+        int totalRevaluedPositions = 0;
+        for (Long stockId : stockIds) {
+            if (holdingIndex.findHolders(stockId).isEmpty()) {
+                continue;
+            }
+            Optional<Stock> optionalStock = referenceDataCache.findStockById(stockId);
+            if (optionalStock.isEmpty()) {
+                List<String> errorMessages = Collections.singletonList(INVALID_STOCK);
+                LOGGER.error(errorMessages);
+                throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
+            }
+            Stock stock = optionalStock.get();
+            BigDecimal lastPrice = stockRepository.findLastPriceByStockId(stockId);
+            int revaluedPositions = 0;
+            for (Statistic statistic : statisticRepository.findByStockId(stockId)) {
+                if (statistic.getTotalUnits() == null || statistic.getTotalCost() == null) {
+                    continue;
+                }
+                BigDecimal units = new BigDecimal(statistic.getTotalUnits());
+                if (units.signum() == 0) {
+                    continue;
+                }
+                BigDecimal totalValue = units.multiply(lastPrice);
+                BigDecimal averageBuyingPrice = new BigDecimal(statistic.getTotalCost()).divide(units, 15, RoundingMode.HALF_UP);
+                BigDecimal unrealizedProfits = (lastPrice.subtract(averageBuyingPrice)).multiply(units);
+                BigDecimal realizedProfits = Optional.ofNullable(statistic.getRealizedProfits()).map(BigDecimal::new).orElse(BigDecimal.ZERO);
+                BigDecimal dividendsEarned = Optional.ofNullable(statistic.getDividendsEarned()).map(BigDecimal::new).orElse(BigDecimal.ZERO);
+                statistic.setTotalValue(String.valueOf(totalValue));
+                statistic.setUnrealizedProfits(String.valueOf(unrealizedProfits));
+                statistic.setTotalProfits(String.valueOf(realizedProfits.add(unrealizedProfits).add(dividendsEarned)));
+                statisticRepository.save(statistic);
+                revaluedPositions++;
+            }
+            LOGGER.info("Revalued {} position(s) for {}", revaluedPositions, stock.getStockTicker());
+            totalRevaluedPositions += revaluedPositions;
+        }
+        statisticCache.invalidateStocks(stockIds);
+        return totalRevaluedPositions;
+    }
+
+    @Transactional
+    @Override
+    public int recomputeDividendsForStock(Long stockId) {
+        Optional<Stock> optionalStock = referenceDataCache.findStockById(stockId);
+        if (optionalStock.isEmpty()) {
+            List<String> errorMessages = Collections.singletonList(INVALID_STOCK);
+            LOGGER.error(errorMessages);
+            throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
+        }
+        Stock stock = optionalStock.get();
+        int recomputedPositions = 0;
+        for (Long userId : holdingIndex.findPositionUserIds(stockId)) {
+            Optional<Statistic> optionalStatistic = statisticRepository.findByUserIdAndStockId(userId, stockId);
+            if (optionalStatistic.isEmpty()) {
+                continue;
+            }
+            Statistic statistic = optionalStatistic.get();
+            BigDecimal dividendsEarned = calculateTotalDividendsEarnedByStock(userId, stockId);
+            BigDecimal realizedProfits = Optional.ofNullable(statistic.getRealizedProfits()).map(BigDecimal::new).orElse(BigDecimal.ZERO);
+            BigDecimal unrealizedProfits = Optional.ofNullable(statistic.getUnrealizedProfits()).map(BigDecimal::new).orElse(BigDecimal.ZERO);
+            statistic.setDividendsEarned(String.valueOf(dividendsEarned));
+            statistic.setTotalProfits(String.valueOf(realizedProfits.add(unrealizedProfits).add(dividendsEarned)));
+            statisticRepository.save(statistic);
+            recomputedPositions++;
+        }
+        LOGGER.info("Recomputed dividends for {} position(s) in {}", recomputedPositions, stock.getStockTicker());
+        statisticCache.invalidateStocks(List.of(stockId));
+        return recomputedPositions;
+    }
+
+    private BigDecimal sumInCurrency(List<Long> stockIds, Function<Long, BigDecimal> field, String currency) {
+        return stockIds.stream()
+                .map(stockId -> {
+                    BigDecimal amount = Optional.ofNullable(field.apply(stockId)).orElse(BigDecimal.ZERO);
+                    String baseCurrency = referenceDataCache.findBaseCurrencyByStockId(stockId).orElse(currency);
+                    return amount.multiply(rateCache.getRate(baseCurrency, currency));
+                })
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -1,30 +1,37 @@
 package com.example.investmentportfolio.service.impl;
 
+import com.example.investmentportfolio.cache.DataVersionCache;
+import com.example.investmentportfolio.cache.HoldingIndex;
+import com.example.investmentportfolio.cache.ReferenceDataCache;
+import com.example.investmentportfolio.cache.StatisticCache;
 import com.example.investmentportfolio.dto.StockDto;
 import com.example.investmentportfolio.mapper.StockMapper;
 import com.example.investmentportfolio.model.Exchange;
 import com.example.investmentportfolio.model.Stock;
+import com.example.investmentportfolio.provider.PriceProvider;
 import com.example.investmentportfolio.repository.ExchangeRepository;
 import com.example.investmentportfolio.repository.StockRepository;
+import com.example.investmentportfolio.service.StatisticService;
 import com.example.investmentportfolio.service.StockService;
 import com.example.investmentportfolio.util.*;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.net.HttpURLConnection;
-import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -36,13 +43,27 @@ public class StockServiceImpl implements StockService {
     public static final String NO_EXCHANGE_FOUND_WITH_NAME = "No exchange found with name: %s";
     private final StockRepository stockRepository;
     private final ExchangeRepository exchangeRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final StatisticCache statisticCache;
+    private final DataVersionCache dataVersionCache;
+    private final HoldingIndex holdingIndex;
+    private final StatisticService statisticService;
+    private final PriceProvider priceProvider;
     private final StockMapper stockMapper;
     private final Validator validator;
+    private final int maxBatchItems;
 
-    public StockServiceImpl(StockRepository stockRepository, ExchangeRepository exchangeRepository, StockMapper stockMapper) {
+    public StockServiceImpl(StockRepository stockRepository, ExchangeRepository exchangeRepository, ReferenceDataCache referenceDataCache, StatisticCache statisticCache, DataVersionCache dataVersionCache, HoldingIndex holdingIndex, StatisticService statisticService, PriceProvider priceProvider, StockMapper stockMapper, @Value("${create.batch.max-items:5000}") int maxBatchItems) {
         this.stockRepository = stockRepository;
         this.exchangeRepository = exchangeRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.statisticCache = statisticCache;
+        this.dataVersionCache = dataVersionCache;
+        this.holdingIndex = holdingIndex;
+        this.statisticService = statisticService;
+        this.priceProvider = priceProvider;
         this.stockMapper = stockMapper;
+        this.maxBatchItems = maxBatchItems;
         validator = Validation.buildDefaultValidatorFactory().getValidator();
     }
 
@@ -58,7 +79,7 @@ public class StockServiceImpl implements StockService {
         }
         else {
             Stock stock = stockMapper.convertToEntity(stockDto);
-            Optional<Long> optionalId = exchangeRepository.findIdByExchange(stockDto.getExchange().toUpperCase());
+            Optional<Long> optionalId = referenceDataCache.findExchangeIdByName(stockDto.getExchange());
             if (optionalId.isPresent()) {
                 stock.setExchangeId(optionalId.get());
             } else {
@@ -72,18 +93,49 @@ public class StockServiceImpl implements StockService {
                 throw new AlreadyExistsException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
             } else {
                 stockRepository.save(stock);
+                dataVersionCache.bump(DataVersionCache.STOCKS);
                 return stockMapper.convertToDto(stock);
             }
         }
     }
 
+    @Override
+    @Transactional
+    public List<StockDto> createStocks(List<StockDto> stockDtos) {
+        List<String> errorMessages = BatchValidation.validate(validator, stockDtos, maxBatchItems);
+        BatchValidation.throwIfInvalid(errorMessages);
+        Set<String> stockTickers = new HashSet<>(stockRepository.findAllStockTickers());
+        List<Stock> stocks = new ArrayList<>();
+        for (int i = 0; i < stockDtos.size(); i++) {
+            StockDto stockDto = stockDtos.get(i);
+            Stock stock = stockMapper.convertToEntity(stockDto);
+            Optional<Long> optionalId = referenceDataCache.findExchangeIdByName(stockDto.getExchange());
+            if (optionalId.isPresent()) {
+                stock.setExchangeId(optionalId.get());
+            } else {
+                errorMessages.add(String.format(BatchValidation.ITEM_ERROR, i + 1, String.format(NO_EXCHANGE_FOUND_WITH_NAME, stockDto.getExchange())));
+            }
+            if (!stockTickers.add(stock.getStockTicker().toUpperCase())) {
+                errorMessages.add(String.format(BatchValidation.ITEM_ERROR, i + 1, "A stock with the same ticker already exists."));
+            }
+            stocks.add(stock);
+        }
+        BatchValidation.throwIfInvalid(errorMessages);
+        stockRepository.saveAll(stocks);
+        dataVersionCache.bump(DataVersionCache.STOCKS);
+        LOGGER.info("Created {} stock(s)", stocks.size());
+        return stocks.stream()
+                .map(stockMapper::convertToDto)
+                .toList();
+    }
+
     @Override
     public List<StockDto> getAllStocks() {
         List<Stock> stocks = stockRepository.findAll();
         if (!stocks.isEmpty()) {
             return stocks.stream()
                     .map(stock -> {
-                        Optional<Exchange> optionalExchange = exchangeRepository.findById(stock.getExchangeId());
+                        Optional<Exchange> optionalExchange = referenceDataCache.findExchangeById(stock.getExchangeId());
                         optionalExchange.ifPresent(exchange -> stock.setExchange(String.valueOf(exchange.getExchange())));
                         return stockMapper.convertToDto(stock);
                     })
@@ -100,7 +152,7 @@ public class StockServiceImpl implements StockService {
         Optional<Stock> optionalStock = stockRepository.findById(stockId);
         if (optionalStock.isPresent()) {
             Stock stock = optionalStock.get();
-            Optional<Exchange> optionalExchange = exchangeRepository.findById(stock.getExchangeId());
+            Optional<Exchange> optionalExchange = referenceDataCache.findExchangeById(stock.getExchangeId());
             optionalExchange.ifPresent(exchange -> stock.setExchange(String.valueOf(exchange.getExchange())));
             return stockMapper.convertToDto(stock);
         } else {
@@ -115,7 +167,7 @@ public class StockServiceImpl implements StockService {
         Optional<Stock> optionalStock = stockRepository.findByStockTickerIgnoreCase(stockTicker);
         if (optionalStock.isPresent()) {
             Stock stock = optionalStock.get();
-            Optional<Exchange> optionalExchange = exchangeRepository.findById(stock.getExchangeId());
+            Optional<Exchange> optionalExchange = referenceDataCache.findExchangeById(stock.getExchangeId());
             optionalExchange.ifPresent(exchange -> stock.setExchange(String.valueOf(exchange.getExchange())));
             return stockMapper.convertToDto(stock);
         } else {
@@ -131,7 +183,7 @@ public class StockServiceImpl implements StockService {
         if (!stocks.isEmpty()) {
             return stocks.stream()
                     .map(stock -> {
-                        Optional<Exchange> optionalExchange = exchangeRepository.findById(stock.getExchangeId());
+                        Optional<Exchange> optionalExchange = referenceDataCache.findExchangeById(stock.getExchangeId());
                         optionalExchange.ifPresent(exchange -> stock.setExchange(String.valueOf(exchange.getExchange())));
                         return stockMapper.convertToDto(stock);
                     })
@@ -149,7 +201,7 @@ public class StockServiceImpl implements StockService {
         if (!stocks.isEmpty()) {
             return stocks.stream()
                     .map(stock -> {
-                        Optional<Exchange> optionalExchange = exchangeRepository.findById(stock.getExchangeId());
+                        Optional<Exchange> optionalExchange = referenceDataCache.findExchangeById(stock.getExchangeId());
                         optionalExchange.ifPresent(ex -> stock.setExchange(String.valueOf(ex.getExchange())));
                         return stockMapper.convertToDto(stock);
                     })
@@ -167,7 +219,7 @@ public class StockServiceImpl implements StockService {
         if (!stocks.isEmpty()) {
             return stocks.stream()
                     .map(stock -> {
-                        Optional<Exchange> optionalExchange = exchangeRepository.findById(stock.getExchangeId());
+                        Optional<Exchange> optionalExchange = referenceDataCache.findExchangeById(stock.getExchangeId());
                         optionalExchange.ifPresent(ex -> stock.setExchange(String.valueOf(ex.getExchange())));
                         return stockMapper.convertToDto(stock);
                     })
@@ -185,7 +237,7 @@ public class StockServiceImpl implements StockService {
         if (!stocks.isEmpty()) {
             return stocks.stream()
                     .map(stock -> {
-                        Optional<Exchange> optionalExchange = exchangeRepository.findById(stock.getExchangeId());
+                        Optional<Exchange> optionalExchange = referenceDataCache.findExchangeById(stock.getExchangeId());
                         optionalExchange.ifPresent(ex -> stock.setExchange(String.valueOf(ex.getExchange())));
                         return stockMapper.convertToDto(stock);
                     })
@@ -201,8 +253,9 @@ public class StockServiceImpl implements StockService {
     public StockDto updateStockById(Long stockId, StockDto stockDto) {
         Optional<Stock> optionalStock = stockRepository.findById(stockId);
         if (optionalStock.isPresent()) {
+            boolean wasDelisted = "Y".equals(optionalStock.get().getDelistInd());
             Stock updatedStock = stockMapper.updateEntityWithDto(stockDto, optionalStock.get());
-            Optional<Long> optionalId = exchangeRepository.findIdByExchange(stockDto.getExchange().toUpperCase());
+            Optional<Long> optionalId = referenceDataCache.findExchangeIdByName(stockDto.getExchange());
             if (optionalId.isPresent()) {
                 updatedStock.setExchangeId(optionalId.get());
             } else {
@@ -211,6 +264,12 @@ public class StockServiceImpl implements StockService {
                 throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
             }
             stockRepository.save(updatedStock);
+            referenceDataCache.invalidateStocks();
+            dataVersionCache.bump(DataVersionCache.STOCKS);
+            statisticCache.invalidateStocks(List.of(updatedStock.getStockId()));
+            if (!wasDelisted && "Y".equals(updatedStock.getDelistInd())) {
+                statisticService.revaluePositionsForStocks(List.of(updatedStock.getStockId()));
+            }
             return stockMapper.convertToDto(updatedStock);
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_STOCK_FOUND_WITH_ID, stockId));
@@ -223,8 +282,9 @@ public class StockServiceImpl implements StockService {
     public StockDto updateStockByTicker(String stockTicker, StockDto stockDto) {
         Optional<Stock> optionalStock = stockRepository.findByStockTickerIgnoreCase(stockTicker);
         if (optionalStock.isPresent()) {
+            boolean wasDelisted = "Y".equals(optionalStock.get().getDelistInd());
             Stock updatedStock = stockMapper.updateEntityWithDto(stockDto, optionalStock.get());
-            Optional<Long> optionalId = exchangeRepository.findIdByExchange(stockDto.getExchange().toUpperCase());
+            Optional<Long> optionalId = referenceDataCache.findExchangeIdByName(stockDto.getExchange());
             if (optionalId.isPresent()) {
                 updatedStock.setExchangeId(optionalId.get());
             } else {
@@ -233,6 +293,12 @@ public class StockServiceImpl implements StockService {
                 throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
             }
             stockRepository.save(updatedStock);
+            referenceDataCache.invalidateStocks();
+            dataVersionCache.bump(DataVersionCache.STOCKS);
+            statisticCache.invalidateStocks(List.of(updatedStock.getStockId()));
+            if (!wasDelisted && "Y".equals(updatedStock.getDelistInd())) {
+                statisticService.revaluePositionsForStocks(List.of(updatedStock.getStockId()));
+            }
             return stockMapper.convertToDto(updatedStock);
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_STOCK_FOUND_WITH_TICKER, stockTicker));
@@ -247,6 +313,9 @@ public class StockServiceImpl implements StockService {
         List<Stock> stocks = stockRepository.findAll();
         if (!stocks.isEmpty()) {
             stockRepository.deleteAll();
+            referenceDataCache.invalidateStocks();
+            dataVersionCache.bump(DataVersionCache.STOCKS);
+            statisticCache.invalidateAll();
         } else {
             List<String> errorMessages = Collections.singletonList("No stock(s) found.");
             LOGGER.error(errorMessages);
@@ -260,6 +329,9 @@ public class StockServiceImpl implements StockService {
         Optional<Stock> optionalStock = stockRepository.findById(stockId);
         if (optionalStock.isPresent()) {
             stockRepository.deleteById(stockId);
+            referenceDataCache.invalidateStocks();
+            dataVersionCache.bump(DataVersionCache.STOCKS);
+            statisticCache.invalidateStocks(List.of(stockId));
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_STOCK_FOUND_WITH_ID, stockId));
             LOGGER.error(errorMessages);
@@ -273,6 +345,9 @@ public class StockServiceImpl implements StockService {
         Optional<Stock> optionalStock = stockRepository.findByStockTickerIgnoreCase(stockTicker);
         if (optionalStock.isPresent()) {
             stockRepository.deleteByStockTickerIgnoreCase(stockTicker);
+            referenceDataCache.invalidateStocks();
+            dataVersionCache.bump(DataVersionCache.STOCKS);
+            statisticCache.invalidateStocks(List.of(optionalStock.get().getStockId()));
             return stockMapper.convertToDto(optionalStock.get());
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_STOCK_FOUND_WITH_TICKER, stockTicker));
@@ -283,14 +358,14 @@ public class StockServiceImpl implements StockService {
 
     @Override
     @Transactional
-    public void updateLiveStockPrices() throws IOException, URISyntaxException {
+    public int updateLiveStockPrices() throws IOException, URISyntaxException {
         List<StockDto> stockDtos = getAllStocks();
         if (!stockDtos.isEmpty()) {
             for (StockDto stockDto : stockDtos) {
                 String stockTicker = stockDto.getStockTicker();
                 String exchange = stockDto.getExchange();
                 String suffix = exchangeRepository.findSuffixByExchange(exchange);
-                Optional<Long> optionalExchangeId = exchangeRepository.findIdByExchange(exchange);
+                Optional<Long> optionalExchangeId = referenceDataCache.findExchangeIdByName(exchange);
                 if (optionalExchangeId.isPresent()) {
                     BigDecimal lastPrice = getLastPriceForStock(stockTicker, suffix);
                     stockRepository.updateLastPriceByStockTickerAndExchange(lastPrice, stockTicker, optionalExchangeId.get());
@@ -300,6 +375,9 @@ public class StockServiceImpl implements StockService {
                     throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
                 }
             }
+            statisticCache.invalidateAll();
+            dataVersionCache.bump(DataVersionCache.STOCKS);
+            return stockDtos.size();
         } else {
             List<String> errorMessages = Collections.singletonList("No stocks found.");
             LOGGER.error(errorMessages);
@@ -307,20 +385,64 @@ public class StockServiceImpl implements StockService {
         }
     }
 
+    @Override
+    @Transactional
+    public List<Long> updateLiveStockPricesForHeldStocks(Long exchangeId) throws IOException, URISyntaxException {
+        List<Long> heldStockIds = holdingIndex.findHeldStockIds();
+        if (heldStockIds.isEmpty()) {
+            LOGGER.info("No held stocks found.");
+            return new ArrayList<>();
+        }
+        List<Stock> stocks = stockRepository.findByStockIds(heldStockIds).stream()
+                .flatMap(Optional::stream)
+                .filter(stock -> exchangeId == null || exchangeId.equals(stock.getExchangeId()))
+                .toList();
+        List<Long> movedStockIds = updateLastPrices(stocks);
+        LOGGER.info("Prices moved for {} of {} held stock(s).", movedStockIds.size(), stocks.size());
+        return movedStockIds;
+    }
+
+    // Unlike the held-stock refresh this covers every listed stock, so closing prices are recorded even for unheld ones
+    @Override
+    @Transactional
+    public List<Long> updateLiveStockPricesForExchange(Long exchangeId) throws IOException, URISyntaxException {
+        List<Long> movedStockIds = updateLastPrices(stockRepository.findByExchangeId(exchangeId));
+        LOGGER.info("Prices moved for {} stock(s) on exchange id {}.", movedStockIds.size(), exchangeId);
+        return movedStockIds;
+    }
+
+    // A ticker the provider cannot price is logged and keeps its previous price, so one bad symbol does not roll back the whole exchange
+    private List<Long> updateLastPrices(List<Stock> stocks) {
+        List<Long> movedStockIds = new ArrayList<>();
+        Map<Long, String> suffixes = new HashMap<>();
+        for (Stock stock : stocks) {
+            if ("Y".equals(stock.getDelistInd())) {
+                continue;
+            }
+            String suffix = suffixes.computeIfAbsent(stock.getExchangeId(), exchangeId -> referenceDataCache.findExchangeById(exchangeId)
+                    .map(Exchange::getSuffix)
+                    .orElse(null));
+            BigDecimal lastPrice;
+            try {
+                lastPrice = getLastPriceForStock(stock.getStockTicker(), suffix);
+            } catch (IOException | URISyntaxException | RuntimeException e) {
+                LOGGER.error("Failed to fetch the last price for {}", stock.getStockTicker(), e);
+                continue;
+            }
+            if (stock.getLastPrice() == null || new BigDecimal(stock.getLastPrice()).compareTo(lastPrice) != 0) {
+                stockRepository.updateLastPriceByStockId(lastPrice, stock.getStockId());
+                movedStockIds.add(stock.getStockId());
+            }
+        }
+        if (!movedStockIds.isEmpty()) {
+            statisticCache.invalidateStocks(movedStockIds);
+            dataVersionCache.bump(DataVersionCache.STOCKS);
+        }
+        return movedStockIds;
+    }
+
     private BigDecimal getLastPriceForStock(String stockTicker, String suffix) throws IOException, URISyntaxException {
         String stockTickerAndSuffix = (suffix != null) ? stockTicker + suffix : stockTicker;
-        String urlString = "https://query1.finance.yahoo.com/v8/finance/chart/" + stockTickerAndSuffix;
-        URI uri = new URI(urlString);
-        HttpURLConnection connection = (HttpURLConnection) uri.toURL().openConnection();
-        connection.setRequestMethod("GET");
-        ObjectMapper mapper = new ObjectMapper();
-        JsonNode rootNode = mapper.readTree(connection.getInputStream());
-        JsonNode resultNode = rootNode.path("chart").path("result").get(0);
-        JsonNode metaNode = resultNode.path("meta");
-        BigDecimal regularMarketPrice = metaNode.path("regularMarketPrice").decimalValue();
-        String currency = metaNode.path("currency").asText();
-        connection.disconnect();
-        LOGGER.info("{}: {} {}", stockTicker, regularMarketPrice, currency);
-        return regularMarketPrice;
+        return priceProvider.fetchLastPrice(stockTickerAndSuffix);
     }
 }
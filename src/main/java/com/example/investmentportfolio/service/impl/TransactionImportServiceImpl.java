@@ -0,0 +1,333 @@
+package com.example.investmentportfolio.service.impl;
+
+import com.example.investmentportfolio.cache.HoldingIndex;
+import com.example.investmentportfolio.cache.StatisticCache;
+import com.example.investmentportfolio.dto.TransactionDto;
+import com.example.investmentportfolio.dto.TransactionImportDto;
+import com.example.investmentportfolio.dto.TransactionImportErrorDto;
+import com.example.investmentportfolio.mapper.TransactionMapper;
+import com.example.investmentportfolio.model.Exchange;
+import com.example.investmentportfolio.model.Stock;
+import com.example.investmentportfolio.model.Transaction;
+import com.example.investmentportfolio.model.User;
+import com.example.investmentportfolio.repository.ExchangeRepository;
+import com.example.investmentportfolio.repository.StockRepository;
+import com.example.investmentportfolio.repository.TransactionImportRepository;
+import com.example.investmentportfolio.repository.UserRepository;
+import com.example.investmentportfolio.service.PortfolioSnapshotService;
+import com.example.investmentportfolio.service.TransactionImportService;
+import com.example.investmentportfolio.util.*;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.groups.Default;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Service
+public class TransactionImportServiceImpl implements TransactionImportService {
+    private static final Logger LOGGER = LogManager.getLogger(TransactionImportServiceImpl.class);
+    private static final List<String> CSV_COLUMNS = List.of("username", "transactionDate", "transactionType", "stockTicker", "exchange", "units",
+            "unitPrice", "fees", "currency");
+    private final TransactionImportRepository transactionImportRepository;
+    private final UserRepository userRepository;
+    private final ExchangeRepository exchangeRepository;
+    private final StockRepository stockRepository;
+    private final StatisticCache statisticCache;
+    private final HoldingIndex holdingIndex;
+    private final PortfolioSnapshotService portfolioSnapshotService;
+    private final TransactionMapper transactionMapper;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkRows;
+    private final int maxErrorsReported;
+    private final int maxUsersInvalidatedIndividually;
+
+    private enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private record ReferenceData(Map<String, Long> userIdsByUsername, Map<String, Long> exchangeIdsByName, Map<String, Long> stockIdsByTickerAndExchangeId) {
+    }
+
+    private record ImportedRow(long row, Transaction transaction, List<String> errorMessages) {
+    }
+
+    public TransactionImportServiceImpl(TransactionImportRepository transactionImportRepository, UserRepository userRepository,
+                                        ExchangeRepository exchangeRepository, StockRepository stockRepository, StatisticCache statisticCache,
+                                        HoldingIndex holdingIndex, PortfolioSnapshotService portfolioSnapshotService, TransactionMapper transactionMapper,
+                                        @Value("${transactions.import.chunk-rows:50000}") int chunkRows,
+                                        @Value("${transactions.import.max-errors-reported:1000}") int maxErrorsReported,
+                                        @Value("${transactions.import.max-users-invalidated-individually:500}") int maxUsersInvalidatedIndividually) {
+        this.transactionImportRepository = transactionImportRepository;
+        this.userRepository = userRepository;
+        this.exchangeRepository = exchangeRepository;
+        this.stockRepository = stockRepository;
+        this.statisticCache = statisticCache;
+        this.holdingIndex = holdingIndex;
+        this.portfolioSnapshotService = portfolioSnapshotService;
+        this.transactionMapper = transactionMapper;
+        this.chunkRows = chunkRows;
+        this.maxErrorsReported = maxErrorsReported;
+        this.maxUsersInvalidatedIndividually = maxUsersInvalidatedIndividually;
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+        objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    // Rows are read in chunks that are parsed and validated in parallel, then streamed in order into a single COPY;
+    // rejected rows are reported and skipped while the accepted ones are committed together
+    @Transactional
+    @Override
+    public TransactionImportDto importTransactions(InputStream inputStream, String contentType) {
+        Format format = resolveFormat(contentType);
+        long start = System.nanoTime();
+        ReferenceData referenceData = loadReferenceData();
+        long rowsRead = 0;
+        long rowsImported = 0;
+        long rowsRejected = 0;
+        List<TransactionImportErrorDto> errors = new ArrayList<>();
+        Map<Long, Set<Long>> stockIdsByUserId = new HashMap<>();
+        Map<Long, LocalDate> earliestDatesByUserId = new HashMap<>();
+        CopyIn copyIn = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columnIndexes = format == Format.CSV ? readCsvHeader(reader.readLine()) : null;
+            copyIn = transactionImportRepository.beginTransactionCopy();
+            List<String> lines = new ArrayList<>(chunkRows);
+            long firstRow = 1;
+            String line;
+            while (true) {
+                line = reader.readLine();
+                if (line != null && !line.isBlank()) {
+                    lines.add(line);
+                }
+                if (lines.size() == chunkRows || (line == null && !lines.isEmpty())) {
+                    List<ImportedRow> importedRows = parseChunk(lines, firstRow, format, columnIndexes, referenceData);
+                    StringBuilder csv = new StringBuilder(lines.size() * 96);
+                    for (ImportedRow importedRow : importedRows) {
+                        if (importedRow.errorMessages().isEmpty()) {
+                            appendCsv(csv, importedRow.transaction());
+                            stockIdsByUserId.computeIfAbsent(importedRow.transaction().getUserId(), key -> new HashSet<>())
+                                    .add(importedRow.transaction().getStockId());
+                            earliestDatesByUserId.merge(importedRow.transaction().getUserId(), LocalDate.parse(importedRow.transaction().getTransactionDate()),
+                                    (first, second) -> first.isBefore(second) ? first : second);
+                        } else {
+                            rowsRejected++;
+                            if (errors.size() < maxErrorsReported) {
+                                errors.add(new TransactionImportErrorDto(importedRow.row(), importedRow.errorMessages()));
+                            }
+                        }
+                    }
+                    if (!csv.isEmpty()) {
+                        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+                        copyIn.writeToCopy(bytes, 0, bytes.length);
+                    }
+                    rowsRead += lines.size();
+                    firstRow += lines.size();
+                    lines.clear();
+                }
+                if (line == null) {
+                    break;
+                }
+            }
+            rowsImported = copyIn.endCopy();
+        } catch (IOException | SQLException e) {
+            cancel(copyIn);
+            List<String> errorMessages = Collections.singletonList(String.format("Transaction import failed: %s", e.getMessage()));
+            LOGGER.error(errorMessages);
+            throw new GeneralException(new CustomError(ErrorConstants.INTERNAL_SERVER_ERROR_ERROR_CODE, errorMessages));
+        } catch (RuntimeException e) {
+            cancel(copyIn);
+            throw e;
+        }
+        invalidate(stockIdsByUserId);
+        earliestDatesByUserId.forEach(portfolioSnapshotService::rebuildSnapshots);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        LOGGER.info("Imported {} of {} transaction row(s) for {} user(s) in {} ms, {} rejected", rowsImported, rowsRead, stockIdsByUserId.size(),
+                elapsedMillis, rowsRejected);
+        return new TransactionImportDto(rowsRead, rowsImported, rowsRejected, elapsedMillis, errors);
+    }
+
+    private List<ImportedRow> parseChunk(List<String> lines, long firstRow, Format format, Map<String, Integer> columnIndexes, ReferenceData referenceData) {
+        return IntStream.range(0, lines.size())
+                .parallel()
+                .mapToObj(i -> parseRow(firstRow + i, lines.get(i), format, columnIndexes, referenceData))
+                .toList();
+    }
+
+    // Each row gets the same checks as POST /transactions/create, with names resolved against maps loaded once per import
+    private ImportedRow parseRow(long row, String line, Format format, Map<String, Integer> columnIndexes, ReferenceData referenceData) {
+        TransactionDto transactionDto;
+        try {
+            transactionDto = format == Format.CSV ? fromCsv(line, columnIndexes) : objectMapper.readValue(line, TransactionDto.class);
+        } catch (IOException | IllegalArgumentException e) {
+            return new ImportedRow(row, null, List.of(String.format("Row could not be parsed: %s", e.getMessage())));
+        }
+        Set<ConstraintViolation<TransactionDto>> violations = validator.validate(transactionDto, Default.class, CreateValidation.class);
+        if (!violations.isEmpty()) {
+            return new ImportedRow(row, null, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .toList());
+        }
+        List<String> errorMessages = new ArrayList<>();
+        try {
+            LocalDate.parse(transactionDto.getTransactionDate());
+        } catch (DateTimeParseException e) {
+            errorMessages.add(String.format("Invalid date: %s. Dates must be in yyyy-MM-dd format.", transactionDto.getTransactionDate()));
+        }
+        Transaction transaction = transactionMapper.convertToEntity(transactionDto);
+        Long userId = referenceData.userIdsByUsername().get(transactionDto.getUsername().toUpperCase());
+        if (userId == null) {
+            errorMessages.add(String.format("No user found with username: %s", transactionDto.getUsername()));
+        }
+        Long exchangeId = referenceData.exchangeIdsByName().get(transactionDto.getExchange().toUpperCase());
+        Long stockId = null;
+        if (exchangeId == null) {
+            errorMessages.add(String.format("No exchange found with name: %s", transactionDto.getExchange()));
+        } else {
+            stockId = referenceData.stockIdsByTickerAndExchangeId().get(transactionDto.getStockTicker().toUpperCase() + "|" + exchangeId);
+            if (stockId == null) {
+                errorMessages.add(String.format("Stock ticker %s cannot be found in exchange: %s", transactionDto.getStockTicker(), transactionDto.getExchange()));
+            }
+        }
+        transaction.setUserId(userId);
+        transaction.setStockId(stockId);
+        return new ImportedRow(row, transaction, errorMessages);
+    }
+
+    private ReferenceData loadReferenceData() {
+        Map<String, Long> userIdsByUsername = userRepository.findAll().stream()
+                .collect(Collectors.toMap(user -> user.getUsername().toUpperCase(), User::getUserId, (first, second) -> first));
+        Map<String, Long> exchangeIdsByName = exchangeRepository.findAll().stream()
+                .collect(Collectors.toMap(exchange -> exchange.getExchange().toUpperCase(), Exchange::getExchangeId, (first, second) -> first));
+        Map<String, Long> stockIdsByTickerAndExchangeId = stockRepository.findAll().stream()
+                .collect(Collectors.toMap(stock -> stock.getStockTicker().toUpperCase() + "|" + stock.getExchangeId(), Stock::getStockId, (first, second) -> first));
+        return new ReferenceData(userIdsByUsername, exchangeIdsByName, stockIdsByTickerAndExchangeId);
+    }
+
+    private static Format resolveFormat(String contentType) {
+        String normalized = contentType == null ? "" : contentType.toLowerCase();
+        if (normalized.contains("csv")) {
+            return Format.CSV;
+        } else if (normalized.contains("ndjson") || normalized.contains("jsonl")) {
+            return Format.NDJSON;
+        }
+        List<String> errorMessages = Collections.singletonList(String.format("Unsupported content type: %s. Use text/csv or application/x-ndjson.", contentType));
+        LOGGER.error(errorMessages);
+        throw new ValidationException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
+    }
+
+    private static Map<String, Integer> readCsvHeader(String header) {
+        Map<String, Integer> columnIndexes = new HashMap<>();
+        if (header != null) {
+            List<String> names = splitCsv(header);
+            for (int i = 0; i < names.size(); i++) {
+                columnIndexes.put(names.get(i).trim().replace("_", "").toLowerCase(), i);
+            }
+        }
+        List<String> missing = CSV_COLUMNS.stream()
+                .filter(column -> !columnIndexes.containsKey(column.toLowerCase()))
+                .toList();
+        if (!missing.isEmpty()) {
+            List<String> errorMessages = Collections.singletonList(String.format("CSV header is missing column(s): %s", String.join(", ", missing)));
+            LOGGER.error(errorMessages);
+            throw new ValidationException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
+        }
+        return columnIndexes;
+    }
+
+    private static TransactionDto fromCsv(String line, Map<String, Integer> columnIndexes) {
+        List<String> values = splitCsv(line);
+        String[] fields = new String[CSV_COLUMNS.size()];
+        for (int i = 0; i < fields.length; i++) {
+            int index = columnIndexes.get(CSV_COLUMNS.get(i).toLowerCase());
+            fields[i] = index < values.size() ? values.get(index).trim() : null;
+        }
+        return new TransactionDto(fields[0], fields[1], fields[2], fields[3], fields[4], fields[5], fields[6], fields[7], fields[8]);
+    }
+
+    // Handles quoted fields and doubled quotes inside them, which is all broker statement exports use
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    // Validated fields cannot contain commas, quotes or line breaks, so they are written to COPY unquoted
+    private static void appendCsv(StringBuilder csv, Transaction transaction) {
+        csv.append(transaction.getUserId()).append(',')
+                .append(transaction.getTransactionDate()).append(',')
+                .append(transaction.getTransactionType()).append(',')
+                .append(transaction.getStockId()).append(',')
+                .append(transaction.getUnits()).append(',')
+                .append(transaction.getUnitPrice()).append(',')
+                .append(transaction.getFees()).append(',')
+                .append(transaction.getCurrency()).append('\n');
+    }
+
+    private void invalidate(Map<Long, Set<Long>> stockIdsByUserId) {
+        if (stockIdsByUserId.size() > maxUsersInvalidatedIndividually) {
+            statisticCache.invalidateAll();
+            holdingIndex.refreshAll();
+            return;
+        }
+        stockIdsByUserId.forEach((userId, stockIds) -> {
+            statisticCache.invalidateUser(userId);
+            stockIds.forEach(stockId -> holdingIndex.refreshPosition(userId, stockId));
+        });
+    }
+
+    private static void cancel(CopyIn copyIn) {
+        if (copyIn != null && copyIn.isActive()) {
+            try {
+                copyIn.cancelCopy();
+            } catch (SQLException e) {
+                LOGGER.warn("Could not cancel transaction copy: {}", e.getMessage());
+            }
+        }
+    }
+}
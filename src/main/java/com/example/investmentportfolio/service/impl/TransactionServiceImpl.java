@@ -1,14 +1,13 @@
 package com.example.investmentportfolio.service.impl;
 
+import com.example.investmentportfolio.cache.HoldingIndex;
+import com.example.investmentportfolio.cache.ReferenceDataCache;
+import com.example.investmentportfolio.cache.StatisticCache;
 import com.example.investmentportfolio.dto.TransactionDto;
 import com.example.investmentportfolio.mapper.TransactionMapper;
-import com.example.investmentportfolio.model.Stock;
 import com.example.investmentportfolio.model.Transaction;
-import com.example.investmentportfolio.model.User;
-import com.example.investmentportfolio.repository.ExchangeRepository;
-import com.example.investmentportfolio.repository.StockRepository;
 import com.example.investmentportfolio.repository.TransactionRepository;
-import com.example.investmentportfolio.repository.UserRepository;
+import com.example.investmentportfolio.service.PortfolioSnapshotService;
 import com.example.investmentportfolio.service.TransactionService;
 import com.example.investmentportfolio.util.*;
 import jakarta.validation.ConstraintViolation;
@@ -16,35 +15,40 @@ import jakarta.validation.Validation;
 import jakarta.validation.Validator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 public class TransactionServiceImpl implements TransactionService {
     private static final Logger LOGGER = LogManager.getLogger(TransactionServiceImpl.class);
     public static final String NO_TRANSACTION_FOUND_WITH_ID = "No transaction found with id: %d";
     private final TransactionRepository transactionRepository;
-    private final StockRepository stockRepository;
-    private final ExchangeRepository exchangeRepository;
-    private final UserRepository userRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final StatisticCache statisticCache;
+    private final HoldingIndex holdingIndex;
+    private final PortfolioSnapshotService portfolioSnapshotService;
     private final TransactionMapper transactionMapper;
     private final Validator validator;
+    private final int maxBatchItems;
 
-    public TransactionServiceImpl(TransactionRepository transactionRepository, StockRepository stockRepository, ExchangeRepository exchangeRepository, UserRepository userRepository, TransactionMapper transactionMapper) {
+    public TransactionServiceImpl(TransactionRepository transactionRepository, ReferenceDataCache referenceDataCache, StatisticCache statisticCache, HoldingIndex holdingIndex, PortfolioSnapshotService portfolioSnapshotService, TransactionMapper transactionMapper, @Value("${create.batch.max-items:5000}") int maxBatchItems) {
         this.transactionRepository = transactionRepository;
-        this.stockRepository = stockRepository;
-        this.exchangeRepository = exchangeRepository;
-        this.userRepository = userRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.statisticCache = statisticCache;
+        this.holdingIndex = holdingIndex;
+        this.portfolioSnapshotService = portfolioSnapshotService;
         this.transactionMapper = transactionMapper;
+        this.maxBatchItems = maxBatchItems;
         validator = Validation.buildDefaultValidatorFactory().getValidator();
     }
 
     @Override
+    @Transactional
     public TransactionDto createTransaction(TransactionDto transactionDto) {
         Set<ConstraintViolation<TransactionDto>> violations = validator.validate(transactionDto, CreateValidation.class);
         if (!violations.isEmpty()) {
@@ -56,7 +60,7 @@ public class TransactionServiceImpl implements TransactionService {
         }
         else {
             Transaction transaction = transactionMapper.convertToEntity(transactionDto);
-            Optional<Long> optionalUserId = userRepository.findIdByUsername(transactionDto.getUsername().toUpperCase());
+            Optional<Long> optionalUserId = referenceDataCache.findUserIdByUsername(transactionDto.getUsername());
             if (optionalUserId.isPresent()) {
                 transaction.setUserId(optionalUserId.get());
             } else {
@@ -64,13 +68,13 @@ public class TransactionServiceImpl implements TransactionService {
                 LOGGER.error(errorMessages);
                 throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
             }
-            Optional<Long> optionalExchangeId = exchangeRepository.findIdByExchange(transactionDto.getExchange().toUpperCase());
+            Optional<Long> optionalExchangeId = referenceDataCache.findExchangeIdByName(transactionDto.getExchange());
             if (optionalExchangeId.isEmpty()) {
                 List<String> errorMessages = Collections.singletonList(String.format("No exchange found with name: %s", transactionDto.getExchange()));
                 LOGGER.error(errorMessages);
                 throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
             }
-            Optional<Long> optionalStockId = stockRepository.findIdByTickerAndExchangeId(transactionDto.getStockTicker().toUpperCase(), optionalExchangeId.get());
+            Optional<Long> optionalStockId = referenceDataCache.findStockIdByTickerAndExchangeId(transactionDto.getStockTicker(), optionalExchangeId.get());
             if (optionalStockId.isPresent()) {
                 transaction.setStockId(optionalStockId.get());
             } else {
@@ -79,21 +83,71 @@ public class TransactionServiceImpl implements TransactionService {
                 throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
             }
             transactionRepository.save(transaction);
+            statisticCache.invalidateUser(transaction.getUserId());
+            holdingIndex.refreshPosition(transaction.getUserId(), transaction.getStockId());
+            portfolioSnapshotService.rebuildSnapshots(transaction.getUserId(), LocalDate.parse(transaction.getTransactionDate()));
             return transactionMapper.convertToDto(transaction);
         }
     }
 
+    @Override
+    @Transactional
+    public List<TransactionDto> createTransactions(List<TransactionDto> transactionDtos) {
+        List<String> errorMessages = BatchValidation.validate(validator, transactionDtos, maxBatchItems);
+        BatchValidation.throwIfInvalid(errorMessages);
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < transactionDtos.size(); i++) {
+            TransactionDto transactionDto = transactionDtos.get(i);
+            Transaction transaction = transactionMapper.convertToEntity(transactionDto);
+            Optional<Long> optionalUserId = referenceDataCache.findUserIdByUsername(transactionDto.getUsername());
+            if (optionalUserId.isPresent()) {
+                transaction.setUserId(optionalUserId.get());
+            } else {
+                errorMessages.add(String.format(BatchValidation.ITEM_ERROR, i + 1, String.format("No user found with username: %s", transactionDto.getUsername())));
+            }
+            Optional<Long> optionalExchangeId = referenceDataCache.findExchangeIdByName(transactionDto.getExchange());
+            if (optionalExchangeId.isPresent()) {
+                Optional<Long> optionalStockId = referenceDataCache.findStockIdByTickerAndExchangeId(transactionDto.getStockTicker(), optionalExchangeId.get());
+                if (optionalStockId.isPresent()) {
+                    transaction.setStockId(optionalStockId.get());
+                } else {
+                    errorMessages.add(String.format(BatchValidation.ITEM_ERROR, i + 1, String.format("Stock ticker %s cannot be found in exchange: %s", transactionDto.getStockTicker(), transactionDto.getExchange())));
+                }
+            } else {
+                errorMessages.add(String.format(BatchValidation.ITEM_ERROR, i + 1, String.format("No exchange found with name: %s", transactionDto.getExchange())));
+            }
+            transactions.add(transaction);
+        }
+        BatchValidation.throwIfInvalid(errorMessages);
+        transactionRepository.saveAll(transactions);
+        transactions.stream()
+                .map(Transaction::getUserId)
+                .distinct()
+                .forEach(statisticCache::invalidateUser);
+        transactions.stream()
+                .map(transaction -> List.of(transaction.getUserId(), transaction.getStockId()))
+                .distinct()
+                .forEach(position -> holdingIndex.refreshPosition(position.get(0), position.get(1)));
+        transactions.stream()
+                .collect(Collectors.toMap(Transaction::getUserId, transaction -> LocalDate.parse(transaction.getTransactionDate()), (first, second) -> first.isBefore(second) ? first : second))
+                .forEach(portfolioSnapshotService::rebuildSnapshots);
+        LOGGER.info("Created {} transaction(s)", transactions.size());
+        return transactions.stream()
+                .map(transactionMapper::convertToDto)
+                .toList();
+    }
+
     @Override
     public List<TransactionDto> getAllTransactions() {
         List<Transaction> transactions = transactionRepository.findAll();
         if (!transactions.isEmpty()) {
             return transactions.stream()
                     .map(transaction -> {
-                        Optional<User> optionalUser = userRepository.findById(transaction.getUserId());
-                        optionalUser.ifPresent(user -> transaction.setUsername(String.valueOf(user.getUsername())));
-                        Optional<Stock> optionalStock = stockRepository.findById(transaction.getStockId());
-                        optionalStock.ifPresent(stock -> transaction.setStockTicker(stock.getStockTicker()));
-                        Optional<String> optionalExchange = stockRepository.findExchangeByStockId(transaction.getStockId());
+                        Optional<String> optionalUsername = referenceDataCache.findUsernameByUserId(transaction.getUserId());
+                        optionalUsername.ifPresent(transaction::setUsername);
+                        Optional<String> optionalStockTicker = referenceDataCache.findStockTickerByStockId(transaction.getStockId());
+                        optionalStockTicker.ifPresent(transaction::setStockTicker);
+                        Optional<String> optionalExchange = referenceDataCache.findExchangeByStockId(transaction.getStockId());
                         optionalExchange.ifPresent(transaction::setExchange);
                         return transactionMapper.convertToDto(transaction);
                     })
@@ -110,11 +164,11 @@ public class TransactionServiceImpl implements TransactionService {
         Optional<Transaction> optionalTransaction = transactionRepository.findById(transactionId);
         if (optionalTransaction.isPresent()) {
             Transaction transaction = optionalTransaction.get();
-            Optional<User> optionalUser = userRepository.findById(transaction.getUserId());
-            optionalUser.ifPresent(user -> transaction.setUsername(String.valueOf(user.getUsername())));
-            Optional<Stock> optionalStock = stockRepository.findById(transaction.getStockId());
-            optionalStock.ifPresent(stock -> transaction.setStockTicker(stock.getStockTicker()));
-            Optional<String> optionalExchange = stockRepository.findExchangeByStockId(transaction.getStockId());
+            Optional<String> optionalUsername = referenceDataCache.findUsernameByUserId(transaction.getUserId());
+            optionalUsername.ifPresent(transaction::setUsername);
+            Optional<String> optionalStockTicker = referenceDataCache.findStockTickerByStockId(transaction.getStockId());
+            optionalStockTicker.ifPresent(transaction::setStockTicker);
+            Optional<String> optionalExchange = referenceDataCache.findExchangeByStockId(transaction.getStockId());
             optionalExchange.ifPresent(transaction::setExchange);
             return transactionMapper.convertToDto(transaction);
         } else {
@@ -130,11 +184,11 @@ public class TransactionServiceImpl implements TransactionService {
         if (!transactions.isEmpty()) {
             return transactions.stream()
                     .map(transaction -> {
-                        Optional<User> optionalUser = userRepository.findById(transaction.getUserId());
-                        optionalUser.ifPresent(user -> transaction.setUsername(String.valueOf(user.getUsername())));
-                        Optional<Stock> optionalStock = stockRepository.findById(transaction.getStockId());
-                        optionalStock.ifPresent(stock -> transaction.setStockTicker(stock.getStockTicker()));
-                        Optional<String> optionalExchange = stockRepository.findExchangeByStockId(transaction.getStockId());
+                        Optional<String> optionalUsername = referenceDataCache.findUsernameByUserId(transaction.getUserId());
+                        optionalUsername.ifPresent(transaction::setUsername);
+                        Optional<String> optionalStockTicker = referenceDataCache.findStockTickerByStockId(transaction.getStockId());
+                        optionalStockTicker.ifPresent(transaction::setStockTicker);
+                        Optional<String> optionalExchange = referenceDataCache.findExchangeByStockId(transaction.getStockId());
                         optionalExchange.ifPresent(transaction::setExchange);
                         return transactionMapper.convertToDto(transaction);
                     })
@@ -147,11 +201,15 @@ public class TransactionServiceImpl implements TransactionService {
     }
 
     @Override
+    @Transactional
     public TransactionDto updateTransactionById(Long transactionId, TransactionDto transactionDto) {
         Optional<Transaction> optionalTransaction = transactionRepository.findById(transactionId);
         if (optionalTransaction.isPresent()) {
+            Long previousUserId = optionalTransaction.get().getUserId();
+            Long previousStockId = optionalTransaction.get().getStockId();
+            LocalDate previousDate = LocalDate.parse(optionalTransaction.get().getTransactionDate());
             Transaction updatedTransaction = transactionMapper.updateEntityWithDto(transactionDto, optionalTransaction.get());
-            Optional<Long> optionalUserId = userRepository.findIdByUsername(transactionDto.getUsername().toUpperCase());
+            Optional<Long> optionalUserId = referenceDataCache.findUserIdByUsername(transactionDto.getUsername());
             if (optionalUserId.isPresent()) {
                 updatedTransaction.setUserId(optionalUserId.get());
             } else {
@@ -159,13 +217,13 @@ public class TransactionServiceImpl implements TransactionService {
                 LOGGER.error(errorMessages);
                 throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
             }
-            Optional<Long> optionalExchangeId = exchangeRepository.findIdByExchange(transactionDto.getExchange().toUpperCase());
+            Optional<Long> optionalExchangeId = referenceDataCache.findExchangeIdByName(transactionDto.getExchange());
             if (optionalExchangeId.isEmpty()) {
                 List<String> errorMessages = Collections.singletonList(String.format("No exchange found with name: %s", transactionDto.getExchange()));
                 LOGGER.error(errorMessages);
                 throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
             }
-            Optional<Long> optionalStockId = stockRepository.findIdByTickerAndExchangeId(transactionDto.getStockTicker().toUpperCase(), optionalExchangeId.get());
+            Optional<Long> optionalStockId = referenceDataCache.findStockIdByTickerAndExchangeId(transactionDto.getStockTicker(), optionalExchangeId.get());
             if (optionalStockId.isPresent()) {
                 updatedTransaction.setStockId(optionalStockId.get());
             } else {
@@ -174,6 +232,17 @@ public class TransactionServiceImpl implements TransactionService {
                 throw new NotFoundException(new CustomError(ErrorConstants.NOT_FOUND_ERROR_CODE, errorMessages));
             }
             transactionRepository.save(updatedTransaction);
+            statisticCache.invalidateUser(previousUserId);
+            statisticCache.invalidateUser(updatedTransaction.getUserId());
+            holdingIndex.refreshPosition(previousUserId, previousStockId);
+            holdingIndex.refreshPosition(updatedTransaction.getUserId(), updatedTransaction.getStockId());
+            LocalDate updatedDate = LocalDate.parse(updatedTransaction.getTransactionDate());
+            if (previousUserId.equals(updatedTransaction.getUserId())) {
+                portfolioSnapshotService.rebuildSnapshots(previousUserId, previousDate.isBefore(updatedDate) ? previousDate : updatedDate);
+            } else {
+                portfolioSnapshotService.rebuildSnapshots(previousUserId, previousDate);
+                portfolioSnapshotService.rebuildSnapshots(updatedTransaction.getUserId(), updatedDate);
+            }
             return transactionMapper.convertToDto(updatedTransaction);
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_TRANSACTION_FOUND_WITH_ID, transactionId));
@@ -188,6 +257,9 @@ public class TransactionServiceImpl implements TransactionService {
         List<Transaction> transactions = transactionRepository.findAll();
         if (!transactions.isEmpty()) {
             transactionRepository.deleteAll();
+            statisticCache.invalidateAll();
+            holdingIndex.refreshAll();
+            portfolioSnapshotService.deleteAllSnapshots();
         } else {
             List<String> errorMessages = Collections.singletonList("No transaction(s) found.");
             LOGGER.error(errorMessages);
@@ -201,6 +273,9 @@ public class TransactionServiceImpl implements TransactionService {
         Optional<Transaction> optionalDividend = transactionRepository.findById(transactionId);
         if (optionalDividend.isPresent()) {
             transactionRepository.deleteById(transactionId);
+            statisticCache.invalidateUser(optionalDividend.get().getUserId());
+            holdingIndex.refreshPosition(optionalDividend.get().getUserId(), optionalDividend.get().getStockId());
+            portfolioSnapshotService.rebuildSnapshots(optionalDividend.get().getUserId(), LocalDate.parse(optionalDividend.get().getTransactionDate()));
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_TRANSACTION_FOUND_WITH_ID, transactionId));
             LOGGER.error(errorMessages);
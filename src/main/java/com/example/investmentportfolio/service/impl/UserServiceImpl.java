@@ -1,5 +1,7 @@
 package com.example.investmentportfolio.service.impl;
 
+import com.example.investmentportfolio.cache.ReferenceDataCache;
+import com.example.investmentportfolio.cache.StatisticCache;
 import com.example.investmentportfolio.dto.UserDto;
 import com.example.investmentportfolio.mapper.UserMapper;
 import com.example.investmentportfolio.model.User;
@@ -25,11 +27,15 @@ public class UserServiceImpl implements UserService {
     public static final String NO_USER_FOUND_WITH_ID = "No user found with id: %d";
     public static final String NO_USER_FOUND_WITH_USERNAME = "No user found with username: %s";
     private final UserRepository userRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final StatisticCache statisticCache;
     private final UserMapper userMapper;
     private final Validator validator;
 
-    public UserServiceImpl(UserRepository userRepository, UserMapper userMapper) {
+    public UserServiceImpl(UserRepository userRepository, ReferenceDataCache referenceDataCache, StatisticCache statisticCache, UserMapper userMapper) {
         this.userRepository = userRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.statisticCache = statisticCache;
         this.userMapper = userMapper;
         validator = Validation.buildDefaultValidatorFactory().getValidator();
     }
@@ -71,6 +77,11 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    @Override
+    public List<Long> getAllUserIds() {
+        return userRepository.findAllUserIds();
+    }
+
     @Override
     public UserDto getUserById(Long userId) {
         Optional<User> optionalUser = userRepository.findById(userId);
@@ -101,6 +112,8 @@ public class UserServiceImpl implements UserService {
         if (optionalUser.isPresent()) {
             User updatedUser = userMapper.updateEntityWithDto(userDto, optionalUser.get());
             userRepository.save(updatedUser);
+            referenceDataCache.invalidateUsers();
+            statisticCache.invalidateUser(updatedUser.getUserId());
             return userMapper.convertToDto(updatedUser);
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_USER_FOUND_WITH_ID, userId));
@@ -115,6 +128,8 @@ public class UserServiceImpl implements UserService {
         if (optionalUser.isPresent()) {
             User updatedUser = userMapper.updateEntityWithDto(userDto, optionalUser.get());
             userRepository.save(updatedUser);
+            referenceDataCache.invalidateUsers();
+            statisticCache.invalidateUser(updatedUser.getUserId());
             return userMapper.convertToDto(updatedUser);
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_USER_FOUND_WITH_USERNAME, username));
@@ -129,6 +144,8 @@ public class UserServiceImpl implements UserService {
         List<User> users = userRepository.findAll();
         if (!users.isEmpty()) {
             userRepository.deleteAll();
+            referenceDataCache.invalidateUsers();
+            statisticCache.invalidateAll();
         } else {
             List<String> errorMessages = Collections.singletonList("No user(s) found.");
             LOGGER.error(errorMessages);
@@ -142,6 +159,8 @@ public class UserServiceImpl implements UserService {
         Optional<User> optionalUser = userRepository.findById(userId);
         if (optionalUser.isPresent()) {
             userRepository.deleteById(userId);
+            referenceDataCache.invalidateUsers();
+            statisticCache.invalidateUser(userId);
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_USER_FOUND_WITH_ID, userId));
             LOGGER.error(errorMessages);
@@ -155,6 +174,8 @@ public class UserServiceImpl implements UserService {
         Optional<User> optionalUser = userRepository.findByUsernameIgnoreCase(username);
         if (optionalUser.isPresent()) {
             userRepository.deleteByUsernameIgnoreCase(username);
+            referenceDataCache.invalidateUsers();
+            statisticCache.invalidateUser(optionalUser.get().getUserId());
             return userMapper.convertToDto(optionalUser.get());
         } else {
             List<String> errorMessages = Collections.singletonList(String.format(NO_USER_FOUND_WITH_USERNAME, username));
@@ -0,0 +1,174 @@
+package com.example.investmentportfolio.service.impl;
+
+import com.example.investmentportfolio.cache.RateCache;
+import com.example.investmentportfolio.dto.*;
+import com.example.investmentportfolio.model.Exchange;
+import com.example.investmentportfolio.model.Statistic;
+import com.example.investmentportfolio.model.Stock;
+import com.example.investmentportfolio.model.User;
+import com.example.investmentportfolio.repository.ExchangeRepository;
+import com.example.investmentportfolio.repository.StatisticRepository;
+import com.example.investmentportfolio.repository.StockRepository;
+import com.example.investmentportfolio.repository.UserRepository;
+import com.example.investmentportfolio.service.WhatIfService;
+import com.example.investmentportfolio.util.CustomError;
+import com.example.investmentportfolio.util.ErrorConstants;
+import com.example.investmentportfolio.util.ValidationException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class WhatIfServiceImpl implements WhatIfService {
+    private static final Logger LOGGER = LogManager.getLogger(WhatIfServiceImpl.class);
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+    private final StatisticRepository statisticRepository;
+    private final StockRepository stockRepository;
+    private final ExchangeRepository exchangeRepository;
+    private final UserRepository userRepository;
+    private final RateCache rateCache;
+
+    private record ShockedStock(String stockTicker, String exchange, String baseCurrency, BigDecimal priceMultiplier) {
+    }
+
+    public WhatIfServiceImpl(StatisticRepository statisticRepository, StockRepository stockRepository, ExchangeRepository exchangeRepository,
+                             UserRepository userRepository, RateCache rateCache) {
+        this.statisticRepository = statisticRepository;
+        this.stockRepository = stockRepository;
+        this.exchangeRepository = exchangeRepository;
+        this.userRepository = userRepository;
+        this.rateCache = rateCache;
+    }
+
+    // Shocks are applied to the stored total_value of each position, converted from its base currency at the cached rate, so nothing is written back to stocks or rates
+    @Override
+    public WhatIfDto runScenario(WhatIfScenarioDto whatIfScenarioDto) {
+        List<PriceShockDto> priceShocks = Optional.ofNullable(whatIfScenarioDto.getPriceShocks()).orElse(Collections.emptyList());
+        List<RateShockDto> rateShocks = Optional.ofNullable(whatIfScenarioDto.getRateShocks()).orElse(Collections.emptyList());
+        validateShocks(priceShocks, rateShocks);
+        long start = System.nanoTime();
+
+        Map<Long, String> exchangesById = exchangeRepository.findAll().stream()
+                .collect(Collectors.toMap(Exchange::getExchangeId, Exchange::getExchange));
+        Map<Long, ShockedStock> shockedStocksById = new HashMap<>();
+        for (Stock stock : stockRepository.findAll()) {
+            String exchange = exchangesById.get(stock.getExchangeId());
+            BigDecimal priceMultiplier = BigDecimal.ONE;
+            for (PriceShockDto priceShock : priceShocks) {
+                if (matches(priceShock, stock, exchange)) {
+                    priceMultiplier = priceMultiplier.multiply(toMultiplier(priceShock.getPercentChange()));
+                }
+            }
+            shockedStocksById.put(stock.getStockId(), new ShockedStock(stock.getStockTicker(), exchange, stock.getBaseCurrency(), priceMultiplier));
+        }
+        Map<String, BigDecimal> rateMultipliers = new HashMap<>();
+        for (RateShockDto rateShock : rateShocks) {
+            String[] currencies = rateShock.getRateName().toUpperCase().split("/");
+            BigDecimal multiplier = toMultiplier(rateShock.getPercentChange());
+            rateMultipliers.merge(currencies[0] + "/" + currencies[1], multiplier, BigDecimal::multiply);
+            rateMultipliers.merge(currencies[1] + "/" + currencies[0], BigDecimal.ONE.divide(multiplier, MathContext.DECIMAL64), BigDecimal::multiply);
+        }
+
+        List<Long> userIds = whatIfScenarioDto.getUserIds();
+        boolean scoped = userIds != null && !userIds.isEmpty();
+        Map<Long, String> displayCurrenciesByUserId = (scoped ? userRepository.findAllById(userIds) : userRepository.findAll()).stream()
+                .collect(Collectors.toMap(User::getUserId, User::getDisplayCurrency));
+        List<Statistic> positions = scoped ? statisticRepository.findPositionsByUserIds(userIds) : statisticRepository.findAllPositions();
+        Map<Long, List<Statistic>> positionsByUserId = positions.stream()
+                .filter(position -> position.getTotalValue() != null && displayCurrenciesByUserId.containsKey(position.getUserId()))
+                .collect(Collectors.groupingBy(Statistic::getUserId));
+
+        Map<String, BigDecimal> conversionMultipliers = new ConcurrentHashMap<>();
+        Function<String, BigDecimal> conversionMultiplier = rateName -> conversionMultipliers.computeIfAbsent(rateName,
+                key -> rateMultipliers.getOrDefault(key, BigDecimal.ONE));
+        Map<String, BigDecimal> currentRates = new ConcurrentHashMap<>();
+        Function<String, BigDecimal> currentRate = rateName -> currentRates.computeIfAbsent(rateName, rateCache::getRate);
+        List<WhatIfUserDto> users = positionsByUserId.entrySet().parallelStream()
+                .map(entry -> revalueUser(entry.getKey(), displayCurrenciesByUserId.get(entry.getKey()), entry.getValue(), shockedStocksById,
+                        currentRate, conversionMultiplier, whatIfScenarioDto.isIncludePositions()))
+                .sorted(Comparator.comparing((WhatIfUserDto user) -> new BigDecimal(user.getValueChange())).thenComparing(WhatIfUserDto::getUserId))
+                .toList();
+        int positionsRevalued = positionsByUserId.values().stream().mapToInt(List::size).sum();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        LOGGER.info("Revalued {} position(s) of {} user(s) under {} price shock(s) and {} rate shock(s) in {} ms", positionsRevalued, users.size(),
+                priceShocks.size(), rateShocks.size(), elapsedMillis);
+        return new WhatIfDto(users.size(), positionsRevalued, users, elapsedMillis);
+    }
+
+    private WhatIfUserDto revalueUser(Long userId, String displayCurrency, List<Statistic> positions, Map<Long, ShockedStock> shockedStocksById,
+                                      Function<String, BigDecimal> currentRate, Function<String, BigDecimal> conversionMultiplier, boolean includePositions) {
+        BigDecimal currentValue = BigDecimal.ZERO;
+        BigDecimal shockedValue = BigDecimal.ZERO;
+        List<WhatIfPositionDto> positionDtos = includePositions ? new ArrayList<>() : null;
+        for (Statistic position : positions) {
+            BigDecimal positionValue = new BigDecimal(position.getTotalValue());
+            ShockedStock shockedStock = shockedStocksById.get(position.getStockId());
+            if (shockedStock != null) {
+                positionValue = positionValue.multiply(currentRate.apply(shockedStock.baseCurrency() + "/" + displayCurrency));
+            }
+            BigDecimal shockedPositionValue = positionValue;
+            if (shockedStock != null) {
+                shockedPositionValue = positionValue.multiply(shockedStock.priceMultiplier())
+                        .multiply(conversionMultiplier.apply(shockedStock.baseCurrency() + "/" + displayCurrency));
+            }
+            currentValue = currentValue.add(positionValue);
+            shockedValue = shockedValue.add(shockedPositionValue);
+            if (includePositions) {
+                positionDtos.add(new WhatIfPositionDto(shockedStock == null ? null : shockedStock.stockTicker(),
+                        shockedStock == null ? null : shockedStock.exchange(), format(positionValue), format(shockedPositionValue),
+                        format(shockedPositionValue.subtract(positionValue))));
+            }
+        }
+        BigDecimal valueChange = shockedValue.subtract(currentValue);
+        String percentChange = currentValue.signum() == 0 ? null
+                : format(valueChange.multiply(ONE_HUNDRED).divide(currentValue, 15, RoundingMode.HALF_UP));
+        return new WhatIfUserDto(userId, displayCurrency, format(currentValue), format(shockedValue), format(valueChange), percentChange, positionDtos);
+    }
+
+    // Every criterion given on a shock must match, so a shock without criteria moves the whole market
+    private static boolean matches(PriceShockDto priceShock, Stock stock, String exchange) {
+        return matches(priceShock.getExchange(), exchange)
+                && matches(priceShock.getStockType(), stock.getStockType())
+                && matches(priceShock.getCurrency(), stock.getBaseCurrency())
+                && matches(priceShock.getStockTicker(), stock.getStockTicker());
+    }
+
+    private static boolean matches(String criterion, String value) {
+        return criterion == null || criterion.isBlank() || (value != null && criterion.trim().equalsIgnoreCase(value.trim()));
+    }
+
+    private static BigDecimal toMultiplier(String percentChange) {
+        return BigDecimal.ONE.add(new BigDecimal(percentChange).divide(ONE_HUNDRED, 15, RoundingMode.HALF_UP));
+    }
+
+    private static void validateShocks(List<PriceShockDto> priceShocks, List<RateShockDto> rateShocks) {
+        List<String> errorMessages = new ArrayList<>();
+        if (priceShocks.isEmpty() && rateShocks.isEmpty()) {
+            errorMessages.add("At least one price or rate shock is required.");
+        }
+        priceShocks.stream()
+                .filter(priceShock -> new BigDecimal(priceShock.getPercentChange()).compareTo(ONE_HUNDRED.negate()) < 0)
+                .forEach(priceShock -> errorMessages.add(String.format("Price shock of %s%% would make prices negative.", priceShock.getPercentChange())));
+        rateShocks.stream()
+                .filter(rateShock -> new BigDecimal(rateShock.getPercentChange()).compareTo(ONE_HUNDRED.negate()) <= 0)
+                .forEach(rateShock -> errorMessages.add(String.format("Rate shock of %s%% on %s must leave the rate positive.", rateShock.getPercentChange(),
+                        rateShock.getRateName())));
+        if (!errorMessages.isEmpty()) {
+            LOGGER.error(errorMessages);
+            throw new ValidationException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
+        }
+    }
+
+
+    private static String format(BigDecimal value) {
+        return value.setScale(2, RoundingMode.HALF_UP).stripTrailingZeros().toPlainString();
+    }
+}
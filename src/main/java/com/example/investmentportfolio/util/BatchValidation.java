@@ -0,0 +1,46 @@
+package com.example.investmentportfolio.util;
+
+import jakarta.validation.Validator;
+import jakarta.validation.groups.Default;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchValidation {
+    private static final Logger LOGGER = LogManager.getLogger(BatchValidation.class);
+    public static final String ITEM_ERROR = "Item %d: %s";
+
+    private BatchValidation() {
+        throw new AssertionError("BatchValidation class should not be instantiated.");
+    }
+
+    // Batch bodies skip controller @Valid handling, so both the field patterns and the create rules are checked here
+    public static <T> List<String> validate(Validator validator, List<T> items, int maxItems) {
+        List<String> errorMessages = new ArrayList<>();
+        if (items == null || items.isEmpty()) {
+            errorMessages.add("At least one item is required.");
+            return errorMessages;
+        }
+        if (items.size() > maxItems) {
+            errorMessages.add(String.format("At most %d items can be created at once.", maxItems));
+            return errorMessages;
+        }
+        for (int i = 0; i < items.size(); i++) {
+            int item = i + 1;
+            validator.validate(items.get(i), Default.class, CreateValidation.class).stream()
+                    .map(violation -> String.format(ITEM_ERROR, item, violation.getMessage()))
+                    .sorted()
+                    .forEach(errorMessages::add);
+        }
+        return errorMessages;
+    }
+
+    public static void throwIfInvalid(List<String> errorMessages) {
+        if (!errorMessages.isEmpty()) {
+            LOGGER.error(errorMessages);
+            throw new ValidationException(new CustomError(ErrorConstants.BAD_REQUEST_ERROR_CODE, errorMessages));
+        }
+    }
+}
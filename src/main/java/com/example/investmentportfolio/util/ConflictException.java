@@ -0,0 +1,13 @@
+package com.example.investmentportfolio.util;
+
+import lombok.Getter;
+
+@Getter
+public class ConflictException extends RuntimeException {
+    private final transient CustomError error;
+
+    public ConflictException(CustomError error) {
+        this.error = error;
+    }
+
+}
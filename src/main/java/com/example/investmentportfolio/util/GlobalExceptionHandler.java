@@ -18,6 +18,11 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getError());
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<CustomError> handleConflictException(ConflictException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getError());
+    }
+
     @ExceptionHandler(ValidationException.class)
     public ResponseEntity<CustomError> handleValidationException(ValidationException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getError());
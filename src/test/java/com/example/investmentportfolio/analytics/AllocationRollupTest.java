@@ -0,0 +1,51 @@
+package com.example.investmentportfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AllocationRollupTest {
+
+    @Test
+    void sumsPositionsIntoEveryDimensionAndTheTotals() {
+        AllocationRollup rollup = new AllocationRollup();
+        rollup.add("Stock", "SGX", "SGD", new double[]{100, 80, 20, 5, 2, 27});
+        rollup.add("ETF", "SGX", "SGD", new double[]{50, 60, -10, 0, 1, -9});
+        rollup.add("Stock", "NASDAQ", "USD", new double[]{200, 150, 50, 10, 0, 60});
+
+        Map<String, double[]> byType = rollup.groups(AllocationRollup.Dimension.STOCK_TYPE);
+        assertEquals(2, byType.size());
+        assertArrayEquals(new double[]{300, 230, 70, 15, 2, 87}, byType.get("Stock"), 1e-12);
+        assertArrayEquals(new double[]{50, 60, -10, 0, 1, -9}, byType.get("ETF"), 1e-12);
+        assertArrayEquals(new double[]{150, 140, 10, 5, 3, 18}, rollup.groups(AllocationRollup.Dimension.EXCHANGE).get("SGX"), 1e-12);
+        assertArrayEquals(new double[]{200, 150, 50, 10, 0, 60}, rollup.groups(AllocationRollup.Dimension.CURRENCY).get("USD"), 1e-12);
+        assertEquals(350, rollup.total(AllocationRollup.VALUE), 1e-12);
+        assertEquals(78, rollup.total(AllocationRollup.TOTAL_PROFITS), 1e-12);
+    }
+
+    @Test
+    void scalesMergedRollupsIntoTheReportingCurrency() {
+        AllocationRollup sgdUser = new AllocationRollup();
+        sgdUser.add("Stock", "SGX", "SGD", new double[]{100, 80, 20, 0, 0, 20});
+        AllocationRollup usdUser = new AllocationRollup();
+        usdUser.add("Stock", "NASDAQ", "USD", new double[]{10, 8, 2, 0, 0, 2});
+
+        AllocationRollup merged = new AllocationRollup();
+        merged.merge(sgdUser, 1);
+        merged.merge(usdUser, 1.35);
+
+        assertArrayEquals(new double[]{113.5, 90.8, 22.7, 0, 0, 22.7}, merged.groups(AllocationRollup.Dimension.STOCK_TYPE).get("Stock"), 1e-9);
+        assertEquals(13.5, merged.groups(AllocationRollup.Dimension.EXCHANGE).get("NASDAQ")[AllocationRollup.VALUE], 1e-9);
+        assertEquals(113.5, merged.total(AllocationRollup.VALUE), 1e-9);
+    }
+
+    @Test
+    void exposesReadOnlyGroups() {
+        AllocationRollup rollup = new AllocationRollup();
+
+        assertThrows(UnsupportedOperationException.class,
+                () -> rollup.groups(AllocationRollup.Dimension.CURRENCY).put("EUR", new double[AllocationRollup.METRICS]));
+    }
+}
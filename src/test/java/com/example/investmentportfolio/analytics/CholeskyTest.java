@@ -0,0 +1,57 @@
+package com.example.investmentportfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CholeskyTest {
+
+    @Test
+    void decomposesAPositiveDefiniteMatrix() {
+        double[][] matrix = {
+                {4, 12, -16},
+                {12, 37, -43},
+                {-16, -43, 98}};
+
+        double[][] lower = Cholesky.decompose(matrix);
+
+        assertArrayEquals(new double[]{2, 0, 0}, lower[0], 1e-12);
+        assertArrayEquals(new double[]{6, 1, 0}, lower[1], 1e-12);
+        assertArrayEquals(new double[]{-8, 5, 3}, lower[2], 1e-12);
+        assertReconstructs(matrix, lower, 1e-12);
+    }
+
+    // Perfectly correlated assets give a singular matrix, which only decomposes once the ridge is added
+    @Test
+    void addsARidgeToASingularCorrelationMatrix() {
+        double[][] matrix = {
+                {1, 1},
+                {1, 1}};
+
+        double[][] lower = Cholesky.decompose(matrix);
+
+        assertEquals(0, lower[0][1]);
+        assertReconstructs(matrix, lower, 1e-6);
+    }
+
+    @Test
+    void rejectsAnIndefiniteMatrix() {
+        double[][] matrix = {
+                {1, 2},
+                {2, 1}};
+
+        assertThrows(IllegalArgumentException.class, () -> Cholesky.decompose(matrix));
+    }
+
+    private static void assertReconstructs(double[][] matrix, double[][] lower, double delta) {
+        for (int i = 0; i < matrix.length; i++) {
+            for (int j = 0; j < matrix.length; j++) {
+                double sum = 0;
+                for (int k = 0; k < matrix.length; k++) {
+                    sum += lower[i][k] * lower[j][k];
+                }
+                assertEquals(matrix[i][j], sum, delta, "entry " + i + "," + j);
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.investmentportfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DividendProjectorTest {
+
+    @Test
+    void keepsInterimAndFinalSizesForASemiAnnualPayer() {
+        List<DividendProjector.PastDividend> history = List.of(
+                dividend("2025-11-07", "2025-11-21", "0.22"),
+                dividend("2024-05-10", "2024-05-24", "0.10"),
+                dividend("2025-05-09", "2025-05-23", "0.11"),
+                dividend("2024-11-08", "2024-11-22", "0.20"));
+
+        DividendProjector.Projection projection = DividendProjector.project(history, LocalDate.parse("2026-01-01"), LocalDate.parse("2026-12-31"));
+
+        assertEquals(DividendProjector.Cadence.SEMI_ANNUAL, projection.cadence());
+        assertEquals(List.of(
+                new DividendProjector.ProjectedDividend(LocalDate.parse("2026-05-07"), LocalDate.parse("2026-05-21"), new BigDecimal("0.11")),
+                new DividendProjector.ProjectedDividend(LocalDate.parse("2026-11-07"), LocalDate.parse("2026-11-21"), new BigDecimal("0.22"))),
+                projection.dividends());
+    }
+
+    // Ingested dividends carry no pay date, so the projected pay date falls back to the ex date
+    @Test
+    void projectsAQuarterlyPayerWithoutPayDates() {
+        List<DividendProjector.PastDividend> history = List.of(
+                dividend("2025-01-15", null, "0.05"),
+                dividend("2025-04-15", null, "0.05"),
+                dividend("2025-07-15", null, "0.06"),
+                dividend("2025-10-15", null, "0.06"));
+
+        DividendProjector.Projection projection = DividendProjector.project(history, LocalDate.parse("2026-01-01"), LocalDate.parse("2026-06-30"));
+
+        assertEquals(DividendProjector.Cadence.QUARTERLY, projection.cadence());
+        assertEquals(List.of(
+                new DividendProjector.ProjectedDividend(LocalDate.parse("2026-01-15"), LocalDate.parse("2026-01-15"), new BigDecimal("0.05")),
+                new DividendProjector.ProjectedDividend(LocalDate.parse("2026-04-15"), LocalDate.parse("2026-04-15"), new BigDecimal("0.05"))),
+                projection.dividends());
+    }
+
+    @Test
+    void skipsProjectionsBeforeTheWindowWithoutLosingTheirSlot() {
+        List<DividendProjector.PastDividend> history = List.of(
+                dividend("2025-01-15", "2025-01-30", "0.05"),
+                dividend("2025-04-15", "2025-04-30", "0.07"),
+                dividend("2025-07-15", "2025-07-30", "0.09"),
+                dividend("2025-10-15", "2025-10-30", "0.11"));
+
+        DividendProjector.Projection projection = DividendProjector.project(history, LocalDate.parse("2026-03-01"), LocalDate.parse("2026-05-31"));
+
+        assertEquals(List.of(
+                new DividendProjector.ProjectedDividend(LocalDate.parse("2026-04-15"), LocalDate.parse("2026-04-30"), new BigDecimal("0.07"))),
+                projection.dividends());
+    }
+
+    @Test
+    void treatsALongSilenceAsHavingStoppedPaying() {
+        List<DividendProjector.PastDividend> history = List.of(dividend("2023-06-01", "2023-06-15", "0.30"));
+
+        DividendProjector.Projection projection = DividendProjector.project(history, LocalDate.parse("2026-01-01"), LocalDate.parse("2026-12-31"));
+
+        assertEquals(DividendProjector.Cadence.ANNUAL, projection.cadence());
+        assertTrue(projection.dividends().isEmpty());
+    }
+
+    @Test
+    void projectsNothingWithoutHistory() {
+        DividendProjector.Projection projection = DividendProjector.project(List.of(), LocalDate.parse("2026-01-01"), LocalDate.parse("2026-12-31"));
+
+        assertNull(projection.cadence());
+        assertTrue(projection.dividends().isEmpty());
+    }
+
+    private static DividendProjector.PastDividend dividend(String exDate, String payDate, String payout) {
+        return new DividendProjector.PastDividend(LocalDate.parse(exDate), payDate == null ? null : LocalDate.parse(payDate), new BigDecimal(payout));
+    }
+}
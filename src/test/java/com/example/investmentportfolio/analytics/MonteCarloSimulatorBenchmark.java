@@ -0,0 +1,73 @@
+package com.example.investmentportfolio.analytics;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MonteCarloSimulatorBenchmark {
+    @Param({"1", "2", "4", "8"})
+    private int parallelism;
+
+    @Param({"20000"})
+    private int paths;
+
+    @Param({"63"})
+    private int horizonDays;
+
+    @Param({"10"})
+    private int positions;
+
+    @Param({"true"})
+    private boolean correlated;
+
+    private ForkJoinPool pool;
+    private MonteCarloSimulator simulator;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        double[] values = new double[positions];
+        double[] drifts = new double[positions];
+        double[] volatilities = new double[positions];
+        double[][] correlation = new double[positions][positions];
+        for (int i = 0; i < positions; i++) {
+            values[i] = random.nextDouble(1_000, 50_000);
+            drifts[i] = random.nextDouble(-0.05, 0.15);
+            volatilities[i] = random.nextDouble(0.1, 0.5);
+            for (int j = 0; j < positions; j++) {
+                correlation[i][j] = i == j ? 1 : 0.3;
+            }
+        }
+        simulator = new MonteCarloSimulator(values, drifts, volatilities, correlated ? Cholesky.decompose(correlation) : null, horizonDays);
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public double[] simulate() {
+        return simulator.simulateFinalValues(paths, 42L, pool);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MonteCarloSimulatorBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.investmentportfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class P2QuantileTest {
+
+    @Test
+    void tracksTheExactQuantileOfANormalSample() {
+        SplittableRandom random = new SplittableRandom(7);
+        double[] sample = new double[20_000];
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = gaussian(random);
+        }
+        for (double p : new double[]{0.01, 0.05, 0.5, 0.95}) {
+            P2Quantile quantile = new P2Quantile(p);
+            Arrays.stream(sample).forEach(quantile::add);
+
+            assertEquals(exactQuantile(sample, p), quantile.getQuantile(), 0.05, "p = " + p);
+        }
+    }
+
+    @Test
+    void tracksTheExactQuantileOfASkewedSample() {
+        SplittableRandom random = new SplittableRandom(11);
+        double[] sample = new double[20_000];
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = -Math.log(1 - random.nextDouble());
+        }
+        P2Quantile quantile = new P2Quantile(0.9);
+        Arrays.stream(sample).forEach(quantile::add);
+
+        double exact = exactQuantile(sample, 0.9);
+        assertEquals(exact, quantile.getQuantile(), exact * 0.03);
+    }
+
+    @Test
+    void answersFromTheSortedObservationsBeforeTheMarkersAreSet() {
+        P2Quantile quantile = new P2Quantile(0.5);
+        assertTrue(Double.isNaN(quantile.getQuantile()));
+
+        quantile.add(3);
+        quantile.add(1);
+        quantile.add(2);
+
+        assertEquals(2, quantile.getQuantile());
+        assertEquals(3, quantile.getCount());
+    }
+
+    @Test
+    void continuesFromItsPersistedState() {
+        SplittableRandom random = new SplittableRandom(3);
+        P2Quantile continuous = new P2Quantile(0.05);
+        P2Quantile resumed = new P2Quantile(0.05);
+        for (int i = 0; i < 1000; i++) {
+            double x = gaussian(random);
+            continuous.add(x);
+            resumed.add(x);
+        }
+        resumed = P2Quantile.fromState(0.05, resumed.toState());
+        for (int i = 0; i < 1000; i++) {
+            double x = gaussian(random);
+            continuous.add(x);
+            resumed.add(x);
+        }
+
+        assertEquals(continuous.getCount(), resumed.getCount());
+        assertEquals(continuous.getQuantile(), resumed.getQuantile(), 1e-12);
+    }
+
+    private static double exactQuantile(double[] sample, double p) {
+        double[] sorted = sample.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.round(p * (sorted.length - 1))];
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+}
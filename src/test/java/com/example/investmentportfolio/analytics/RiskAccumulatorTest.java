@@ -0,0 +1,108 @@
+package com.example.investmentportfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RiskAccumulatorTest {
+
+    @Test
+    void matchesTwoPassVolatilityAndBeta() {
+        SplittableRandom random = new SplittableRandom(5);
+        int days = 500;
+        double[] portfolio = new double[days];
+        double[] benchmark = new double[days];
+        RiskAccumulator accumulator = new RiskAccumulator(0.95);
+        for (int i = 0; i < days; i++) {
+            benchmark[i] = random.nextDouble(-0.02, 0.02);
+            portfolio[i] = 1.5 * benchmark[i] + random.nextDouble(-0.005, 0.005);
+            accumulator.add(portfolio[i], benchmark[i]);
+        }
+
+        double portfolioMean = mean(portfolio);
+        double benchmarkMean = mean(benchmark);
+        double variance = 0;
+        double benchmarkVariance = 0;
+        double covariance = 0;
+        for (int i = 0; i < days; i++) {
+            variance += (portfolio[i] - portfolioMean) * (portfolio[i] - portfolioMean);
+            benchmarkVariance += (benchmark[i] - benchmarkMean) * (benchmark[i] - benchmarkMean);
+            covariance += (portfolio[i] - portfolioMean) * (benchmark[i] - benchmarkMean);
+        }
+        double volatility = Math.sqrt(variance / (days - 1)) * Math.sqrt(RiskAccumulator.TRADING_DAYS_PER_YEAR);
+
+        assertEquals(volatility, accumulator.getAnnualizedVolatility(), 1e-12);
+        assertEquals(covariance / benchmarkVariance, accumulator.getBeta(), 1e-9);
+        assertEquals(1.5, accumulator.getBeta(), 0.05);
+    }
+
+    @Test
+    void measuresTheDeepestPeakToTroughDrawdown() {
+        RiskAccumulator accumulator = new RiskAccumulator(0.95);
+        for (double dailyReturn : new double[]{0.1, -0.2, 0.05, -0.1, 0.5, -0.05}) {
+            accumulator.add(dailyReturn, Double.NaN);
+        }
+
+        assertEquals(1 - (0.8 * 1.05 * 0.9), accumulator.getMaxDrawdown(), 1e-12);
+    }
+
+    @Test
+    void leavesBetaUndefinedWithoutBenchmarkReturns() {
+        RiskAccumulator accumulator = new RiskAccumulator(0.95);
+        accumulator.add(0.01, Double.NaN);
+        accumulator.add(-0.02, Double.NaN);
+        accumulator.add(0.03, Double.NaN);
+
+        assertTrue(Double.isNaN(accumulator.getBeta()));
+        assertEquals(3, accumulator.getCount());
+        assertEquals(0, accumulator.getPairedCount());
+    }
+
+    @Test
+    void reportsValueAtRiskAsAPositiveLoss() {
+        SplittableRandom random = new SplittableRandom(9);
+        RiskAccumulator accumulator = new RiskAccumulator(0.95);
+        for (int i = 0; i < 10_000; i++) {
+            accumulator.add(random.nextDouble(-0.04, 0.06), Double.NaN);
+        }
+
+        assertEquals(0.035, accumulator.getValueAtRisk(), 0.002);
+    }
+
+    @Test
+    void continuesFromItsPersistedState() {
+        SplittableRandom random = new SplittableRandom(13);
+        RiskAccumulator continuous = new RiskAccumulator(0.99);
+        RiskAccumulator first = new RiskAccumulator(0.99);
+        for (int i = 0; i < 300; i++) {
+            double benchmarkReturn = random.nextDouble(-0.02, 0.02);
+            double portfolioReturn = benchmarkReturn + random.nextDouble(-0.01, 0.01);
+            continuous.add(portfolioReturn, benchmarkReturn);
+            first.add(portfolioReturn, benchmarkReturn);
+        }
+        RiskAccumulator resumed = new RiskAccumulator(0.99, first.getCount(), first.getMean(), first.getM2(), first.getPairedCount(),
+                first.getPairedMean(), first.getBenchmarkMean(), first.getBenchmarkM2(), first.getCoMoment(), first.getWealth(),
+                first.getPeakWealth(), first.getMaxDrawdown(), first.getQuantileState());
+        for (int i = 0; i < 300; i++) {
+            double benchmarkReturn = random.nextDouble(-0.02, 0.02);
+            double portfolioReturn = benchmarkReturn + random.nextDouble(-0.01, 0.01);
+            continuous.add(portfolioReturn, benchmarkReturn);
+            resumed.add(portfolioReturn, benchmarkReturn);
+        }
+
+        assertEquals(continuous.getAnnualizedVolatility(), resumed.getAnnualizedVolatility(), 1e-12);
+        assertEquals(continuous.getBeta(), resumed.getBeta(), 1e-12);
+        assertEquals(continuous.getMaxDrawdown(), resumed.getMaxDrawdown(), 1e-12);
+        assertEquals(continuous.getValueAtRisk(), resumed.getValueAtRisk(), 1e-12);
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+}
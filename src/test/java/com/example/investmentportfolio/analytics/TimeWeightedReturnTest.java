@@ -0,0 +1,30 @@
+package com.example.investmentportfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeWeightedReturnTest {
+
+    // A contribution mid-way changes the value but not the return of either period
+    @Test
+    void chainsPeriodReturnsAcrossContributions() {
+        double[] valuesBeforeFlows = {0, 110};
+        double[] valuesAfterFlows = {100, 210};
+
+        assertEquals(0.21, TimeWeightedReturn.chainLink(valuesBeforeFlows, valuesAfterFlows, 231), 1e-12);
+    }
+
+    @Test
+    void skipsThePeriodAfterAFullExit() {
+        double[] valuesBeforeFlows = {0, 120, 0};
+        double[] valuesAfterFlows = {100, 0, 50};
+
+        assertEquals(1.2 * 1.1 - 1, TimeWeightedReturn.chainLink(valuesBeforeFlows, valuesAfterFlows, 55), 1e-12);
+    }
+
+    @Test
+    void returnsNaNWhenNothingWasEverHeld() {
+        assertTrue(Double.isNaN(TimeWeightedReturn.chainLink(new double[]{0, 0}, new double[]{0, 0}, 0)));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.investmentportfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKTest {
+
+    @Test
+    void keepsTheGreatestItemsInDescendingOrder() {
+        SplittableRandom random = new SplittableRandom(17);
+        List<Integer> items = IntStream.range(0, 10_000).map(i -> random.nextInt(1_000_000)).boxed().toList();
+        TopK<Integer> topK = new TopK<>(10, Comparator.naturalOrder());
+        items.forEach(topK::offer);
+
+        List<Integer> expected = items.stream().sorted(Comparator.reverseOrder()).limit(10).toList();
+        assertEquals(expected, topK.toSortedList());
+        assertEquals(10_000, topK.offered());
+    }
+
+    @Test
+    void returnsEverythingWhenFewerThanKItemsAreOffered() {
+        TopK<String> topK = new TopK<>(5, Comparator.comparing(String::length));
+        topK.offer("ab");
+        topK.offer("abcd");
+        topK.offer("a");
+
+        assertEquals(List.of("abcd", "ab", "a"), topK.toSortedList());
+    }
+
+    // A tie with the smallest kept item does not displace it, so the earlier entry wins
+    @Test
+    void keepsTheFirstOfTiedItems() {
+        record Entry(String name, int score) {
+        }
+        TopK<Entry> topK = new TopK<>(2, Comparator.comparingInt(Entry::score));
+        topK.offer(new Entry("first", 5));
+        topK.offer(new Entry("top", 9));
+        topK.offer(new Entry("late", 5));
+
+        assertEquals(List.of("top", "first"), topK.toSortedList().stream().map(Entry::name).toList());
+    }
+
+    @Test
+    void rejectsANonPositiveK() {
+        assertThrows(IllegalArgumentException.class, () -> new TopK<Integer>(0, Comparator.naturalOrder()));
+    }
+}
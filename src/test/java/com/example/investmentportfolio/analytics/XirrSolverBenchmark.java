@@ -0,0 +1,72 @@
+package com.example.investmentportfolio.analytics;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XirrSolverBenchmark {
+    @Param({"10000"})
+    private int cashFlowsPerPortfolio;
+
+    @Param({"64"})
+    private int portfolios;
+
+    private CashFlows single;
+    private List<CashFlows> batch;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        single = portfolio(random);
+        batch = new ArrayList<>();
+        for (int i = 0; i < portfolios; i++) {
+            batch.add(portfolio(random));
+        }
+    }
+
+    // Ten years of buys, sells and dividends with the remaining holdings valued on the last day
+    private CashFlows portfolio(SplittableRandom random) {
+        double[] years = new double[cashFlowsPerPortfolio];
+        double[] amounts = new double[cashFlowsPerPortfolio];
+        double invested = 0;
+        for (int i = 0; i < cashFlowsPerPortfolio - 1; i++) {
+            years[i] = 10.0 * i / cashFlowsPerPortfolio;
+            double draw = random.nextDouble();
+            amounts[i] = draw < 0.6 ? -random.nextDouble(100, 5000) : draw < 0.9 ? random.nextDouble(100, 4000) : random.nextDouble(5, 200);
+            invested -= amounts[i];
+        }
+        years[cashFlowsPerPortfolio - 1] = 10.0;
+        amounts[cashFlowsPerPortfolio - 1] = Math.max(invested, 0) * 1.8 + 1000;
+        return new CashFlows(years, amounts);
+    }
+
+    @Benchmark
+    public XirrSolver.Result solveSingle() {
+        return XirrSolver.solve(single, 100, 1e-10);
+    }
+
+    @Benchmark
+    public List<XirrSolver.Result> solveAllParallel() {
+        return XirrSolver.solveAll(batch, 100, 1e-10);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(XirrSolverBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.investmentportfolio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class XirrSolverTest {
+    private static final int MAX_ITERATIONS = 100;
+    private static final double TOLERANCE = 1e-10;
+
+    @Test
+    void solvesWithNewtonFromTheInitialGuess() {
+        CashFlows cashFlows = new CashFlows(new double[]{0, 1}, new double[]{-1000, 1500});
+
+        XirrSolver.Result result = XirrSolver.solve(cashFlows, MAX_ITERATIONS, TOLERANCE);
+
+        assertTrue(result.converged());
+        assertEquals(0.5, result.rate(), 1e-9);
+        assertTrue(result.iterations() < 10);
+    }
+
+    @Test
+    void solvesIrregularlySpacedFlowsToAZeroPresentValue() {
+        double[] years = {0, 0.25, 0.8, 1.5, 2.75};
+        double[] amounts = {-5000, -1200, 300, 2500, 4800};
+
+        XirrSolver.Result result = XirrSolver.solve(new CashFlows(years, amounts), MAX_ITERATIONS, TOLERANCE);
+
+        assertTrue(result.converged());
+        assertEquals(0, presentValue(years, amounts, result.rate()), 1e-6);
+    }
+
+    // Newton's first step from 0.1 lands below -1, so the root can only be found by the bracketed Brent search
+    @Test
+    void fallsBackToBrentWhenNewtonLeavesTheDomain() {
+        CashFlows cashFlows = new CashFlows(new double[]{0, 1}, new double[]{-1000, 1});
+
+        XirrSolver.Result result = XirrSolver.solve(cashFlows, MAX_ITERATIONS, TOLERANCE);
+
+        assertTrue(result.converged());
+        assertEquals(-0.999, result.rate(), 1e-9);
+        assertTrue(result.iterations() > 1);
+    }
+
+    @Test
+    void returnsNaNWithoutASignChange() {
+        CashFlows cashFlows = new CashFlows(new double[]{0, 0.5, 1}, new double[]{-1000, -500, -250});
+
+        XirrSolver.Result result = XirrSolver.solve(cashFlows, MAX_ITERATIONS, TOLERANCE);
+
+        assertTrue(Double.isNaN(result.rate()));
+        assertFalse(result.converged());
+        assertEquals(0, result.iterations());
+    }
+
+    @Test
+    void solveAllKeepsTheInputOrder() {
+        List<CashFlows> cashFlows = List.of(
+                new CashFlows(new double[]{0, 1}, new double[]{-100, 150}),
+                new CashFlows(new double[]{0, 1}, new double[]{-100, -50}),
+                new CashFlows(new double[]{0, 1}, new double[]{-100, 90}));
+
+        List<XirrSolver.Result> results = XirrSolver.solveAll(cashFlows, MAX_ITERATIONS, TOLERANCE);
+
+        assertEquals(3, results.size());
+        assertEquals(0.5, results.get(0).rate(), 1e-9);
+        assertTrue(Double.isNaN(results.get(1).rate()));
+        assertEquals(-0.1, results.get(2).rate(), 1e-9);
+    }
+
+    private static double presentValue(double[] years, double[] amounts, double rate) {
+        double value = 0;
+        for (int i = 0; i < amounts.length; i++) {
+            value += amounts[i] / Math.pow(1 + rate, years[i]);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.investmentportfolio.cache;
+
+import com.example.investmentportfolio.repository.DataVersionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DataVersionCacheTest {
+    private final Map<String, Long> versions = new HashMap<>();
+    private DataVersionRepository repository;
+    private CacheInvalidationBus bus;
+    private DataVersionCache cache;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(DataVersionRepository.class);
+        bus = mock(CacheInvalidationBus.class);
+        when(repository.find(anyString())).thenAnswer(invocation -> Optional.ofNullable(versions.get(invocation.<String>getArgument(0))));
+        doAnswer(invocation -> versions.merge(invocation.getArgument(0), 1L, Long::sum)).when(repository).bump(anyString());
+        cache = new DataVersionCache(repository, bus);
+    }
+
+    @Test
+    void tagJoinsVersionsInScopeOrderAndTreatsMissingScopesAsZero() {
+        versions.put(DataVersionCache.STOCKS, 4L);
+
+        assertEquals("\"4.0\"", cache.tag(List.of(DataVersionCache.STOCKS, DataVersionCache.EXCHANGES), null));
+        assertEquals("\"0.4\"", cache.tag(List.of(DataVersionCache.EXCHANGES, DataVersionCache.STOCKS), null));
+    }
+
+    @Test
+    void qualifierIsNormalisedSoCurrencyCaseDoesNotSplitTheTag() {
+        versions.put(DataVersionCache.RATES, 2L);
+
+        assertEquals("\"2-USD\"", cache.tag(List.of(DataVersionCache.RATES), " usd "));
+        assertEquals("\"2-USD\"", cache.tag(List.of(DataVersionCache.RATES), "USD"));
+        assertEquals("\"2\"", cache.tag(List.of(DataVersionCache.RATES), " "));
+    }
+
+    @Test
+    void versionsAreReadOnceUntilBumped() {
+        versions.put(DataVersionCache.RATES, 1L);
+        cache.tag(List.of(DataVersionCache.RATES), null);
+        cache.tag(List.of(DataVersionCache.RATES), null);
+        verify(repository, times(1)).find(DataVersionCache.RATES);
+
+        cache.bump(DataVersionCache.RATES);
+
+        assertEquals("\"2\"", cache.tag(List.of(DataVersionCache.RATES), null));
+        verify(bus).publish(cache, CacheInvalidationEvent.EntityType.DATA_VERSION, DataVersionCache.RATES);
+    }
+
+    // Another node bumped the scopes, so only the named ones are re-read
+    @Test
+    void dataVersionEventEvictsTheNamedScopes() {
+        versions.put(DataVersionCache.STOCKS, 1L);
+        versions.put(DataVersionCache.RATES, 1L);
+        cache.tag(List.of(DataVersionCache.STOCKS, DataVersionCache.RATES), null);
+        versions.put(DataVersionCache.STOCKS, 5L);
+        versions.put(DataVersionCache.RATES, 5L);
+
+        cache.onInvalidation(new CacheInvalidationEvent(CacheInvalidationEvent.EntityType.DATA_VERSION, DataVersionCache.STOCKS + ",other", 1L, "node"));
+
+        assertEquals("\"5.1\"", cache.tag(List.of(DataVersionCache.STOCKS, DataVersionCache.RATES), null));
+        cache.onFlush();
+        assertEquals("\"5.5\"", cache.tag(List.of(DataVersionCache.STOCKS, DataVersionCache.RATES), null));
+    }
+
+    @Test
+    void holdersOfChangedStocksArePublishedInChunks() {
+        List<String> scopes = new ArrayList<>();
+        for (long userId = 0; userId < 450; userId++) {
+            scopes.add(DataVersionCache.userStatistics(userId));
+        }
+        when(repository.bumpHoldersOfStocks(anyString(), anyCollection())).thenReturn(scopes);
+
+        cache.bumpUserStatisticsForStocks(List.of(1L));
+
+        verify(bus, times(3)).publish(eq(cache), eq(CacheInvalidationEvent.EntityType.DATA_VERSION), anyString());
+        cache.bumpUserStatisticsForStocks(List.of());
+        verify(repository, times(1)).bumpHoldersOfStocks(anyString(), anyCollection());
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.investmentportfolio.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionHistoryTest {
+    private static final LocalDate BUY = LocalDate.parse("2025-01-10");
+    private static final LocalDate SELL = LocalDate.parse("2025-03-20");
+    private static final LocalDate EX_DATE = LocalDate.parse("2025-02-14");
+
+    private final PositionHistory history = new PositionHistory(7L,
+            new long[]{BUY.toEpochDay(), SELL.toEpochDay()},
+            new BigDecimal[]{new BigDecimal("100"), new BigDecimal("40")},
+            new BigDecimal[]{new BigDecimal("1000"), new BigDecimal("400")},
+            new BigDecimal[]{BigDecimal.ZERO, new BigDecimal("150")},
+            new long[]{EX_DATE.toEpochDay()},
+            new BigDecimal[]{new BigDecimal("25")});
+
+    @Test
+    void reportsNothingBeforeTheFirstTransaction() {
+        LocalDate before = BUY.minusDays(1);
+
+        assertFalse(history.isOpenedBy(before));
+        assertEquals(BigDecimal.ZERO, history.getUnits(before));
+        assertEquals(BigDecimal.ZERO, history.getCost(before));
+        assertEquals(BigDecimal.ZERO, history.getDividendsEarned(before));
+    }
+
+    @Test
+    void includesTransactionsAndDividendsOnTheirOwnDate() {
+        assertTrue(history.isOpenedBy(BUY));
+        assertEquals(new BigDecimal("100"), history.getUnits(BUY));
+        assertEquals(new BigDecimal("25"), history.getDividendsEarned(EX_DATE));
+        assertEquals(BigDecimal.ZERO, history.getDividendsEarned(EX_DATE.minusDays(1)));
+        assertEquals(new BigDecimal("150"), history.getRealizedProfits(SELL));
+    }
+
+    @Test
+    void carriesTheLastTotalsForwardBetweenEntries() {
+        LocalDate between = SELL.minusDays(1);
+        LocalDate after = SELL.plusYears(1);
+
+        assertEquals(new BigDecimal("100"), history.getUnits(between));
+        assertEquals(new BigDecimal("1000"), history.getCost(between));
+        assertEquals(BigDecimal.ZERO, history.getRealizedProfits(between));
+        assertEquals(new BigDecimal("40"), history.getUnits(after));
+        assertEquals(new BigDecimal("400"), history.getCost(after));
+        assertEquals(new BigDecimal("25"), history.getDividendsEarned(after));
+    }
+
+    @Test
+    void findsTheLastIndexOnOrBeforeADay() {
+        long[] days = {10, 20, 30};
+
+        assertEquals(-1, PositionHistory.lastIndexOnOrBefore(days, 9));
+        assertEquals(0, PositionHistory.lastIndexOnOrBefore(days, 10));
+        assertEquals(1, PositionHistory.lastIndexOnOrBefore(days, 29));
+        assertEquals(2, PositionHistory.lastIndexOnOrBefore(days, 31));
+        assertEquals(-1, PositionHistory.lastIndexOnOrBefore(new long[0], 5));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.investmentportfolio.controller;
+
+import com.example.investmentportfolio.cache.CacheInvalidationBus;
+import com.example.investmentportfolio.cache.DataVersionCache;
+import com.example.investmentportfolio.repository.DataVersionRepository;
+import com.example.investmentportfolio.service.RateService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class RateControllerTest {
+    private final Map<String, Long> versions = new HashMap<>();
+    private RateService rateService;
+    private DataVersionCache dataVersionCache;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        DataVersionRepository repository = mock(DataVersionRepository.class);
+        when(repository.find(anyString())).thenAnswer(invocation -> Optional.ofNullable(versions.get(invocation.<String>getArgument(0))));
+        doAnswer(invocation -> versions.merge(invocation.getArgument(0), 1L, Long::sum)).when(repository).bump(anyString());
+        dataVersionCache = new DataVersionCache(repository, mock(CacheInvalidationBus.class));
+        rateService = mock(RateService.class);
+        when(rateService.getAllRates()).thenReturn(List.of());
+        mockMvc = MockMvcBuilders.standaloneSetup(new RateController(rateService, dataVersionCache)).build();
+    }
+
+    @Test
+    void matchingTagIsAnsweredWithoutLoadingRates() throws Exception {
+        String eTag = mockMvc.perform(get("/rates/all"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/rates/all").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        verify(rateService, times(1)).getAllRates();
+    }
+
+    // Two refreshes within the same second still produce different tags, which a Last-Modified date could not tell apart
+    @Test
+    void everyRateWriteChangesTheTag() throws Exception {
+        dataVersionCache.bump(DataVersionCache.RATES);
+        mockMvc.perform(get("/rates/all").header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        dataVersionCache.bump(DataVersionCache.RATES);
+        mockMvc.perform(get("/rates/all").header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+    }
+}
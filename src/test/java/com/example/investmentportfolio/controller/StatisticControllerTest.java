@@ -0,0 +1,109 @@
+package com.example.investmentportfolio.controller;
+
+import com.example.investmentportfolio.cache.CacheInvalidationBus;
+import com.example.investmentportfolio.cache.DataVersionCache;
+import com.example.investmentportfolio.dto.PortfolioStatisticsDto;
+import com.example.investmentportfolio.dto.PortfolioSummaryDto;
+import com.example.investmentportfolio.repository.DataVersionRepository;
+import com.example.investmentportfolio.service.AllocationService;
+import com.example.investmentportfolio.service.ReturnService;
+import com.example.investmentportfolio.service.StatisticService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class StatisticControllerTest {
+    private final Map<String, Long> versions = new HashMap<>();
+    private StatisticService statisticService;
+    private DataVersionCache dataVersionCache;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        DataVersionRepository repository = mock(DataVersionRepository.class);
+        when(repository.find(anyString())).thenAnswer(invocation -> Optional.ofNullable(versions.get(invocation.<String>getArgument(0))));
+        doAnswer(invocation -> versions.merge(invocation.getArgument(0), 1L, Long::sum)).when(repository).bump(anyString());
+        dataVersionCache = new DataVersionCache(repository, mock(CacheInvalidationBus.class));
+        statisticService = mock(StatisticService.class);
+        when(statisticService.getPortfolioStatistics(anyLong(), any())).thenReturn(new PortfolioStatisticsDto(3L, List.of(), new PortfolioSummaryDto()));
+        mockMvc = MockMvcBuilders.standaloneSetup(new StatisticController(statisticService, mock(ReturnService.class), mock(AllocationService.class),
+                dataVersionCache)).build();
+    }
+
+    @Test
+    void matchingTagIsAnsweredWithoutLoadingStatistics() throws Exception {
+        String eTag = fetchTag("/statistics/userId/1", null);
+
+        mockMvc.perform(get("/statistics/userId/1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/statistics/userId/1/summary").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        verify(statisticService, times(1)).getPortfolioStatistics(anyLong(), any());
+    }
+
+    // Rows carry the exchange name and are converted at read time, so a rename or a new rate must change the tag
+    @Test
+    void writesToTheUserRatesOrExchangesChangeTheTag() throws Exception {
+        String eTag = fetchTag("/statistics/userId/1", null);
+
+        for (String scope : List.of(DataVersionCache.userStatistics(1L), DataVersionCache.RATES, DataVersionCache.EXCHANGES)) {
+            dataVersionCache.bump(scope);
+            String bumped = mockMvc.perform(get("/statistics/userId/1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            assertNotEquals(eTag, bumped);
+            eTag = bumped;
+        }
+    }
+
+    @Test
+    void anotherUsersWriteKeepsTheTag() throws Exception {
+        String eTag = fetchTag("/statistics/userId/1", null);
+
+        dataVersionCache.bump(DataVersionCache.userStatistics(2L));
+
+        mockMvc.perform(get("/statistics/userId/1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void tagIsQualifiedByTheRequestedCurrency() throws Exception {
+        String usd = fetchTag("/statistics/userId/1", "usd");
+
+        assertTrue(usd.endsWith("-USD\""));
+        assertNotEquals(usd, fetchTag("/statistics/userId/1", "SGD"));
+        assertNotEquals(usd, fetchTag("/statistics/userId/1", null));
+        mockMvc.perform(get("/statistics/userId/1").param("currency", "SGD").header(HttpHeaders.IF_NONE_MATCH, usd))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/statistics/userId/1").param("currency", "USD").header(HttpHeaders.IF_NONE_MATCH, usd))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void noLastModifiedIsAdvertised() throws Exception {
+        mockMvc.perform(get("/statistics/userId/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(StatisticController.STATISTICS_VERSION_HEADER, "3"));
+    }
+
+    private String fetchTag(String path, String currency) throws Exception {
+        return mockMvc.perform(currency == null ? get(path) : get(path).param("currency", currency))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.investmentportfolio.controller;
+
+import com.example.investmentportfolio.cache.CacheInvalidationBus;
+import com.example.investmentportfolio.cache.DataVersionCache;
+import com.example.investmentportfolio.repository.DataVersionRepository;
+import com.example.investmentportfolio.service.StockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class StockControllerTest {
+    private final Map<String, Long> versions = new HashMap<>();
+    private StockService stockService;
+    private DataVersionCache dataVersionCache;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        DataVersionRepository repository = mock(DataVersionRepository.class);
+        when(repository.find(anyString())).thenAnswer(invocation -> Optional.ofNullable(versions.get(invocation.<String>getArgument(0))));
+        doAnswer(invocation -> versions.merge(invocation.getArgument(0), 1L, Long::sum)).when(repository).bump(anyString());
+        dataVersionCache = new DataVersionCache(repository, mock(CacheInvalidationBus.class));
+        stockService = mock(StockService.class);
+        when(stockService.getAllStocks()).thenReturn(List.of());
+        mockMvc = MockMvcBuilders.standaloneSetup(new StockController(stockService, dataVersionCache)).build();
+    }
+
+    @Test
+    void matchingTagIsAnsweredWithoutLoadingStocks() throws Exception {
+        mockMvc.perform(get("/stocks/all").header(HttpHeaders.IF_NONE_MATCH, "\"0.0\""))
+                .andExpect(status().isNotModified());
+        verify(stockService, never()).getAllStocks();
+    }
+
+    // Each stock carries its exchange name, so an exchange rename must change the tag too
+    @Test
+    void stockOrExchangeWriteChangesTheTag() throws Exception {
+        dataVersionCache.bump(DataVersionCache.STOCKS);
+        mockMvc.perform(get("/stocks/all").header(HttpHeaders.IF_NONE_MATCH, "\"0.0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1.0\""));
+
+        dataVersionCache.bump(DataVersionCache.EXCHANGES);
+        mockMvc.perform(get("/stocks/all").header(HttpHeaders.IF_NONE_MATCH, "\"1.0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1.1\""));
+        verify(stockService, times(2)).getAllStocks();
+    }
+}
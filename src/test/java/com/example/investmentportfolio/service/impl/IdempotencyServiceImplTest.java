@@ -0,0 +1,128 @@
+package com.example.investmentportfolio.service.impl;
+
+import com.example.investmentportfolio.repository.IdempotencyKeyRepository;
+import com.example.investmentportfolio.repository.IdempotencyKeyRepository.IdempotencyKey;
+import com.example.investmentportfolio.util.ConflictException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IdempotencyServiceImplTest {
+    private static final String ENDPOINT = "/transactions/create";
+    private static final String KEY = "key-1";
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private IdempotencyKeyRepository repository;
+    private PlatformTransactionManager transactionManager;
+    private TransactionStatus transactionStatus;
+    private IdempotencyServiceImpl service;
+    private final AtomicInteger actionRuns = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(IdempotencyKeyRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        transactionStatus = mock(TransactionStatus.class);
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        service = new IdempotencyServiceImpl(repository, transactionManager, objectMapper, 24, 60, 100);
+    }
+
+    // Another node holds the key: the reservation loses the race on the primary key and the action never runs
+    @Test
+    void concurrentDuplicateIsRejectedWithoutRunningTheAction() {
+        when(repository.find(ENDPOINT, KEY)).thenReturn(Optional.empty());
+        when(repository.reserve(eq(ENDPOINT), eq(KEY), anyString(), anyString(), any(), any(), any())).thenReturn(false);
+
+        assertThrows(ConflictException.class, this::execute);
+        assertEquals(0, actionRuns.get());
+        verify(repository, never()).complete(any(), any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void duplicateWithinTheLeaseIsRejectedBeforeReserving() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        when(repository.find(ENDPOINT, KEY)).thenReturn(Optional.of(new IdempotencyKey(hash("body"), null, null, now.plusSeconds(30), now.plusHours(1))));
+
+        assertThrows(ConflictException.class, this::execute);
+        assertEquals(0, actionRuns.get());
+        verify(repository, never()).reserve(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    // The node that reserved the key died, so once its lease runs out the retry takes the key over under a new token
+    @Test
+    void expiredLeaseIsTakenOverAndCompletedWithTheNewToken() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        when(repository.find(ENDPOINT, KEY)).thenReturn(Optional.of(new IdempotencyKey(hash("body"), null, null, now.minusSeconds(1), now.plusHours(1))));
+        when(repository.reserve(eq(ENDPOINT), eq(KEY), anyString(), anyString(), any(), any(), any())).thenReturn(true);
+        when(repository.complete(eq(ENDPOINT), eq(KEY), anyString(), anyInt(), any())).thenReturn(true);
+
+        ResponseEntity<String> response = execute();
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(1, actionRuns.get());
+        ArgumentCaptor<String> reservedToken = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> completedToken = ArgumentCaptor.forClass(String.class);
+        verify(repository).reserve(eq(ENDPOINT), eq(KEY), eq(hash("body")), reservedToken.capture(), any(), any(), any());
+        verify(repository).complete(eq(ENDPOINT), eq(KEY), completedToken.capture(), eq(201), eq("\"created\""));
+        assertEquals(reservedToken.getValue(), completedToken.getValue());
+        verify(transactionManager).commit(transactionStatus);
+    }
+
+    // This request's lease expired mid-action and another one took the key over, so its create is rolled back and the
+    // new owner's row is left alone
+    @Test
+    void lostLeaseRollsTheActionBackAndKeepsTheNewOwnersRow() {
+        when(repository.find(ENDPOINT, KEY)).thenReturn(Optional.empty());
+        when(repository.reserve(eq(ENDPOINT), eq(KEY), anyString(), anyString(), any(), any(), any())).thenReturn(true);
+        when(repository.complete(eq(ENDPOINT), eq(KEY), anyString(), anyInt(), any())).thenReturn(false);
+
+        assertThrows(ConflictException.class, this::execute);
+
+        assertEquals(1, actionRuns.get());
+        verify(transactionManager).rollback(transactionStatus);
+        verify(transactionManager, never()).commit(any());
+        ArgumentCaptor<String> reservedToken = ArgumentCaptor.forClass(String.class);
+        verify(repository).reserve(eq(ENDPOINT), eq(KEY), anyString(), reservedToken.capture(), any(), any(), any());
+        verify(repository).release(ENDPOINT, KEY, reservedToken.getValue());
+    }
+
+    @Test
+    void completedKeyIsReplayedFromTheDatabaseThenFromMemory() throws Exception {
+        when(repository.find(ENDPOINT, KEY)).thenReturn(Optional.of(new IdempotencyKey(hash("body"), 201, "\"created\"", null, LocalDateTime.now().plusHours(1))));
+
+        ResponseEntity<String> first = execute();
+        ResponseEntity<String> second = execute();
+
+        assertEquals("created", first.getBody());
+        assertEquals("true", second.getHeaders().getFirst(IdempotencyServiceImpl.REPLAYED_HEADER));
+        assertEquals(0, actionRuns.get());
+        verify(repository, times(1)).find(ENDPOINT, KEY);
+    }
+
+    private ResponseEntity<String> execute() {
+        return service.execute(ENDPOINT, KEY, "body", String.class, () -> {
+            actionRuns.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.CREATED).body("created");
+        });
+    }
+
+    private String hash(Object request) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest);
+    }
+}
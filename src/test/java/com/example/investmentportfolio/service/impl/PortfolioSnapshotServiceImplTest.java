@@ -0,0 +1,180 @@
+package com.example.investmentportfolio.service.impl;
+
+import com.example.investmentportfolio.cache.RateCache;
+import com.example.investmentportfolio.model.Dividend;
+import com.example.investmentportfolio.model.PortfolioSnapshot;
+import com.example.investmentportfolio.model.Stock;
+import com.example.investmentportfolio.model.Transaction;
+import com.example.investmentportfolio.model.User;
+import com.example.investmentportfolio.provider.PriceBar;
+import com.example.investmentportfolio.repository.DividendRepository;
+import com.example.investmentportfolio.repository.PortfolioSnapshotRepository;
+import com.example.investmentportfolio.repository.PriceHistoryRepository;
+import com.example.investmentportfolio.repository.StockRepository;
+import com.example.investmentportfolio.repository.TransactionRepository;
+import com.example.investmentportfolio.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PortfolioSnapshotServiceImplTest {
+    private static final Long USER_ID = 1L;
+    private static final Long STOCK_ID = 7L;
+    private static final LocalDate DAY_0 = LocalDate.of(2025, 3, 3);
+    private static final LocalDate DAY_1 = DAY_0.plusDays(1);
+    private static final LocalDate DAY_2 = DAY_0.plusDays(2);
+    private static final LocalDate DAY_3 = DAY_0.plusDays(3);
+    private PortfolioSnapshotRepository snapshotRepository;
+    private TransactionRepository transactionRepository;
+    private DividendRepository dividendRepository;
+    private PriceHistoryRepository priceHistoryRepository;
+    private PortfolioSnapshotServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        snapshotRepository = mock(PortfolioSnapshotRepository.class);
+        transactionRepository = mock(TransactionRepository.class);
+        dividendRepository = mock(DividendRepository.class);
+        priceHistoryRepository = mock(PriceHistoryRepository.class);
+        StockRepository stockRepository = mock(StockRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        RateCache rateCache = mock(RateCache.class);
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(new User(USER_ID, "user", null, null, null, null, "SGD")));
+        when(stockRepository.findById(STOCK_ID)).thenReturn(Optional.of(new Stock(STOCK_ID, "D05", "DBS", "Stock", 1L, "SGX", "20", "SGD", "Y", "N")));
+        when(rateCache.getRate(anyString(), anyString())).thenReturn(BigDecimal.ONE);
+        service = new PortfolioSnapshotServiceImpl(snapshotRepository, transactionRepository, dividendRepository, stockRepository, priceHistoryRepository,
+                rateCache, userRepository);
+    }
+
+    // A buy backdated into the stored history reaches every later day, starting from the last snapshot before it
+    @Test
+    void rebuildReplaysEveryStoredDayFromThePreviousSnapshot() {
+        storedDays(DAY_1, DAY_2, DAY_3);
+        when(snapshotRepository.getLatestSnapshotDateBefore(USER_ID, DAY_1.toString())).thenReturn(DAY_0.toString());
+        when(snapshotRepository.findByUserIdAndSnapshotDate(USER_ID, DAY_0.toString())).thenReturn(List.of(snapshot(DAY_0, "10", "100", "100")));
+        when(transactionRepository.findByUserIdAndDateRange(USER_ID, DAY_0.toString(), DAY_3.toString())).thenReturn(List.of(transaction(DAY_2, "Buy", "5", "12")));
+
+        assertEquals(3, service.rebuildSnapshots(USER_ID, DAY_1));
+
+        List<PortfolioSnapshot> saved = savedSnapshots();
+        assertEquals(List.of(DAY_1, DAY_2, DAY_3), saved.stream().map(PortfolioSnapshot::getSnapshotDate).toList());
+        assertAmounts(List.of("10", "15", "15"), saved.stream().map(PortfolioSnapshot::getTotalUnits).toList());
+        assertAmounts(List.of("100", "160", "160"), saved.stream().map(PortfolioSnapshot::getTotalCost).toList());
+        for (LocalDate day : List.of(DAY_1, DAY_2, DAY_3)) {
+            verify(snapshotRepository).deleteByUserIdAndSnapshotDate(USER_ID, day.toString());
+        }
+    }
+
+    // Past days keep their own close rather than today's last price; a day without a bar uses the latest close before it
+    @Test
+    void rebuildValuesPastDaysAtTheirStoredClose() {
+        storedDays(DAY_1, DAY_2, DAY_3);
+        when(transactionRepository.findByUserIdAndDateRange(eq(USER_ID), anyString(), eq(DAY_3.toString()))).thenReturn(List.of(transaction(DAY_1, "Buy", "10", "10")));
+        when(priceHistoryRepository.findBars(eq(STOCK_ID), any(), eq(DAY_3))).thenReturn(List.of(bar(DAY_1, "11"), bar(DAY_2, "13")));
+
+        service.rebuildSnapshots(USER_ID, DAY_1);
+
+        assertAmounts(List.of("110", "130", "130"), savedSnapshots().stream().map(PortfolioSnapshot::getTotalValue).toList());
+    }
+
+    // Without any stored close the price implied by the row being replaced is kept, so a rebuild does not revalue history at today's
+    // price; only a day with neither is valued at the last price
+    @Test
+    void rebuildFallsBackToThePriceOfTheReplacedRow() {
+        storedDays(DAY_1, DAY_2);
+        when(transactionRepository.findByUserIdAndDateRange(eq(USER_ID), anyString(), eq(DAY_2.toString())))
+                .thenReturn(List.of(transaction(DAY_1, "Buy", "10", "10"), transaction(DAY_2, "Buy", "5", "10")));
+        when(snapshotRepository.findByUserIdAndSnapshotDate(USER_ID, DAY_1.toString())).thenReturn(List.of(snapshot(DAY_1, "10", "100", "120")));
+
+        service.rebuildSnapshots(USER_ID, DAY_1);
+
+        assertAmounts(List.of("120", "300"), savedSnapshots().stream().map(PortfolioSnapshot::getTotalValue).toList());
+    }
+
+    // Dividends count the units held at the end of the ex date, after that day's buys and sells
+    @Test
+    void dividendUsesUnitsAfterTheExDatesTransactions() {
+        storedDays(DAY_1, DAY_2);
+        when(transactionRepository.findByUserIdAndDateRange(eq(USER_ID), anyString(), eq(DAY_2.toString())))
+                .thenReturn(List.of(transaction(DAY_1, "Buy", "10", "10"), transaction(DAY_2, "Sell", "4", "12")));
+        when(dividendRepository.findByStockIdAndExDateRange(eq(STOCK_ID), anyString(), eq(DAY_2.toString())))
+                .thenReturn(List.of(new Dividend(1L, STOCK_ID, "D05", 1L, "SGX", DAY_2.toString(), null, "0.5")));
+
+        service.rebuildSnapshots(USER_ID, DAY_1);
+
+        List<PortfolioSnapshot> saved = savedSnapshots();
+        assertAmounts(List.of("0", "3"), saved.stream().map(PortfolioSnapshot::getDividendsEarned).toList());
+        assertAmounts(List.of("0", "8"), saved.stream().map(PortfolioSnapshot::getRealizedProfits).toList());
+        assertAmounts(List.of("10", "6"), saved.stream().map(PortfolioSnapshot::getTotalUnits).toList());
+    }
+
+    @Test
+    void rebuildWithoutStoredDaysWritesNothing() {
+        when(snapshotRepository.findSnapshotDatesFrom(USER_ID, DAY_1.toString())).thenReturn(List.of());
+
+        assertEquals(0, service.rebuildSnapshots(USER_ID, DAY_1));
+
+        verify(snapshotRepository, never()).deleteByUserIdAndSnapshotDate(any(), any());
+        verify(snapshotRepository, never()).saveAll(any());
+    }
+
+    // A holder of several changed stocks is replayed once, from the earliest change
+    @Test
+    void stockRebuildReplaysEachHolderOnceFromTheEarliestDate() {
+        when(transactionRepository.findUserIdsByStockId(STOCK_ID)).thenReturn(List.of(USER_ID, 2L));
+        when(transactionRepository.findUserIdsByStockId(8L)).thenReturn(List.of(USER_ID));
+        when(snapshotRepository.findSnapshotDatesFrom(anyLong(), anyString())).thenReturn(List.of());
+
+        service.rebuildSnapshotsForStocks(Map.of(STOCK_ID, DAY_2, 8L, DAY_1));
+
+        verify(snapshotRepository).findSnapshotDatesFrom(USER_ID, DAY_1.toString());
+        verify(snapshotRepository).findSnapshotDatesFrom(2L, DAY_2.toString());
+        verifyNoMoreInteractions(snapshotRepository);
+    }
+
+    private void storedDays(LocalDate... days) {
+        when(snapshotRepository.findSnapshotDatesFrom(USER_ID, days[0].toString())).thenReturn(Arrays.stream(days).map(LocalDate::toString).toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<PortfolioSnapshot> savedSnapshots() {
+        ArgumentCaptor<List<PortfolioSnapshot>> captor = ArgumentCaptor.forClass(List.class);
+        verify(snapshotRepository, atLeastOnce()).saveAll(captor.capture());
+        List<PortfolioSnapshot> saved = new ArrayList<>();
+        captor.getAllValues().forEach(saved::addAll);
+        return saved;
+    }
+
+    private static Transaction transaction(LocalDate date, String type, String units, String unitPrice) {
+        return new Transaction(null, USER_ID, "user", date.toString(), type, STOCK_ID, "D05", "SGX", units, unitPrice, "SGD", "0");
+    }
+
+    private static PortfolioSnapshot snapshot(LocalDate date, String units, String cost, String value) {
+        return new PortfolioSnapshot(null, USER_ID, STOCK_ID, date, new BigDecimal(units), new BigDecimal(units), new BigDecimal(cost), new BigDecimal(value),
+                BigDecimal.ZERO, new BigDecimal(value).subtract(new BigDecimal(cost)), BigDecimal.ZERO, new BigDecimal(value).subtract(new BigDecimal(cost)));
+    }
+
+    private static PriceBar bar(LocalDate date, String close) {
+        BigDecimal price = new BigDecimal(close);
+        return new PriceBar(date, price, price, price, price, price, 0);
+    }
+
+    private static void assertAmounts(List<String> expected, List<BigDecimal> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(0, new BigDecimal(expected.get(i)).compareTo(actual.get(i)), "index " + i + ": " + actual.get(i));
+        }
+    }
+}
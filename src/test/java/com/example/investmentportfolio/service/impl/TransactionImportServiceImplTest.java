@@ -0,0 +1,47 @@
+package com.example.investmentportfolio.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionImportServiceImplTest {
+
+    @Test
+    void splitsPlainFields() {
+        assertEquals(List.of("1", "2025-01-10", "Buy", "D05", "100", "35.2", "1.5", "SGD"),
+                TransactionImportServiceImpl.splitCsv("1,2025-01-10,Buy,D05,100,35.2,1.5,SGD"));
+    }
+
+    @Test
+    void keepsCommasAndDoubledQuotesInsideQuotedFields() {
+        assertEquals(List.of("1", "1,000", "say \"hi\"", ""),
+                TransactionImportServiceImpl.splitCsv("1,\"1,000\",\"say \"\"hi\"\"\","));
+    }
+
+    @Test
+    void keepsEmptyFields() {
+        assertEquals(List.of("", "", ""), TransactionImportServiceImpl.splitCsv(",,"));
+        assertEquals(List.of(""), TransactionImportServiceImpl.splitCsv(""));
+    }
+
+    // Lines are read with readLine, which drops the CR of a CRLF ending before the splitter sees the line
+    @Test
+    void splitsCrlfLinesWithoutCarriageReturns() throws IOException {
+        BufferedReader reader = new BufferedReader(new StringReader("userId,units\r\n1,\"1,000\"\r\n2,5\r\n"));
+
+        assertEquals(List.of("userId", "units"), TransactionImportServiceImpl.splitCsv(reader.readLine()));
+        assertEquals(List.of("1", "1,000"), TransactionImportServiceImpl.splitCsv(reader.readLine()));
+        assertEquals(List.of("2", "5"), TransactionImportServiceImpl.splitCsv(reader.readLine()));
+        assertNull(reader.readLine());
+    }
+
+    @Test
+    void rejectsAnUnterminatedQuotedField() {
+        assertThrows(IllegalArgumentException.class, () -> TransactionImportServiceImpl.splitCsv("1,\"unterminated"));
+    }
+}